@@ -3019,6 +3019,790 @@ public final class ArrayServiceUtil {
         }
     }
 
+    // Parallel reverse, swap and shift
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the number of elements up to which the {@code parallel*} methods work in the calling thread. Larger
+     * ranges are split on the common fork-join pool into parts of at most this size.
+     *
+     * @return the threshold, {@value ParallelArrays#DEFAULT_PARALLEL_THRESHOLD} by default
+     */
+    public static int getParallelThreshold() {
+        return ParallelArrays.parallelThreshold();
+    }
+
+    /**
+     * Sets the number of elements up to which the {@code parallel*} methods work in the calling thread.
+     *
+     * @param threshold a positive number of elements
+     * @see #getParallelThreshold()
+     */
+    public static void setParallelThreshold(final int threshold) {
+        ParallelArrays.setParallelThreshold(threshold);
+    }
+
+    /**
+     * Reverses the order of the given Object array like {@link #reverse(Object[])}, in parallel for large arrays.
+     *
+     * @param array  the array to reverse, may be {@code null}
+     */
+    public static void parallelReverse(final Object[] array) {
+        if (array == null) {
+            return;
+        }
+        parallelReverse(array, 0, array.length);
+    }
+
+    /**
+     * Reverses the order of the given Object array in the given range like {@link #reverse(Object[], int, int)}, in
+     * parallel for large ranges.
+     *
+     * @param array  the array to reverse, may be {@code null}
+     * @param startIndexInclusive  the starting index, promoted to 0 if negative
+     * @param endIndexExclusive  elements up to endIndex-1 are reversed, demoted to the array length if larger
+     */
+    public static void parallelReverse(final Object[] array, final int startIndexInclusive,
+                                       final int endIndexExclusive) {
+        if (array == null) {
+            return;
+        }
+        final int start = Math.max(startIndexInclusive, 0);
+        final int last = Math.min(array.length, endIndexExclusive) - 1;
+        ParallelArrays.forRange(0, (last - start + 1) / 2, (from, to) -> {
+            for (int i = start + from, j = last - from; i < start + to; i++, j--) {
+                final Object tmp = array[i];
+                array[i] = array[j];
+                array[j] = tmp;
+            }
+        });
+    }
+
+    /**
+     * Swaps a series of elements in the given Object array like {@link #swap(Object[], int, int, int)}, in parallel for
+     * long series that do not overlap.
+     *
+     * @param array the array to swap, may be {@code null}
+     * @param offset1 the index of the first element in the series to swap
+     * @param offset2 the index of the second element in the series to swap
+     * @param len the number of elements to swap starting with the given indices
+     */
+    public static void parallelSwap(final Object[] array, final int offset1, final int offset2, final int len) {
+        if (array != null && !ParallelArrays.swap(array, array.length, offset1, offset2, len)) {
+            swap(array, offset1, offset2, len);
+        }
+    }
+
+    /**
+     * Shifts the order of the given Object array like {@link #shift(Object[], int)}, moving blocks with
+     * {@code System.arraycopy}. Rotations by at most 16384 positions either way run in the calling thread; larger
+     * ones are done by three reversals, in parallel for large arrays.
+     *
+     * @param array  the array to shift, may be {@code null}
+     * @param offset  the number of positions to rotate the elements, modulo the array length
+     */
+    public static void parallelShift(final Object[] array, final int offset) {
+        if (array == null) {
+            return;
+        }
+        parallelShift(array, 0, array.length, offset);
+    }
+
+    /**
+     * Shifts the order of a series of elements in the given Object array like {@link #shift(Object[], int, int, int)},
+     * moving blocks with {@code System.arraycopy}. Rotations by at most 16384 positions either way run in the calling
+     * thread; larger ones are done by three reversals, in parallel for large ranges.
+     *
+     * @param array  the array to shift, may be {@code null}
+     * @param startIndexInclusive  the starting index, promoted to 0 if negative
+     * @param endIndexExclusive  elements up to endIndex-1 are shifted, demoted to the array length if larger
+     * @param offset  the number of positions to rotate the elements, modulo the number of elements to rotate
+     */
+    public static void parallelShift(final Object[] array, final int startIndexInclusive, final int endIndexExclusive,
+                                     final int offset) {
+        if (array == null) {
+            return;
+        }
+        ParallelArrays.shift(array, array.length, startIndexInclusive, endIndexExclusive, offset,
+                (from, to) -> parallelReverse(array, from, to));
+    }
+
+    /**
+     * Reverses the order of the given long array like {@link #reverse(long[])}, in parallel for large arrays.
+     *
+     * @param array  the array to reverse, may be {@code null}
+     */
+    public static void parallelReverse(final long[] array) {
+        if (array == null) {
+            return;
+        }
+        parallelReverse(array, 0, array.length);
+    }
+
+    /**
+     * Reverses the order of the given long array in the given range like {@link #reverse(long[], int, int)}, in
+     * parallel for large ranges.
+     *
+     * @param array  the array to reverse, may be {@code null}
+     * @param startIndexInclusive  the starting index, promoted to 0 if negative
+     * @param endIndexExclusive  elements up to endIndex-1 are reversed, demoted to the array length if larger
+     */
+    public static void parallelReverse(final long[] array, final int startIndexInclusive, final int endIndexExclusive) {
+        if (array == null) {
+            return;
+        }
+        final int start = Math.max(startIndexInclusive, 0);
+        final int last = Math.min(array.length, endIndexExclusive) - 1;
+        ParallelArrays.forRange(0, (last - start + 1) / 2, (from, to) -> {
+            for (int i = start + from, j = last - from; i < start + to; i++, j--) {
+                final long tmp = array[i];
+                array[i] = array[j];
+                array[j] = tmp;
+            }
+        });
+    }
+
+    /**
+     * Swaps a series of elements in the given long array like {@link #swap(long[], int, int, int)}, in parallel for
+     * long series that do not overlap.
+     *
+     * @param array the array to swap, may be {@code null}
+     * @param offset1 the index of the first element in the series to swap
+     * @param offset2 the index of the second element in the series to swap
+     * @param len the number of elements to swap starting with the given indices
+     */
+    public static void parallelSwap(final long[] array, final int offset1, final int offset2, final int len) {
+        if (array != null && !ParallelArrays.swap(array, array.length, offset1, offset2, len)) {
+            swap(array, offset1, offset2, len);
+        }
+    }
+
+    /**
+     * Shifts the order of the given long array like {@link #shift(long[], int)}, moving blocks with
+     * {@code System.arraycopy}. Rotations by at most 16384 positions either way run in the calling thread; larger
+     * ones are done by three reversals, in parallel for large arrays.
+     *
+     * @param array  the array to shift, may be {@code null}
+     * @param offset  the number of positions to rotate the elements, modulo the array length
+     */
+    public static void parallelShift(final long[] array, final int offset) {
+        if (array == null) {
+            return;
+        }
+        parallelShift(array, 0, array.length, offset);
+    }
+
+    /**
+     * Shifts the order of a series of elements in the given long array like {@link #shift(long[], int, int, int)},
+     * moving blocks with {@code System.arraycopy}. Rotations by at most 16384 positions either way run in the calling
+     * thread; larger ones are done by three reversals, in parallel for large ranges.
+     *
+     * @param array  the array to shift, may be {@code null}
+     * @param startIndexInclusive  the starting index, promoted to 0 if negative
+     * @param endIndexExclusive  elements up to endIndex-1 are shifted, demoted to the array length if larger
+     * @param offset  the number of positions to rotate the elements, modulo the number of elements to rotate
+     */
+    public static void parallelShift(final long[] array, final int startIndexInclusive, final int endIndexExclusive,
+                                     final int offset) {
+        if (array == null) {
+            return;
+        }
+        ParallelArrays.shift(array, array.length, startIndexInclusive, endIndexExclusive, offset,
+                (from, to) -> parallelReverse(array, from, to));
+    }
+
+    /**
+     * Reverses the order of the given int array like {@link #reverse(int[])}, in parallel for large arrays.
+     *
+     * @param array  the array to reverse, may be {@code null}
+     */
+    public static void parallelReverse(final int[] array) {
+        if (array == null) {
+            return;
+        }
+        parallelReverse(array, 0, array.length);
+    }
+
+    /**
+     * Reverses the order of the given int array in the given range like {@link #reverse(int[], int, int)}, in
+     * parallel for large ranges.
+     *
+     * @param array  the array to reverse, may be {@code null}
+     * @param startIndexInclusive  the starting index, promoted to 0 if negative
+     * @param endIndexExclusive  elements up to endIndex-1 are reversed, demoted to the array length if larger
+     */
+    public static void parallelReverse(final int[] array, final int startIndexInclusive, final int endIndexExclusive) {
+        if (array == null) {
+            return;
+        }
+        final int start = Math.max(startIndexInclusive, 0);
+        final int last = Math.min(array.length, endIndexExclusive) - 1;
+        ParallelArrays.forRange(0, (last - start + 1) / 2, (from, to) -> {
+            for (int i = start + from, j = last - from; i < start + to; i++, j--) {
+                final int tmp = array[i];
+                array[i] = array[j];
+                array[j] = tmp;
+            }
+        });
+    }
+
+    /**
+     * Swaps a series of elements in the given int array like {@link #swap(int[], int, int, int)}, in parallel for
+     * long series that do not overlap.
+     *
+     * @param array the array to swap, may be {@code null}
+     * @param offset1 the index of the first element in the series to swap
+     * @param offset2 the index of the second element in the series to swap
+     * @param len the number of elements to swap starting with the given indices
+     */
+    public static void parallelSwap(final int[] array, final int offset1, final int offset2, final int len) {
+        if (array != null && !ParallelArrays.swap(array, array.length, offset1, offset2, len)) {
+            swap(array, offset1, offset2, len);
+        }
+    }
+
+    /**
+     * Shifts the order of the given int array like {@link #shift(int[], int)}, moving blocks with
+     * {@code System.arraycopy}. Rotations by at most 16384 positions either way run in the calling thread; larger
+     * ones are done by three reversals, in parallel for large arrays.
+     *
+     * @param array  the array to shift, may be {@code null}
+     * @param offset  the number of positions to rotate the elements, modulo the array length
+     */
+    public static void parallelShift(final int[] array, final int offset) {
+        if (array == null) {
+            return;
+        }
+        parallelShift(array, 0, array.length, offset);
+    }
+
+    /**
+     * Shifts the order of a series of elements in the given int array like {@link #shift(int[], int, int, int)},
+     * moving blocks with {@code System.arraycopy}. Rotations by at most 16384 positions either way run in the calling
+     * thread; larger ones are done by three reversals, in parallel for large ranges.
+     *
+     * @param array  the array to shift, may be {@code null}
+     * @param startIndexInclusive  the starting index, promoted to 0 if negative
+     * @param endIndexExclusive  elements up to endIndex-1 are shifted, demoted to the array length if larger
+     * @param offset  the number of positions to rotate the elements, modulo the number of elements to rotate
+     */
+    public static void parallelShift(final int[] array, final int startIndexInclusive, final int endIndexExclusive,
+                                     final int offset) {
+        if (array == null) {
+            return;
+        }
+        ParallelArrays.shift(array, array.length, startIndexInclusive, endIndexExclusive, offset,
+                (from, to) -> parallelReverse(array, from, to));
+    }
+
+    /**
+     * Reverses the order of the given short array like {@link #reverse(short[])}, in parallel for large arrays.
+     *
+     * @param array  the array to reverse, may be {@code null}
+     */
+    public static void parallelReverse(final short[] array) {
+        if (array == null) {
+            return;
+        }
+        parallelReverse(array, 0, array.length);
+    }
+
+    /**
+     * Reverses the order of the given short array in the given range like {@link #reverse(short[], int, int)}, in
+     * parallel for large ranges.
+     *
+     * @param array  the array to reverse, may be {@code null}
+     * @param startIndexInclusive  the starting index, promoted to 0 if negative
+     * @param endIndexExclusive  elements up to endIndex-1 are reversed, demoted to the array length if larger
+     */
+    public static void parallelReverse(final short[] array, final int startIndexInclusive,
+                                       final int endIndexExclusive) {
+        if (array == null) {
+            return;
+        }
+        final int start = Math.max(startIndexInclusive, 0);
+        final int last = Math.min(array.length, endIndexExclusive) - 1;
+        ParallelArrays.forRange(0, (last - start + 1) / 2, (from, to) -> {
+            for (int i = start + from, j = last - from; i < start + to; i++, j--) {
+                final short tmp = array[i];
+                array[i] = array[j];
+                array[j] = tmp;
+            }
+        });
+    }
+
+    /**
+     * Swaps a series of elements in the given short array like {@link #swap(short[], int, int, int)}, in parallel for
+     * long series that do not overlap.
+     *
+     * @param array the array to swap, may be {@code null}
+     * @param offset1 the index of the first element in the series to swap
+     * @param offset2 the index of the second element in the series to swap
+     * @param len the number of elements to swap starting with the given indices
+     */
+    public static void parallelSwap(final short[] array, final int offset1, final int offset2, final int len) {
+        if (array != null && !ParallelArrays.swap(array, array.length, offset1, offset2, len)) {
+            swap(array, offset1, offset2, len);
+        }
+    }
+
+    /**
+     * Shifts the order of the given short array like {@link #shift(short[], int)}, moving blocks with
+     * {@code System.arraycopy}. Rotations by at most 16384 positions either way run in the calling thread; larger
+     * ones are done by three reversals, in parallel for large arrays.
+     *
+     * @param array  the array to shift, may be {@code null}
+     * @param offset  the number of positions to rotate the elements, modulo the array length
+     */
+    public static void parallelShift(final short[] array, final int offset) {
+        if (array == null) {
+            return;
+        }
+        parallelShift(array, 0, array.length, offset);
+    }
+
+    /**
+     * Shifts the order of a series of elements in the given short array like {@link #shift(short[], int, int, int)},
+     * moving blocks with {@code System.arraycopy}. Rotations by at most 16384 positions either way run in the calling
+     * thread; larger ones are done by three reversals, in parallel for large ranges.
+     *
+     * @param array  the array to shift, may be {@code null}
+     * @param startIndexInclusive  the starting index, promoted to 0 if negative
+     * @param endIndexExclusive  elements up to endIndex-1 are shifted, demoted to the array length if larger
+     * @param offset  the number of positions to rotate the elements, modulo the number of elements to rotate
+     */
+    public static void parallelShift(final short[] array, final int startIndexInclusive, final int endIndexExclusive,
+                                     final int offset) {
+        if (array == null) {
+            return;
+        }
+        ParallelArrays.shift(array, array.length, startIndexInclusive, endIndexExclusive, offset,
+                (from, to) -> parallelReverse(array, from, to));
+    }
+
+    /**
+     * Reverses the order of the given char array like {@link #reverse(char[])}, in parallel for large arrays.
+     *
+     * @param array  the array to reverse, may be {@code null}
+     */
+    public static void parallelReverse(final char[] array) {
+        if (array == null) {
+            return;
+        }
+        parallelReverse(array, 0, array.length);
+    }
+
+    /**
+     * Reverses the order of the given char array in the given range like {@link #reverse(char[], int, int)}, in
+     * parallel for large ranges.
+     *
+     * @param array  the array to reverse, may be {@code null}
+     * @param startIndexInclusive  the starting index, promoted to 0 if negative
+     * @param endIndexExclusive  elements up to endIndex-1 are reversed, demoted to the array length if larger
+     */
+    public static void parallelReverse(final char[] array, final int startIndexInclusive, final int endIndexExclusive) {
+        if (array == null) {
+            return;
+        }
+        final int start = Math.max(startIndexInclusive, 0);
+        final int last = Math.min(array.length, endIndexExclusive) - 1;
+        ParallelArrays.forRange(0, (last - start + 1) / 2, (from, to) -> {
+            for (int i = start + from, j = last - from; i < start + to; i++, j--) {
+                final char tmp = array[i];
+                array[i] = array[j];
+                array[j] = tmp;
+            }
+        });
+    }
+
+    /**
+     * Swaps a series of elements in the given char array like {@link #swap(char[], int, int, int)}, in parallel for
+     * long series that do not overlap.
+     *
+     * @param array the array to swap, may be {@code null}
+     * @param offset1 the index of the first element in the series to swap
+     * @param offset2 the index of the second element in the series to swap
+     * @param len the number of elements to swap starting with the given indices
+     */
+    public static void parallelSwap(final char[] array, final int offset1, final int offset2, final int len) {
+        if (array != null && !ParallelArrays.swap(array, array.length, offset1, offset2, len)) {
+            swap(array, offset1, offset2, len);
+        }
+    }
+
+    /**
+     * Shifts the order of the given char array like {@link #shift(char[], int)}, moving blocks with
+     * {@code System.arraycopy}. Rotations by at most 16384 positions either way run in the calling thread; larger
+     * ones are done by three reversals, in parallel for large arrays.
+     *
+     * @param array  the array to shift, may be {@code null}
+     * @param offset  the number of positions to rotate the elements, modulo the array length
+     */
+    public static void parallelShift(final char[] array, final int offset) {
+        if (array == null) {
+            return;
+        }
+        parallelShift(array, 0, array.length, offset);
+    }
+
+    /**
+     * Shifts the order of a series of elements in the given char array like {@link #shift(char[], int, int, int)},
+     * moving blocks with {@code System.arraycopy}. Rotations by at most 16384 positions either way run in the calling
+     * thread; larger ones are done by three reversals, in parallel for large ranges.
+     *
+     * @param array  the array to shift, may be {@code null}
+     * @param startIndexInclusive  the starting index, promoted to 0 if negative
+     * @param endIndexExclusive  elements up to endIndex-1 are shifted, demoted to the array length if larger
+     * @param offset  the number of positions to rotate the elements, modulo the number of elements to rotate
+     */
+    public static void parallelShift(final char[] array, final int startIndexInclusive, final int endIndexExclusive,
+                                     final int offset) {
+        if (array == null) {
+            return;
+        }
+        ParallelArrays.shift(array, array.length, startIndexInclusive, endIndexExclusive, offset,
+                (from, to) -> parallelReverse(array, from, to));
+    }
+
+    /**
+     * Reverses the order of the given byte array like {@link #reverse(byte[])}, in parallel for large arrays.
+     *
+     * @param array  the array to reverse, may be {@code null}
+     */
+    public static void parallelReverse(final byte[] array) {
+        if (array == null) {
+            return;
+        }
+        parallelReverse(array, 0, array.length);
+    }
+
+    /**
+     * Reverses the order of the given byte array in the given range like {@link #reverse(byte[], int, int)}, in
+     * parallel for large ranges.
+     *
+     * @param array  the array to reverse, may be {@code null}
+     * @param startIndexInclusive  the starting index, promoted to 0 if negative
+     * @param endIndexExclusive  elements up to endIndex-1 are reversed, demoted to the array length if larger
+     */
+    public static void parallelReverse(final byte[] array, final int startIndexInclusive, final int endIndexExclusive) {
+        if (array == null) {
+            return;
+        }
+        final int start = Math.max(startIndexInclusive, 0);
+        final int last = Math.min(array.length, endIndexExclusive) - 1;
+        ParallelArrays.forRange(0, (last - start + 1) / 2, (from, to) -> {
+            for (int i = start + from, j = last - from; i < start + to; i++, j--) {
+                final byte tmp = array[i];
+                array[i] = array[j];
+                array[j] = tmp;
+            }
+        });
+    }
+
+    /**
+     * Swaps a series of elements in the given byte array like {@link #swap(byte[], int, int, int)}, in parallel for
+     * long series that do not overlap.
+     *
+     * @param array the array to swap, may be {@code null}
+     * @param offset1 the index of the first element in the series to swap
+     * @param offset2 the index of the second element in the series to swap
+     * @param len the number of elements to swap starting with the given indices
+     */
+    public static void parallelSwap(final byte[] array, final int offset1, final int offset2, final int len) {
+        if (array != null && !ParallelArrays.swap(array, array.length, offset1, offset2, len)) {
+            swap(array, offset1, offset2, len);
+        }
+    }
+
+    /**
+     * Shifts the order of the given byte array like {@link #shift(byte[], int)}, moving blocks with
+     * {@code System.arraycopy}. Rotations by at most 16384 positions either way run in the calling thread; larger
+     * ones are done by three reversals, in parallel for large arrays.
+     *
+     * @param array  the array to shift, may be {@code null}
+     * @param offset  the number of positions to rotate the elements, modulo the array length
+     */
+    public static void parallelShift(final byte[] array, final int offset) {
+        if (array == null) {
+            return;
+        }
+        parallelShift(array, 0, array.length, offset);
+    }
+
+    /**
+     * Shifts the order of a series of elements in the given byte array like {@link #shift(byte[], int, int, int)},
+     * moving blocks with {@code System.arraycopy}. Rotations by at most 16384 positions either way run in the calling
+     * thread; larger ones are done by three reversals, in parallel for large ranges.
+     *
+     * @param array  the array to shift, may be {@code null}
+     * @param startIndexInclusive  the starting index, promoted to 0 if negative
+     * @param endIndexExclusive  elements up to endIndex-1 are shifted, demoted to the array length if larger
+     * @param offset  the number of positions to rotate the elements, modulo the number of elements to rotate
+     */
+    public static void parallelShift(final byte[] array, final int startIndexInclusive, final int endIndexExclusive,
+                                     final int offset) {
+        if (array == null) {
+            return;
+        }
+        ParallelArrays.shift(array, array.length, startIndexInclusive, endIndexExclusive, offset,
+                (from, to) -> parallelReverse(array, from, to));
+    }
+
+    /**
+     * Reverses the order of the given double array like {@link #reverse(double[])}, in parallel for large arrays.
+     *
+     * @param array  the array to reverse, may be {@code null}
+     */
+    public static void parallelReverse(final double[] array) {
+        if (array == null) {
+            return;
+        }
+        parallelReverse(array, 0, array.length);
+    }
+
+    /**
+     * Reverses the order of the given double array in the given range like {@link #reverse(double[], int, int)}, in
+     * parallel for large ranges.
+     *
+     * @param array  the array to reverse, may be {@code null}
+     * @param startIndexInclusive  the starting index, promoted to 0 if negative
+     * @param endIndexExclusive  elements up to endIndex-1 are reversed, demoted to the array length if larger
+     */
+    public static void parallelReverse(final double[] array, final int startIndexInclusive,
+                                       final int endIndexExclusive) {
+        if (array == null) {
+            return;
+        }
+        final int start = Math.max(startIndexInclusive, 0);
+        final int last = Math.min(array.length, endIndexExclusive) - 1;
+        ParallelArrays.forRange(0, (last - start + 1) / 2, (from, to) -> {
+            for (int i = start + from, j = last - from; i < start + to; i++, j--) {
+                final double tmp = array[i];
+                array[i] = array[j];
+                array[j] = tmp;
+            }
+        });
+    }
+
+    /**
+     * Swaps a series of elements in the given double array like {@link #swap(double[], int, int, int)}, in parallel for
+     * long series that do not overlap.
+     *
+     * @param array the array to swap, may be {@code null}
+     * @param offset1 the index of the first element in the series to swap
+     * @param offset2 the index of the second element in the series to swap
+     * @param len the number of elements to swap starting with the given indices
+     */
+    public static void parallelSwap(final double[] array, final int offset1, final int offset2, final int len) {
+        if (array != null && !ParallelArrays.swap(array, array.length, offset1, offset2, len)) {
+            swap(array, offset1, offset2, len);
+        }
+    }
+
+    /**
+     * Shifts the order of the given double array like {@link #shift(double[], int)}, moving blocks with
+     * {@code System.arraycopy}. Rotations by at most 16384 positions either way run in the calling thread; larger
+     * ones are done by three reversals, in parallel for large arrays.
+     *
+     * @param array  the array to shift, may be {@code null}
+     * @param offset  the number of positions to rotate the elements, modulo the array length
+     */
+    public static void parallelShift(final double[] array, final int offset) {
+        if (array == null) {
+            return;
+        }
+        parallelShift(array, 0, array.length, offset);
+    }
+
+    /**
+     * Shifts the order of a series of elements in the given double array like {@link #shift(double[], int, int, int)},
+     * moving blocks with {@code System.arraycopy}. Rotations by at most 16384 positions either way run in the calling
+     * thread; larger ones are done by three reversals, in parallel for large ranges.
+     *
+     * @param array  the array to shift, may be {@code null}
+     * @param startIndexInclusive  the starting index, promoted to 0 if negative
+     * @param endIndexExclusive  elements up to endIndex-1 are shifted, demoted to the array length if larger
+     * @param offset  the number of positions to rotate the elements, modulo the number of elements to rotate
+     */
+    public static void parallelShift(final double[] array, final int startIndexInclusive, final int endIndexExclusive,
+                                     final int offset) {
+        if (array == null) {
+            return;
+        }
+        ParallelArrays.shift(array, array.length, startIndexInclusive, endIndexExclusive, offset,
+                (from, to) -> parallelReverse(array, from, to));
+    }
+
+    /**
+     * Reverses the order of the given float array like {@link #reverse(float[])}, in parallel for large arrays.
+     *
+     * @param array  the array to reverse, may be {@code null}
+     */
+    public static void parallelReverse(final float[] array) {
+        if (array == null) {
+            return;
+        }
+        parallelReverse(array, 0, array.length);
+    }
+
+    /**
+     * Reverses the order of the given float array in the given range like {@link #reverse(float[], int, int)}, in
+     * parallel for large ranges.
+     *
+     * @param array  the array to reverse, may be {@code null}
+     * @param startIndexInclusive  the starting index, promoted to 0 if negative
+     * @param endIndexExclusive  elements up to endIndex-1 are reversed, demoted to the array length if larger
+     */
+    public static void parallelReverse(final float[] array, final int startIndexInclusive,
+                                       final int endIndexExclusive) {
+        if (array == null) {
+            return;
+        }
+        final int start = Math.max(startIndexInclusive, 0);
+        final int last = Math.min(array.length, endIndexExclusive) - 1;
+        ParallelArrays.forRange(0, (last - start + 1) / 2, (from, to) -> {
+            for (int i = start + from, j = last - from; i < start + to; i++, j--) {
+                final float tmp = array[i];
+                array[i] = array[j];
+                array[j] = tmp;
+            }
+        });
+    }
+
+    /**
+     * Swaps a series of elements in the given float array like {@link #swap(float[], int, int, int)}, in parallel for
+     * long series that do not overlap.
+     *
+     * @param array the array to swap, may be {@code null}
+     * @param offset1 the index of the first element in the series to swap
+     * @param offset2 the index of the second element in the series to swap
+     * @param len the number of elements to swap starting with the given indices
+     */
+    public static void parallelSwap(final float[] array, final int offset1, final int offset2, final int len) {
+        if (array != null && !ParallelArrays.swap(array, array.length, offset1, offset2, len)) {
+            swap(array, offset1, offset2, len);
+        }
+    }
+
+    /**
+     * Shifts the order of the given float array like {@link #shift(float[], int)}, moving blocks with
+     * {@code System.arraycopy}. Rotations by at most 16384 positions either way run in the calling thread; larger
+     * ones are done by three reversals, in parallel for large arrays.
+     *
+     * @param array  the array to shift, may be {@code null}
+     * @param offset  the number of positions to rotate the elements, modulo the array length
+     */
+    public static void parallelShift(final float[] array, final int offset) {
+        if (array == null) {
+            return;
+        }
+        parallelShift(array, 0, array.length, offset);
+    }
+
+    /**
+     * Shifts the order of a series of elements in the given float array like {@link #shift(float[], int, int, int)},
+     * moving blocks with {@code System.arraycopy}. Rotations by at most 16384 positions either way run in the calling
+     * thread; larger ones are done by three reversals, in parallel for large ranges.
+     *
+     * @param array  the array to shift, may be {@code null}
+     * @param startIndexInclusive  the starting index, promoted to 0 if negative
+     * @param endIndexExclusive  elements up to endIndex-1 are shifted, demoted to the array length if larger
+     * @param offset  the number of positions to rotate the elements, modulo the number of elements to rotate
+     */
+    public static void parallelShift(final float[] array, final int startIndexInclusive, final int endIndexExclusive,
+                                     final int offset) {
+        if (array == null) {
+            return;
+        }
+        ParallelArrays.shift(array, array.length, startIndexInclusive, endIndexExclusive, offset,
+                (from, to) -> parallelReverse(array, from, to));
+    }
+
+    /**
+     * Reverses the order of the given boolean array like {@link #reverse(boolean[])}, in parallel for large arrays.
+     *
+     * @param array  the array to reverse, may be {@code null}
+     */
+    public static void parallelReverse(final boolean[] array) {
+        if (array == null) {
+            return;
+        }
+        parallelReverse(array, 0, array.length);
+    }
+
+    /**
+     * Reverses the order of the given boolean array in the given range like {@link #reverse(boolean[], int, int)}, in
+     * parallel for large ranges.
+     *
+     * @param array  the array to reverse, may be {@code null}
+     * @param startIndexInclusive  the starting index, promoted to 0 if negative
+     * @param endIndexExclusive  elements up to endIndex-1 are reversed, demoted to the array length if larger
+     */
+    public static void parallelReverse(final boolean[] array, final int startIndexInclusive,
+                                       final int endIndexExclusive) {
+        if (array == null) {
+            return;
+        }
+        final int start = Math.max(startIndexInclusive, 0);
+        final int last = Math.min(array.length, endIndexExclusive) - 1;
+        ParallelArrays.forRange(0, (last - start + 1) / 2, (from, to) -> {
+            for (int i = start + from, j = last - from; i < start + to; i++, j--) {
+                final boolean tmp = array[i];
+                array[i] = array[j];
+                array[j] = tmp;
+            }
+        });
+    }
+
+    /**
+     * Swaps a series of elements in the given boolean array like {@link #swap(boolean[], int, int, int)}, in
+     * parallel for long series that do not overlap.
+     *
+     * @param array the array to swap, may be {@code null}
+     * @param offset1 the index of the first element in the series to swap
+     * @param offset2 the index of the second element in the series to swap
+     * @param len the number of elements to swap starting with the given indices
+     */
+    public static void parallelSwap(final boolean[] array, final int offset1, final int offset2, final int len) {
+        if (array != null && !ParallelArrays.swap(array, array.length, offset1, offset2, len)) {
+            swap(array, offset1, offset2, len);
+        }
+    }
+
+    /**
+     * Shifts the order of the given boolean array like {@link #shift(boolean[], int)}, moving blocks with
+     * {@code System.arraycopy}. Rotations by at most 16384 positions either way run in the calling thread; larger
+     * ones are done by three reversals, in parallel for large arrays.
+     *
+     * @param array  the array to shift, may be {@code null}
+     * @param offset  the number of positions to rotate the elements, modulo the array length
+     */
+    public static void parallelShift(final boolean[] array, final int offset) {
+        if (array == null) {
+            return;
+        }
+        parallelShift(array, 0, array.length, offset);
+    }
+
+    /**
+     * Shifts the order of a series of elements in the given boolean array like
+     * {@link #shift(boolean[], int, int, int)}, moving blocks with {@code System.arraycopy}. Rotations by at most
+     * 16384 positions either way run in the calling thread; larger ones are done by three reversals, in parallel for
+     * large ranges.
+     *
+     * @param array  the array to shift, may be {@code null}
+     * @param startIndexInclusive  the starting index, promoted to 0 if negative
+     * @param endIndexExclusive  elements up to endIndex-1 are shifted, demoted to the array length if larger
+     * @param offset  the number of positions to rotate the elements, modulo the number of elements to rotate
+     */
+    public static void parallelShift(final boolean[] array, final int startIndexInclusive, final int endIndexExclusive,
+                                     final int offset) {
+        if (array == null) {
+            return;
+        }
+        ParallelArrays.shift(array, array.length, startIndexInclusive, endIndexExclusive, offset,
+                (from, to) -> parallelReverse(array, from, to));
+    }
+
     // IndexOf search
     // ----------------------------------------------------------------------
 
@@ -0,0 +1,157 @@
+package kmw.utilities.core.arrays;
+
+import java.lang.reflect.Array;
+import java.util.concurrent.RecursiveAction;
+
+import static kmw.utilities.core.base.Checks.checkArgument;
+import static kmw.utilities.core.strings.StringPool.Messages_;
+
+/**
+ * Fork-join drivers behind the {@code parallel*} methods of {@link ArrayServiceUtil}.
+ * <p>
+ * Work on ranges of at most {@link #parallelThreshold()} elements runs in the calling thread; larger ranges are split
+ * in halves on the common fork-join pool. Block moves go through {@link System#arraycopy}, which works for arrays of
+ * any component type, with scratch buffers of at most {@link #SCRATCH_SIZE} elements.
+ */
+final class ParallelArrays {
+
+    static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 16;
+    static final int SCRATCH_SIZE = 1 << 14;
+
+    private static volatile int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+    private ParallelArrays() {
+    }
+
+    static int parallelThreshold() {
+        return parallelThreshold;
+    }
+
+    static void setParallelThreshold(final int threshold) {
+        checkArgument(threshold > 0, Messages_.PARAM_1_2_MUST_BE_POSITIVE, 1, "threshold");
+        parallelThreshold = threshold;
+    }
+
+    /**
+     * Work on a range of indexes, given as {@code from} (inclusive) and {@code to} (exclusive).
+     */
+    @FunctionalInterface
+    interface RangeTask {
+        void run(int from, int to);
+    }
+
+    /**
+     * Run a task over {@code [from, to)}, split into ranges of at most the parallel threshold.
+     */
+    static void forRange(final int from, final int to, final RangeTask task) {
+        final int threshold = parallelThreshold;
+        if (to - from <= threshold) {
+            if (to > from) {
+                task.run(from, to);
+            }
+            return;
+        }
+        new RangeAction(from, to, threshold, task).invoke();
+    }
+
+    /**
+     * Swap two series of elements in parallel, with the index normalization of
+     * {@link ArrayServiceUtil#swap(int[], int, int, int)}.
+     *
+     * @return {@code false} if the series overlap, so that the sequential, element by element swap must be used
+     */
+    static boolean swap(final Object array, final int length, final int offset1, final int offset2, final int len) {
+        if (length == 0 || offset1 >= length || offset2 >= length) {
+            return true;
+        }
+        final int from1 = Math.max(offset1, 0);
+        final int from2 = Math.max(offset2, 0);
+        final int n = Math.min(Math.min(len, length - from1), length - from2);
+        if (n <= 0 || from1 == from2) {
+            return true;
+        }
+        if (Math.abs(from1 - from2) < n) {
+            return false;
+        }
+        forRange(0, n, (from, to) -> {
+            final Object scratch = Array.newInstance(array.getClass().getComponentType(),
+                    Math.min(to - from, SCRATCH_SIZE));
+            for (int k = from; k < to; k += SCRATCH_SIZE) {
+                final int m = Math.min(to - k, SCRATCH_SIZE);
+                System.arraycopy(array, from1 + k, scratch, 0, m);
+                System.arraycopy(array, from2 + k, array, from1 + k, m);
+                System.arraycopy(scratch, 0, array, from2 + k, m);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Rotate a range to the right, with the index normalization of
+     * {@link ArrayServiceUtil#shift(int[], int, int, int)}. If the shorter of the two parts to exchange fits into a
+     * scratch buffer, it is parked there while the longer one is moved with a single {@code arraycopy}; otherwise the
+     * range is rotated by three parallel reversals.
+     */
+    static void shift(final Object array, final int length, final int startIndexInclusive, final int endIndexExclusive,
+                      final int offset, final RangeTask reverse) {
+        if (startIndexInclusive >= length - 1 || endIndexExclusive <= 0) {
+            return;
+        }
+        final int start = Math.max(startIndexInclusive, 0);
+        final int end = Math.min(endIndexExclusive, length);
+        final int n = end - start;
+        if (n <= 1) {
+            return;
+        }
+        int k = offset % n;
+        if (k < 0) {
+            k += n;
+        }
+        if (k == 0) {
+            return;
+        }
+        if (Math.min(k, n - k) <= SCRATCH_SIZE) {
+            final Object scratch = Array.newInstance(array.getClass().getComponentType(), Math.min(k, n - k));
+            if (k <= n - k) {
+                System.arraycopy(array, end - k, scratch, 0, k);
+                System.arraycopy(array, start, array, start + k, n - k);
+                System.arraycopy(scratch, 0, array, start, k);
+            } else {
+                System.arraycopy(array, start, scratch, 0, n - k);
+                System.arraycopy(array, start + n - k, array, start, k);
+                System.arraycopy(scratch, 0, array, start + k, n - k);
+            }
+            return;
+        }
+        reverse.run(start, end);
+        reverse.run(start, start + k);
+        reverse.run(start + k, end);
+    }
+
+    private static final class RangeAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int threshold;
+        private final RangeTask task;
+
+        RangeAction(final int from, final int to, final int threshold, final RangeTask task) {
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.task = task;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                task.run(from, to);
+                return;
+            }
+            final int mid = (from + to) >>> 1;
+            invokeAll(new RangeAction(from, mid, threshold, task), new RangeAction(mid, to, threshold, task));
+        }
+    }
+
+}
@@ -0,0 +1,228 @@
+package kmw.utilities.core.arrays;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Order-preserving set operations on String arrays, behind {@link StringArrayUtil#distinct},
+ * {@link StringArrayUtil#union}, {@link StringArrayUtil#intersection} and {@link StringArrayUtil#difference}.
+ * <p>
+ * The strategy adapts to the input: tiny inputs are compared pairwise, inputs that are already sorted are walked in
+ * step, and everything else goes through an open-addressed hash set. For large inputs the hash codes are computed and
+ * the membership tests are run in parallel on the common fork-join pool; only the final, order-dependent pass is
+ * sequential. {@code null} elements are treated like any other value.
+ */
+final class StringArraySets {
+
+    /** Up to this many pairwise comparisons, a linear scan beats hashing. */
+    static final int LINEAR_LIMIT = 256;
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private StringArraySets() {
+    }
+
+    static String[] distinct(final String[] array) {
+        final int n = array.length;
+        if (n <= 16) {
+            final String[] result = new String[n];
+            int size = 0;
+            for (final String s : array) {
+                if (indexOf(result, size, s) < 0) {
+                    result[size++] = s;
+                }
+            }
+            return trim(result, size);
+        }
+        if (isSorted(array)) {
+            final String[] result = new String[n];
+            int size = 0;
+            for (int i = 0; i < n; i++) {
+                if (i == 0 || !array[i].equals(array[i - 1])) {
+                    result[size++] = array[i];
+                }
+            }
+            return trim(result, size);
+        }
+        final int[] hashes = hashes(array);
+        final OpenHashSet seen = new OpenHashSet(n);
+        final String[] result = new String[n];
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            if (seen.add(array[i], hashes[i])) {
+                result[size++] = array[i];
+            }
+        }
+        return trim(result, size);
+    }
+
+    /**
+     * Get the elements of {@code first}, then those of {@code second} that occur neither in {@code first} nor earlier
+     * in {@code second}. Duplicates within {@code first} are kept when {@code keepFirst} is set, like
+     * {@link StringArrayUtil#merge} always did.
+     */
+    static String[] union(final String[] first, final String[] second, final boolean keepFirst) {
+        final String[] head = keepFirst ? first : distinct(first);
+        final int n = head.length;
+        final int m = second.length;
+        final String[] result = Arrays.copyOf(head, n + m);
+        int size = n;
+        if ((long) (n + m) * m <= LINEAR_LIMIT) {
+            for (final String s : second) {
+                if (indexOf(result, size, s) < 0) {
+                    result[size++] = s;
+                }
+            }
+            return trim(result, size);
+        }
+        final OpenHashSet seen = new OpenHashSet(n + m);
+        final int[] headHashes = hashes(head);
+        for (int i = 0; i < n; i++) {
+            seen.add(head[i], headHashes[i]);
+        }
+        final int[] hashes = hashes(second);
+        for (int i = 0; i < m; i++) {
+            if (seen.add(second[i], hashes[i])) {
+                result[size++] = second[i];
+            }
+        }
+        return trim(result, size);
+    }
+
+    /**
+     * Get the distinct elements of {@code array} that do ({@code retain}) or do not occur in {@code other}, in the
+     * order of their first occurrence in {@code array}.
+     */
+    static String[] filter(final String[] array, final String[] other, final boolean retain) {
+        final int n = array.length;
+        final int m = other.length;
+        if ((long) n * m <= LINEAR_LIMIT) {
+            final String[] result = new String[n];
+            int size = 0;
+            for (final String s : array) {
+                if ((indexOf(other, m, s) >= 0) == retain && indexOf(result, size, s) < 0) {
+                    result[size++] = s;
+                }
+            }
+            return trim(result, size);
+        }
+        if (isSorted(array) && isSorted(other)) {
+            final String[] result = new String[n];
+            int size = 0;
+            int j = 0;
+            for (int i = 0; i < n; i++) {
+                final String s = array[i];
+                if (i > 0 && s.equals(array[i - 1])) {
+                    continue;
+                }
+                while (j < m && other[j].compareTo(s) < 0) {
+                    j++;
+                }
+                if ((j < m && other[j].equals(s)) == retain) {
+                    result[size++] = s;
+                }
+            }
+            return trim(result, size);
+        }
+        final int[] otherHashes = hashes(other);
+        final OpenHashSet lookup = new OpenHashSet(m);
+        for (int i = 0; i < m; i++) {
+            lookup.add(other[i], otherHashes[i]);
+        }
+        final int[] hashes = hashes(array);
+        final boolean[] keep = new boolean[n];
+        range(n).forEach(i -> keep[i] = lookup.contains(array[i], hashes[i]) == retain);
+        final OpenHashSet seen = new OpenHashSet(n);
+        final String[] result = new String[n];
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            if (keep[i] && seen.add(array[i], hashes[i])) {
+                result[size++] = array[i];
+            }
+        }
+        return trim(result, size);
+    }
+
+    private static int[] hashes(final String[] array) {
+        final int[] hashes = new int[array.length];
+        range(array.length).forEach(i -> hashes[i] = array[i] == null ? 0 : array[i].hashCode());
+        return hashes;
+    }
+
+    private static IntStream range(final int n) {
+        final IntStream range = IntStream.range(0, n);
+        return n >= PARALLEL_THRESHOLD ? range.parallel() : range;
+    }
+
+    private static boolean isSorted(final String[] array) {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] == null || i > 0 && array[i - 1].compareTo(array[i]) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(final String[] array, final int size, final String s) {
+        for (int i = 0; i < size; i++) {
+            if (s == null ? array[i] == null : s.equals(array[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String[] trim(final String[] array, final int size) {
+        return size == array.length ? array : Arrays.copyOf(array, size);
+    }
+
+    /**
+     * Open-addressed (linear probing) set of strings with their precomputed hash codes. Lookups are safe to run
+     * concurrently once all elements are added.
+     */
+    private static final class OpenHashSet {
+        private final String[] keys;
+        private final int[] hashes;
+        private final boolean[] used;
+        private final int mask;
+        private final int shift;
+
+        OpenHashSet(final int expected) {
+            final int capacity = Integer.highestOneBit(Math.max(4, expected) * 2 - 1) << 1;
+            keys = new String[capacity];
+            hashes = new int[capacity];
+            used = new boolean[capacity];
+            mask = capacity - 1;
+            shift = 32 - Integer.numberOfTrailingZeros(capacity);
+        }
+
+        /**
+         * @return {@code true} if the string was not yet contained
+         */
+        boolean add(final String s, final int hash) {
+            final int slot = slot(s, hash);
+            if (used[slot]) {
+                return false;
+            }
+            used[slot] = true;
+            keys[slot] = s;
+            hashes[slot] = hash;
+            return true;
+        }
+
+        boolean contains(final String s, final int hash) {
+            return used[slot(s, hash)];
+        }
+
+        /**
+         * Get the slot holding the string, or the free slot where it belongs.
+         */
+        private int slot(final String s, final int hash) {
+            int slot = hash * 0x9E3779B9 >>> shift;
+            while (used[slot] && (hashes[slot] != hash || !(s == null ? keys[slot] == null : s.equals(keys[slot])))) {
+                slot = slot + 1 & mask;
+            }
+            return slot;
+        }
+    }
+
+}
@@ -1,5 +1,9 @@
 package kmw.utilities.core.arrays;
 
+import kmw.utilities.core.strings.CsvWriter;
+import kmw.utilities.core.strings.Escaper;
+import kmw.utilities.core.strings.Tokenizer;
+
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -11,6 +15,8 @@ public final class StringArrayUtil {
 
     private StringArrayUtil() {}
 
+    private static final Tokenizer CSV_TOKENIZER = Tokenizer.onAnyOf(Strings_.COMMA);
+
     //---------------------------------------------------------------------
     // Convenience methods for working with String arrays
     // From org.springframework:spring-core:4.1.2.RELEASE
@@ -73,14 +79,67 @@ public final class StringArrayUtil {
         if (ArrayServiceUtil.isNullOrEmpty(array2)) {
             return array1;
         }
-        List<String> result = new ArrayList<>();
-        result.addAll(Arrays.asList(array1));
-        for (String str : array2) {
-            if (!result.contains(str)) {
-                result.add(str);
-            }
+        return StringArraySets.union(array1, array2, true);
+    }
+
+    /**
+     * Remove duplicate Strings from the given array, keeping the first occurrence of each. Unlike
+     * {@link #removeDuplicates(String[])}, the original order is preserved.
+     *
+     * @param array the String array (can be {@code null})
+     * @return a new array without duplicates (never {@code null})
+     */
+    public static String[] distinct(String[] array) {
+        if (ArrayServiceUtil.isNullOrEmpty(array)) {
+            return EMPTY_STRING_ARRAY;
         }
-        return toStringArray(result);
+        return StringArraySets.distinct(array);
+    }
+
+    /**
+     * Get the distinct Strings contained in either of the given arrays: those of the first array, followed by those
+     * of the second array that are not contained in the first one, each in the order of its first occurrence.
+     *
+     * @param array1 the first array (can be {@code null})
+     * @param array2 the second array (can be {@code null})
+     * @return a new array (never {@code null})
+     */
+    public static String[] union(String[] array1, String[] array2) {
+        return StringArraySets.union(nullToEmpty(array1), nullToEmpty(array2), false);
+    }
+
+    /**
+     * Get the distinct Strings of the first array that are also contained in the second one, in the order of their
+     * first occurrence in the first array.
+     *
+     * @param array1 the first array (can be {@code null})
+     * @param array2 the second array (can be {@code null})
+     * @return a new array (never {@code null})
+     */
+    public static String[] intersection(String[] array1, String[] array2) {
+        if (ArrayServiceUtil.isNullOrEmpty(array1) || ArrayServiceUtil.isNullOrEmpty(array2)) {
+            return EMPTY_STRING_ARRAY;
+        }
+        return StringArraySets.filter(array1, array2, true);
+    }
+
+    /**
+     * Get the distinct Strings of the first array that are not contained in the second one, in the order of their
+     * first occurrence in the first array.
+     *
+     * @param array1 the first array (can be {@code null})
+     * @param array2 the second array (can be {@code null})
+     * @return a new array (never {@code null})
+     */
+    public static String[] difference(String[] array1, String[] array2) {
+        if (ArrayServiceUtil.isNullOrEmpty(array1)) {
+            return EMPTY_STRING_ARRAY;
+        }
+        return StringArraySets.filter(array1, nullToEmpty(array2), false);
+    }
+
+    private static String[] nullToEmpty(String[] array) {
+        return array == null ? EMPTY_STRING_ARRAY : array;
     }
 
     /**
@@ -138,7 +197,8 @@ public final class StringArrayUtil {
     }
 
     /**
-     * Remove duplicate Strings from the given array. Also sorts the array, as it uses a TreeSet.
+     * Remove duplicate Strings from the given array. Also sorts the array, as it uses a TreeSet; see
+     * {@link #distinct(String[])} to keep the original order.
      *
      * @param array the String array
      * @return an array without duplicates, in natural sort order
@@ -201,7 +261,7 @@ public final class StringArrayUtil {
     */
 
     /**
-     * Tokenize the given String into a String array via a StringTokenizer. Trims tokens and omits empty tokens.
+     * Tokenize the given String into a String array via a {@link Tokenizer}. Trims tokens and omits empty tokens.
      * <p>
      * The given delimiters string is supposed to consist of any number of delimiter characters. Each of those
      * characters can be used to separate tokens. A delimiter is always a single character; for multi-character
@@ -211,7 +271,7 @@ public final class StringArrayUtil {
      * @param delimiters the delimiter characters, assembled as String (each of those characters is individually
      * considered as delimiter).
      * @return an array of the tokens
-     * @see java.util.StringTokenizer
+     * @see Tokenizer
      * @see String#trim()
      * @see #csvToArray
      */
@@ -220,7 +280,7 @@ public final class StringArrayUtil {
     }
 
     /**
-     * Tokenize the given String into a String array via a StringTokenizer.
+     * Tokenize the given String into a String array via a {@link Tokenizer}, splitting like a StringTokenizer.
      * <p>
      * The given delimiters string is supposed to consist of any number of delimiter characters. Each of those
      * characters can be used to separate tokens. A delimiter is always a single character; for multi-character
@@ -233,7 +293,7 @@ public final class StringArrayUtil {
      * @param ignoreEmptyTokens omit empty tokens from the result array (only applies to tokens that are empty after
      * trimming; StringTokenizer will not consider subsequent delimiters as token in the first place).
      * @return an array of the tokens ({@code null} if the input String was {@code null})
-     * @see java.util.StringTokenizer
+     * @see Tokenizer
      * @see String#trim()
      * @see #csvToArray
      */
@@ -243,18 +303,14 @@ public final class StringArrayUtil {
         if (str == null) {
             return null;
         }
-        StringTokenizer st = new StringTokenizer(str, delimiters);
-        List<String> tokens = new ArrayList<>();
-        while (st.hasMoreTokens()) {
-            String token = st.nextToken();
-            if (trimTokens) {
-                token = token.trim();
-            }
-            if (!ignoreEmptyTokens || token.length() > 0) {
-                tokens.add(token);
-            }
+        Tokenizer tokenizer = Tokenizer.onAnyOf(delimiters).collapseDelimiters();
+        if (trimTokens) {
+            tokenizer = tokenizer.trimResults();
         }
-        return toStringArray(tokens);
+        if (ignoreEmptyTokens) {
+            tokenizer = tokenizer.omitEmptyStrings();
+        }
+        return tokenizer.splitToArray(str);
     }
 
     /**
@@ -332,14 +388,18 @@ public final class StringArrayUtil {
      */
     public static Set<String> csvToSet(String str) {
         Set<String> set = new TreeSet<>();
-        String[] tokens = csvToArray(str);
-        set.addAll(Arrays.asList(tokens));
+        if (str != null && !str.isEmpty()) {
+            // like csvToArray, yields no token for empty input
+            for (String token : CSV_TOKENIZER.split(str)) {
+                set.add(token);
+            }
+        }
         return set;
     }
 
     /**
      * Convenience method to return a Collection as a delimited (e.g. CSV) String. E.g. useful for {@code toString()}
-     * implementations.
+     * implementations. To export many rows, stream them with a {@link CsvWriter} instead.
      *
      * @param coll the Collection to display
      * @param delim the delimiter to use (probably a ",")
@@ -418,4 +478,59 @@ public final class StringArrayUtil {
     public static String arrayToCsv(Object[] arr) {
         return arrayToCsv(arr, Strings_.COMMA);
     }
+
+    /**
+     * Convert a Collection to an RFC 4180 CSV line: each element is quoted and escaped as needed, see
+     * {@link Escaper#csv(char)}. Unlike {@link #collectionToCsv(Collection, String)}, the result can always be parsed
+     * back into the original elements.
+     *
+     * @param coll the Collection to convert
+     * @param delim the delimiter to use
+     * @return the CSV line; {@code null} elements become empty fields
+     */
+    public static String collectionToEscapedCsv(Collection<?> coll, char delim) {
+        final Escaper escaper = delim == Chars_.COMMA ? Escaper.csv() : Escaper.csv(delim);
+        StringBuilder sb = new StringBuilder();
+        Iterator<?> it = coll.iterator();
+        while (it.hasNext()) {
+            Object element = it.next();
+            if (element != null) {
+                escaper.escape(element.toString(), sb);
+            }
+            if (it.hasNext()) {
+                sb.append(delim);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Convert a Collection to an RFC 4180 comma-separated line.
+     *
+     * @see #collectionToEscapedCsv(Collection, char)
+     */
+    public static String collectionToEscapedCsv(Collection<?> coll) {
+        return collectionToEscapedCsv(coll, Chars_.COMMA);
+    }
+
+    /**
+     * Convert an array to an RFC 4180 CSV line.
+     *
+     * @see #collectionToEscapedCsv(Collection, char)
+     */
+    public static String arrayToEscapedCsv(Object[] arr, char delim) {
+        if (ArrayServiceUtil.isNullOrEmpty(arr)) {
+            return Strings_.EMPTY;
+        }
+        return collectionToEscapedCsv(Arrays.asList(arr), delim);
+    }
+
+    /**
+     * Convert an array to an RFC 4180 comma-separated line.
+     *
+     * @see #collectionToEscapedCsv(Collection, char)
+     */
+    public static String arrayToEscapedCsv(Object[] arr) {
+        return arrayToEscapedCsv(arr, Chars_.COMMA);
+    }
 }
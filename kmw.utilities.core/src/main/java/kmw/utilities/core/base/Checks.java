@@ -0,0 +1,86 @@
+package kmw.utilities.core.base;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import static kmw.utilities.core.strings.StringPool.*;
+
+/**
+ * Precondition checks whose failure messages are rendered lazily.
+ * <p>
+ * Unlike {@code Preconditions.checkNotNull(ref, format(...))} the message template (one of the {@link Messages_}
+ * constants) and its arguments are passed through unformatted, and only rendered once a check actually fails.
+ * All arguments are primitives or constants, so a passing check does not allocate at all.
+ */
+public final class Checks {
+
+    private Checks() {}
+
+    /**
+     * Ensures that the given parameter is not {@code null}.
+     *
+     * @param reference the parameter value to check
+     * @param paramIndex the 1-based position of the parameter in the calling method's signature
+     * @param paramName the name of the parameter
+     * @param <T> the type of the reference
+     * @return the non-null reference
+     * @throws NullPointerException rendered from {@link Messages_#PARAM_1_2_MUST_NOT_BE_NULL} if {@code reference}
+     * is {@code null}
+     */
+    @Nonnull
+    public static <T> T checkNotNull(@Nullable final T reference, final int paramIndex, @Nonnull final String paramName) {
+        return checkNotNull(reference, Messages_.PARAM_1_2_MUST_NOT_BE_NULL, paramIndex, paramName);
+    }
+
+    /**
+     * Ensures that the given parameter is not {@code null}.
+     *
+     * @param reference the parameter value to check
+     * @param messageTemplate a {@link Messages_} template taking the parameter index and name
+     * @param paramIndex the 1-based position of the parameter in the calling method's signature
+     * @param paramName the name of the parameter
+     * @param <T> the type of the reference
+     * @return the non-null reference
+     * @throws NullPointerException if {@code reference} is {@code null}
+     */
+    @Nonnull
+    public static <T> T checkNotNull(@Nullable final T reference, @Nonnull final String messageTemplate,
+                                     final int paramIndex, @Nonnull final String paramName) {
+        if (reference == null) {
+            throw new NullPointerException(format(messageTemplate, paramIndex, paramName));
+        }
+        return reference;
+    }
+
+    /**
+     * Ensures the truth of an expression involving one parameter of the calling method.
+     *
+     * @param expression a boolean expression
+     * @param messageTemplate a {@link Messages_} template taking the parameter index and name
+     * @param paramIndex the 1-based position of the parameter in the calling method's signature
+     * @param paramName the name of the parameter
+     * @throws IllegalArgumentException if {@code expression} is false
+     */
+    public static void checkArgument(final boolean expression, @Nonnull final String messageTemplate,
+                                     final int paramIndex, @Nonnull final String paramName) {
+        if (!expression) {
+            throw new IllegalArgumentException(format(messageTemplate, paramIndex, paramName));
+        }
+    }
+
+    /**
+     * Ensures that an {@code int} parameter is not negative.
+     *
+     * @param value the parameter value to check
+     * @param paramIndex the 1-based position of the parameter in the calling method's signature
+     * @param paramName the name of the parameter
+     * @return the checked value
+     * @throws IllegalArgumentException rendered from {@link Messages_#PARAM_1_2_MUST_BE_POSITIVE} if
+     * {@code value < 0}
+     */
+    public static int checkNonNegative(final int value, final int paramIndex, @Nonnull final String paramName) {
+        checkArgument(value >= 0, Messages_.PARAM_1_2_MUST_BE_POSITIVE, paramIndex, paramName);
+        return value;
+    }
+
+}
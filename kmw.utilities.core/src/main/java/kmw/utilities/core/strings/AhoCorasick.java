@@ -0,0 +1,404 @@
+package kmw.utilities.core.strings;
+
+import kmw.utilities.core.base.ObjectServiceUtil;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static kmw.utilities.core.base.Checks.checkArgument;
+import static kmw.utilities.core.base.Checks.checkNotNull;
+import static kmw.utilities.core.strings.StringPool.*;
+
+/**
+ * Multi-literal search: finds all occurrences of a fixed set of keywords in a single pass over the input, in time
+ * linear in the input length plus the number of matches, regardless of the number of keywords.
+ * <p>
+ * The automaton is stored in flat arrays: transitions of each state are a sorted slice of one label array, with a
+ * direct lookup table for the root state. It is built once, twice in fact: over UTF-16 code units for
+ * {@link CharSequence} input, and over UTF-8 bytes for {@code byte[]} input, where match offsets are byte offsets.
+ * <p>
+ * Instances are immutable and can be shared by any number of threads without locking.
+ */
+public final class AhoCorasick {
+
+    private final String[] keywords;
+    private final Automaton charAutomaton;
+    private final Automaton byteAutomaton;
+
+    private AhoCorasick(final String[] keywords) {
+        this.keywords = keywords;
+        final int[][] charKeys = new int[keywords.length][];
+        final int[][] byteKeys = new int[keywords.length][];
+        for (int k = 0; k < keywords.length; k++) {
+            charKeys[k] = keywords[k].chars().toArray();
+            final byte[] utf8 = keywords[k].getBytes(StandardCharsets.UTF_8);
+            byteKeys[k] = new int[utf8.length];
+            for (int i = 0; i < utf8.length; i++) {
+                byteKeys[k][i] = utf8[i] & 0xFF;
+            }
+        }
+        charAutomaton = new Automaton(charKeys);
+        byteAutomaton = new Automaton(byteKeys);
+    }
+
+    /**
+     * Compile an automaton for the given keywords.
+     *
+     * @param keywords the non-empty keywords; duplicates are reported under the index of their first occurrence
+     * @return the compiled automaton
+     */
+    @Nonnull
+    public static AhoCorasick of(@Nonnull final String... keywords) {
+        checkNotNull(keywords, 1, "keywords");
+        return of(Arrays.asList(keywords));
+    }
+
+    /**
+     * Compile an automaton for the given keywords.
+     *
+     * @param keywords the non-empty keywords; duplicates are reported under the index of their first occurrence
+     * @return the compiled automaton
+     */
+    @Nonnull
+    public static AhoCorasick of(@Nonnull final Collection<String> keywords) {
+        checkNotNull(keywords, 1, "keywords");
+        final String[] array = keywords.toArray(new String[0]);
+        for (String keyword : array) {
+            checkArgument(!StringServiceUtil.isNullOrEmpty(keyword), Messages_.PARAM_1_2_MUST_NOT_BE_EMPTY, 1, "keywords");
+        }
+        return new AhoCorasick(array);
+    }
+
+    public int keywordCount() {
+        return keywords.length;
+    }
+
+    @Nonnull
+    public String keyword(final int index) {
+        return keywords[index];
+    }
+
+    /**
+     * Count all, possibly overlapping, occurrences of all keywords.
+     */
+    public int countIn(@Nonnull final CharSequence text) {
+        checkNotNull(text, 1, "text");
+        final Automaton a = charAutomaton;
+        int state = 0;
+        int count = 0;
+        for (int i = 0, len = text.length(); i < len; i++) {
+            state = a.step(state, text.charAt(i));
+            count += a.outputCount[state];
+        }
+        return count;
+    }
+
+    /**
+     * Count all, possibly overlapping, occurrences of all keywords in UTF-8 encoded input.
+     */
+    public int countIn(@Nonnull final byte[] utf8, final int off, final int len) {
+        checkNotNull(utf8, 1, "utf8");
+        Objects.checkFromIndexSize(off, len, utf8.length);
+        final Automaton a = byteAutomaton;
+        int state = 0;
+        int count = 0;
+        for (int i = off, end = off + len; i < end; i++) {
+            state = a.step(state, utf8[i] & 0xFF);
+            count += a.outputCount[state];
+        }
+        return count;
+    }
+
+    /**
+     * Test whether any keyword occurs in the text, stopping at the first match.
+     */
+    public boolean matchesAnyIn(@Nonnull final CharSequence text) {
+        return firstMatch(text) != null;
+    }
+
+    /**
+     * Find all, possibly overlapping, occurrences of all keywords, ordered by their end position.
+     */
+    @Nonnull
+    public List<Match> findAll(@Nonnull final CharSequence text) {
+        checkNotNull(text, 1, "text");
+        final Automaton a = charAutomaton;
+        List<Match> matches = Collections.emptyList();
+        int state = 0;
+        for (int i = 0, len = text.length(); i < len; i++) {
+            state = a.step(state, text.charAt(i));
+            if (a.outputCount[state] > 0) {
+                if (matches.isEmpty()) {
+                    matches = new ArrayList<>();
+                }
+                a.collect(state, i + 1, matches);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Find all, possibly overlapping, occurrences of all keywords in UTF-8 encoded input. Match positions are
+     * absolute indices into {@code utf8}.
+     */
+    @Nonnull
+    public List<Match> findAll(@Nonnull final byte[] utf8, final int off, final int len) {
+        checkNotNull(utf8, 1, "utf8");
+        Objects.checkFromIndexSize(off, len, utf8.length);
+        final Automaton a = byteAutomaton;
+        List<Match> matches = Collections.emptyList();
+        int state = 0;
+        for (int i = off, end = off + len; i < end; i++) {
+            state = a.step(state, utf8[i] & 0xFF);
+            if (a.outputCount[state] > 0) {
+                if (matches.isEmpty()) {
+                    matches = new ArrayList<>();
+                }
+                a.collect(state, i + 1, matches);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Find the occurrence that ends first; of several ending at the same position, the longest one.
+     *
+     * @return the match, or {@code null} if no keyword occurs
+     */
+    @Nullable
+    public Match firstMatch(@Nonnull final CharSequence text) {
+        checkNotNull(text, 1, "text");
+        final Automaton a = charAutomaton;
+        int state = 0;
+        for (int i = 0, len = text.length(); i < len; i++) {
+            state = a.step(state, text.charAt(i));
+            if (a.outputCount[state] > 0) {
+                return a.first(state, i + 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Find the occurrence that ends first in UTF-8 encoded input; of several ending at the same position, the
+     * longest one. Match positions are absolute indices into {@code utf8}.
+     *
+     * @return the match, or {@code null} if no keyword occurs
+     */
+    @Nullable
+    public Match firstMatch(@Nonnull final byte[] utf8, final int off, final int len) {
+        checkNotNull(utf8, 1, "utf8");
+        Objects.checkFromIndexSize(off, len, utf8.length);
+        final Automaton a = byteAutomaton;
+        int state = 0;
+        for (int i = off, end = off + len; i < end; i++) {
+            state = a.step(state, utf8[i] & 0xFF);
+            if (a.outputCount[state] > 0) {
+                return a.first(state, i + 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * An occurrence of a keyword: the keyword's index and the half-open range {@code [start, end)} it occupies.
+     */
+    public static final class Match {
+
+        private final int keywordIndex;
+        private final int start;
+        private final int end;
+
+        Match(final int keywordIndex, final int start, final int end) {
+            this.keywordIndex = keywordIndex;
+            this.start = start;
+            this.end = end;
+        }
+
+        public int keywordIndex() {
+            return keywordIndex;
+        }
+
+        public int start() {
+            return start;
+        }
+
+        public int end() {
+            return end;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Match)) return false;
+            final Match other = (Match) obj;
+            return keywordIndex == other.keywordIndex && start == other.start && end == other.end;
+        }
+
+        @Override
+        public int hashCode() {
+            return ObjectServiceUtil.hash(keywordIndex, start, end);
+        }
+
+        @Override
+        public String toString() {
+            return "Match[" + keywordIndex + ": " + start + ".." + end + "]";
+        }
+    }
+
+    /**
+     * The goto/failure automaton over int symbols, states numbered in breadth-first order with 0 as root.
+     */
+    private static final class Automaton {
+
+        private static final int ROOT_TABLE_SIZE = 256;
+
+        private final int[] labelStart;     // transitions of state s are [labelStart[s], labelStart[s + 1])
+        private final int[] labels;         // sorted per state
+        private final int[] targets;
+        private final int[] rootTable;      // root transitions for symbols < ROOT_TABLE_SIZE
+        private final int[] fail;
+        private final int[] output;         // keyword ending in this state, or -1
+        private final int[] outputLink;     // nearest proper suffix state with an output, or -1
+        private final int[] outputCount;    // number of keywords ending in this state, including suffixes
+        private final int[] keywordLength;
+
+        Automaton(final int[][] keys) {
+            // 1. plain trie, with hash map children while building
+            final List<Map<Integer, Integer>> children = new ArrayList<>();
+            final List<Integer> outputs = new ArrayList<>();
+            children.add(new HashMap<>());
+            outputs.add(-1);
+            keywordLength = new int[keys.length];
+            for (int k = 0; k < keys.length; k++) {
+                keywordLength[k] = keys[k].length;
+                int state = 0;
+                for (int symbol : keys[k]) {
+                    Integer next = children.get(state).get(symbol);
+                    if (next == null) {
+                        next = children.size();
+                        children.add(new HashMap<>());
+                        outputs.add(-1);
+                        children.get(state).put(symbol, next);
+                    }
+                    state = next;
+                }
+                if (outputs.get(state) < 0) {
+                    outputs.set(state, k);
+                }
+            }
+
+            // 2. renumber breadth-first and flatten into sorted label slices
+            final int stateCount = children.size();
+            final int[] bfsId = new int[stateCount];
+            final int[] bfsOrder = new int[stateCount];
+            int transitionCount = 0;
+            final ArrayDeque<Integer> queue = new ArrayDeque<>();
+            queue.add(0);
+            for (int id = 0; !queue.isEmpty(); id++) {
+                final int trieState = queue.poll();
+                bfsId[trieState] = id;
+                bfsOrder[id] = trieState;
+                final Map<Integer, Integer> map = children.get(trieState);
+                transitionCount += map.size();
+                map.keySet().stream().sorted().forEach(symbol -> queue.add(map.get(symbol)));
+            }
+            labelStart = new int[stateCount + 1];
+            labels = new int[transitionCount];
+            targets = new int[transitionCount];
+            output = new int[stateCount];
+            int t = 0;
+            for (int id = 0; id < stateCount; id++) {
+                labelStart[id] = t;
+                final Map<Integer, Integer> map = children.get(bfsOrder[id]);
+                final int[] symbols = map.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+                for (int symbol : symbols) {
+                    labels[t] = symbol;
+                    targets[t] = bfsId[map.get(symbol)];
+                    t++;
+                }
+                output[id] = outputs.get(bfsOrder[id]);
+            }
+            labelStart[stateCount] = t;
+            rootTable = new int[ROOT_TABLE_SIZE];
+            for (int i = labelStart[0]; i < labelStart[1]; i++) {
+                if (labels[i] < ROOT_TABLE_SIZE) {
+                    rootTable[labels[i]] = targets[i];
+                }
+            }
+
+            // 3. failure and output links; in BFS order the parent is always done before its children
+            fail = new int[stateCount];
+            outputLink = new int[stateCount];
+            outputCount = new int[stateCount];
+            outputLink[0] = -1;
+            for (int state = 0; state < stateCount; state++) {
+                for (int i = labelStart[state]; i < labelStart[state + 1]; i++) {
+                    final int child = targets[i];
+                    final int f = state == 0 ? 0 : step(fail[state], labels[i]);
+                    fail[child] = f;
+                    outputLink[child] = output[f] >= 0 ? f : outputLink[f];
+                    outputCount[child] = (output[child] >= 0 ? 1 : 0) + outputCount[f];
+                }
+            }
+        }
+
+        private int transition(final int state, final int symbol) {
+            if (state == 0 && symbol < ROOT_TABLE_SIZE) {
+                final int target = rootTable[symbol];
+                return target == 0 ? -1 : target;
+            }
+            int lo = labelStart[state];
+            int hi = labelStart[state + 1] - 1;
+            while (lo <= hi) {
+                final int mid = (lo + hi) >>> 1;
+                final int label = labels[mid];
+                if (label < symbol) {
+                    lo = mid + 1;
+                } else if (label > symbol) {
+                    hi = mid - 1;
+                } else {
+                    return targets[mid];
+                }
+            }
+            return -1;
+        }
+
+        int step(int state, final int symbol) {
+            while (true) {
+                final int next = transition(state, symbol);
+                if (next >= 0) {
+                    return next;
+                }
+                if (state == 0) {
+                    return 0;
+                }
+                state = fail[state];
+            }
+        }
+
+        void collect(final int state, final int end, final List<Match> matches) {
+            for (int s = output[state] >= 0 ? state : outputLink[state]; s >= 0; s = outputLink[s]) {
+                final int k = output[s];
+                matches.add(new Match(k, end - keywordLength[k], end));
+            }
+        }
+
+        Match first(final int state, final int end) {
+            final int s = output[state] >= 0 ? state : outputLink[state];
+            final int k = output[s];
+            return new Match(k, end - keywordLength[k], end);
+        }
+    }
+
+}
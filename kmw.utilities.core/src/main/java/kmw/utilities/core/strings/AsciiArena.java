@@ -0,0 +1,264 @@
+package kmw.utilities.core.strings;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static kmw.utilities.core.base.Checks.checkArgument;
+import static kmw.utilities.core.base.Checks.checkNotNull;
+import static kmw.utilities.core.strings.StringPool.Messages_;
+
+/**
+ * A packed, deduplicating store of ASCII keys: all keys are concatenated in one {@code byte[]}, and key {@code id}
+ * occupies the bytes from {@code offsets[id]} to {@code offsets[id + 1]}.
+ * <p>
+ * Each distinct key is stored once and identified by a dense int id in insertion order. Besides its bytes, a key costs
+ * one offset, one cached hash and two slots of an open-addressing table of ids, i.e. about 16 bytes instead of the
+ * 56 or more of a {@code String} with its {@code byte[]}. Keys are looked up from any {@code CharSequence} or byte
+ * range without materializing them, and {@link #get(int)} returns a zero-copy {@link AsciiString} view. Instances
+ * are not thread-safe; publish them safely once fully built if they are shared for reading.
+ */
+public final class AsciiArena {
+
+    private static final int NO_ID = -1;
+
+    private byte[] bytes;
+    private int byteCount;
+    private int[] offsets;      // offsets[size] == byteCount
+    private int[] hashes;
+    private int size;
+    private int[] table;        // ids, or NO_ID
+    private int mask;
+
+    /**
+     * Create an arena with a default initial capacity.
+     */
+    public AsciiArena() {
+        this(64, 16);
+    }
+
+    /**
+     * Create an arena sized for the given number of keys and their average length.
+     */
+    public AsciiArena(final int expectedKeys, final int averageLength) {
+        checkArgument(expectedKeys > 0, Messages_.PARAM_1_2_MUST_BE_POSITIVE, 1, "expectedKeys");
+        checkArgument(averageLength > 0, Messages_.PARAM_1_2_MUST_BE_POSITIVE, 2, "averageLength");
+        this.bytes = new byte[Math.max(16, Math.multiplyExact(expectedKeys, averageLength))];
+        this.offsets = new int[expectedKeys + 1];
+        this.hashes = new int[expectedKeys];
+        this.table = newTable(2 * expectedKeys);
+        this.mask = table.length - 1;
+    }
+
+    /**
+     * Get the number of distinct keys.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the number of bytes used by the keys.
+     */
+    public int byteSize() {
+        return byteCount;
+    }
+
+    /**
+     * Add a key unless it is present already.
+     *
+     * @return the id of the key
+     * @throws IllegalArgumentException if {@code key} contains non-ASCII characters
+     */
+    public int add(@Nonnull final CharSequence key) {
+        checkNotNull(key, 1, "key");
+        if (key instanceof AsciiString) {
+            final AsciiString ascii = (AsciiString) key;
+            return addBytes(ascii.array(), ascii.arrayOffset(), ascii.length(), ascii.hashCode());
+        }
+        checkArgument(StringServiceUtil.isAscii(key), Messages_.PARAM_1_2_MUST_BE_ASCII, 1, "key");
+        final int hash = AsciiString.hash(key);
+        final int found = find(key, hash);
+        if (found != NO_ID) {
+            return found;
+        }
+        final int len = key.length();
+        ensureBytes(len);
+        for (int i = 0; i < len; i++) {
+            bytes[byteCount + i] = (byte) key.charAt(i);
+        }
+        return append(len, hash);
+    }
+
+    /**
+     * Add a key given as a range of ASCII bytes unless it is present already.
+     *
+     * @return the id of the key
+     * @throws IllegalArgumentException if the range contains non-ASCII bytes
+     */
+    public int add(@Nonnull final byte[] key, final int off, final int len) {
+        checkNotNull(key, 1, "key");
+        checkArgument(Utf8Util.isAscii(key, off, len), Messages_.PARAM_1_2_MUST_BE_ASCII, 1, "key");
+        return addBytes(key, off, len, AsciiString.hash(key, off, len));
+    }
+
+    private int addBytes(final byte[] key, final int off, final int len, final int hash) {
+        final int found = find(key, off, len, hash);
+        if (found != NO_ID) {
+            return found;
+        }
+        ensureBytes(len);
+        System.arraycopy(key, off, bytes, byteCount, len);
+        return append(len, hash);
+    }
+
+    /**
+     * Get the id of a key.
+     *
+     * @return the id, or -1 if the key is not present
+     */
+    public int indexOf(@Nonnull final CharSequence key) {
+        checkNotNull(key, 1, "key");
+        if (key instanceof AsciiString) {
+            final AsciiString ascii = (AsciiString) key;
+            return find(ascii.array(), ascii.arrayOffset(), ascii.length(), ascii.hashCode());
+        }
+        return StringServiceUtil.isAscii(key) ? find(key, AsciiString.hash(key)) : NO_ID;
+    }
+
+    /**
+     * Get the id of a key given as a range of bytes.
+     *
+     * @return the id, or -1 if the key is not present
+     */
+    public int indexOf(@Nonnull final byte[] key, final int off, final int len) {
+        checkNotNull(key, 1, "key");
+        Objects.checkFromIndexSize(off, len, key.length);
+        return find(key, off, len, AsciiString.hash(key, off, len));
+    }
+
+    public boolean contains(@Nonnull final CharSequence key) {
+        return indexOf(key) != NO_ID;
+    }
+
+    /**
+     * Get a key as a view of the arena's storage. The view stays valid when more keys are added.
+     */
+    @Nonnull
+    public AsciiString get(final int id) {
+        Objects.checkIndex(id, size);
+        return new AsciiString(bytes, offsets[id], offsets[id + 1] - offsets[id]);
+    }
+
+    /**
+     * Get the length of a key.
+     */
+    public int length(final int id) {
+        Objects.checkIndex(id, size);
+        return offsets[id + 1] - offsets[id];
+    }
+
+    /**
+     * Release unused capacity of the key storage.
+     */
+    public void trimToSize() {
+        bytes = Arrays.copyOf(bytes, byteCount);
+        offsets = Arrays.copyOf(offsets, size + 1);
+        hashes = Arrays.copyOf(hashes, size);
+    }
+
+    private int find(final CharSequence key, final int hash) {
+        final int len = key.length();
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            final int id = table[slot];
+            if (id == NO_ID) {
+                return NO_ID;
+            }
+            if (hashes[id] == hash && offsets[id + 1] - offsets[id] == len && contentEquals(id, key)) {
+                return id;
+            }
+        }
+    }
+
+    private int find(final byte[] key, final int off, final int len, final int hash) {
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            final int id = table[slot];
+            if (id == NO_ID) {
+                return NO_ID;
+            }
+            final int start = offsets[id];
+            if (hashes[id] == hash && offsets[id + 1] - start == len
+                    && Arrays.equals(bytes, start, start + len, key, off, off + len)) {
+                return id;
+            }
+        }
+    }
+
+    private boolean contentEquals(final int id, final CharSequence key) {
+        for (int i = 0, pos = offsets[id]; i < key.length(); i++, pos++) {
+            if (bytes[pos] != key.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void ensureBytes(final int len) {
+        if (byteCount + len > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(byteCount + len, bytes.length + (bytes.length >> 1)));
+        }
+    }
+
+    /**
+     * Register the key just copied to the end of the storage.
+     */
+    private int append(final int len, final int hash) {
+        final int id = size;
+        if (id + 1 == offsets.length) {
+            offsets = Arrays.copyOf(offsets, 2 * offsets.length);
+        }
+        if (id == hashes.length) {
+            hashes = Arrays.copyOf(hashes, Math.max(8, 2 * hashes.length));
+        }
+        byteCount += len;
+        offsets[id + 1] = byteCount;
+        hashes[id] = hash;
+        size++;
+        if (2 * size > table.length) {
+            rehash();
+        } else {
+            insert(table, mask, id, hash);
+        }
+        return id;
+    }
+
+    private void rehash() {
+        final int[] newTable = newTable(2 * table.length);
+        final int newMask = newTable.length - 1;
+        for (int id = 0; id < size; id++) {
+            insert(newTable, newMask, id, hashes[id]);
+        }
+        table = newTable;
+        mask = newMask;
+    }
+
+    private static void insert(final int[] table, final int mask, final int id, final int hash) {
+        int slot = hash & mask;
+        while (table[slot] != NO_ID) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = id;
+    }
+
+    private static int[] newTable(final int minCapacity) {
+        final int[] table = new int[Math.max(16, Integer.highestOneBit(minCapacity - 1) << 1)];
+        Arrays.fill(table, NO_ID);
+        return table;
+    }
+
+    @Override
+    public String toString() {
+        return "AsciiArena[size=" + size + ", bytes=" + byteCount + "]";
+    }
+
+}
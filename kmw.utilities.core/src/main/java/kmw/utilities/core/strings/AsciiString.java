@@ -0,0 +1,373 @@
+package kmw.utilities.core.strings;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static kmw.utilities.core.base.Checks.checkArgument;
+import static kmw.utilities.core.base.Checks.checkNotNull;
+import static kmw.utilities.core.strings.StringPool.Messages_;
+
+/**
+ * An immutable sequence of ASCII characters stored as one byte each, with a cached high-quality hash and zero-copy
+ * slicing.
+ * <p>
+ * An instance is a view of a range of a {@code byte[]}: {@link #subSequence(int, int) slices} share the bytes of their
+ * parent, and an {@link AsciiArena} hands out views of its packed storage. The hash code is computed eight bytes at a
+ * time with a 64-bit mixing function and cached; it differs from {@link String#hashCode()}, so instances are only
+ * equal to other {@code AsciiString}s, see {@link #contentEquals(CharSequence)}. Ordering is that of the equivalent
+ * strings.
+ * <p>
+ * A single instance is not smaller than a compact {@code String} of the same characters: besides the shared
+ * {@code byte[]}, it holds an offset and a length next to the reference and the hash. To keep large numbers of keys,
+ * e.g. identifiers used as map keys, store them in an {@code AsciiArena}, which packs their bytes into one array, and
+ * get {@code AsciiString} views of them only where needed.
+ */
+public final class AsciiString implements CharSequence, Comparable<AsciiString> {
+
+    private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+    private static final long MULTIPLIER = 0xC2B2AE3D27D4EB4FL;
+
+    private static final AsciiString EMPTY = new AsciiString(new byte[0], 0, 0);
+
+    private final byte[] bytes;
+    private final int offset;
+    private final int length;
+    private int hash;   // 0 if not yet computed
+
+    AsciiString(final byte[] bytes, final int offset, final int length) {
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Get the empty instance.
+     */
+    @Nonnull
+    public static AsciiString empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Copy the characters of a character sequence.
+     *
+     * @throws IllegalArgumentException if {@code cs} contains non-ASCII characters
+     */
+    @Nonnull
+    public static AsciiString of(@Nonnull final CharSequence cs) {
+        checkNotNull(cs, 1, "cs");
+        if (cs instanceof AsciiString) {
+            return (AsciiString) cs;
+        }
+        checkArgument(StringServiceUtil.isAscii(cs), Messages_.PARAM_1_2_MUST_BE_ASCII, 1, "cs");
+        if (cs instanceof String) {
+            final byte[] bytes = ((String) cs).getBytes(StandardCharsets.ISO_8859_1);
+            return new AsciiString(bytes, 0, bytes.length);
+        }
+        final byte[] bytes = new byte[cs.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) cs.charAt(i);
+        }
+        return new AsciiString(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Copy a range of ASCII bytes.
+     *
+     * @throws IllegalArgumentException if the range contains non-ASCII bytes
+     */
+    @Nonnull
+    public static AsciiString copyOf(@Nonnull final byte[] bytes, final int off, final int len) {
+        checkNotNull(bytes, 1, "bytes");
+        checkArgument(Utf8Util.isAscii(bytes, off, len), Messages_.PARAM_1_2_MUST_BE_ASCII, 1, "bytes");
+        return new AsciiString(Arrays.copyOfRange(bytes, off, off + len), 0, len);
+    }
+
+    /**
+     * Wrap a range of ASCII bytes without copying them. The caller must not modify the range afterwards.
+     *
+     * @throws IllegalArgumentException if the range contains non-ASCII bytes
+     */
+    @Nonnull
+    public static AsciiString wrap(@Nonnull final byte[] bytes, final int off, final int len) {
+        checkNotNull(bytes, 1, "bytes");
+        checkArgument(Utf8Util.isAscii(bytes, off, len), Messages_.PARAM_1_2_MUST_BE_ASCII, 1, "bytes");
+        return new AsciiString(bytes, off, len);
+    }
+
+    byte[] array() {
+        return bytes;
+    }
+
+    int arrayOffset() {
+        return offset;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    @Override
+    public char charAt(final int index) {
+        Objects.checkIndex(index, length);
+        return (char) bytes[offset + index];
+    }
+
+    /**
+     * Get the byte of a character.
+     */
+    public byte byteAt(final int index) {
+        Objects.checkIndex(index, length);
+        return bytes[offset + index];
+    }
+
+    /**
+     * Get a slice of this string, sharing its bytes.
+     */
+    @Nonnull
+    @Override
+    public AsciiString subSequence(final int start, final int end) {
+        Objects.checkFromToIndex(start, end, length);
+        if (start == 0 && end == length) {
+            return this;
+        }
+        return new AsciiString(bytes, offset + start, end - start);
+    }
+
+    /**
+     * Get this string without leading and trailing whitespace, sharing its bytes.
+     *
+     * @see StringServiceUtil#strip(String)
+     */
+    @Nonnull
+    public AsciiString strip() {
+        int start = 0;
+        int end = length;
+        while (start < end && Character.isWhitespace(bytes[offset + start])) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(bytes[offset + end - 1])) {
+            end--;
+        }
+        return subSequence(start, end);
+    }
+
+    /**
+     * Get the index of the first occurrence of a character.
+     *
+     * @return the index, or -1 if there is none
+     */
+    public int indexOf(final char c) {
+        if (c < 128) {
+            for (int i = offset, end = offset + length; i < end; i++) {
+                if (bytes[i] == c) {
+                    return i - offset;
+                }
+            }
+        }
+        return -1;
+    }
+
+    public boolean startsWith(@Nonnull final AsciiString prefix) {
+        checkNotNull(prefix, 1, "prefix");
+        return prefix.length <= length && Arrays.equals(bytes, offset, offset + prefix.length,
+                prefix.bytes, prefix.offset, prefix.offset + prefix.length);
+    }
+
+    public boolean endsWith(@Nonnull final AsciiString suffix) {
+        checkNotNull(suffix, 1, "suffix");
+        final int start = offset + length - suffix.length;
+        return suffix.length <= length && Arrays.equals(bytes, start, offset + length,
+                suffix.bytes, suffix.offset, suffix.offset + suffix.length);
+    }
+
+    /**
+     * Get a lower case copy, or this instance itself if it has no upper case characters.
+     */
+    @Nonnull
+    public AsciiString toLowerCase() {
+        for (int i = 0; i < length; i++) {
+            final byte b = bytes[offset + i];
+            if (b >= 'A' && b <= 'Z') {
+                final byte[] lower = Arrays.copyOfRange(bytes, offset, offset + length);
+                for (int k = i; k < length; k++) {
+                    if (lower[k] >= 'A' && lower[k] <= 'Z') {
+                        lower[k] += 'a' - 'A';
+                    }
+                }
+                return new AsciiString(lower, 0, length);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Copy the bytes of this string into an array, starting at {@code dstOff}.
+     *
+     * @return the number of bytes copied
+     */
+    public int getBytes(@Nonnull final byte[] dst, final int dstOff) {
+        checkNotNull(dst, 1, "dst");
+        Objects.checkFromIndexSize(dstOff, length, dst.length);
+        System.arraycopy(bytes, offset, dst, dstOff, length);
+        return length;
+    }
+
+    /**
+     * Get a copy of the bytes of this string.
+     */
+    @Nonnull
+    public byte[] toByteArray() {
+        return Arrays.copyOfRange(bytes, offset, offset + length);
+    }
+
+    /**
+     * Get a read-only buffer over the bytes of this string, without copying them.
+     */
+    @Nonnull
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(bytes, offset, length).slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Append this string to a target, without an intermediate {@code String} for {@code StringBuilder}s.
+     *
+     * @return the target
+     */
+    @Nonnull
+    public <A extends Appendable> A appendTo(@Nonnull final A target) throws IOException {
+        checkNotNull(target, 1, "target");
+        if (target instanceof StringBuilder) {
+            final StringBuilder sb = (StringBuilder) target;
+            sb.ensureCapacity(sb.length() + length);
+            for (int i = offset, end = offset + length; i < end; i++) {
+                sb.append((char) bytes[i]);
+            }
+        } else {
+            target.append(toString());
+        }
+        return target;
+    }
+
+    /**
+     * Test whether this string has the same characters as a character sequence of any type.
+     */
+    public boolean contentEquals(@Nullable final CharSequence cs) {
+        if (cs instanceof AsciiString) {
+            return equals(cs);
+        }
+        if (cs == null || cs.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (cs.charAt(i) != bytes[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(@Nullable final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof AsciiString)) {
+            return false;
+        }
+        final AsciiString other = (AsciiString) obj;
+        return length == other.length
+                && (hash == 0 || other.hash == 0 || hash == other.hash)
+                && Arrays.equals(bytes, offset, offset + length, other.bytes, other.offset, other.offset + length);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = hash(bytes, offset, length);
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public int compareTo(@Nonnull final AsciiString other) {
+        return Arrays.compare(bytes, offset, offset + length, other.bytes, other.offset, other.offset + other.length);
+    }
+
+    @Nonnull
+    @Override
+    public String toString() {
+        // ISO-8859-1 bytes are copied as they are into a compact string
+        return new String(bytes, offset, length, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Hash a range of ASCII bytes, eight bytes per step.
+     */
+    static int hash(final byte[] bytes, final int off, final int len) {
+        long h = SEED ^ len;
+        final int end = off + len;
+        int i = off;
+        for (; i + 8 <= end; i += 8) {
+            h = mix(h, (long) LONG_VIEW.get(bytes, i));
+        }
+        long tail = 0;
+        for (int shift = 0; i < end; i++, shift += 8) {
+            tail |= (long) bytes[i] << shift;
+        }
+        return finish(mix(h, tail));
+    }
+
+    /**
+     * Hash the characters of a sequence exactly as {@link #hash(byte[], int, int)} hashes the equivalent ASCII bytes.
+     */
+    static int hash(final CharSequence cs) {
+        final int len = cs.length();
+        long h = SEED ^ len;
+        int i = 0;
+        for (; i + 8 <= len; i += 8) {
+            long word = 0;
+            for (int k = 7; k >= 0; k--) {
+                word = word << 8 | (cs.charAt(i + k) & 0xFF);
+            }
+            h = mix(h, word);
+        }
+        long tail = 0;
+        for (int shift = 0; i < len; i++, shift += 8) {
+            tail |= (long) (cs.charAt(i) & 0xFF) << shift;
+        }
+        return finish(mix(h, tail));
+    }
+
+    private static long mix(final long h, final long word) {
+        return Long.rotateLeft((h ^ word) * MULTIPLIER, 31) * SEED;
+    }
+
+    private static int finish(long h) {
+        // MurmurHash3 fmix64
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        final int result = (int) h;
+        return result == 0 ? 1 : result;    // 0 marks an uncomputed hash
+    }
+
+}
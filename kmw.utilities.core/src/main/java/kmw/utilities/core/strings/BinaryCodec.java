@@ -0,0 +1,803 @@
+package kmw.utilities.core.strings;
+
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static kmw.utilities.core.base.Checks.checkNotNull;
+
+/**
+ * Table-driven hex and Base64 (RFC 4648) codecs between bytes and ASCII text.
+ * <p>
+ * Bytes are encoded from {@code byte[]} ranges or {@code ByteBuffer}s directly into caller-supplied {@code char[]},
+ * {@code byte[]}, {@code ByteBuffer} or {@code Appendable} targets, without an intermediate array as with
+ * {@link java.util.Base64}. Payloads of any size can be encoded by writing them to an
+ * {@link #encodingStream(Appendable) encoding stream}. Decoding accepts upper and lower case hex digits and Base64
+ * with or without padding, and rejects any other character, including whitespace, with an
+ * {@code IllegalArgumentException}. Instances are immutable and thread-safe.
+ */
+public abstract class BinaryCodec {
+
+    /** Bytes encoded per chunk when writing to an {@code Appendable}, a multiple of every block size. */
+    private static final int CHUNK_SIZE = 3 * 1024;
+
+    private BinaryCodec() {}
+
+    private static final class Instances {
+        static final BinaryCodec HEX = new Hex("0123456789abcdef");
+        static final BinaryCodec UPPER_HEX = new Hex("0123456789ABCDEF");
+        static final BinaryCodec BASE64 =
+                new Base64("ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/", true);
+        static final BinaryCodec BASE64_URL =
+                new Base64("ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_", true);
+    }
+
+    /**
+     * Get the lower case hex codec.
+     */
+    @Nonnull
+    public static BinaryCodec hex() {
+        return Instances.HEX;
+    }
+
+    /**
+     * Get the upper case hex codec.
+     */
+    @Nonnull
+    public static BinaryCodec upperHex() {
+        return Instances.UPPER_HEX;
+    }
+
+    /**
+     * Get the padded Base64 codec with the standard alphabet.
+     */
+    @Nonnull
+    public static BinaryCodec base64() {
+        return Instances.BASE64;
+    }
+
+    /**
+     * Get the padded Base64 codec with the URL and file name safe alphabet.
+     */
+    @Nonnull
+    public static BinaryCodec base64Url() {
+        return Instances.BASE64_URL;
+    }
+
+    /**
+     * Get a codec with the same alphabet that does not pad its output. Hex codecs return themselves.
+     */
+    @Nonnull
+    public abstract BinaryCodec withoutPadding();
+
+    /**
+     * Get the number of characters the encoding of {@code byteCount} bytes takes.
+     */
+    public abstract int encodedLength(int byteCount);
+
+    /**
+     * Get the number of bytes a block of encoded characters stands for: 1 for hex, 3 for Base64.
+     */
+    abstract int blockSize();
+
+    abstract int encodeRange(byte[] src, int off, int len, char[] dst, int dstOff);
+
+    abstract int encodeRange(byte[] src, int off, int len, byte[] dst, int dstOff);
+
+    abstract int decodedLength(CharSequence src, int from, int to);
+
+    abstract int decodedLength(byte[] src, int off, int len);
+
+    abstract void decodeRange(CharSequence src, int from, int to, byte[] dst, int dstOff);
+
+    abstract void decodeRange(byte[] src, int off, int len, byte[] dst, int dstOff);
+
+    // Encoding
+    //-----------------------------------------------------------------------
+
+    /**
+     * Encode a byte array.
+     */
+    @Nonnull
+    public String encode(@Nonnull final byte[] src) {
+        checkNotNull(src, 1, "src");
+        return encode(src, 0, src.length);
+    }
+
+    /**
+     * Encode a range of a byte array.
+     */
+    @Nonnull
+    public String encode(@Nonnull final byte[] src, final int off, final int len) {
+        checkNotNull(src, 1, "src");
+        Objects.checkFromIndexSize(off, len, src.length);
+        final byte[] ascii = new byte[encodedLength(len)];
+        encodeRange(src, off, len, ascii, 0);
+        return new String(ascii, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Encode a byte array into a compact {@link AsciiString}.
+     */
+    @Nonnull
+    public AsciiString encodeToAscii(@Nonnull final byte[] src) {
+        checkNotNull(src, 1, "src");
+        final byte[] ascii = new byte[encodedLength(src.length)];
+        encodeRange(src, 0, src.length, ascii, 0);
+        return new AsciiString(ascii, 0, ascii.length);
+    }
+
+    /**
+     * Encode a range of a byte array into a char array, starting at {@code dstOff}.
+     *
+     * @return the number of chars written
+     */
+    public int encode(@Nonnull final byte[] src, final int off, final int len,
+                      @Nonnull final char[] dst, final int dstOff) {
+        checkNotNull(src, 1, "src");
+        checkNotNull(dst, 4, "dst");
+        Objects.checkFromIndexSize(off, len, src.length);
+        Objects.checkFromIndexSize(dstOff, encodedLength(len), dst.length);
+        return encodeRange(src, off, len, dst, dstOff);
+    }
+
+    /**
+     * Encode a range of a byte array into ASCII bytes, starting at {@code dstOff}.
+     *
+     * @return the number of bytes written
+     */
+    public int encode(@Nonnull final byte[] src, final int off, final int len,
+                      @Nonnull final byte[] dst, final int dstOff) {
+        checkNotNull(src, 1, "src");
+        checkNotNull(dst, 4, "dst");
+        Objects.checkFromIndexSize(off, len, src.length);
+        Objects.checkFromIndexSize(dstOff, encodedLength(len), dst.length);
+        return encodeRange(src, off, len, dst, dstOff);
+    }
+
+    /**
+     * Append the encoding of a range of a byte array.
+     *
+     * @return the target
+     */
+    @Nonnull
+    public StringBuilder encode(@Nonnull final byte[] src, final int off, final int len,
+                                @Nonnull final StringBuilder target) {
+        checkNotNull(target, 4, "target");
+        target.ensureCapacity(target.length() + encodedLength(len));
+        try {
+            encode(src, off, len, (Appendable) target);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        return target;
+    }
+
+    /**
+     * Append the encoding of a range of a byte array, in chunks of a small char buffer.
+     *
+     * @return the target
+     */
+    @Nonnull
+    public <A extends Appendable> A encode(@Nonnull final byte[] src, final int off, final int len,
+                                           @Nonnull final A target) throws IOException {
+        checkNotNull(src, 1, "src");
+        checkNotNull(target, 4, "target");
+        Objects.checkFromIndexSize(off, len, src.length);
+        final char[] chars = new char[encodedLength(Math.min(len, CHUNK_SIZE))];
+        for (int pos = off, end = off + len; pos < end; pos += CHUNK_SIZE) {
+            final int n = encodeRange(src, pos, Math.min(CHUNK_SIZE, end - pos), chars, 0);
+            appendChars(target, chars, n);
+        }
+        return target;
+    }
+
+    /**
+     * Append the encoding of the remaining bytes of a buffer, advancing its position to its limit.
+     *
+     * @return the target
+     */
+    @Nonnull
+    public <A extends Appendable> A encode(@Nonnull final ByteBuffer src, @Nonnull final A target) throws IOException {
+        checkNotNull(src, 1, "src");
+        checkNotNull(target, 2, "target");
+        if (src.hasArray()) {
+            encode(src.array(), src.arrayOffset() + src.position(), src.remaining(), target);
+            src.position(src.limit());
+            return target;
+        }
+        final byte[] chunk = new byte[Math.min(src.remaining(), CHUNK_SIZE)];
+        while (src.hasRemaining()) {
+            final int n = Math.min(src.remaining(), chunk.length);
+            src.get(chunk, 0, n);
+            encode(chunk, 0, n, target);
+        }
+        return target;
+    }
+
+    /**
+     * Encode the remaining bytes of a buffer as ASCII bytes into another buffer, advancing both positions.
+     *
+     * @return the target
+     * @throws BufferOverflowException if {@code target} has not enough room; no bytes are consumed then
+     */
+    @Nonnull
+    public ByteBuffer encode(@Nonnull final ByteBuffer src, @Nonnull final ByteBuffer target) {
+        checkNotNull(src, 1, "src");
+        checkNotNull(target, 2, "target");
+        final int encodedLength = encodedLength(src.remaining());
+        if (target.remaining() < encodedLength) {
+            throw new BufferOverflowException();
+        }
+        if (src.hasArray() && target.hasArray()) {
+            encodeRange(src.array(), src.arrayOffset() + src.position(), src.remaining(),
+                    target.array(), target.arrayOffset() + target.position());
+            src.position(src.limit());
+            target.position(target.position() + encodedLength);
+            return target;
+        }
+        final byte[] chunk = new byte[Math.min(src.remaining(), CHUNK_SIZE)];
+        final byte[] ascii = new byte[encodedLength(chunk.length)];
+        while (src.hasRemaining()) {
+            final int n = Math.min(src.remaining(), chunk.length);
+            src.get(chunk, 0, n);
+            target.put(ascii, 0, encodeRange(chunk, 0, n, ascii, 0));
+        }
+        return target;
+    }
+
+    /**
+     * Get an output stream that encodes all bytes written to it and appends the encoding to {@code target}, e.g. a
+     * {@code Writer}. Bytes are buffered until a chunk of them is complete, {@link OutputStream#flush()} appends all
+     * complete blocks, and {@link OutputStream#close()} appends the final, padded block and closes the target if it
+     * is {@code Closeable}.
+     */
+    @Nonnull
+    public OutputStream encodingStream(@Nonnull final Appendable target) {
+        checkNotNull(target, 1, "target");
+        return new EncodingStream(this, target);
+    }
+
+    private static void appendChars(final Appendable target, final char[] chars, final int count) throws IOException {
+        if (target instanceof StringBuilder) {
+            ((StringBuilder) target).append(chars, 0, count);
+        } else if (target instanceof Writer) {
+            ((Writer) target).write(chars, 0, count);
+        } else {
+            target.append(CharBuffer.wrap(chars, 0, count));
+        }
+    }
+
+    // Decoding
+    //-----------------------------------------------------------------------
+
+    /**
+     * Decode a character sequence.
+     *
+     * @throws IllegalArgumentException if the input is not a valid encoding
+     */
+    @Nonnull
+    public byte[] decode(@Nonnull final CharSequence src) {
+        checkNotNull(src, 1, "src");
+        if (src instanceof AsciiString) {
+            final AsciiString ascii = (AsciiString) src;
+            final byte[] bytes = new byte[decodedLength(ascii.array(), ascii.arrayOffset(), ascii.length())];
+            decodeRange(ascii.array(), ascii.arrayOffset(), ascii.length(), bytes, 0);
+            return bytes;
+        }
+        final byte[] bytes = new byte[decodedLength(src, 0, src.length())];
+        decodeRange(src, 0, src.length(), bytes, 0);
+        return bytes;
+    }
+
+    /**
+     * Decode a range of a character sequence into a byte array, starting at {@code dstOff}.
+     *
+     * @return the number of bytes written
+     * @throws IllegalArgumentException if the input is not a valid encoding
+     */
+    public int decode(@Nonnull final CharSequence src, final int from, final int to,
+                      @Nonnull final byte[] dst, final int dstOff) {
+        checkNotNull(src, 1, "src");
+        checkNotNull(dst, 4, "dst");
+        Objects.checkFromToIndex(from, to, src.length());
+        final int decodedLength = decodedLength(src, from, to);
+        Objects.checkFromIndexSize(dstOff, decodedLength, dst.length);
+        decodeRange(src, from, to, dst, dstOff);
+        return decodedLength;
+    }
+
+    /**
+     * Decode a range of ASCII bytes into a byte array, starting at {@code dstOff}. The destination may be the source
+     * array itself with {@code dstOff <= off}, which decodes in place.
+     *
+     * @return the number of bytes written
+     * @throws IllegalArgumentException if the input is not a valid encoding
+     */
+    public int decode(@Nonnull final byte[] src, final int off, final int len,
+                      @Nonnull final byte[] dst, final int dstOff) {
+        checkNotNull(src, 1, "src");
+        checkNotNull(dst, 4, "dst");
+        Objects.checkFromIndexSize(off, len, src.length);
+        final int decodedLength = decodedLength(src, off, len);
+        Objects.checkFromIndexSize(dstOff, decodedLength, dst.length);
+        decodeRange(src, off, len, dst, dstOff);
+        return decodedLength;
+    }
+
+    /**
+     * Decode a character sequence into a buffer, advancing its position past the decoded bytes.
+     *
+     * @return the target
+     * @throws IllegalArgumentException if the input is not a valid encoding
+     * @throws BufferOverflowException if {@code target} has not enough room
+     */
+    @Nonnull
+    public ByteBuffer decode(@Nonnull final CharSequence src, @Nonnull final ByteBuffer target) {
+        checkNotNull(src, 1, "src");
+        checkNotNull(target, 2, "target");
+        final int decodedLength = decodedLength(src, 0, src.length());
+        if (target.remaining() < decodedLength) {
+            throw new BufferOverflowException();
+        }
+        if (target.hasArray()) {
+            decodeRange(src, 0, src.length(), target.array(), target.arrayOffset() + target.position());
+            target.position(target.position() + decodedLength);
+        } else {
+            final byte[] bytes = new byte[decodedLength];
+            decodeRange(src, 0, src.length(), bytes, 0);
+            target.put(bytes);
+        }
+        return target;
+    }
+
+    private static IllegalArgumentException invalidInput(final String codec, final int index) {
+        return new IllegalArgumentException("Invalid " + codec + " input at index " + index);
+    }
+
+    /**
+     * Hex: two digits per byte, high nibble first.
+     */
+    private static final class Hex extends BinaryCodec {
+        private static final byte[] VALUES = new byte[128];
+        static {
+            Arrays.fill(VALUES, (byte) -1);
+            for (int i = 0; i < 16; i++) {
+                VALUES["0123456789abcdef".charAt(i)] = (byte) i;
+                VALUES["0123456789ABCDEF".charAt(i)] = (byte) i;
+            }
+        }
+
+        private final char[] pairs = new char[512];     // [2 * b], [2 * b + 1] are the digits of b
+
+        Hex(final String digits) {
+            for (int b = 0; b < 256; b++) {
+                pairs[2 * b] = digits.charAt(b >>> 4);
+                pairs[2 * b + 1] = digits.charAt(b & 0xF);
+            }
+        }
+
+        @Override
+        public BinaryCodec withoutPadding() {
+            return this;
+        }
+
+        @Override
+        public int encodedLength(final int byteCount) {
+            return Math.multiplyExact(byteCount, 2);
+        }
+
+        @Override
+        int blockSize() {
+            return 1;
+        }
+
+        @Override
+        int encodeRange(final byte[] src, final int off, final int len, final char[] dst, final int dstOff) {
+            for (int i = off, pos = dstOff, end = off + len; i < end; i++, pos += 2) {
+                final int b = (src[i] & 0xFF) << 1;
+                dst[pos] = pairs[b];
+                dst[pos + 1] = pairs[b + 1];
+            }
+            return 2 * len;
+        }
+
+        @Override
+        int encodeRange(final byte[] src, final int off, final int len, final byte[] dst, final int dstOff) {
+            for (int i = off, pos = dstOff, end = off + len; i < end; i++, pos += 2) {
+                final int b = (src[i] & 0xFF) << 1;
+                dst[pos] = (byte) pairs[b];
+                dst[pos + 1] = (byte) pairs[b + 1];
+            }
+            return 2 * len;
+        }
+
+        @Override
+        int decodedLength(final CharSequence src, final int from, final int to) {
+            if (((to - from) & 1) != 0) {
+                throw invalidInput("hex", to);
+            }
+            return (to - from) >>> 1;
+        }
+
+        @Override
+        int decodedLength(final byte[] src, final int off, final int len) {
+            if ((len & 1) != 0) {
+                throw invalidInput("hex", off + len);
+            }
+            return len >>> 1;
+        }
+
+        @Override
+        void decodeRange(final CharSequence src, final int from, final int to, final byte[] dst, final int dstOff) {
+            for (int i = from, pos = dstOff; i < to; i += 2) {
+                final int b = value(src.charAt(i)) << 4 | value(src.charAt(i + 1));
+                if (b < 0) {
+                    throw invalidInput("hex", value(src.charAt(i)) < 0 ? i : i + 1);
+                }
+                dst[pos++] = (byte) b;
+            }
+        }
+
+        @Override
+        void decodeRange(final byte[] src, final int off, final int len, final byte[] dst, final int dstOff) {
+            for (int i = off, pos = dstOff, end = off + len; i < end; i += 2) {
+                final int b = value(src[i]) << 4 | value(src[i + 1]);
+                if (b < 0) {
+                    throw invalidInput("hex", value(src[i]) < 0 ? i : i + 1);
+                }
+                dst[pos++] = (byte) b;
+            }
+        }
+
+        private static int value(final int c) {
+            return c >= 0 && c < 128 ? VALUES[c] : -1;
+        }
+
+        @Override
+        public String toString() {
+            return pairs[21] == 'a' ? "BinaryCodec.hex()" : "BinaryCodec.upperHex()";
+        }
+    }
+
+    /**
+     * Base64: four characters per three bytes, the last block padded with {@code '='}.
+     */
+    private static final class Base64 extends BinaryCodec {
+        private static final char PAD = '=';
+
+        private final String alphabet;
+        private final char[] chars;
+        private final byte[] bytes;
+        private final byte[] values = new byte[128];
+        private final boolean padding;
+        private final Base64 other;     // the same alphabet with the opposite padding
+
+        Base64(final String alphabet, final boolean padding) {
+            this.alphabet = alphabet;
+            this.chars = alphabet.toCharArray();
+            this.bytes = alphabet.getBytes(StandardCharsets.US_ASCII);
+            Arrays.fill(values, (byte) -1);
+            for (int i = 0; i < 64; i++) {
+                values[chars[i]] = (byte) i;
+            }
+            this.padding = padding;
+            this.other = padding ? new Base64(this) : null;
+        }
+
+        private Base64(final Base64 padded) {
+            this.alphabet = padded.alphabet;
+            this.chars = padded.chars;
+            this.bytes = padded.bytes;
+            System.arraycopy(padded.values, 0, values, 0, values.length);
+            this.padding = false;
+            this.other = padded;
+        }
+
+        @Override
+        public BinaryCodec withoutPadding() {
+            return padding ? other : this;
+        }
+
+        @Override
+        public int encodedLength(final int byteCount) {
+            final int tail = byteCount % 3;
+            final int length = Math.multiplyExact(byteCount / 3, 4);
+            return tail == 0 ? length : Math.addExact(length, padding ? 4 : tail + 1);
+        }
+
+        @Override
+        int blockSize() {
+            return 3;
+        }
+
+        @Override
+        int encodeRange(final byte[] src, final int off, final int len, final char[] dst, final int dstOff) {
+            final int fullEnd = off + len - len % 3;
+            int i = off;
+            int pos = dstOff;
+            while (i < fullEnd) {
+                final int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8 | (src[i + 2] & 0xFF);
+                dst[pos] = chars[bits >>> 18];
+                dst[pos + 1] = chars[(bits >>> 12) & 0x3F];
+                dst[pos + 2] = chars[(bits >>> 6) & 0x3F];
+                dst[pos + 3] = chars[bits & 0x3F];
+                i += 3;
+                pos += 4;
+            }
+            final int tail = len % 3;
+            if (tail > 0) {
+                final int bits = (src[i] & 0xFF) << 16 | (tail == 2 ? (src[i + 1] & 0xFF) << 8 : 0);
+                dst[pos++] = chars[bits >>> 18];
+                dst[pos++] = chars[(bits >>> 12) & 0x3F];
+                if (tail == 2) {
+                    dst[pos++] = chars[(bits >>> 6) & 0x3F];
+                } else if (padding) {
+                    dst[pos++] = PAD;
+                }
+                if (padding) {
+                    dst[pos++] = PAD;
+                }
+            }
+            return pos - dstOff;
+        }
+
+        @Override
+        int encodeRange(final byte[] src, final int off, final int len, final byte[] dst, final int dstOff) {
+            final int fullEnd = off + len - len % 3;
+            int i = off;
+            int pos = dstOff;
+            while (i < fullEnd) {
+                final int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8 | (src[i + 2] & 0xFF);
+                dst[pos] = bytes[bits >>> 18];
+                dst[pos + 1] = bytes[(bits >>> 12) & 0x3F];
+                dst[pos + 2] = bytes[(bits >>> 6) & 0x3F];
+                dst[pos + 3] = bytes[bits & 0x3F];
+                i += 3;
+                pos += 4;
+            }
+            final int tail = len % 3;
+            if (tail > 0) {
+                final int bits = (src[i] & 0xFF) << 16 | (tail == 2 ? (src[i + 1] & 0xFF) << 8 : 0);
+                dst[pos++] = bytes[bits >>> 18];
+                dst[pos++] = bytes[(bits >>> 12) & 0x3F];
+                if (tail == 2) {
+                    dst[pos++] = bytes[(bits >>> 6) & 0x3F];
+                } else if (padding) {
+                    dst[pos++] = PAD;
+                }
+                if (padding) {
+                    dst[pos++] = PAD;
+                }
+            }
+            return pos - dstOff;
+        }
+
+        @Override
+        int decodedLength(final CharSequence src, final int from, final int to) {
+            int end = to;
+            while (end > from && to - end < 2 && src.charAt(end - 1) == PAD) {
+                end--;
+            }
+            return decodedLength(from, end, to);
+        }
+
+        @Override
+        int decodedLength(final byte[] src, final int off, final int len) {
+            final int to = off + len;
+            int end = to;
+            while (end > off && to - end < 2 && src[end - 1] == PAD) {
+                end--;
+            }
+            return decodedLength(off, end, to);
+        }
+
+        /**
+         * Get the decoded length of the unpadded range [from, end), checking the padding up to {@code to}.
+         */
+        private static int decodedLength(final int from, final int end, final int to) {
+            final int tail = (end - from) & 3;
+            if (tail == 1 || (end != to && ((to - from) & 3) != 0)) {
+                throw invalidInput("base64", end);
+            }
+            return (end - from) / 4 * 3 + (tail == 0 ? 0 : tail - 1);
+        }
+
+        @Override
+        void decodeRange(final CharSequence src, final int from, final int to, final byte[] dst, final int dstOff) {
+            int end = to;
+            while (end > from && to - end < 2 && src.charAt(end - 1) == PAD) {
+                end--;
+            }
+            final int fullEnd = end - ((end - from) & 3);
+            int i = from;
+            int pos = dstOff;
+            while (i < fullEnd) {
+                final int bits = value(src.charAt(i)) << 18 | value(src.charAt(i + 1)) << 12
+                        | value(src.charAt(i + 2)) << 6 | value(src.charAt(i + 3));
+                if (bits < 0) {
+                    throw invalidInput("base64", firstInvalid(src, i));
+                }
+                dst[pos] = (byte) (bits >> 16);
+                dst[pos + 1] = (byte) (bits >> 8);
+                dst[pos + 2] = (byte) bits;
+                i += 4;
+                pos += 3;
+            }
+            if (i < end) {
+                final int bits = value(src.charAt(i)) << 18 | value(src.charAt(i + 1)) << 12
+                        | (end - i == 3 ? value(src.charAt(i + 2)) << 6 : 0);
+                if (bits < 0) {
+                    throw invalidInput("base64", firstInvalid(src, i));
+                }
+                dst[pos] = (byte) (bits >> 16);
+                if (end - i == 3) {
+                    dst[pos + 1] = (byte) (bits >> 8);
+                }
+            }
+        }
+
+        @Override
+        void decodeRange(final byte[] src, final int off, final int len, final byte[] dst, final int dstOff) {
+            final int to = off + len;
+            int end = to;
+            while (end > off && to - end < 2 && src[end - 1] == PAD) {
+                end--;
+            }
+            final int fullEnd = end - ((end - off) & 3);
+            int i = off;
+            int pos = dstOff;
+            while (i < fullEnd) {
+                final int bits = value(src[i]) << 18 | value(src[i + 1]) << 12 | value(src[i + 2]) << 6
+                        | value(src[i + 3]);
+                if (bits < 0) {
+                    throw invalidInput("base64", firstInvalid(src, i));
+                }
+                dst[pos] = (byte) (bits >> 16);
+                dst[pos + 1] = (byte) (bits >> 8);
+                dst[pos + 2] = (byte) bits;
+                i += 4;
+                pos += 3;
+            }
+            if (i < end) {
+                final int bits = value(src[i]) << 18 | value(src[i + 1]) << 12
+                        | (end - i == 3 ? value(src[i + 2]) << 6 : 0);
+                if (bits < 0) {
+                    throw invalidInput("base64", firstInvalid(src, i));
+                }
+                dst[pos] = (byte) (bits >> 16);
+                if (end - i == 3) {
+                    dst[pos + 1] = (byte) (bits >> 8);
+                }
+            }
+        }
+
+        private int value(final int c) {
+            return c >= 0 && c < 128 ? values[c] : -1;
+        }
+
+        private int firstInvalid(final CharSequence src, final int from) {
+            int i = from;
+            while (value(src.charAt(i)) >= 0) {
+                i++;
+            }
+            return i;
+        }
+
+        private int firstInvalid(final byte[] src, final int from) {
+            int i = from;
+            while (value(src[i]) >= 0) {
+                i++;
+            }
+            return i;
+        }
+
+        @Override
+        public String toString() {
+            return (chars[62] == '+' ? "BinaryCodec.base64()" : "BinaryCodec.base64Url()")
+                    + (padding ? "" : ".withoutPadding()");
+        }
+    }
+
+    /**
+     * Buffers written bytes and appends their encoding chunk by chunk, keeping an incomplete block for the next write.
+     */
+    private static final class EncodingStream extends OutputStream {
+        private final BinaryCodec codec;
+        private final Appendable target;
+        private final byte[] buffer = new byte[CHUNK_SIZE];
+        private final char[] chars;
+        private int count;
+        private boolean closed;
+
+        EncodingStream(final BinaryCodec codec, final Appendable target) {
+            this.codec = codec;
+            this.target = target;
+            this.chars = new char[codec.encodedLength(CHUNK_SIZE)];
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            ensureOpen();
+            buffer[count++] = (byte) b;
+            if (count == buffer.length) {
+                emit(buffer, 0, count);
+                count = 0;
+            }
+        }
+
+        @Override
+        public void write(@Nonnull final byte[] b, int off, int len) throws IOException {
+            checkNotNull(b, 1, "b");
+            Objects.checkFromIndexSize(off, len, b.length);
+            ensureOpen();
+            while (len > 0) {
+                if (count == 0 && len >= buffer.length) {
+                    // encode whole chunks straight from the caller's array
+                    emit(b, off, buffer.length);
+                    off += buffer.length;
+                    len -= buffer.length;
+                    continue;
+                }
+                final int n = Math.min(len, buffer.length - count);
+                System.arraycopy(b, off, buffer, count, n);
+                count += n;
+                off += n;
+                len -= n;
+                if (count == buffer.length) {
+                    emit(buffer, 0, count);
+                    count = 0;
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            ensureOpen();
+            final int complete = count - count % codec.blockSize();
+            if (complete > 0) {
+                emit(buffer, 0, complete);
+                System.arraycopy(buffer, complete, buffer, 0, count - complete);
+                count -= complete;
+            }
+            if (target instanceof Flushable) {
+                ((Flushable) target).flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            emit(buffer, 0, count);
+            count = 0;
+            if (target instanceof Closeable) {
+                ((Closeable) target).close();
+            } else if (target instanceof Flushable) {
+                ((Flushable) target).flush();
+            }
+        }
+
+        private void emit(final byte[] src, final int off, final int len) throws IOException {
+            appendChars(target, chars, codec.encodeRange(src, off, len, chars, 0));
+        }
+
+        private void ensureOpen() throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+        }
+    }
+
+}
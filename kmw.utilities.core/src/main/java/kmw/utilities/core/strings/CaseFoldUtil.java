@@ -0,0 +1,251 @@
+package kmw.utilities.core.strings;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Locale;
+
+import static kmw.utilities.core.base.Checks.checkNotNull;
+
+/**
+ * Locale-independent case conversion and case-insensitive comparison.
+ * <p>
+ * Conversions take an ASCII fast path and fall back to {@link Locale#ROOT} rules for other input. They return the
+ * input instance if nothing needs to change. Case-insensitive equality and hashing use the same per-char folding as
+ * {@link String#equalsIgnoreCase(String)} and never allocate.
+ */
+public final class CaseFoldUtil {
+
+    private CaseFoldUtil() {}
+
+    /**
+     * Convert a string to lower case.
+     *
+     * @return the converted string, or {@code s} itself if it has no upper case characters
+     */
+    @Nonnull
+    public static String toLowerCase(@Nonnull final String s) {
+        checkNotNull(s, 1, "s");
+        final int len = s.length();
+        int i = 0;
+        for (char c; i < len && (c = s.charAt(i)) < 0x80; i++) {
+            if (c >= 'A' && c <= 'Z') {
+                break;
+            }
+        }
+        if (i == len) {
+            return s;
+        }
+        final char[] chars = s.toCharArray();
+        for (; i < len; i++) {
+            final char c = chars[i];
+            if (c >= 0x80) {
+                return s.toLowerCase(Locale.ROOT);
+            }
+            if (c >= 'A' && c <= 'Z') {
+                chars[i] = (char) (c + ('a' - 'A'));
+            }
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Convert a string to upper case.
+     *
+     * @return the converted string, or {@code s} itself if it has no lower case characters
+     */
+    @Nonnull
+    public static String toUpperCase(@Nonnull final String s) {
+        checkNotNull(s, 1, "s");
+        final int len = s.length();
+        int i = 0;
+        for (char c; i < len && (c = s.charAt(i)) < 0x80; i++) {
+            if (c >= 'a' && c <= 'z') {
+                break;
+            }
+        }
+        if (i == len) {
+            return s;
+        }
+        final char[] chars = s.toCharArray();
+        for (; i < len; i++) {
+            final char c = chars[i];
+            if (c >= 0x80) {
+                return s.toUpperCase(Locale.ROOT);
+            }
+            if (c >= 'a' && c <= 'z') {
+                chars[i] = (char) (c - ('a' - 'A'));
+            }
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Convert a string to proper case: the first letter of each whitespace-separated word is converted to title case,
+     * all other letters to lower case. Whitespace is preserved as is.
+     *
+     * @return the converted string, or {@code s} itself if it is already in proper case
+     */
+    @Nonnull
+    public static String toProperCase(@Nonnull final String s) {
+        checkNotNull(s, 1, "s");
+        final CharClass whitespace = CharClass.whitespace();
+        final int len = s.length();
+        StringBuilder sb = null;
+        boolean wordStart = true;
+        for (int i = 0; i < len; ) {
+            final int cp = s.codePointAt(i);
+            final int n = Character.charCount(cp);
+            final int converted;
+            if (n == 1 && whitespace.matches((char) cp)) {
+                converted = cp;
+                wordStart = true;
+            } else {
+                converted = wordStart ? Character.toTitleCase(cp) : Character.toLowerCase(cp);
+                wordStart = false;
+            }
+            if (sb == null && converted != cp) {
+                sb = new StringBuilder(len).append(s, 0, i);
+            }
+            if (sb != null) {
+                sb.appendCodePoint(converted);
+            }
+            i += n;
+        }
+        return sb == null ? s : sb.toString();
+    }
+
+    /**
+     * Append a character sequence converted to lower case. Runs of unchanged ASCII characters are appended as ranges.
+     *
+     * @return the target
+     */
+    @Nonnull
+    public static <A extends Appendable> A appendLowerCase(@Nonnull final A target, @Nonnull final CharSequence cs)
+            throws IOException {
+        return appendAsciiCase(target, cs, 'A', 'Z', 'a' - 'A');
+    }
+
+    /**
+     * Append a character sequence converted to upper case. Runs of unchanged ASCII characters are appended as ranges.
+     *
+     * @return the target
+     */
+    @Nonnull
+    public static <A extends Appendable> A appendUpperCase(@Nonnull final A target, @Nonnull final CharSequence cs)
+            throws IOException {
+        return appendAsciiCase(target, cs, 'a', 'z', 'A' - 'a');
+    }
+
+    private static <A extends Appendable> A appendAsciiCase(final A target, final CharSequence cs,
+                                                            final char from, final char to, final int delta)
+            throws IOException {
+        checkNotNull(target, 1, "target");
+        checkNotNull(cs, 2, "cs");
+        final int len = cs.length();
+        for (int i = 0; i < len; i++) {
+            if (cs.charAt(i) >= 0x80) {
+                final String s = cs.toString();
+                target.append(delta > 0 ? s.toLowerCase(Locale.ROOT) : s.toUpperCase(Locale.ROOT));
+                return target;
+            }
+        }
+        int runStart = 0;
+        for (int i = 0; i < len; i++) {
+            final char c = cs.charAt(i);
+            if (c >= from && c <= to) {
+                if (runStart < i) {
+                    target.append(cs, runStart, i);
+                }
+                target.append((char) (c + delta));
+                runStart = i + 1;
+            }
+        }
+        if (runStart < len) {
+            target.append(cs, runStart, len);
+        }
+        return target;
+    }
+
+    /**
+     * Append a character sequence converted to proper case.
+     *
+     * @return the target
+     * @see #toProperCase(String)
+     */
+    @Nonnull
+    public static <A extends Appendable> A appendProperCase(@Nonnull final A target, @Nonnull final CharSequence cs)
+            throws IOException {
+        checkNotNull(target, 1, "target");
+        checkNotNull(cs, 2, "cs");
+        final CharClass whitespace = CharClass.whitespace();
+        boolean wordStart = true;
+        for (int i = 0; i < cs.length(); ) {
+            final int cp = Character.codePointAt(cs, i);
+            final int n = Character.charCount(cp);
+            if (n == 1 && whitespace.matches((char) cp)) {
+                target.append((char) cp);
+                wordStart = true;
+            } else {
+                final int converted = wordStart ? Character.toTitleCase(cp) : Character.toLowerCase(cp);
+                if (Character.isBmpCodePoint(converted)) {
+                    target.append((char) converted);
+                } else {
+                    target.append(Character.highSurrogate(converted)).append(Character.lowSurrogate(converted));
+                }
+                wordStart = false;
+            }
+            i += n;
+        }
+        return target;
+    }
+
+    /**
+     * Compare two character sequences, ignoring case differences.
+     *
+     * @return true if both are {@code null}, or both have the same length and all their chars are equal ignoring case
+     */
+    public static boolean equalsIgnoreCase(@Nullable final CharSequence a, @Nullable final CharSequence b) {
+        if (a == b) {
+            return true;
+        }
+        if (a == null || b == null || a.length() != b.length()) {
+            return false;
+        }
+        for (int i = 0; i < a.length(); i++) {
+            final char c1 = a.charAt(i);
+            final char c2 = b.charAt(i);
+            if (c1 != c2 && fold(c1) != fold(c2)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compute a hash code that is consistent with {@link #equalsIgnoreCase(CharSequence, CharSequence)}.
+     *
+     * @return the hash code, or 0 for {@code null}
+     */
+    public static int hashIgnoreCase(@Nullable final CharSequence cs) {
+        if (cs == null) {
+            return 0;
+        }
+        int h = 0;
+        for (int i = 0; i < cs.length(); i++) {
+            h = 31 * h + fold(cs.charAt(i));
+        }
+        return h;
+    }
+
+    /**
+     * Fold a char to its case-insensitive representative.
+     */
+    private static char fold(final char c) {
+        if (c < 0x80) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+}
@@ -0,0 +1,55 @@
+package kmw.utilities.core.strings;
+
+import javax.annotation.Nonnull;
+
+import static kmw.utilities.core.base.Checks.checkNotNull;
+
+/**
+ * A map key wrapping a string that is compared and hashed ignoring case, so keys such as header names can be looked
+ * up without lower-casing them first. The original spelling is kept and returned by {@link #toString()}.
+ */
+public final class CaseInsensitiveKey implements Comparable<CaseInsensitiveKey> {
+
+    private final String value;
+    private final int hash;
+
+    private CaseInsensitiveKey(final String value) {
+        this.value = value;
+        this.hash = CaseFoldUtil.hashIgnoreCase(value);
+    }
+
+    @Nonnull
+    public static CaseInsensitiveKey of(@Nonnull final String value) {
+        checkNotNull(value, 1, "value");
+        return new CaseInsensitiveKey(value);
+    }
+
+    @Nonnull
+    public String value() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CaseInsensitiveKey)) return false;
+        final CaseInsensitiveKey that = (CaseInsensitiveKey) o;
+        return hash == that.hash && CaseFoldUtil.equalsIgnoreCase(value, that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public int compareTo(@Nonnull final CaseInsensitiveKey o) {
+        return String.CASE_INSENSITIVE_ORDER.compare(value, o.value);
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+
+}
@@ -0,0 +1,448 @@
+package kmw.utilities.core.strings;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+import static kmw.utilities.core.base.Checks.checkNotNull;
+
+/**
+ * A compiled, immutable set of {@code char}s with bulk operations on character sequences.
+ * <p>
+ * Membership of ASCII characters is a single bit test against two {@code long}s. Other characters of the BMP are
+ * either looked up in a sorted array (small explicit sets, see {@link #anyOf(CharSequence)}) or in a bitmap covering
+ * the whole BMP (classes defined by a predicate, see {@link #forPredicate(IntPredicate)}). Characters are matched as
+ * UTF-16 code units.
+ * <p>
+ * All transforming operations return the input instance unchanged if no character needs to be touched.
+ * Instances are thread-safe and intended to be compiled once and kept in a constant.
+ */
+public final class CharClass {
+
+    private static final int BITMAP_WORDS = (Character.MAX_VALUE + 1) >> 6;
+
+    private final long lo;          // chars 0..63
+    private final long hi;          // chars 64..127
+    private final char[] others;    // sorted non-ASCII members, or null
+    private final long[] bitmap;    // all members over the BMP, or null
+
+    private CharClass(final long lo, final long hi, final char[] others, final long[] bitmap) {
+        this.lo = lo;
+        this.hi = hi;
+        this.others = others;
+        this.bitmap = bitmap;
+    }
+
+    private static final class Whitespace {
+        static final CharClass INSTANCE = forPredicate(Character::isWhitespace);
+    }
+
+    /**
+     * Get the class of all characters for which {@link Character#isWhitespace(char)} is true.
+     *
+     * @return the shared whitespace class
+     */
+    @Nonnull
+    public static CharClass whitespace() {
+        return Whitespace.INSTANCE;
+    }
+
+    /**
+     * Compile the set of characters contained in the given sequence.
+     * <p>
+     * Supplementary characters are not members as such: their surrogates are added separately, and each then
+     * matches on its own, also as half of a different supplementary character.
+     *
+     * @param chars the member characters; e.g. {@code "az\n"} matches 'a's, 'z's and new lines
+     * @return the compiled class
+     */
+    @Nonnull
+    public static CharClass anyOf(@Nonnull final CharSequence chars) {
+        checkNotNull(chars, 1, "chars");
+        long lo = 0L;
+        long hi = 0L;
+        char[] others = null;
+        int otherCount = 0;
+        for (int i = 0; i < chars.length(); i++) {
+            final char c = chars.charAt(i);
+            if (c < 64) {
+                lo |= 1L << c;
+            } else if (c < 128) {
+                hi |= 1L << c;
+            } else {
+                if (others == null) {
+                    others = new char[chars.length() - i];
+                }
+                others[otherCount++] = c;
+            }
+        }
+        if (others != null) {
+            Arrays.sort(others, 0, otherCount);
+            others = Arrays.copyOf(others, otherCount);
+        }
+        return new CharClass(lo, hi, others, null);
+    }
+
+    /**
+     * Compile the set of characters in the given (inclusive) range.
+     */
+    @Nonnull
+    public static CharClass inRange(final char startInclusive, final char endInclusive) {
+        return forPredicate(c -> c >= startInclusive && c <= endInclusive);
+    }
+
+    /**
+     * Compile the set of all characters accepted by a predicate. The predicate is evaluated once for each of the
+     * 65536 {@code char} values.
+     */
+    @Nonnull
+    public static CharClass forPredicate(@Nonnull final IntPredicate predicate) {
+        checkNotNull(predicate, 1, "predicate");
+        final long[] bitmap = new long[BITMAP_WORDS];
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            if (predicate.test(c)) {
+                bitmap[c >> 6] |= 1L << c;
+            }
+        }
+        return new CharClass(bitmap[0], bitmap[1], null, bitmap);
+    }
+
+    /**
+     * Get a class matching all characters this class doesn't match.
+     */
+    @Nonnull
+    public CharClass negate() {
+        return forPredicate(c -> !matches((char) c));
+    }
+
+    /**
+     * Get a class matching all characters matched by this or the other class.
+     */
+    @Nonnull
+    public CharClass or(@Nonnull final CharClass other) {
+        checkNotNull(other, 1, "other");
+        if (bitmap == null && other.bitmap == null) {
+            final StringBuilder sb = new StringBuilder();
+            if (others != null) sb.append(others);
+            if (other.others != null) sb.append(other.others);
+            final CharClass merged = anyOf(sb);
+            return new CharClass(lo | other.lo, hi | other.hi, merged.others, null);
+        }
+        return forPredicate(c -> matches((char) c) || other.matches((char) c));
+    }
+
+    public boolean matches(final char c) {
+        if (c < 64) {
+            return (lo & (1L << c)) != 0;
+        }
+        if (c < 128) {
+            return (hi & (1L << c)) != 0;
+        }
+        if (bitmap != null) {
+            return (bitmap[c >> 6] & (1L << c)) != 0;
+        }
+        return others != null && Arrays.binarySearch(others, c) >= 0;
+    }
+
+    /**
+     * Get the index of the first matching character.
+     *
+     * @return the index, or -1 if no character matches
+     */
+    public int indexIn(@Nonnull final CharSequence cs) {
+        return indexIn(cs, 0);
+    }
+
+    /**
+     * Get the index of the first matching character at or after {@code start}.
+     *
+     * @return the index, or -1 if no character matches
+     */
+    public int indexIn(@Nonnull final CharSequence cs, final int start) {
+        checkNotNull(cs, 1, "cs");
+        final int len = cs.length();
+        for (int i = Math.max(start, 0); i < len; i++) {
+            if (matches(cs.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the index of the last matching character.
+     *
+     * @return the index, or -1 if no character matches
+     */
+    public int lastIndexIn(@Nonnull final CharSequence cs) {
+        checkNotNull(cs, 1, "cs");
+        for (int i = cs.length() - 1; i >= 0; i--) {
+            if (matches(cs.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Count the matching characters.
+     */
+    public int countIn(@Nonnull final CharSequence cs) {
+        checkNotNull(cs, 1, "cs");
+        int count = 0;
+        for (int i = 0; i < cs.length(); i++) {
+            if (matches(cs.charAt(i))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public boolean matchesAnyOf(@Nonnull final CharSequence cs) {
+        return indexIn(cs) >= 0;
+    }
+
+    public boolean matchesAllOf(@Nonnull final CharSequence cs) {
+        checkNotNull(cs, 1, "cs");
+        for (int i = 0; i < cs.length(); i++) {
+            if (!matches(cs.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean matchesNoneOf(@Nonnull final CharSequence cs) {
+        return indexIn(cs) < 0;
+    }
+
+    /**
+     * Remove all matching characters.
+     *
+     * @param string the original string
+     * @return the string without matching characters, or {@code string} itself if none matched
+     */
+    @Nonnull
+    public String removeFrom(@Nonnull final String string) {
+        final int first = indexIn(string);
+        if (first < 0) {
+            return string;
+        }
+        final int len = string.length();
+        final char[] chars = new char[len - 1];
+        string.getChars(0, first, chars, 0);
+        int pos = first;
+        for (int i = first + 1; i < len; i++) {
+            final char c = string.charAt(i);
+            if (!matches(c)) {
+                chars[pos++] = c;
+            }
+        }
+        return new String(chars, 0, pos);
+    }
+
+    /**
+     * Replace each run of consecutive matching characters by a single {@code replacement} character.
+     *
+     * @param string the original string
+     * @param replacement the character to substitute for each run
+     * @return the collapsed string, or {@code string} itself if it is already collapsed
+     */
+    @Nonnull
+    public String collapseFrom(@Nonnull final String string, final char replacement) {
+        final int first = firstCollapsible(string, replacement);
+        if (first < 0) {
+            return string;
+        }
+        final StringBuilder sb = new StringBuilder(string.length());
+        sb.append(string, 0, first);
+        collapse(string, first, replacement, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Append a character sequence without its matching characters. Unmatched runs are appended as ranges.
+     *
+     * @return the target
+     */
+    @Nonnull
+    public <A extends Appendable> A removeFrom(@Nonnull final CharSequence cs, @Nonnull final A target)
+            throws IOException {
+        checkNotNull(cs, 1, "cs");
+        checkNotNull(target, 2, "target");
+        int runStart = 0;
+        for (int i = 0; i < cs.length(); i++) {
+            if (matches(cs.charAt(i))) {
+                if (runStart < i) {
+                    target.append(cs, runStart, i);
+                }
+                runStart = i + 1;
+            }
+        }
+        if (runStart < cs.length()) {
+            target.append(cs, runStart, cs.length());
+        }
+        return target;
+    }
+
+    /**
+     * Append a character sequence with each run of matching characters replaced by a single {@code replacement}.
+     *
+     * @return the target
+     */
+    @Nonnull
+    public <A extends Appendable> A collapseFrom(@Nonnull final CharSequence cs, final char replacement,
+                                                 @Nonnull final A target) throws IOException {
+        checkNotNull(cs, 1, "cs");
+        checkNotNull(target, 3, "target");
+        int runStart = 0;
+        for (int i = 0; i < cs.length(); ) {
+            if (!matches(cs.charAt(i))) {
+                i++;
+                continue;
+            }
+            if (runStart < i) {
+                target.append(cs, runStart, i);
+            }
+            target.append(replacement);
+            do {
+                i++;
+            } while (i < cs.length() && matches(cs.charAt(i)));
+            runStart = i;
+        }
+        if (runStart < cs.length()) {
+            target.append(cs, runStart, cs.length());
+        }
+        return target;
+    }
+
+    private int firstCollapsible(final CharSequence cs, final char replacement) {
+        checkNotNull(cs, 1, "cs");
+        final int len = cs.length();
+        for (int i = 0; i < len; i++) {
+            final char c = cs.charAt(i);
+            if (matches(c) && (c != replacement || (i + 1 < len && matches(cs.charAt(i + 1))))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void collapse(final CharSequence cs, final int start, final char replacement, final StringBuilder sb) {
+        boolean inRun = false;
+        for (int i = start; i < cs.length(); i++) {
+            final char c = cs.charAt(i);
+            if (matches(c)) {
+                if (!inRun) {
+                    sb.append(replacement);
+                    inRun = true;
+                }
+            } else {
+                sb.append(c);
+                inRun = false;
+            }
+        }
+    }
+
+    /**
+     * Remove all leading and trailing matching characters.
+     *
+     * @return the trimmed string, or {@code string} itself if there is nothing to trim
+     */
+    @Nonnull
+    public String trimFrom(@Nonnull final String string) {
+        checkNotNull(string, 1, "string");
+        final int start = leadingEnd(string);
+        final int end = start == string.length() ? start : trailingStart(string);
+        return string.substring(start, end);
+    }
+
+    /**
+     * Remove all leading matching characters.
+     *
+     * @return the trimmed string, or {@code string} itself if there is nothing to trim
+     */
+    @Nonnull
+    public String trimLeadingFrom(@Nonnull final String string) {
+        checkNotNull(string, 1, "string");
+        return string.substring(leadingEnd(string));
+    }
+
+    /**
+     * Remove all trailing matching characters.
+     *
+     * @return the trimmed string, or {@code string} itself if there is nothing to trim
+     */
+    @Nonnull
+    public String trimTrailingFrom(@Nonnull final String string) {
+        checkNotNull(string, 1, "string");
+        return string.substring(0, trailingStart(string));
+    }
+
+    /**
+     * Append a character sequence without its leading and trailing matching characters.
+     *
+     * @return the target
+     */
+    @Nonnull
+    public <A extends Appendable> A trimFrom(@Nonnull final CharSequence cs, @Nonnull final A target)
+            throws IOException {
+        checkNotNull(cs, 1, "cs");
+        checkNotNull(target, 2, "target");
+        final int start = leadingEnd(cs);
+        final int end = start == cs.length() ? start : trailingStart(cs);
+        return appendRange(cs, start, end, target);
+    }
+
+    /**
+     * Append a character sequence without its leading matching characters.
+     *
+     * @return the target
+     */
+    @Nonnull
+    public <A extends Appendable> A trimLeadingFrom(@Nonnull final CharSequence cs, @Nonnull final A target)
+            throws IOException {
+        checkNotNull(cs, 1, "cs");
+        checkNotNull(target, 2, "target");
+        return appendRange(cs, leadingEnd(cs), cs.length(), target);
+    }
+
+    /**
+     * Append a character sequence without its trailing matching characters.
+     *
+     * @return the target
+     */
+    @Nonnull
+    public <A extends Appendable> A trimTrailingFrom(@Nonnull final CharSequence cs, @Nonnull final A target)
+            throws IOException {
+        checkNotNull(cs, 1, "cs");
+        checkNotNull(target, 2, "target");
+        return appendRange(cs, 0, trailingStart(cs), target);
+    }
+
+    private static <A extends Appendable> A appendRange(final CharSequence cs, final int start, final int end,
+                                                        final A target) throws IOException {
+        if (start < end) {
+            target.append(cs, start, end);
+        }
+        return target;
+    }
+
+    private int leadingEnd(final CharSequence cs) {
+        int start = 0;
+        while (start < cs.length() && matches(cs.charAt(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    private int trailingStart(final CharSequence cs) {
+        int end = cs.length();
+        while (end > 0 && matches(cs.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+}
@@ -0,0 +1,527 @@
+package kmw.utilities.core.strings;
+
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static kmw.utilities.core.base.Checks.checkArgument;
+import static kmw.utilities.core.base.Checks.checkNotNull;
+import static kmw.utilities.core.strings.StringPool.Messages_;
+
+/**
+ * Incremental RFC 4180 reader of delimited records, the counterpart of {@link Escaper#csv(char)}.
+ * <p>
+ * Input is read chunk by chunk into a window that grows only to hold the longest record; bytes are decoded chunk by
+ * chunk with a {@link StreamingDecoder}, so a whole {@code MappedByteBuffer} can be read without decoding it into a
+ * string first. {@link #next()} advances to the next record, whose fields are then read in place: as
+ * {@code CharSequence} views that are reused from record to record, or parsed directly into numbers. Reading a record
+ * therefore allocates nothing, unless a field is explicitly turned into a {@code String}.
+ * <p>
+ * A field enclosed in double quotes may contain delimiters, line breaks and doubled double quotes, which stand for
+ * one. Records end at LF, CRLF or CR; a line break after the last record is optional, and an empty line is a record
+ * with one empty field. The reader is lenient where RFC 4180 is strict: characters following the closing quote of a
+ * field are appended to it, a double quote within an unquoted field is taken literally, and an unterminated quoted
+ * field extends to the end of the input.
+ * <p>
+ * Readers are not thread-safe.
+ */
+public final class CsvReader implements Closeable {
+
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    private static final char QUOTE = '"';
+
+    private final Source source;
+    private char delimiter = StringPool.Chars_.COMMA;
+    private char[] buffer = new char[DEFAULT_CHUNK_SIZE];
+    private int limit;
+    private boolean eof;
+    private long recordNumber;
+
+    // positions in the buffer; all of them are moved when the buffer is compacted
+    private int pos;
+    private int recordStart;
+    private int fieldStart;
+    private int write;                      // end of the unescaped content of the current quoted field
+    private int[] fieldStarts = new int[16];
+    private int[] fieldEnds = new int[16];
+    private int fieldCount;
+
+    private FieldView[] views = new FieldView[0];
+
+    private CsvReader(final Source source) {
+        this.source = source;
+    }
+
+    /**
+     * Create a reader of the characters of a {@code Reader}, which is closed by {@link #close()}.
+     */
+    @Nonnull
+    public static CsvReader of(@Nonnull final Reader in) {
+        checkNotNull(in, 1, "in");
+        return new CsvReader(new Source() {
+            @Override
+            public int read(final char[] chars, final int off, final int len) throws IOException {
+                return in.read(chars, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                in.close();
+            }
+        });
+    }
+
+    /**
+     * Create a reader of the remaining characters of a buffer. The buffer's position is left unchanged.
+     */
+    @Nonnull
+    public static CsvReader of(@Nonnull final CharBuffer in) {
+        checkNotNull(in, 1, "in");
+        final CharBuffer chars = in.duplicate();
+        return new CsvReader((dst, off, len) -> {
+            if (!chars.hasRemaining()) {
+                return -1;
+            }
+            final int n = Math.min(len, chars.remaining());
+            chars.get(dst, off, n);
+            return n;
+        });
+    }
+
+    /**
+     * Create a reader of the remaining bytes of a buffer, e.g. a mapped file, decoded in the given charset. The
+     * buffer's position is left unchanged.
+     */
+    @Nonnull
+    public static CsvReader of(@Nonnull final ByteBuffer in, @Nonnull final Charset charset) {
+        checkNotNull(in, 1, "in");
+        checkNotNull(charset, 2, "charset");
+        return new CsvReader(new ByteSource(in.duplicate(), new StreamingDecoder(charset)));
+    }
+
+    /**
+     * Create a reader of a range of bytes, decoded in the given charset.
+     */
+    @Nonnull
+    public static CsvReader of(@Nonnull final byte[] bytes, final int off, final int len,
+                               @Nonnull final Charset charset) {
+        checkNotNull(bytes, 1, "bytes");
+        Objects.checkFromIndexSize(off, len, bytes.length);
+        return of(ByteBuffer.wrap(bytes, off, len), charset);
+    }
+
+    /**
+     * Set the field delimiter, a comma by default. Must be called before the first record is read.
+     *
+     * @param delimiter a character other than a double quote, CR or LF
+     * @return this reader
+     */
+    @Nonnull
+    public CsvReader delimiter(final char delimiter) {
+        checkArgument(delimiter != QUOTE && delimiter != '\r' && delimiter != '\n', Messages_.PARAM_1_2_IS_INVALID,
+                1, "delimiter");
+        if (recordNumber > 0) {
+            throw new IllegalStateException("The delimiter must be set before the first record is read");
+        }
+        this.delimiter = delimiter;
+        return this;
+    }
+
+    // Records
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Advance to the next record. Field views of the previous record become invalid.
+     *
+     * @return {@code false} at the end of the input
+     */
+    public boolean next() throws IOException {
+        recordStart = pos;
+        fieldCount = 0;
+        if (pos == limit && !fill()) {
+            return false;
+        }
+        while (parseField()) {
+            // another field follows the delimiter
+        }
+        recordNumber++;
+        return true;
+    }
+
+    /**
+     * Get the number of the current record, counting from 1.
+     */
+    public long recordNumber() {
+        return recordNumber;
+    }
+
+    /**
+     * Get the number of fields of the current record.
+     */
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    // Fields
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Get a view of the unescaped characters of a field. The view is owned by this reader and valid until the next
+     * call to {@link #next()}.
+     *
+     * @throws IndexOutOfBoundsException if the record has no such field
+     */
+    @Nonnull
+    public CharSequence field(final int index) {
+        Objects.checkIndex(index, fieldCount);
+        if (index >= views.length) {
+            views = Arrays.copyOf(views, Math.max(index + 1, 2 * views.length));
+        }
+        FieldView view = views[index];
+        if (view == null) {
+            view = new FieldView();
+            views[index] = view;
+        }
+        view.start = fieldStarts[index];
+        view.end = fieldEnds[index];
+        return view;
+    }
+
+    /**
+     * Test whether a field is empty.
+     */
+    public boolean isEmpty(final int index) {
+        Objects.checkIndex(index, fieldCount);
+        return fieldStarts[index] == fieldEnds[index];
+    }
+
+    /**
+     * Test whether a field has the given characters.
+     */
+    public boolean fieldEquals(final int index, @Nonnull final CharSequence value) {
+        checkNotNull(value, 2, "value");
+        Objects.checkIndex(index, fieldCount);
+        final int start = fieldStarts[index];
+        final int end = fieldEnds[index];
+        if (end - start != value.length()) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (buffer[i] != value.charAt(i - start)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copy a field into a new string.
+     */
+    @Nonnull
+    public String getString(final int index) {
+        Objects.checkIndex(index, fieldCount);
+        return new String(buffer, fieldStarts[index], fieldEnds[index] - fieldStarts[index]);
+    }
+
+    /**
+     * Get a field as a string shared through {@link StringPool#interner()}, which is only created if it is not pooled
+     * yet. Suits fields with few distinct values, like codes or categories.
+     */
+    @Nonnull
+    public String getInterned(final int index) {
+        Objects.checkIndex(index, fieldCount);
+        return StringPool.intern(buffer, fieldStarts[index], fieldEnds[index] - fieldStarts[index]);
+    }
+
+    /**
+     * Parse a field as a decimal int, with an optional sign.
+     *
+     * @throws NumberFormatException if the field is empty, not a number, or out of range
+     */
+    public int getInt(final int index) {
+        try {
+            return DecimalParser.parseInt(field(index));
+        } catch (NumberFormatException e) {
+            throw numberFormatException(index);
+        }
+    }
+
+    /**
+     * Parse a field as a decimal long, with an optional sign.
+     *
+     * @throws NumberFormatException if the field is empty, not a number, or out of range
+     */
+    public long getLong(final int index) {
+        try {
+            return DecimalParser.parseLong(field(index));
+        } catch (NumberFormatException e) {
+            throw numberFormatException(index);
+        }
+    }
+
+    /**
+     * Parse a field as a double. Plain decimals with up to 15 significant digits, like {@code "-1234.56"}, are
+     * converted exactly from the characters; anything else is handed to {@link Double#parseDouble(String)}.
+     *
+     * @throws NumberFormatException if the field is not a number
+     */
+    public double getDouble(final int index) {
+        try {
+            return DecimalParser.parseDouble(field(index));
+        } catch (NumberFormatException e) {
+            throw numberFormatException(index);
+        }
+    }
+
+    /**
+     * Close the underlying {@code Reader}, if any.
+     */
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    @Override
+    public String toString() {
+        return "CsvReader[delimiter='" + delimiter + "', record=" + recordNumber + "]";
+    }
+
+    // Parsing
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Parse the field starting at {@code pos} and move past its terminator.
+     *
+     * @return {@code true} if the field is terminated by a delimiter, {@code false} at the end of the record
+     */
+    private boolean parseField() throws IOException {
+        if (pos == limit && !fill()) {
+            addField(pos, pos);
+            return false;
+        }
+        if (buffer[pos] == QUOTE) {
+            return parseQuoted();
+        }
+        fieldStart = pos;
+        while (true) {
+            final char[] chars = buffer;
+            final int end = limit;
+            final char delim = delimiter;
+            int p = pos;
+            while (p < end && chars[p] != delim && chars[p] != '\n' && chars[p] != '\r') {
+                p++;
+            }
+            pos = p;
+            if (p < end) {
+                addField(fieldStart, p);
+                return terminate();
+            }
+            if (!fill()) {
+                addField(fieldStart, pos);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Parse a quoted field, unescaping it in place: its content is moved left over the enclosing and doubled quotes.
+     */
+    private boolean parseQuoted() throws IOException {
+        fieldStart = ++pos;
+        write = pos;
+        // the quoted part
+        while (true) {
+            final char[] chars = buffer;
+            final int end = limit;
+            int p = pos;
+            int w = write;
+            while (p < end && chars[p] != QUOTE) {
+                chars[w++] = chars[p++];
+            }
+            pos = p;
+            write = w;
+            if (p == end) {
+                if (!fill()) {
+                    addField(fieldStart, write);
+                    return false;
+                }
+                continue;
+            }
+            pos++;
+            if (pos == limit && !fill()) {
+                addField(fieldStart, write);
+                return false;
+            }
+            if (buffer[pos] != QUOTE) {
+                break;
+            }
+            buffer[write++] = QUOTE;
+            pos++;
+        }
+        // anything between the closing quote and the delimiter
+        while (true) {
+            if (pos == limit && !fill()) {
+                addField(fieldStart, write);
+                return false;
+            }
+            final char c = buffer[pos];
+            if (c == delimiter || c == '\n' || c == '\r') {
+                addField(fieldStart, write);
+                return terminate();
+            }
+            buffer[write++] = c;
+            pos++;
+        }
+    }
+
+    /**
+     * Move past the delimiter or line break at {@code pos}.
+     *
+     * @return {@code true} for a delimiter
+     */
+    private boolean terminate() throws IOException {
+        final char c = buffer[pos++];
+        if (c == '\r' && (pos < limit || fill()) && buffer[pos] == '\n') {
+            pos++;
+        }
+        return c == delimiter;
+    }
+
+    private void addField(final int start, final int end) {
+        if (fieldCount == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, 2 * fieldCount);
+            fieldEnds = Arrays.copyOf(fieldEnds, 2 * fieldCount);
+        }
+        fieldStarts[fieldCount] = start;
+        fieldEnds[fieldCount] = end;
+        fieldCount++;
+    }
+
+    /**
+     * Read more characters, first moving the current record to the start of the buffer or growing the buffer if it
+     * is full.
+     *
+     * @return {@code false} at the end of the input
+     */
+    private boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+        if (recordStart > 0) {
+            final int shift = recordStart;
+            System.arraycopy(buffer, shift, buffer, 0, limit - shift);
+            limit -= shift;
+            pos -= shift;
+            recordStart = 0;
+            fieldStart -= shift;
+            write -= shift;
+            for (int i = 0; i < fieldCount; i++) {
+                fieldStarts[i] -= shift;
+                fieldEnds[i] -= shift;
+            }
+        } else if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+        }
+        int n;
+        while ((n = source.read(buffer, limit, buffer.length - limit)) == 0) {
+            // a decoder cannot put a surrogate pair into a single free char
+            if (buffer.length - limit < 2) {
+                buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+            }
+        }
+        if (n < 0) {
+            eof = true;
+            return false;
+        }
+        limit += n;
+        return true;
+    }
+
+    private NumberFormatException numberFormatException(final int index) {
+        return new NumberFormatException("Field " + index + " of record " + recordNumber + " is not a valid number: \""
+                + getString(index) + "\"");
+    }
+
+    /**
+     * Supplies the characters to parse.
+     */
+    private interface Source extends Closeable {
+        int read(char[] chars, int off, int len) throws IOException;
+
+        @Override
+        default void close() throws IOException {
+            // nothing to release
+        }
+    }
+
+    /**
+     * Decodes a byte buffer chunk by chunk.
+     */
+    private static final class ByteSource implements Source {
+        private final ByteBuffer in;
+        private final StreamingDecoder decoder;
+        private boolean finishing;
+        private boolean finished;
+
+        ByteSource(final ByteBuffer in, final StreamingDecoder decoder) {
+            this.in = in;
+            this.decoder = decoder;
+        }
+
+        @Override
+        public int read(final char[] chars, final int off, final int len) {
+            if (finished) {
+                return -1;
+            }
+            final CharBuffer out = CharBuffer.wrap(chars, off, len);
+            if (!finishing) {
+                finishing = decoder.decode(in, out).isUnderflow();
+            }
+            if (finishing) {
+                finished = decoder.finish(out).isUnderflow();
+            }
+            final int n = out.position() - off;
+            return n == 0 && finished ? -1 : n;
+        }
+    }
+
+    /**
+     * A reusable view of the characters of one field.
+     */
+    private final class FieldView implements CharSequence {
+        int start;
+        int end;
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(final int index) {
+            Objects.checkIndex(index, end - start);
+            return buffer[start + index];
+        }
+
+        @Nonnull
+        @Override
+        public CharSequence subSequence(final int from, final int to) {
+            Objects.checkFromToIndex(from, to, end - start);
+            return new String(buffer, start + from, to - from);
+        }
+
+        @Nonnull
+        @Override
+        public String toString() {
+            return new String(buffer, start, end - start);
+        }
+    }
+
+}
@@ -0,0 +1,585 @@
+package kmw.utilities.core.strings;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.util.Collection;
+
+import static kmw.utilities.core.base.Checks.checkArgument;
+import static kmw.utilities.core.base.Checks.checkNotNull;
+import static kmw.utilities.core.strings.StringPool.Messages_;
+
+/**
+ * Incremental writer of delimited records, the counterpart of {@link CsvReader}.
+ * <p>
+ * Fields are written into a fixed-size char buffer that is handed to the target whenever it is full, so memory does
+ * not grow with the output. Text fields are escaped as by {@link Escaper#csv(char)} (unless {@link #unescaped()} is
+ * set) directly into the buffer. Integral numbers are written digit by digit; doubles are formatted like
+ * {@link Double#toString(double)} through a reused {@code StringBuilder}, so primitive fields are neither boxed nor
+ * turned into strings. Like {@link kmw.utilities.core.arrays.StringArrayUtil#collectionToCsv(Collection, String,
+ * String, String)}, an optional prefix and suffix enclose every field.
+ * <p>
+ * Writers are not thread-safe.
+ */
+public final class CsvWriter implements Closeable, Flushable {
+
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    /** The longest decimal long, {@code Long.MIN_VALUE}, has 20 characters. */
+    private static final int MAX_LONG_LENGTH = 20;
+
+    private final Sink sink;
+    private final char[] buffer = new char[DEFAULT_CHUNK_SIZE];
+    private final Out out = new Out();
+    private final StringBuilder scratch = new StringBuilder(32);
+    private int count;
+
+    private char delimiter = StringPool.Chars_.COMMA;
+    private String prefix = StringPool.Strings_.EMPTY;
+    private String suffix = StringPool.Strings_.EMPTY;
+    private String lineSeparator = "\r\n";
+    private Escaper escaper = Escaper.csv();
+    private boolean escaping = true;
+
+    private int fieldsInRow;
+    private long rowCount;
+
+    private CsvWriter(final Sink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Create a writer to a {@code Writer}, which is closed by {@link #close()}.
+     */
+    @Nonnull
+    public static CsvWriter to(@Nonnull final Writer out) {
+        checkNotNull(out, 1, "out");
+        return new CsvWriter(new Sink() {
+            @Override
+            public void write(final char[] chars, final int len) throws IOException {
+                out.write(chars, 0, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                out.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                out.close();
+            }
+        });
+    }
+
+    /**
+     * Create a writer to an {@code OutputStream} in the given charset. The stream is closed by {@link #close()}.
+     */
+    @Nonnull
+    public static CsvWriter to(@Nonnull final OutputStream out, @Nonnull final Charset charset) {
+        checkNotNull(out, 1, "out");
+        checkNotNull(charset, 2, "charset");
+        return new CsvWriter(new EncodingSink(charset, ByteBuffer.allocate(DEFAULT_CHUNK_SIZE)) {
+            @Override
+            void drain(final ByteBuffer bytes) throws IOException {
+                out.write(bytes.array(), 0, bytes.position());
+                bytes.clear();
+            }
+
+            @Override
+            public void flush() throws IOException {
+                drain();
+                out.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    finish();
+                    drain();
+                } finally {
+                    out.close();
+                }
+            }
+        });
+    }
+
+    /**
+     * Create a writer that encodes into a buffer, starting at its position, in the given charset.
+     *
+     * @throws BufferOverflowException from the write methods if the buffer runs out of space
+     */
+    @Nonnull
+    public static CsvWriter to(@Nonnull final ByteBuffer out, @Nonnull final Charset charset) {
+        checkNotNull(out, 1, "out");
+        checkNotNull(charset, 2, "charset");
+        return new CsvWriter(new EncodingSink(charset, out) {
+            @Override
+            void drain(final ByteBuffer bytes) {
+                throw new BufferOverflowException();
+            }
+
+            @Override
+            public void close() throws IOException {
+                finish();
+            }
+        });
+    }
+
+    // Configuration, before the first field
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Set the field delimiter, a comma by default.
+     *
+     * @param delimiter an ASCII character other than a double quote, CR or LF
+     * @return this writer
+     */
+    @Nonnull
+    public CsvWriter delimiter(final char delimiter) {
+        checkConfigurable();
+        this.escaper = delimiter == StringPool.Chars_.COMMA ? Escaper.csv() : Escaper.csv(delimiter);
+        this.delimiter = delimiter;
+        return this;
+    }
+
+    /**
+     * Set the text written before every field, empty by default.
+     *
+     * @return this writer
+     */
+    @Nonnull
+    public CsvWriter prefix(@Nonnull final String prefix) {
+        checkNotNull(prefix, 1, "prefix");
+        checkConfigurable();
+        this.prefix = prefix;
+        return this;
+    }
+
+    /**
+     * Set the text written after every field, empty by default.
+     *
+     * @return this writer
+     */
+    @Nonnull
+    public CsvWriter suffix(@Nonnull final String suffix) {
+        checkNotNull(suffix, 1, "suffix");
+        checkConfigurable();
+        this.suffix = suffix;
+        return this;
+    }
+
+    /**
+     * Set the text ending every row, {@code "\r\n"} by default as in RFC 4180.
+     *
+     * @return this writer
+     */
+    @Nonnull
+    public CsvWriter lineSeparator(@Nonnull final String lineSeparator) {
+        checkNotNull(lineSeparator, 1, "lineSeparator");
+        checkArgument(!lineSeparator.isEmpty(), Messages_.PARAM_1_2_MUST_NOT_BE_EMPTY, 1, "lineSeparator");
+        checkConfigurable();
+        this.lineSeparator = lineSeparator;
+        return this;
+    }
+
+    /**
+     * Write text fields as they are, without quoting or escaping them.
+     *
+     * @return this writer
+     */
+    @Nonnull
+    public CsvWriter unescaped() {
+        checkConfigurable();
+        this.escaping = false;
+        return this;
+    }
+
+    private void checkConfigurable() {
+        if (rowCount > 0 || fieldsInRow > 0) {
+            throw new IllegalStateException("The format must be set before the first field is written");
+        }
+    }
+
+    // Rows
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Write a row of values; see {@link #field(Object)}.
+     *
+     * @return this writer
+     */
+    @Nonnull
+    public CsvWriter writeRow(@Nonnull final Object... values) throws IOException {
+        checkNotNull(values, 1, "values");
+        for (final Object value : values) {
+            field(value);
+        }
+        return endRow();
+    }
+
+    /**
+     * Write a row of values; see {@link #field(Object)}.
+     *
+     * @return this writer
+     */
+    @Nonnull
+    public CsvWriter writeRow(@Nonnull final Collection<?> values) throws IOException {
+        checkNotNull(values, 1, "values");
+        for (final Object value : values) {
+            field(value);
+        }
+        return endRow();
+    }
+
+    /**
+     * Write a row of ints.
+     *
+     * @return this writer
+     */
+    @Nonnull
+    public CsvWriter writeRow(@Nonnull final int[] values) throws IOException {
+        checkNotNull(values, 1, "values");
+        for (final int value : values) {
+            field(value);
+        }
+        return endRow();
+    }
+
+    /**
+     * Write a row of longs.
+     *
+     * @return this writer
+     */
+    @Nonnull
+    public CsvWriter writeRow(@Nonnull final long[] values) throws IOException {
+        checkNotNull(values, 1, "values");
+        for (final long value : values) {
+            field(value);
+        }
+        return endRow();
+    }
+
+    /**
+     * Write a row of doubles.
+     *
+     * @return this writer
+     */
+    @Nonnull
+    public CsvWriter writeRow(@Nonnull final double[] values) throws IOException {
+        checkNotNull(values, 1, "values");
+        for (final double value : values) {
+            field(value);
+        }
+        return endRow();
+    }
+
+    /**
+     * End the current row.
+     *
+     * @return this writer
+     */
+    @Nonnull
+    public CsvWriter endRow() throws IOException {
+        put(lineSeparator);
+        fieldsInRow = 0;
+        rowCount++;
+        return this;
+    }
+
+    /**
+     * Get the number of rows ended so far.
+     */
+    public long rowCount() {
+        return rowCount;
+    }
+
+    // Fields
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Write a field of the current row. Numbers are written without boxing where their type allows, other objects
+     * by their {@code toString()}, and {@code null} as an empty field.
+     *
+     * @return this writer
+     */
+    @Nonnull
+    public CsvWriter field(@Nullable final Object value) throws IOException {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return field(((Number) value).longValue());
+        }
+        if (value instanceof Double) {
+            return field(((Double) value).doubleValue());
+        }
+        if (value instanceof Float) {
+            return field(((Float) value).floatValue());
+        }
+        return field(value == null ? null : value instanceof CharSequence ? (CharSequence) value : value.toString());
+    }
+
+    /**
+     * Write a text field of the current row, escaped unless {@link #unescaped()} is set; {@code null} is written as
+     * an empty field.
+     *
+     * @return this writer
+     */
+    @Nonnull
+    public CsvWriter field(@Nullable final CharSequence value) throws IOException {
+        beginField();
+        if (value != null) {
+            if (escaping) {
+                escaper.escape(value, out);
+            } else {
+                put(value, 0, value.length());
+            }
+        }
+        return endField();
+    }
+
+    /**
+     * Write an int field of the current row.
+     *
+     * @return this writer
+     */
+    @Nonnull
+    public CsvWriter field(final int value) throws IOException {
+        return field((long) value);
+    }
+
+    /**
+     * Write a long field of the current row.
+     *
+     * @return this writer
+     */
+    @Nonnull
+    public CsvWriter field(final long value) throws IOException {
+        beginField();
+        if (buffer.length - count < MAX_LONG_LENGTH) {
+            flushBuffer();
+        }
+        // digits are produced from the right, of the negated value to cover Long.MIN_VALUE
+        final int length = length(value);
+        long v = value < 0 ? value : -value;
+        int i = count + length;
+        while (v <= -10) {
+            buffer[--i] = (char) ('0' - v % 10);
+            v /= 10;
+        }
+        buffer[--i] = (char) ('0' - v);
+        if (value < 0) {
+            buffer[--i] = '-';
+        }
+        count += length;
+        return endField();
+    }
+
+    /**
+     * Write a double field of the current row, formatted like {@link Double#toString(double)}.
+     *
+     * @return this writer
+     */
+    @Nonnull
+    public CsvWriter field(final double value) throws IOException {
+        beginField();
+        scratch.setLength(0);
+        scratch.append(value);
+        put(scratch, 0, scratch.length());
+        return endField();
+    }
+
+    /**
+     * Write a float field of the current row, formatted like {@link Float#toString(float)}.
+     *
+     * @return this writer
+     */
+    @Nonnull
+    public CsvWriter field(final float value) throws IOException {
+        beginField();
+        scratch.setLength(0);
+        scratch.append(value);
+        put(scratch, 0, scratch.length());
+        return endField();
+    }
+
+    /**
+     * Write a boolean field of the current row.
+     *
+     * @return this writer
+     */
+    @Nonnull
+    public CsvWriter field(final boolean value) throws IOException {
+        beginField();
+        put(value ? "true" : "false");
+        return endField();
+    }
+
+    /**
+     * Hand all buffered characters to the target and flush it.
+     */
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        sink.flush();
+    }
+
+    /**
+     * Hand all buffered characters to the target and close it, if it is a {@code Writer} or an
+     * {@code OutputStream}. A row that has not been ended is written as it is.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            sink.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CsvWriter[delimiter='" + delimiter + "', rows=" + rowCount + "]";
+    }
+
+    // Implementation
+    //------------------------------------------------------------------------------------------------------------------
+
+    private void beginField() throws IOException {
+        if (fieldsInRow++ > 0) {
+            put(delimiter);
+        }
+        put(prefix);
+    }
+
+    private CsvWriter endField() throws IOException {
+        put(suffix);
+        return this;
+    }
+
+    private static int length(final long value) {
+        long v = value < 0 ? value : -value;
+        int length = value < 0 ? 2 : 1;
+        while (v <= -10) {
+            v /= 10;
+            length++;
+        }
+        return length;
+    }
+
+    private void put(final char c) throws IOException {
+        if (count == buffer.length) {
+            flushBuffer();
+        }
+        buffer[count++] = c;
+    }
+
+    private void put(final String s) throws IOException {
+        put(s, 0, s.length());
+    }
+
+    private void put(final CharSequence cs, int start, final int end) throws IOException {
+        while (start < end) {
+            if (count == buffer.length) {
+                flushBuffer();
+            }
+            final int n = Math.min(end - start, buffer.length - count);
+            if (cs instanceof String) {
+                ((String) cs).getChars(start, start + n, buffer, count);
+            } else if (cs instanceof StringBuilder) {
+                ((StringBuilder) cs).getChars(start, start + n, buffer, count);
+            } else {
+                for (int i = 0; i < n; i++) {
+                    buffer[count + i] = cs.charAt(start + i);
+                }
+            }
+            count += n;
+            start += n;
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            sink.write(buffer, count);
+            count = 0;
+        }
+    }
+
+    /**
+     * Receives the buffered characters.
+     */
+    private interface Sink extends Flushable, Closeable {
+        void write(char[] chars, int len) throws IOException;
+
+        @Override
+        default void flush() throws IOException {
+            // nothing buffered downstream
+        }
+    }
+
+    /**
+     * Encodes the buffered characters into a byte buffer.
+     */
+    private abstract static class EncodingSink implements Sink {
+        private final StreamingEncoder encoder;
+        private final ByteBuffer bytes;
+
+        EncodingSink(final Charset charset, final ByteBuffer bytes) {
+            this.encoder = new StreamingEncoder(charset);
+            this.bytes = bytes;
+        }
+
+        /**
+         * Make room in the byte buffer.
+         */
+        abstract void drain(ByteBuffer bytes) throws IOException;
+
+        void drain() throws IOException {
+            drain(bytes);
+        }
+
+        @Override
+        public void write(final char[] chars, final int len) throws IOException {
+            final CharBuffer in = CharBuffer.wrap(chars, 0, len);
+            while (encoder.encode(in, bytes).isOverflow()) {
+                drain(bytes);
+            }
+        }
+
+        void finish() throws IOException {
+            while (encoder.finish(bytes).isOverflow()) {
+                drain(bytes);
+            }
+        }
+    }
+
+    /**
+     * The current target of an {@link Escaper}.
+     */
+    private final class Out implements Appendable {
+        @Override
+        public Appendable append(final CharSequence csq) throws IOException {
+            put(csq, 0, csq.length());
+            return this;
+        }
+
+        @Override
+        public Appendable append(final CharSequence csq, final int start, final int end) throws IOException {
+            put(csq, start, end);
+            return this;
+        }
+
+        @Override
+        public Appendable append(final char c) throws IOException {
+            put(c);
+            return this;
+        }
+    }
+
+}
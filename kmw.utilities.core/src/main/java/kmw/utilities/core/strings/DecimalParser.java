@@ -0,0 +1,118 @@
+package kmw.utilities.core.strings;
+
+/**
+ * Parses decimal numbers from character sequences without creating strings, behind the numeric getters of
+ * {@link CsvReader} and {@link RecordLayout.Cursor}.
+ * <p>
+ * The callers replace a failure by an exception naming the field, so invalid input is signalled by one shared
+ * {@code NumberFormatException} without message and stack trace, which costs nothing to throw. Only input handed to
+ * {@link Double#parseDouble(String)} fails with that method's own exception.
+ */
+final class DecimalParser {
+
+    private static final int MAX_EXACT_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15,
+            1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final NumberFormatException INVALID = new InvalidNumber();
+
+    private DecimalParser() {
+    }
+
+    /**
+     * Parse a decimal int, with an optional sign.
+     *
+     * @throws NumberFormatException if the sequence is empty, not a number, or out of range
+     */
+    static int parseInt(final CharSequence cs) {
+        final long value = parseLong(cs);
+        if (value != (int) value) {
+            throw INVALID;
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parse a decimal long, with an optional sign.
+     *
+     * @throws NumberFormatException if the sequence is empty, not a number, or out of range
+     */
+    static long parseLong(final CharSequence cs) {
+        final int end = cs.length();
+        int i = 0;
+        final boolean negative = i < end && cs.charAt(i) == '-';
+        if (i < end && (negative || cs.charAt(i) == '+')) {
+            i++;
+        }
+        if (i == end) {
+            throw INVALID;
+        }
+        // accumulate negatively to cover Long.MIN_VALUE
+        long value = 0;
+        for (; i < end; i++) {
+            final int digit = cs.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || value < (Long.MIN_VALUE + digit) / 10) {
+                throw INVALID;
+            }
+            value = value * 10 - digit;
+        }
+        if (!negative && value == Long.MIN_VALUE) {
+            throw INVALID;
+        }
+        return negative ? value : -value;
+    }
+
+    /**
+     * Parse a double. Plain decimals with up to 15 significant digits, like {@code "-1234.56"}, are converted exactly
+     * from the characters; anything else is handed to {@link Double#parseDouble(String)}.
+     *
+     * @throws NumberFormatException if the sequence is not a number
+     */
+    static double parseDouble(final CharSequence cs) {
+        final int end = cs.length();
+        int i = 0;
+        final boolean negative = i < end && cs.charAt(i) == '-';
+        if (i < end && (negative || cs.charAt(i) == '+')) {
+            i++;
+        }
+        long mantissa = 0;
+        boolean anyDigits = false;
+        int digits = 0;
+        int fractionDigits = -1;    // -1 until the decimal point
+        for (; i < end; i++) {
+            final char c = cs.charAt(i);
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                anyDigits = true;
+                if (mantissa > 0) {
+                    digits++;   // significant digits only
+                }
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                break;
+            }
+        }
+        if (i == end && anyDigits && digits <= MAX_EXACT_DIGITS && fractionDigits < POWERS_OF_TEN.length) {
+            // both operands are exact doubles, so the quotient is correctly rounded
+            final double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+            return negative ? -value : value;
+        }
+        return Double.parseDouble(cs.toString());
+    }
+
+    private static final class InvalidNumber extends NumberFormatException {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;    // shared, so a stack trace would be meaningless
+        }
+    }
+
+}
@@ -0,0 +1,284 @@
+package kmw.utilities.core.strings;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import static kmw.utilities.core.base.Checks.checkNonNegative;
+import static kmw.utilities.core.base.Checks.checkNotNull;
+
+/**
+ * Levenshtein edit distance computed with the bit-parallel algorithm of Myers (1999) in the formulation of Hyyro
+ * (2003): one column of the dynamic-programming matrix is encoded in the bits of one {@code long} per 64 query
+ * characters, so comparing strings of length m and n takes O(n * ceil(m / 64)) word operations and no matrix.
+ * <p>
+ * The bounded variants stop as soon as the distance is known to exceed the bound {@code k}. A query compiled with
+ * {@link #compile(CharSequence)} can be compared against many candidates, also in parallel. Strings are compared as
+ * sequences of UTF-16 {@code char}s.
+ */
+public final class EditDistance {
+
+    private EditDistance() {}
+
+    /** Returned by the bounded variants if the distance exceeds the bound. */
+    public static final int EXCEEDED = -1;
+
+    private static final int PARALLEL_THRESHOLD = 1024;
+
+    /**
+     * Get the Levenshtein distance of two character sequences.
+     */
+    public static int levenshtein(@Nonnull final CharSequence a, @Nonnull final CharSequence b) {
+        checkNotNull(a, 1, "a");
+        checkNotNull(b, 2, "b");
+        return a.length() <= b.length() ? compile(a).distance(b) : compile(b).distance(a);
+    }
+
+    /**
+     * Get the Levenshtein distance of two character sequences if it is at most {@code k}.
+     *
+     * @return the distance, or {@link #EXCEEDED} if it is greater than {@code k}
+     */
+    public static int levenshtein(@Nonnull final CharSequence a, @Nonnull final CharSequence b, final int k) {
+        checkNotNull(a, 1, "a");
+        checkNotNull(b, 2, "b");
+        return a.length() <= b.length() ? compile(a).distance(b, k) : compile(b).distance(a, k);
+    }
+
+    /**
+     * Compile a query for repeated comparisons.
+     */
+    @Nonnull
+    public static Query compile(@Nonnull final CharSequence query) {
+        checkNotNull(query, 1, "query");
+        return new Query(query.toString());
+    }
+
+    /**
+     * A query with precomputed match masks: for every character of the query, a bit vector of the positions where it
+     * occurs. Instances are immutable and thread-safe.
+     */
+    public static final class Query {
+        private final String query;
+        private final int blocks;
+        private final long lastBit;
+        private final long[] asciiMasks;    // [c * blocks + block]
+        private final char[] otherChars;    // sorted
+        private final long[][] otherMasks;
+
+        Query(final String query) {
+            this.query = query;
+            final int m = query.length();
+            this.blocks = Math.max(1, (m + 63) >>> 6);
+            this.lastBit = 1L << ((m - 1) & 63);
+            this.asciiMasks = new long[128 * blocks];
+            final char[] others = distinctNonAscii(query);
+            this.otherChars = others;
+            this.otherMasks = new long[others.length][blocks];
+            for (int i = 0; i < m; i++) {
+                final char c = query.charAt(i);
+                final long bit = 1L << (i & 63);
+                if (c < 128) {
+                    asciiMasks[c * blocks + (i >>> 6)] |= bit;
+                } else {
+                    otherMasks[Arrays.binarySearch(others, c)][i >>> 6] |= bit;
+                }
+            }
+        }
+
+        private static char[] distinctNonAscii(final String query) {
+            final char[] sorted = query.toCharArray();
+            Arrays.sort(sorted);
+            int count = 0;
+            for (final char c : sorted) {
+                if (c >= 128 && (count == 0 || sorted[count - 1] != c)) {
+                    sorted[count++] = c;
+                }
+            }
+            return Arrays.copyOf(sorted, count);
+        }
+
+        @Nonnull
+        public String query() {
+            return query;
+        }
+
+        /**
+         * Get the Levenshtein distance between this query and a text.
+         */
+        public int distance(@Nonnull final CharSequence text) {
+            checkNotNull(text, 1, "text");
+            return compute(text, Integer.MAX_VALUE);
+        }
+
+        /**
+         * Get the Levenshtein distance between this query and a text if it is at most {@code k}.
+         *
+         * @return the distance, or {@link #EXCEEDED} if it is greater than {@code k}
+         */
+        public int distance(@Nonnull final CharSequence text, final int k) {
+            checkNotNull(text, 1, "text");
+            checkNonNegative(k, 2, "k");
+            return compute(text, k);
+        }
+
+        /**
+         * Compute the distances to many candidates, in parallel on the common fork-join pool for large arrays.
+         * {@code null} candidates are compared as empty strings.
+         *
+         * @return the distance to each candidate, or {@link #EXCEEDED} where it is greater than {@code k}
+         */
+        @Nonnull
+        public int[] distances(@Nonnull final String[] candidates, final int k) {
+            checkNotNull(candidates, 1, "candidates");
+            checkNonNegative(k, 2, "k");
+            final int[] result = new int[candidates.length];
+            range(candidates.length).forEach(i -> result[i] = compute(StringServiceUtil.nullToEmpty(candidates[i]), k));
+            return result;
+        }
+
+        /**
+         * Find all candidates within distance {@code k}, comparing them in parallel for large arrays.
+         *
+         * @return the ascending indices of all matching candidates
+         */
+        @Nonnull
+        public int[] indicesWithin(@Nonnull final String[] candidates, final int k) {
+            checkNotNull(candidates, 1, "candidates");
+            checkNonNegative(k, 2, "k");
+            return range(candidates.length)
+                    .filter(i -> compute(StringServiceUtil.nullToEmpty(candidates[i]), k) != EXCEEDED)
+                    .toArray();
+        }
+
+        private static IntStream range(final int n) {
+            final IntStream range = IntStream.range(0, n);
+            return n >= PARALLEL_THRESHOLD ? range.parallel() : range;
+        }
+
+        private int compute(final CharSequence text, final int k) {
+            final int m = query.length();
+            final int n = text.length();
+            if (Math.abs(m - n) > k) {
+                return EXCEEDED;
+            }
+            if (m == 0) {
+                return n;
+            }
+            return blocks == 1 ? computeSingle(text, k) : computeBlocks(text, k);
+        }
+
+        private int computeSingle(final CharSequence text, final int k) {
+            final int n = text.length();
+            long pv = -1L;
+            long mv = 0L;
+            int score = query.length();
+            for (int j = 0; j < n; j++) {
+                final long eq = mask(text.charAt(j), 0);
+                final long xv = eq | mv;
+                final long xh = (((eq & pv) + pv) ^ pv) | eq;
+                long ph = mv | ~(xh | pv);
+                long mh = pv & xh;
+                if ((ph & lastBit) != 0) {
+                    score++;
+                } else if ((mh & lastBit) != 0) {
+                    score--;
+                }
+                // the remaining n - j - 1 columns can lower the score by at most one each
+                if (score - (n - j - 1) > k) {
+                    return EXCEEDED;
+                }
+                ph = (ph << 1) | 1L;
+                mh = mh << 1;
+                pv = mh | ~(xv | ph);
+                mv = ph & xv;
+            }
+            return score <= k ? score : EXCEEDED;
+        }
+
+        private int computeBlocks(final CharSequence text, final int k) {
+            final int n = text.length();
+            final long[] pvs = new long[blocks];
+            final long[] mvs = new long[blocks];
+            Arrays.fill(pvs, -1L);
+            int score = query.length();
+            for (int j = 0; j < n; j++) {
+                final char c = text.charAt(j);
+                int carry = 1;  // the first row of the matrix increases by one per column
+                for (int b = 0; b < blocks; b++) {
+                    final long pv = pvs[b];
+                    final long mv = mvs[b];
+                    long eq = mask(c, b);
+                    final long xv = eq | mv;
+                    if (carry < 0) {
+                        eq |= 1L;
+                    }
+                    final long xh = (((eq & pv) + pv) ^ pv) | eq;
+                    long ph = mv | ~(xh | pv);
+                    long mh = pv & xh;
+                    final long high = b == blocks - 1 ? lastBit : Long.MIN_VALUE;
+                    final int out = (ph & high) != 0 ? 1 : (mh & high) != 0 ? -1 : 0;
+                    ph <<= 1;
+                    mh <<= 1;
+                    if (carry < 0) {
+                        mh |= 1L;
+                    } else if (carry > 0) {
+                        ph |= 1L;
+                    }
+                    pvs[b] = mh | ~(xv | ph);
+                    mvs[b] = ph & xv;
+                    carry = out;
+                }
+                score += carry;
+                if (score - (n - j - 1) > k) {
+                    return EXCEEDED;
+                }
+            }
+            return score <= k ? score : EXCEEDED;
+        }
+
+        private long mask(final char c, final int block) {
+            if (c < 128) {
+                return asciiMasks[c * blocks + block];
+            }
+            final int i = Arrays.binarySearch(otherChars, c);
+            return i < 0 ? 0L : otherMasks[i][block];
+        }
+
+        @Override
+        public String toString() {
+            return "EditDistance.Query[" + query + "]";
+        }
+    }
+
+    /**
+     * Get the index of the candidate closest to a query.
+     *
+     * @return the index of the first candidate with the smallest distance not greater than {@code k}, or -1 if there
+     * is none
+     */
+    public static int closest(@Nonnull final CharSequence query, @Nonnull final String[] candidates, final int k) {
+        final int[] distances = compile(query).distances(candidates, k);
+        int best = -1;
+        for (int i = 0; i < distances.length; i++) {
+            if (distances[i] != EXCEEDED && (best < 0 || distances[i] < distances[best])) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Get the candidate closest to a query.
+     *
+     * @return the first candidate with the smallest distance not greater than {@code k}, or {@code null}
+     */
+    @Nullable
+    public static String closestMatch(@Nonnull final CharSequence query, @Nonnull final String[] candidates,
+                                      final int k) {
+        final int index = closest(query, candidates, k);
+        return index < 0 ? null : candidates[index];
+    }
+
+}
@@ -0,0 +1,207 @@
+package kmw.utilities.core.strings;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Map;
+
+import static kmw.utilities.core.base.Checks.checkArgument;
+import static kmw.utilities.core.base.Checks.checkNotNull;
+
+/**
+ * A table-driven escaper for JSON, HTML and CSV text.
+ * <p>
+ * Each format is a lookup table from ASCII characters to their replacements. The first character that needs escaping
+ * is found with a {@link CharClass} scan. If there is none, {@link #escape(String)} returns its input instance, and
+ * the {@code Appendable} variants copy the input as a whole. Otherwise, the runs between escaped characters are
+ * appended as ranges. Characters outside of ASCII are never escaped. Instances are immutable and thread-safe.
+ */
+public final class Escaper {
+
+    private static final int TABLE_SIZE = 128;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final String[] replacements;
+    private final CharClass triggers;
+    private final String quote;
+
+    private Escaper(final String[] replacements, @Nullable final String quote) {
+        this.replacements = replacements;
+        final StringBuilder chars = new StringBuilder();
+        for (int c = 0; c < TABLE_SIZE; c++) {
+            if (replacements[c] != null) {
+                chars.append((char) c);
+            }
+        }
+        this.triggers = CharClass.anyOf(chars);
+        this.quote = quote;
+    }
+
+    private static final class Json {
+        static final Escaper INSTANCE;
+        static {
+            final String[] table = new String[TABLE_SIZE];
+            for (int c = 0; c < 0x20; c++) {
+                table[c] = "\\u00" + HEX_DIGITS[c >> 4] + HEX_DIGITS[c & 0xF];
+            }
+            table['\b'] = "\\b";
+            table['\f'] = "\\f";
+            table['\n'] = "\\n";
+            table['\r'] = "\\r";
+            table['\t'] = "\\t";
+            table['"'] = "\\\"";
+            table['\\'] = "\\\\";
+            INSTANCE = new Escaper(table, null);
+        }
+    }
+
+    private static final class Html {
+        static final Escaper INSTANCE;
+        static {
+            final String[] table = new String[TABLE_SIZE];
+            table['&'] = "&amp;";
+            table['<'] = "&lt;";
+            table['>'] = "&gt;";
+            table['"'] = "&quot;";
+            table['\''] = "&#39;";
+            INSTANCE = new Escaper(table, null);
+        }
+    }
+
+    private static final class Csv {
+        static final Escaper COMMA = csv(StringPool.Chars_.COMMA);
+    }
+
+    /**
+     * Get the escaper for the contents of JSON string literals: quotes, backslashes and control characters are escaped.
+     */
+    @Nonnull
+    public static Escaper json() {
+        return Json.INSTANCE;
+    }
+
+    /**
+     * Get the escaper for HTML text and attribute values: {@code & < > " '} are replaced by entities.
+     */
+    @Nonnull
+    public static Escaper html() {
+        return Html.INSTANCE;
+    }
+
+    /**
+     * Get the RFC 4180 escaper for comma-separated fields.
+     *
+     * @see #csv(char)
+     */
+    @Nonnull
+    public static Escaper csv() {
+        return Csv.COMMA;
+    }
+
+    /**
+     * Get an RFC 4180 escaper for fields separated by {@code delimiter}: a field containing the delimiter, a double
+     * quote, CR or LF is enclosed in double quotes, and each double quote in it is doubled.
+     *
+     * @param delimiter an ASCII character other than a double quote, CR or LF
+     */
+    @Nonnull
+    public static Escaper csv(final char delimiter) {
+        checkArgument(delimiter < TABLE_SIZE && delimiter != '"' && delimiter != '\r' && delimiter != '\n',
+                StringPool.Messages_.PARAM_1_2_IS_INVALID, 1, "delimiter");
+        final String[] table = new String[TABLE_SIZE];
+        table[delimiter] = String.valueOf(delimiter);
+        table['\r'] = "\r";
+        table['\n'] = "\n";
+        table['"'] = "\"\"";
+        return new Escaper(table, "\"");
+    }
+
+    /**
+     * Create an escaper from a table of replacements for ASCII characters.
+     */
+    @Nonnull
+    public static Escaper of(@Nonnull final Map<Character, String> replacements) {
+        checkNotNull(replacements, 1, "replacements");
+        final String[] table = new String[TABLE_SIZE];
+        replacements.forEach((c, replacement) -> {
+            checkArgument(c < TABLE_SIZE, StringPool.Messages_.PARAM_1_2_MUST_BE_ASCII, 1, "replacements");
+            table[c] = checkNotNull(replacement, 1, "replacements");
+        });
+        return new Escaper(table, null);
+    }
+
+    /**
+     * Get the index of the first character that needs escaping.
+     *
+     * @return the index, or -1 if the input can be used as is
+     */
+    public int indexOfFirstEscape(@Nonnull final CharSequence cs) {
+        return triggers.indexIn(cs);
+    }
+
+    /**
+     * Escape a string.
+     *
+     * @return the escaped string, or {@code s} itself if nothing needs escaping
+     */
+    @Nonnull
+    public String escape(@Nonnull final String s) {
+        final int first = indexOfFirstEscape(s);
+        if (first < 0) {
+            return s;
+        }
+        return escape(s, new StringBuilder(s.length() + 16)).toString();
+    }
+
+    /**
+     * Append the escaped form of a character sequence.
+     *
+     * @return the target
+     */
+    @Nonnull
+    public StringBuilder escape(@Nonnull final CharSequence cs, @Nonnull final StringBuilder target) {
+        checkNotNull(target, 2, "target");
+        target.ensureCapacity(target.length() + cs.length() + 16);
+        try {
+            escape(cs, (Appendable) target);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        return target;
+    }
+
+    /**
+     * Append the escaped form of a character sequence.
+     *
+     * @return the target
+     */
+    @Nonnull
+    public <A extends Appendable> A escape(@Nonnull final CharSequence cs, @Nonnull final A target)
+            throws IOException {
+        checkNotNull(target, 2, "target");
+        final int first = indexOfFirstEscape(cs);
+        if (first < 0) {
+            target.append(cs);
+            return target;
+        }
+        if (quote != null) {
+            target.append(quote);
+        }
+        target.append(cs, 0, first);
+        int runStart = first;
+        for (int i = first; i < cs.length(); i++) {
+            final char c = cs.charAt(i);
+            final String replacement = c < TABLE_SIZE ? replacements[c] : null;
+            if (replacement != null) {
+                target.append(cs, runStart, i).append(replacement);
+                runStart = i + 1;
+            }
+        }
+        target.append(cs, runStart, cs.length());
+        if (quote != null) {
+            target.append(quote);
+        }
+        return target;
+    }
+
+}
@@ -0,0 +1,325 @@
+package kmw.utilities.core.strings;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static kmw.utilities.core.base.Checks.checkNotNull;
+
+/**
+ * File-level counterparts of {@link StringServiceUtil#countNewlines(String)} and
+ * {@link StringServiceUtil#lines(String)} for files of any size; see {@link #lines(Path, Charset)} for how the lines
+ * differ at the end of the input.
+ * <p>
+ * Files are memory-mapped through {@link FileChannel#map} in segments of 1 GiB, so their contents never get copied onto
+ * the heap as a whole. Newlines are searched eight bytes at a time (SWAR). Lines are separated by {@code "\n"} or
+ * {@code "\r\n"}; since every {@code "\r\n"} contains exactly one {@code '\n'}, counting {@code '\n'} bytes equals
+ * counting both separators. This holds for all ASCII-compatible charsets, including UTF-8 and ISO-8859-x.
+ * <p>
+ * Mappings stay valid after the channel has been closed and are released by the garbage collector.
+ */
+public final class FileLines {
+
+    private FileLines() {}
+
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long PARALLEL_CHUNK = 16L << 20;
+    private static final long MIN_SPLIT = 1L << 20;
+
+    private static final long NEWLINES = 0x0A0A0A0A0A0A0A0AL;
+    private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+    /**
+     * Count the newlines in a file.
+     *
+     * @return the number of {@code "\n"} and {@code "\r\n"} separators
+     */
+    public static long countNewlines(@Nonnull final Path path) throws IOException {
+        final MappedFile file = MappedFile.map(path, SEGMENT_SHIFT);
+        return file.count(0, file.size);
+    }
+
+    /**
+     * Count the newlines in a file, scanning chunks of it in parallel on the common fork-join pool.
+     *
+     * @see #countNewlines(Path)
+     */
+    public static long countNewlinesParallel(@Nonnull final Path path) throws IOException {
+        final MappedFile file = MappedFile.map(path, SEGMENT_SHIFT);
+        final long chunks = (file.size + PARALLEL_CHUNK - 1) / PARALLEL_CHUNK;
+        return LongStream.range(0, chunks).parallel()
+                .map(i -> file.count(i * PARALLEL_CHUNK, Math.min(file.size, (i + 1) * PARALLEL_CHUNK)))
+                .sum();
+    }
+
+    /**
+     * Get a spliterator over the line ranges of a file. It splits at newline boundaries, so the lines of a file can be
+     * processed in parallel with {@code StreamSupport.stream(lineRanges(path), true)}.
+     */
+    @Nonnull
+    public static Spliterator<LineRange> lineRanges(@Nonnull final Path path) throws IOException {
+        return lineRanges(path, SEGMENT_SHIFT);
+    }
+
+    static Spliterator<LineRange> lineRanges(final Path path, final int segmentShift) throws IOException {
+        final MappedFile file = MappedFile.map(path, segmentShift);
+        return new LineSpliterator(file, 0, file.size);
+    }
+
+    /**
+     * Get the lines of a file as a lazily decoded stream. Call {@link Stream#parallel()} to decode lines in parallel.
+     * <p>
+     * Lines are split like JDK 11's {@code String.lines()}: a trailing newline doesn't start another (empty) line,
+     * but empty lines before it are kept, and an empty file has no lines. This differs from
+     * {@link StringServiceUtil#lines(String)}, which drops all trailing empty lines and returns one empty line for an
+     * empty string.
+     *
+     * @param path the file
+     * @param charset an ASCII-compatible charset
+     * @return the lines, without their separators
+     */
+    @Nonnull
+    public static Stream<String> lines(@Nonnull final Path path, @Nonnull final Charset charset) throws IOException {
+        checkNotNull(charset, 2, "charset");
+        return StreamSupport.stream(lineRanges(path), false).map(line -> line.toString(charset));
+    }
+
+    /**
+     * Count the bytes equal to {@code '\n'} in a long. Exact, since the carry of the addition never crosses a byte.
+     */
+    private static int countNewlines(final long word) {
+        final long x = word ^ NEWLINES;
+        final long t = ~(((x & LOW_SEVEN_BITS) + LOW_SEVEN_BITS) | x | LOW_SEVEN_BITS);
+        return Long.bitCount(t);
+    }
+
+    /**
+     * A range of bytes of a mapped file making up one line, without its separator.
+     */
+    public static final class LineRange {
+        private final MappedFile file;
+        private final long start;
+        private final long end;
+
+        LineRange(final MappedFile file, final long start, final long end) {
+            this.file = file;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Get the file offset of the first byte of this line.
+         */
+        public long start() {
+            return start;
+        }
+
+        /**
+         * Get the file offset just past the last byte of this line, not counting the separator.
+         */
+        public long end() {
+            return end;
+        }
+
+        public int length() {
+            return Math.toIntExact(end - start);
+        }
+
+        /**
+         * Get the bytes of this line as a read-only buffer. Lines within one mapped segment are returned as a view
+         * without copying; lines spanning two segments are copied.
+         */
+        @Nonnull
+        public ByteBuffer asByteBuffer() {
+            final int length = length();
+            final int segment = file.segmentOf(start);
+            final int offset = file.offsetOf(start);
+            final MappedByteBuffer mapped = file.segments[segment];
+            if (offset + length <= mapped.limit()) {
+                final ByteBuffer view = mapped.duplicate();
+                view.position(offset).limit(offset + length);
+                return view.slice().asReadOnlyBuffer();
+            }
+            final byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = file.get(start + i);
+            }
+            return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+        }
+
+        @Nonnull
+        public String toString(@Nonnull final Charset charset) {
+            return StringConvertUtil.fromByteBuffer(asByteBuffer(), charset);
+        }
+
+        @Override
+        public String toString() {
+            return "LineRange[" + start + ".." + end + ")";
+        }
+    }
+
+    private static final class LineSpliterator implements Spliterator<LineRange> {
+        private final MappedFile file;
+        private long pos;       // always at the start of a line
+        private final long end; // the start of a line or the end of the file
+
+        LineSpliterator(final MappedFile file, final long pos, final long end) {
+            this.file = file;
+            this.pos = pos;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super LineRange> action) {
+            if (pos >= end) {
+                return false;
+            }
+            final long lineStart = pos;
+            final long newline = file.indexOfNewline(pos, end);
+            final long lineEnd;
+            if (newline < 0) {
+                lineEnd = end;
+                pos = end;
+            } else {
+                lineEnd = newline > lineStart && file.get(newline - 1) == '\r' ? newline - 1 : newline;
+                pos = newline + 1;
+            }
+            action.accept(new LineRange(file, lineStart, lineEnd));
+            return true;
+        }
+
+        @Override
+        public Spliterator<LineRange> trySplit() {
+            if (end - pos < 2 * MIN_SPLIT) {
+                return null;
+            }
+            final long newline = file.indexOfNewline(pos + (end - pos) / 2, end);
+            if (newline < 0 || newline + 1 >= end) {
+                return null;
+            }
+            final Spliterator<LineRange> prefix = new LineSpliterator(file, pos, newline + 1);
+            pos = newline + 1;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - pos;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+    }
+
+    /**
+     * A file mapped as a sequence of equally sized segments; only the last one may be shorter.
+     */
+    static final class MappedFile {
+        final MappedByteBuffer[] segments;
+        final long size;
+        private final int shift;
+        private final long mask;
+
+        private MappedFile(final MappedByteBuffer[] segments, final long size, final int shift) {
+            this.segments = segments;
+            this.size = size;
+            this.shift = shift;
+            this.mask = (1L << shift) - 1;
+        }
+
+        static MappedFile map(final Path path, final int shift) throws IOException {
+            checkNotNull(path, 1, "path");
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                final long size = channel.size();
+                final long segmentSize = 1L << shift;
+                final MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((size + segmentSize - 1) >>> shift)];
+                for (int i = 0; i < segments.length; i++) {
+                    final long position = (long) i << shift;
+                    segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                            Math.min(segmentSize, size - position));
+                    segments[i].order(ByteOrder.LITTLE_ENDIAN);
+                }
+                return new MappedFile(segments, size, shift);
+            }
+        }
+
+        int segmentOf(final long position) {
+            return (int) (position >>> shift);
+        }
+
+        int offsetOf(final long position) {
+            return (int) (position & mask);
+        }
+
+        byte get(final long position) {
+            return segments[segmentOf(position)].get(offsetOf(position));
+        }
+
+        /**
+         * Count the newlines in {@code [from, to)}.
+         */
+        long count(final long from, final long to) {
+            long count = 0;
+            long pos = from;
+            while (pos < to) {
+                final MappedByteBuffer segment = segments[segmentOf(pos)];
+                final int offset = offsetOf(pos);
+                final int limit = (int) Math.min(segment.limit(), offset + (to - pos));
+                int i = offset;
+                for (; i + 8 <= limit; i += 8) {
+                    count += countNewlines(segment.getLong(i));
+                }
+                for (; i < limit; i++) {
+                    if (segment.get(i) == '\n') {
+                        count++;
+                    }
+                }
+                pos += limit - offset;
+            }
+            return count;
+        }
+
+        /**
+         * Get the position of the first newline in {@code [from, to)}.
+         *
+         * @return the position, or -1 if there is none
+         */
+        long indexOfNewline(final long from, final long to) {
+            long pos = from;
+            while (pos < to) {
+                final MappedByteBuffer segment = segments[segmentOf(pos)];
+                final int offset = offsetOf(pos);
+                final int limit = (int) Math.min(segment.limit(), offset + (to - pos));
+                int i = offset;
+                for (; i + 8 <= limit; i += 8) {
+                    final long x = segment.getLong(i) ^ NEWLINES;
+                    final long t = ~(((x & LOW_SEVEN_BITS) + LOW_SEVEN_BITS) | x | LOW_SEVEN_BITS);
+                    if (t != 0) {
+                        return pos + (i - offset) + (Long.numberOfTrailingZeros(t) >>> 3);
+                    }
+                }
+                for (; i < limit; i++) {
+                    if (segment.get(i) == '\n') {
+                        return pos + (i - offset);
+                    }
+                }
+                pos += limit - offset;
+            }
+            return -1;
+        }
+    }
+
+}
@@ -0,0 +1,204 @@
+package kmw.utilities.core.strings;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+import static kmw.utilities.core.base.Checks.checkNotNull;
+
+/**
+ * A compiled wildcard pattern: {@code '*'} matches any sequence of characters, {@code '?'} matches exactly one
+ * character, and a backslash escapes the next character.
+ * <p>
+ * The pattern is compiled into the literal segments between its stars. The first segment must match at the start of
+ * the input and the last one at its end; the segments in between are searched for from left to right, and the
+ * leftmost occurrence of each is always a correct choice. Matching therefore never backtracks and takes at most
+ * O(n * m) steps for an input of length n and a pattern of length m, compared to the exponential worst case of a
+ * regex translation. Characters are matched as UTF-16 {@code char}s. Instances are immutable and thread-safe.
+ */
+public final class GlobMatcher {
+
+    private final String glob;
+    private final Segment[] segments;
+    private final boolean hasStar;
+    private final int minLength;
+
+    private GlobMatcher(final String glob, final Segment[] segments, final boolean hasStar) {
+        this.glob = glob;
+        this.segments = segments;
+        this.hasStar = hasStar;
+        int length = 0;
+        for (final Segment segment : segments) {
+            length += segment.length();
+        }
+        this.minLength = length;
+    }
+
+    /**
+     * Compile a glob pattern.
+     */
+    @Nonnull
+    public static GlobMatcher compile(@Nonnull final String glob) {
+        checkNotNull(glob, 1, "glob");
+        final List<Segment> segments = new ArrayList<>();
+        final StringBuilder literal = new StringBuilder();
+        final List<Integer> wildcards = new ArrayList<>();
+        boolean hasStar = false;
+        for (int i = 0; i < glob.length(); i++) {
+            final char c = glob.charAt(i);
+            if (c == '\\' && i + 1 < glob.length()) {
+                literal.append(glob.charAt(++i));
+            } else if (c == '?') {
+                wildcards.add(literal.length());
+                literal.append('?');
+            } else if (c == '*') {
+                segments.add(new Segment(literal.toString(), wildcards));
+                literal.setLength(0);
+                wildcards.clear();
+                hasStar = true;
+            } else {
+                literal.append(c);
+            }
+        }
+        segments.add(new Segment(literal.toString(), wildcards));
+        return new GlobMatcher(glob, segments.toArray(new Segment[0]), hasStar);
+    }
+
+    @Nonnull
+    public String glob() {
+        return glob;
+    }
+
+    /**
+     * Test whether the whole input matches this pattern.
+     */
+    public boolean matches(@Nonnull final CharSequence input) {
+        checkNotNull(input, 1, "input");
+        final int len = input.length();
+        final Segment first = segments[0];
+        if (!hasStar) {
+            return len == first.length() && first.matchesAt(input, 0);
+        }
+        if (len < minLength) {
+            return false;
+        }
+        final Segment last = segments[segments.length - 1];
+        if (!first.matchesAt(input, 0) || !last.matchesAt(input, len - last.length())) {
+            return false;
+        }
+        int pos = first.length();
+        final int limit = len - last.length();
+        for (int i = 1; i < segments.length - 1; i++) {
+            final int found = segments[i].indexIn(input, pos, limit);
+            if (found < 0) {
+                return false;
+            }
+            pos = found + segments[i].length();
+        }
+        return true;
+    }
+
+    /**
+     * Test whether the pattern has no wildcards at all.
+     */
+    boolean isLiteral() {
+        return !hasStar && segments[0].wildcards == null;
+    }
+
+    /**
+     * Get the literal characters every match starts with.
+     */
+    String literalPrefix() {
+        return segments[0].literalPrefix();
+    }
+
+    /**
+     * Get the literal characters every match ends with.
+     */
+    String literalSuffix() {
+        return hasStar ? segments[segments.length - 1].literalSuffix() : segments[0].literalSuffix();
+    }
+
+    /**
+     * Test whether the pattern is {@code "literal*"}, i.e. a literal prefix is a sufficient condition to match.
+     */
+    boolean isPrefixOnly() {
+        return segments.length == 2 && segments[0].wildcards == null && segments[1].length() == 0;
+    }
+
+    /**
+     * Test whether the pattern is {@code "*literal"}, i.e. a literal suffix is a sufficient condition to match.
+     */
+    boolean isSuffixOnly() {
+        return segments.length == 2 && segments[0].length() == 0 && segments[1].wildcards == null;
+    }
+
+    @Override
+    public String toString() {
+        return "GlobMatcher[" + glob + "]";
+    }
+
+    /**
+     * A run of literal characters and {@code '?'} wildcards between two stars.
+     */
+    private static final class Segment {
+        final String chars;
+        final boolean[] wildcards;   // null if there are none
+
+        Segment(final String chars, final List<Integer> wildcardPositions) {
+            this.chars = chars;
+            if (wildcardPositions.isEmpty()) {
+                this.wildcards = null;
+            } else {
+                this.wildcards = new boolean[chars.length()];
+                for (final int position : wildcardPositions) {
+                    wildcards[position] = true;
+                }
+            }
+        }
+
+        int length() {
+            return chars.length();
+        }
+
+        boolean matchesAt(final CharSequence input, final int pos) {
+            for (int i = 0; i < chars.length(); i++) {
+                if ((wildcards == null || !wildcards[i]) && input.charAt(pos + i) != chars.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int indexIn(final CharSequence input, final int from, final int limit) {
+            final int last = limit - chars.length();
+            if (wildcards == null && input instanceof String) {
+                final int found = ((String) input).indexOf(chars, from);
+                return found >= 0 && found <= last ? found : -1;
+            }
+            for (int pos = from; pos <= last; pos++) {
+                if (matchesAt(input, pos)) {
+                    return pos;
+                }
+            }
+            return -1;
+        }
+
+        String literalPrefix() {
+            int end = 0;
+            while (end < chars.length() && (wildcards == null || !wildcards[end])) {
+                end++;
+            }
+            return chars.substring(0, end);
+        }
+
+        String literalSuffix() {
+            int start = chars.length();
+            while (start > 0 && (wildcards == null || !wildcards[start - 1])) {
+                start--;
+            }
+            return chars.substring(start);
+        }
+    }
+
+}
@@ -0,0 +1,239 @@
+package kmw.utilities.core.strings;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static kmw.utilities.core.base.Checks.checkNotNull;
+
+/**
+ * A set of glob rules, see {@link GlobMatcher}, that are matched against an input all at once.
+ * <p>
+ * Rules are indexed by their literal parts, so only a few of them have to be run for any input:
+ * <ul>
+ * <li>rules without wildcards are looked up in a hash map;</li>
+ * <li>extension rules like {@code "*.csv"} are looked up by {@link StringServiceUtil#getFileExt(String)};</li>
+ * <li>other rules with a literal prefix are found by walking a trie of all prefixes along the input, those with only
+ * a literal suffix by walking a trie of reversed suffixes backwards, so rules share common prefixes and suffixes;</li>
+ * <li>only rules without any literal prefix or suffix, like {@code "*"} or {@code "?*x*"}, are run one by one.</li>
+ * </ul>
+ * Instances are immutable and thread-safe.
+ */
+public final class GlobSet {
+
+    private static final int[] NONE = new int[0];
+
+    private final GlobMatcher[] rules;
+    private final Map<String, int[]> exact;
+    private final Map<String, int[]> extensions;
+    private final Trie prefixes;
+    private final Trie suffixes;
+    private final int[] general;
+
+    private GlobSet(final GlobMatcher[] rules) {
+        this.rules = rules;
+        final Map<String, List<Integer>> exactRules = new HashMap<>();
+        final Map<String, List<Integer>> extensionRules = new HashMap<>();
+        final Trie.Builder prefixBuilder = new Trie.Builder();
+        final Trie.Builder suffixBuilder = new Trie.Builder();
+        final List<Integer> generalRules = new ArrayList<>();
+        for (int i = 0; i < rules.length; i++) {
+            final GlobMatcher rule = rules[i];
+            final String prefix = rule.literalPrefix();
+            final String suffix = rule.literalSuffix();
+            if (rule.isLiteral()) {
+                exactRules.computeIfAbsent(prefix, key -> new ArrayList<>()).add(i);
+            } else if (rule.isSuffixOnly() && suffix.lastIndexOf(StringPool.Chars_.DOT) == 0 && suffix.length() > 1) {
+                extensionRules.computeIfAbsent(suffix.substring(1), key -> new ArrayList<>()).add(i);
+            } else if (!prefix.isEmpty()) {
+                prefixBuilder.add(prefix, i);
+            } else if (!suffix.isEmpty()) {
+                suffixBuilder.add(new StringBuilder(suffix).reverse().toString(), i);
+            } else {
+                generalRules.add(i);
+            }
+        }
+        this.exact = freeze(exactRules);
+        this.extensions = freeze(extensionRules);
+        this.prefixes = prefixBuilder.build();
+        this.suffixes = suffixBuilder.build();
+        this.general = toArray(generalRules);
+    }
+
+    @Nonnull
+    public static GlobSet of(@Nonnull final String... globs) {
+        checkNotNull(globs, 1, "globs");
+        return of(Arrays.asList(globs));
+    }
+
+    @Nonnull
+    public static GlobSet of(@Nonnull final Collection<String> globs) {
+        checkNotNull(globs, 1, "globs");
+        final GlobMatcher[] rules = new GlobMatcher[globs.size()];
+        int i = 0;
+        for (final String glob : globs) {
+            rules[i++] = GlobMatcher.compile(glob);
+        }
+        return new GlobSet(rules);
+    }
+
+    public int size() {
+        return rules.length;
+    }
+
+    @Nonnull
+    public String glob(final int index) {
+        return rules[index].glob();
+    }
+
+    /**
+     * Test whether any rule matches the input.
+     */
+    public boolean matchesAny(@Nonnull final String input) {
+        return firstMatch(input) >= 0;
+    }
+
+    /**
+     * Get the index of the first rule matching the input.
+     *
+     * @return the smallest index of a matching rule, or -1 if none matches
+     */
+    public int firstMatch(@Nonnull final String input) {
+        final int[] matching = matchingRules(input);
+        return matching.length == 0 ? -1 : matching[0];
+    }
+
+    /**
+     * Get the indices of all rules matching the input.
+     *
+     * @return the ascending rule indices
+     */
+    @Nonnull
+    public int[] matchingRules(@Nonnull final String input) {
+        checkNotNull(input, 1, "input");
+        final Hits hits = new Hits();
+        hits.addAll(exact.getOrDefault(input, NONE));
+        if (!extensions.isEmpty()) {
+            hits.addAll(extensions.getOrDefault(StringServiceUtil.getFileExt(input), NONE));
+        }
+        Trie.Node node = prefixes.root;
+        for (int i = 0; node != null; i++) {
+            verifyAll(node.rules, input, hits);
+            node = i < input.length() ? node.child(input.charAt(i)) : null;
+        }
+        node = suffixes.root;
+        for (int i = input.length() - 1; node != null; i--) {
+            verifyAll(node.rules, input, hits);
+            node = i >= 0 ? node.child(input.charAt(i)) : null;
+        }
+        verifyAll(general, input, hits);
+        return hits.toSortedArray();
+    }
+
+    private void verifyAll(final int[] candidates, final String input, final Hits hits) {
+        for (final int rule : candidates) {
+            if (rules[rule].isPrefixOnly() || rules[rule].isSuffixOnly() || rules[rule].matches(input)) {
+                hits.add(rule);
+            }
+        }
+    }
+
+    private static Map<String, int[]> freeze(final Map<String, List<Integer>> map) {
+        final Map<String, int[]> frozen = new HashMap<>(map.size() * 2);
+        map.forEach((key, value) -> frozen.put(key, toArray(value)));
+        return frozen;
+    }
+
+    private static int[] toArray(final List<Integer> list) {
+        return list.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * A growable list of rule indices.
+     */
+    private static final class Hits {
+        private int[] indices = NONE;
+        private int size;
+
+        void add(final int index) {
+            if (size == indices.length) {
+                indices = Arrays.copyOf(indices, Math.max(8, 2 * size));
+            }
+            indices[size++] = index;
+        }
+
+        void addAll(final int[] all) {
+            for (final int index : all) {
+                add(index);
+            }
+        }
+
+        int[] toSortedArray() {
+            final int[] result = Arrays.copyOf(indices, size);
+            Arrays.sort(result);
+            return result;
+        }
+    }
+
+    /**
+     * An immutable character trie holding rule indices at the nodes where their literal ends.
+     */
+    private static final class Trie {
+        final Node root;
+
+        private Trie(final Node root) {
+            this.root = root;
+        }
+
+        static final class Node {
+            final char[] labels;    // sorted
+            final Node[] children;
+            final int[] rules;
+
+            Node(final char[] labels, final Node[] children, final int[] rules) {
+                this.labels = labels;
+                this.children = children;
+                this.rules = rules;
+            }
+
+            Node child(final char c) {
+                final int i = Arrays.binarySearch(labels, c);
+                return i < 0 ? null : children[i];
+            }
+        }
+
+        static final class Builder {
+            private final TreeMap<Character, Builder> children = new TreeMap<>();
+            private final List<Integer> rules = new ArrayList<>();
+
+            void add(final String key, final int rule) {
+                Builder node = this;
+                for (int i = 0; i < key.length(); i++) {
+                    node = node.children.computeIfAbsent(key.charAt(i), c -> new Builder());
+                }
+                node.rules.add(rule);
+            }
+
+            Trie build() {
+                return new Trie(freeze());
+            }
+
+            private Node freeze() {
+                final char[] labels = new char[children.size()];
+                final Node[] nodes = new Node[children.size()];
+                int i = 0;
+                for (final Map.Entry<Character, Builder> entry : children.entrySet()) {
+                    labels[i] = entry.getKey();
+                    nodes[i++] = entry.getValue().freeze();
+                }
+                return new Node(labels, nodes, toArray(rules));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,323 @@
+package kmw.utilities.core.strings;
+
+import javax.annotation.Nonnull;
+import java.util.Objects;
+import java.util.TimeZone;
+
+import static kmw.utilities.core.base.Checks.checkNotNull;
+
+/**
+ * Hand-written parsers for the ISO-8601 formats written by {@link StringConvertUtil#isoDateString} and
+ * {@link StringConvertUtil#isoDateTimeString}, reading text or ASCII bytes into epoch days, seconds or milliseconds
+ * without allocating.
+ * <p>
+ * Dates have the form {@code yyyy-MM-dd}. Date-times have the form {@code yyyy-MM-dd'T'HH:mm[:ss[.fraction]]}
+ * followed by an optional offset {@code Z}, {@code +HH}, {@code +HHmm} or {@code +HH:mm} (or with {@code -}). The
+ * fraction has 1 to 9 digits and is truncated to milliseconds. A date-time without an offset is a local time in the
+ * given time zone, by default the JVM's default time zone like {@code isoDateTimeString}; local times in a daylight
+ * saving gap or overlap resolve as with {@code SimpleDateFormat}. The default time zone is only looked up for local
+ * times, and {@link TimeZone#getDefault()} returns a copy, so parse local times with an explicit zone where no
+ * allocation at all is wanted.
+ * <p>
+ * Invalid input, including out of range fields such as February 30, is reported by returning {@link #INVALID}
+ * rather than by throwing.
+ */
+public final class IsoDateParser {
+
+    /**
+     * The value returned for invalid input. It is outside the range of any valid result.
+     */
+    public static final long INVALID = Long.MIN_VALUE;
+
+    private static final int DAYS_0000_TO_1970 = 719_528;
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private IsoDateParser() {
+    }
+
+    // Dates
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Parse a date into days since 1970-01-01.
+     *
+     * @return the epoch day, or {@link #INVALID}
+     */
+    public static long parseEpochDay(@Nonnull final CharSequence text) {
+        checkNotNull(text, 1, "text");
+        return parseDate(text, 0, text.length());
+    }
+
+    /**
+     * Parse a date from a range of ASCII bytes into days since 1970-01-01.
+     *
+     * @return the epoch day, or {@link #INVALID}
+     */
+    public static long parseEpochDay(@Nonnull final byte[] bytes, final int off, final int len) {
+        checkNotNull(bytes, 1, "bytes");
+        Objects.checkFromIndexSize(off, len, bytes.length);
+        return parseDate(bytes, off, off + len);
+    }
+
+    // Date-times
+    //------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Parse a date-time into milliseconds since the epoch; local times are in the default time zone.
+     *
+     * @return the epoch millisecond, or {@link #INVALID}
+     */
+    public static long parseEpochMilli(@Nonnull final CharSequence text) {
+        checkNotNull(text, 1, "text");
+        return parseDateTime(text, 0, text.length(), null);
+    }
+
+    /**
+     * Parse a date-time into milliseconds since the epoch; local times are in the given time zone.
+     *
+     * @return the epoch millisecond, or {@link #INVALID}
+     */
+    public static long parseEpochMilli(@Nonnull final CharSequence text, @Nonnull final TimeZone zone) {
+        checkNotNull(text, 1, "text");
+        checkNotNull(zone, 2, "zone");
+        return parseDateTime(text, 0, text.length(), zone);
+    }
+
+    /**
+     * Parse a date-time from a range of ASCII bytes into milliseconds since the epoch; local times are in the default
+     * time zone.
+     *
+     * @return the epoch millisecond, or {@link #INVALID}
+     */
+    public static long parseEpochMilli(@Nonnull final byte[] bytes, final int off, final int len) {
+        checkNotNull(bytes, 1, "bytes");
+        Objects.checkFromIndexSize(off, len, bytes.length);
+        return parseDateTime(bytes, off, off + len, null);
+    }
+
+    /**
+     * Parse a date-time from a range of ASCII bytes into milliseconds since the epoch; local times are in the given
+     * time zone.
+     *
+     * @return the epoch millisecond, or {@link #INVALID}
+     */
+    public static long parseEpochMilli(@Nonnull final byte[] bytes, final int off, final int len,
+                                       @Nonnull final TimeZone zone) {
+        checkNotNull(bytes, 1, "bytes");
+        checkNotNull(zone, 4, "zone");
+        Objects.checkFromIndexSize(off, len, bytes.length);
+        return parseDateTime(bytes, off, off + len, zone);
+    }
+
+    /**
+     * Parse a date-time into seconds since the epoch, rounding fractions down; local times are in the default time
+     * zone.
+     *
+     * @return the epoch second, or {@link #INVALID}
+     */
+    public static long parseEpochSecond(@Nonnull final CharSequence text) {
+        return toSeconds(parseEpochMilli(text));
+    }
+
+    /**
+     * Parse a date-time into seconds since the epoch, rounding fractions down; local times are in the given time zone.
+     *
+     * @return the epoch second, or {@link #INVALID}
+     */
+    public static long parseEpochSecond(@Nonnull final CharSequence text, @Nonnull final TimeZone zone) {
+        return toSeconds(parseEpochMilli(text, zone));
+    }
+
+    /**
+     * Parse a date-time from a range of ASCII bytes into seconds since the epoch, rounding fractions down; local times
+     * are in the default time zone.
+     *
+     * @return the epoch second, or {@link #INVALID}
+     */
+    public static long parseEpochSecond(@Nonnull final byte[] bytes, final int off, final int len) {
+        return toSeconds(parseEpochMilli(bytes, off, len));
+    }
+
+    /**
+     * Parse a date-time from a range of ASCII bytes into seconds since the epoch, rounding fractions down; local times
+     * are in the given time zone.
+     *
+     * @return the epoch second, or {@link #INVALID}
+     */
+    public static long parseEpochSecond(@Nonnull final byte[] bytes, final int off, final int len,
+                                        @Nonnull final TimeZone zone) {
+        return toSeconds(parseEpochMilli(bytes, off, len, zone));
+    }
+
+    // Implementation
+    //------------------------------------------------------------------------------------------------------------------
+
+    private static long toSeconds(final long millis) {
+        return millis == INVALID ? INVALID : Math.floorDiv(millis, 1000);
+    }
+
+    private static long parseDate(final Object src, final int from, final int to) {
+        return to - from == 10 ? date(src, from) : INVALID;
+    }
+
+    /**
+     * Parse {@code yyyy-MM-dd} at {@code pos} into an epoch day.
+     */
+    private static long date(final Object src, final int pos) {
+        final int year = digits(src, pos, 4);
+        final int month = digits(src, pos + 5, 2);
+        final int day = digits(src, pos + 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)
+                || at(src, pos + 4) != '-' || at(src, pos + 7) != '-') {
+            return INVALID;
+        }
+        return epochDay(year, month, day);
+    }
+
+    /**
+     * Parse a date-time; a {@code null} zone stands for the default time zone.
+     */
+    private static long parseDateTime(final Object src, final int from, final int to, final TimeZone zone) {
+        // yyyy-MM-ddTHH:mm is the shortest valid input
+        if (to - from < 16 || at(src, from + 10) != 'T' || at(src, from + 13) != ':') {
+            return INVALID;
+        }
+        final long epochDay = date(src, from);
+        final int hour = digits(src, from + 11, 2);
+        final int minute = digits(src, from + 14, 2);
+        if (epochDay == INVALID || hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return INVALID;
+        }
+        int pos = from + 16;
+        int second = 0;
+        int millis = 0;
+        if (pos < to && at(src, pos) == ':') {
+            second = pos + 3 <= to ? digits(src, pos + 1, 2) : -1;
+            if (second < 0 || second > 59) {
+                return INVALID;
+            }
+            pos += 3;
+            if (pos < to && at(src, pos) == '.') {
+                final int start = ++pos;
+                while (pos < to && pos - start < 9 && isDigit(at(src, pos))) {
+                    if (pos - start < 3) {
+                        millis = millis * 10 + at(src, pos) - '0';
+                    }
+                    pos++;
+                }
+                if (pos == start) {
+                    return INVALID;
+                }
+                for (int i = pos - start; i < 3; i++) {
+                    millis *= 10;
+                }
+            }
+        }
+        final long local = epochDay * MILLIS_PER_DAY + ((hour * 60L + minute) * 60 + second) * 1000 + millis;
+        if (pos == to) {
+            return local - localOffset(zone != null ? zone : TimeZone.getDefault(), local);
+        }
+        final int offset = offset(src, pos, to);
+        return offset == Integer.MIN_VALUE ? INVALID : local - offset * 60_000L;
+    }
+
+    /**
+     * Parse {@code Z}, {@code +HH}, {@code +HHmm} or {@code +HH:mm} spanning {@code pos} to {@code to} into minutes.
+     *
+     * @return the offset in minutes, or {@code Integer.MIN_VALUE}
+     */
+    private static int offset(final Object src, final int pos, final int to) {
+        final char sign = at(src, pos);
+        if (sign == 'Z') {
+            return pos + 1 == to ? 0 : Integer.MIN_VALUE;
+        }
+        if (sign != '+' && sign != '-') {
+            return Integer.MIN_VALUE;
+        }
+        final int length = to - pos - 1;
+        final int hours = length >= 2 ? digits(src, pos + 1, 2) : -1;
+        final int minutes;
+        if (length == 2) {
+            minutes = 0;
+        } else if (length == 4) {
+            minutes = digits(src, pos + 3, 2);
+        } else if (length == 5 && at(src, pos + 3) == ':') {
+            minutes = digits(src, pos + 4, 2);
+        } else {
+            return Integer.MIN_VALUE;
+        }
+        if (hours < 0 || hours > 18 || minutes < 0 || minutes > 59) {
+            return Integer.MIN_VALUE;
+        }
+        final int total = hours * 60 + minutes;
+        return sign == '-' ? -total : total;
+    }
+
+    /**
+     * Get the offset of a zone at a local time, resolving gaps and overlaps like a lenient {@code Calendar}: times in
+     * a gap are shifted forward, and times in an overlap map to the later (standard time) instant.
+     */
+    private static int localOffset(final TimeZone zone, final long local) {
+        final int standard = zone.getOffset(local - zone.getRawOffset());
+        final int actual = zone.getOffset(local - standard);
+        return actual;
+    }
+
+    private static long epochDay(final int year, final int month, final int day) {
+        // days before the year, proleptic Gregorian, from year 0
+        long total = 365L * year;
+        if (year > 0) {
+            total += (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        }
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total -= isLeapYear(year) ? 1 : 2;
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+
+    private static int daysInMonth(final int year, final int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static boolean isLeapYear(final int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    /**
+     * Read {@code count} decimal digits at {@code pos}.
+     *
+     * @return the value, or -1 if any char is not a digit
+     */
+    private static int digits(final Object src, final int pos, final int count) {
+        int value = 0;
+        for (int i = pos; i < pos + count; i++) {
+            final char c = at(src, i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + c - '0';
+        }
+        return value;
+    }
+
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static char at(final Object src, final int index) {
+        return src instanceof byte[] ? (char) (((byte[]) src)[index] & 0xFF) : ((CharSequence) src).charAt(index);
+    }
+
+}
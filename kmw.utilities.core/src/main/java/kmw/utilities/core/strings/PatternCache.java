@@ -0,0 +1,98 @@
+package kmw.utilities.core.strings;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.regex.Pattern;
+
+import static kmw.utilities.core.base.Checks.checkNotNull;
+
+/**
+ * A global, size-bounded cache of compiled regular expressions, used by the string-keyed regex entry points of
+ * {@link StringServiceUtil}.
+ * <p>
+ * The cache is concurrent and evicts the least recently used patterns once it holds {@link #MAXIMUM_SIZE} of them.
+ * Regular expressions that are plain literals can be detected with {@link #literalOf(String)}, so callers can skip the
+ * regex engine entirely.
+ */
+public final class PatternCache {
+
+    private PatternCache() {}
+
+    public static final int MAXIMUM_SIZE = 512;
+
+    private static final String META_CHARS = "\\^$.|?*+()[]{}";
+
+    private static final LoadingCache<String, Pattern> CACHE = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .recordStats()
+            .build(new CacheLoader<String, Pattern>() {
+                @Override
+                public Pattern load(@Nonnull final String regex) {
+                    return Pattern.compile(regex);
+                }
+            });
+
+    /**
+     * Get the compiled pattern for a regular expression, compiling it at most once while it stays in the cache.
+     *
+     * @throws java.util.regex.PatternSyntaxException if the expression is invalid
+     */
+    @Nonnull
+    public static Pattern get(@Nonnull final String regex) {
+        checkNotNull(regex, 1, "regex");
+        try {
+            return CACHE.getUnchecked(regex);
+        } catch (UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw e;
+        }
+    }
+
+    /**
+     * Get the hit and miss statistics of the cache.
+     */
+    @Nonnull
+    public static CacheStats stats() {
+        return CACHE.stats();
+    }
+
+    /**
+     * Get the literal text matched by a regular expression, if it has no special meaning. A backslash followed by a
+     * character other than a letter or digit is taken as that character, e.g. {@code "\\."} is the literal {@code "."}.
+     *
+     * @return the literal, or {@code null} if the expression is empty or uses any regex feature
+     */
+    @Nullable
+    public static String literalOf(@Nonnull final String regex) {
+        checkNotNull(regex, 1, "regex");
+        if (regex.isEmpty()) {
+            return null;
+        }
+        StringBuilder sb = null;
+        for (int i = 0; i < regex.length(); i++) {
+            final char c = regex.charAt(i);
+            if (META_CHARS.indexOf(c) < 0) {
+                if (sb != null) {
+                    sb.append(c);
+                }
+                continue;
+            }
+            if (c != '\\' || i + 1 == regex.length() || Character.isLetterOrDigit(regex.charAt(i + 1))) {
+                return null;
+            }
+            if (sb == null) {
+                sb = new StringBuilder(regex.length()).append(regex, 0, i);
+            }
+            sb.append(regex.charAt(++i));
+        }
+        return sb == null ? regex : sb.toString();
+    }
+
+}
@@ -0,0 +1,421 @@
+package kmw.utilities.core.strings;
+
+import javax.annotation.Nonnull;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import static kmw.utilities.core.base.Checks.checkArgument;
+import static kmw.utilities.core.base.Checks.checkNonNegative;
+import static kmw.utilities.core.base.Checks.checkNotNull;
+import static kmw.utilities.core.strings.StringPool.Messages_;
+
+/**
+ * The layout of single-byte-delimited or fixed-width records, declared once and applied to many records through a
+ * reusable {@link Cursor}.
+ * <p>
+ * A cursor reads fields in place from a {@code byte[]} range or a {@code ByteBuffer}, e.g. a line of a
+ * {@code MappedByteBuffer} from {@link FileLines#lineRanges(java.nio.file.Path)}: numbers are parsed from the bytes,
+ * and text is exposed as {@code CharSequence} views that are reused from record to record, so reading a record
+ * allocates nothing. Delimited records are only scanned up to the highest field read. Leading and trailing spaces of
+ * a field, the usual padding of fixed-width records, are not part of its value. Delimited fields are not quoted.
+ * Layouts are immutable and thread-safe; cursors are not.
+ */
+public final class RecordLayout {
+
+    private final String[] names;
+    private final int[] starts;     // fixed-width only
+    private final int[] ends;       // fixed-width only
+    private final byte delimiter;   // delimited only
+    private final boolean fixedWidth;
+
+    private RecordLayout(final String[] names, final int[] starts, final int[] ends, final byte delimiter,
+                         final boolean fixedWidth) {
+        this.names = names;
+        this.starts = starts;
+        this.ends = ends;
+        this.delimiter = delimiter;
+        this.fixedWidth = fixedWidth;
+    }
+
+    /**
+     * Start declaring a fixed-width layout.
+     */
+    @Nonnull
+    public static Builder fixedWidth() {
+        return new Builder();
+    }
+
+    /**
+     * Create a layout of records whose fields are separated by an ASCII delimiter, e.g. {@code '|'}.
+     *
+     * @param names optional names of the leading fields
+     */
+    @Nonnull
+    public static RecordLayout delimited(final char delimiter, @Nonnull final String... names) {
+        checkArgument(delimiter < 128, Messages_.PARAM_1_2_MUST_BE_ASCII, 1, "delimiter");
+        checkNotNull(names, 2, "names");
+        return new RecordLayout(names.clone(), null, null, (byte) delimiter, false);
+    }
+
+    /**
+     * Declares the fields of a fixed-width layout.
+     */
+    public static final class Builder {
+        private final List<String> names = new ArrayList<>();
+        private final List<int[]> ranges = new ArrayList<>();
+
+        private Builder() {}
+
+        /**
+         * Add a field of {@code width} bytes starting at byte {@code start} of the record.
+         */
+        @Nonnull
+        public Builder field(@Nonnull final String name, final int start, final int width) {
+            checkNotNull(name, 1, "name");
+            checkNonNegative(start, 2, "start");
+            checkArgument(width > 0, Messages_.PARAM_1_2_MUST_BE_POSITIVE, 3, "width");
+            names.add(name);
+            ranges.add(new int[]{start, Math.addExact(start, width)});
+            return this;
+        }
+
+        @Nonnull
+        public RecordLayout build() {
+            final int[] starts = new int[ranges.size()];
+            final int[] ends = new int[ranges.size()];
+            for (int i = 0; i < starts.length; i++) {
+                starts[i] = ranges.get(i)[0];
+                ends[i] = ranges.get(i)[1];
+            }
+            return new RecordLayout(names.toArray(new String[0]), starts, ends, (byte) 0, true);
+        }
+    }
+
+    public boolean isFixedWidth() {
+        return fixedWidth;
+    }
+
+    /**
+     * Get the index of a named field.
+     *
+     * @return the index, or -1 if there is no field of that name
+     */
+    public int indexOf(@Nonnull final String name) {
+        checkNotNull(name, 1, "name");
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Create a new cursor for reading records of this layout.
+     */
+    @Nonnull
+    public Cursor cursor() {
+        return new Cursor(this);
+    }
+
+    @Override
+    public String toString() {
+        return "RecordLayout[" + (fixedWidth ? "fixed-width" : "delimited by '" + (char) delimiter + "'")
+                + ", names=" + Arrays.toString(names) + "]";
+    }
+
+    /**
+     * A reusable reader of records of one layout. Field views returned by {@link #field(int)} stay valid until the
+     * next {@code reset}.
+     */
+    public static final class Cursor {
+        private final RecordLayout layout;
+        private byte[] array;
+        private ByteBuffer buffer;
+        private int recordStart;
+        private int recordEnd;
+
+        // delimited records: bounds of the fields scanned so far
+        private int[] fieldStarts = new int[16];
+        private int[] fieldEnds = new int[16];
+        private int scanned;
+        private boolean scanComplete;
+
+        private FieldView[] views = new FieldView[0];
+
+        // the bounds of the field last located, without padding spaces
+        private int start;
+        private int end;
+
+        private Cursor(final RecordLayout layout) {
+            this.layout = layout;
+        }
+
+        /**
+         * Point this cursor at a record filling a whole array.
+         */
+        @Nonnull
+        public Cursor reset(@Nonnull final byte[] record) {
+            checkNotNull(record, 1, "record");
+            return reset(record, 0, record.length);
+        }
+
+        /**
+         * Point this cursor at a record in a range of an array. The array is read in place.
+         */
+        @Nonnull
+        public Cursor reset(@Nonnull final byte[] bytes, final int off, final int len) {
+            checkNotNull(bytes, 1, "bytes");
+            Objects.checkFromIndexSize(off, len, bytes.length);
+            this.array = bytes;
+            this.buffer = null;
+            return reset(off, off + len);
+        }
+
+        /**
+         * Point this cursor at the remaining bytes of a buffer, e.g. a mapped one. The buffer is read in place with
+         * absolute gets, its position is left unchanged.
+         */
+        @Nonnull
+        public Cursor reset(@Nonnull final ByteBuffer record) {
+            checkNotNull(record, 1, "record");
+            if (record.hasArray()) {
+                return reset(record.array(), record.arrayOffset() + record.position(), record.remaining());
+            }
+            this.array = null;
+            this.buffer = record;
+            return reset(record.position(), record.limit());
+        }
+
+        private Cursor reset(final int from, final int to) {
+            this.recordStart = from;
+            this.recordEnd = to;
+            this.scanned = 0;
+            this.scanComplete = false;
+            return this;
+        }
+
+        /**
+         * Get the number of bytes of the current record.
+         */
+        public int recordLength() {
+            return recordEnd - recordStart;
+        }
+
+        /**
+         * Get the number of fields of the current record: the declared ones for fixed-width layouts, all of them for
+         * delimited ones.
+         */
+        public int fieldCount() {
+            if (layout.fixedWidth) {
+                return layout.starts.length;
+            }
+            while (!scanComplete) {
+                scanNext();
+            }
+            return scanned;
+        }
+
+        /**
+         * Get a view of the characters of a field, one per byte as in ISO-8859-1 (so ASCII text is read as is). The
+         * view is owned by this cursor.
+         *
+         * @throws IndexOutOfBoundsException if the record has no such field
+         */
+        @Nonnull
+        public CharSequence field(final int index) {
+            locate(index);
+            if (index >= views.length) {
+                views = Arrays.copyOf(views, Math.max(index + 1, 2 * views.length));
+            }
+            FieldView view = views[index];
+            if (view == null) {
+                view = new FieldView();
+                views[index] = view;
+            }
+            view.start = start;
+            view.end = end;
+            return view;
+        }
+
+        /**
+         * Test whether a field is empty or blank.
+         */
+        public boolean isEmpty(final int index) {
+            locate(index);
+            return start == end;
+        }
+
+        /**
+         * Test whether a field has the given characters, compared byte by byte as in ISO-8859-1.
+         */
+        public boolean fieldEquals(final int index, @Nonnull final CharSequence value) {
+            checkNotNull(value, 2, "value");
+            locate(index);
+            if (end - start != value.length()) {
+                return false;
+            }
+            for (int i = start; i < end; i++) {
+                if ((byteAt(i) & 0xFF) != value.charAt(i - start)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Decode a field into a new string.
+         */
+        @Nonnull
+        public String getString(final int index, @Nonnull final Charset charset) {
+            checkNotNull(charset, 2, "charset");
+            locate(index);
+            if (array != null) {
+                return new String(array, start, end - start, charset);
+            }
+            final ByteBuffer view = buffer.duplicate();
+            view.limit(end).position(start);
+            return StringConvertUtil.fromByteBuffer(view, charset);
+        }
+
+        /**
+         * Parse a field as a decimal int, with an optional sign.
+         *
+         * @throws NumberFormatException if the field is empty, not a number, or out of range
+         */
+        public int getInt(final int index) {
+            try {
+                return DecimalParser.parseInt(field(index));
+            } catch (NumberFormatException e) {
+                throw numberFormatException(index);
+            }
+        }
+
+        /**
+         * Parse a field as a decimal long, with an optional sign.
+         *
+         * @throws NumberFormatException if the field is empty, not a number, or out of range
+         */
+        public long getLong(final int index) {
+            try {
+                return DecimalParser.parseLong(field(index));
+            } catch (NumberFormatException e) {
+                throw numberFormatException(index);
+            }
+        }
+
+        /**
+         * Parse a field as a double. Plain decimals with up to 15 significant digits, like {@code "-1234.56"}, are
+         * converted exactly from the bytes; anything else is handed to {@link Double#parseDouble(String)}.
+         *
+         * @throws NumberFormatException if the field is not a number
+         */
+        public double getDouble(final int index) {
+            try {
+                return DecimalParser.parseDouble(field(index));
+            } catch (NumberFormatException e) {
+                throw numberFormatException(index);
+            }
+        }
+
+        private NumberFormatException numberFormatException(final int index) {
+            return new NumberFormatException("Field " + index + " is not a valid number: \""
+                    + getString(index, StandardCharsets.ISO_8859_1) + "\"");
+        }
+
+        private void locate(final int index) {
+            int from;
+            int to;
+            if (layout.fixedWidth) {
+                Objects.checkIndex(index, layout.starts.length);
+                from = Math.min(recordStart + layout.starts[index], recordEnd);
+                to = Math.min(recordStart + layout.ends[index], recordEnd);
+            } else {
+                while (scanned <= index && !scanComplete) {
+                    scanNext();
+                }
+                Objects.checkIndex(index, scanned);
+                from = fieldStarts[index];
+                to = fieldEnds[index];
+            }
+            while (from < to && byteAt(from) == ' ') {
+                from++;
+            }
+            while (to > from && byteAt(to - 1) == ' ') {
+                to--;
+            }
+            this.start = from;
+            this.end = to;
+        }
+
+        private void scanNext() {
+            final int from = scanned == 0 ? recordStart : fieldEnds[scanned - 1] + 1;
+            int to = from;
+            while (to < recordEnd && byteAt(to) != layout.delimiter) {
+                to++;
+            }
+            if (scanned == fieldStarts.length) {
+                fieldStarts = Arrays.copyOf(fieldStarts, 2 * scanned);
+                fieldEnds = Arrays.copyOf(fieldEnds, 2 * scanned);
+            }
+            fieldStarts[scanned] = from;
+            fieldEnds[scanned] = to;
+            scanned++;
+            scanComplete = to == recordEnd;
+        }
+
+        private byte byteAt(final int index) {
+            return array != null ? array[index] : buffer.get(index);
+        }
+
+        @Override
+        public String toString() {
+            return "RecordLayout.Cursor[length=" + recordLength() + "]";
+        }
+
+        /**
+         * A reusable view of the bytes of one field.
+         */
+        private final class FieldView implements CharSequence {
+            int start;
+            int end;
+
+            @Override
+            public int length() {
+                return end - start;
+            }
+
+            @Override
+            public char charAt(final int index) {
+                Objects.checkIndex(index, end - start);
+                return (char) (byteAt(start + index) & 0xFF);
+            }
+
+            @Nonnull
+            @Override
+            public CharSequence subSequence(final int from, final int to) {
+                Objects.checkFromToIndex(from, to, end - start);
+                return toString().substring(from, to);
+            }
+
+            @Nonnull
+            @Override
+            public String toString() {
+                if (array != null) {
+                    return new String(array, start, end - start, StandardCharsets.ISO_8859_1);
+                }
+                final char[] chars = new char[end - start];
+                for (int i = 0; i < chars.length; i++) {
+                    chars[i] = charAt(i);
+                }
+                return new String(chars);
+            }
+        }
+    }
+
+}
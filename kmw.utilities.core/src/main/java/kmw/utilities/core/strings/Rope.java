@@ -0,0 +1,569 @@
+package kmw.utilities.core.strings;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static kmw.utilities.core.base.Checks.checkNonNegative;
+import static kmw.utilities.core.base.Checks.checkNotNull;
+
+/**
+ * An immutable {@link CharSequence} for building large texts from fragments without copying them.
+ * <p>
+ * A rope is a height-balanced (AVL) tree whose leaves are the original fragments. {@link #concat(CharSequence)},
+ * {@link #subSequence(int, int)} and {@link #charAt(int)} run in O(log n) of the number of fragments, and
+ * {@link #repeat(int)} creates a single lazy node regardless of the count. Short fragments are merged into the last
+ * leaf on concatenation, so appending single characters doesn't degenerate into one node per char.
+ * <p>
+ * {@link #toString()} copies all characters into a single buffer once and caches the result; {@link #writeTo(Writer)}
+ * and {@link #writeTo(WritableByteChannel, Charset)} stream the fragments without flattening at all. Fragments must
+ * not change after they have been added; {@code String}s are always safe. Instances are thread-safe.
+ */
+public abstract class Rope implements CharSequence {
+
+    /** Leaves up to this length are merged on concatenation. */
+    private static final int SHORT_LEAF = 64;
+
+    private static final Rope EMPTY = new Leaf(StringPool.Strings_.EMPTY);
+
+    private String flattened;
+
+    Rope() {}
+
+    /**
+     * Get the empty rope.
+     */
+    @Nonnull
+    public static Rope empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Get a rope for a character sequence. A rope is returned as is; other sequences become a single leaf.
+     */
+    @Nonnull
+    public static Rope of(@Nonnull final CharSequence cs) {
+        checkNotNull(cs, 1, "cs");
+        if (cs instanceof Rope) {
+            return (Rope) cs;
+        }
+        return cs.length() == 0 ? EMPTY : new Leaf(cs);
+    }
+
+    /**
+     * Concatenate character sequences into a rope.
+     */
+    @Nonnull
+    public static Rope concat(@Nonnull final CharSequence... parts) {
+        checkNotNull(parts, 1, "parts");
+        Rope rope = EMPTY;
+        for (final CharSequence part : parts) {
+            rope = rope.concat(part);
+        }
+        return rope;
+    }
+
+    /**
+     * Join character sequences with a delimiter into a rope, without copying any of them.
+     */
+    @Nonnull
+    public static Rope join(@Nonnull final CharSequence delimiter,
+                            @Nonnull final Iterable<? extends CharSequence> parts) {
+        checkNotNull(delimiter, 1, "delimiter");
+        checkNotNull(parts, 2, "parts");
+        final Rope delimiterRope = of(delimiter);
+        final List<Rope> nodes = new ArrayList<>();
+        for (final CharSequence part : parts) {
+            if (!nodes.isEmpty() && delimiterRope.length() > 0) {
+                nodes.add(delimiterRope);
+            }
+            nodes.add(of(part));
+        }
+        return nodes.isEmpty() ? EMPTY : build(nodes, 0, nodes.size());
+    }
+
+    /**
+     * Get a rope consisting of {@code count} repetitions of a character sequence.
+     */
+    @Nonnull
+    public static Rope repeat(@Nonnull final CharSequence cs, final int count) {
+        return of(cs).repeat(count);
+    }
+
+    /**
+     * Append a character sequence to this rope.
+     *
+     * @throws ArithmeticException if the resulting length would exceed {@link Integer#MAX_VALUE}
+     */
+    @Nonnull
+    public Rope concat(@Nonnull final CharSequence cs) {
+        final Rope other = of(cs);
+        if (other.length() == 0) {
+            return this;
+        }
+        if (length() == 0) {
+            return other;
+        }
+        Math.addExact(length(), other.length());
+        if (other instanceof Leaf && other.length() <= SHORT_LEAF) {
+            final Rope merged = mergeIntoLast(this, other.toString());
+            if (merged != null) {
+                return merged;
+            }
+        }
+        return joinBalanced(this, other);
+    }
+
+    /**
+     * Get a rope consisting of {@code count} repetitions of this rope. No characters are copied.
+     *
+     * @throws ArithmeticException if the resulting length would exceed {@link Integer#MAX_VALUE}
+     */
+    @Nonnull
+    public Rope repeat(final int count) {
+        checkNonNegative(count, 1, "count");
+        if (count == 0 || length() == 0) {
+            return EMPTY;
+        }
+        if (count == 1) {
+            return this;
+        }
+        Math.multiplyExact(length(), count);
+        if (this instanceof Repeat) {
+            final Repeat repeat = (Repeat) this;
+            return new Repeat(repeat.child, Math.multiplyExact(repeat.count, count));
+        }
+        return new Repeat(this, count);
+    }
+
+    @Override
+    public abstract int length();
+
+    /**
+     * Get the height of the tree of concatenations; leaves, repeats and slices have depth 0.
+     */
+    abstract int depth();
+
+    /**
+     * Get the char at an index, descending the tree in O(depth).
+     */
+    @Override
+    public char charAt(final int index) {
+        Objects.checkIndex(index, length());
+        Rope node = this;
+        int i = index;
+        while (true) {
+            if (node instanceof Concat) {
+                final Concat concat = (Concat) node;
+                if (i < concat.left.length()) {
+                    node = concat.left;
+                } else {
+                    i -= concat.left.length();
+                    node = concat.right;
+                }
+            } else if (node instanceof Repeat) {
+                final Repeat repeat = (Repeat) node;
+                i %= repeat.child.length();
+                node = repeat.child;
+            } else if (node instanceof Slice) {
+                final Slice slice = (Slice) node;
+                i += slice.offset;
+                node = slice.base;
+            } else {
+                return ((Leaf) node).cs.charAt(i);
+            }
+        }
+    }
+
+    /**
+     * Get a rope for a range of this rope. Only the nodes on the two boundary paths are touched.
+     */
+    @Nonnull
+    @Override
+    public Rope subSequence(final int start, final int end) {
+        Objects.checkFromToIndex(start, end, length());
+        if (start == 0 && end == length()) {
+            return this;
+        }
+        if (start == end) {
+            return EMPTY;
+        }
+        return slice(start, end);
+    }
+
+    abstract Rope slice(int start, int end);
+
+    /**
+     * Copy a range of chars into an array, like {@link String#getChars(int, int, char[], int)}.
+     */
+    public void getChars(final int srcBegin, final int srcEnd, @Nonnull final char[] dst, final int dstBegin) {
+        checkNotNull(dst, 3, "dst");
+        Objects.checkFromToIndex(srcBegin, srcEnd, length());
+        Objects.checkFromIndexSize(dstBegin, srcEnd - srcBegin, dst.length);
+        copy(srcBegin, srcEnd, dst, dstBegin);
+    }
+
+    abstract void copy(int start, int end, char[] dst, int dstBegin);
+
+    /**
+     * Write all characters to a writer, fragment by fragment.
+     */
+    public void writeTo(@Nonnull final Writer writer) throws IOException {
+        checkNotNull(writer, 1, "writer");
+        write(0, length(), writer);
+    }
+
+    abstract void write(int start, int end, Writer writer) throws IOException;
+
+    /**
+     * Encode all characters and write them to a channel, fragment by fragment.
+     */
+    public void writeTo(@Nonnull final WritableByteChannel channel, @Nonnull final Charset charset) throws IOException {
+        checkNotNull(channel, 1, "channel");
+        checkNotNull(charset, 2, "charset");
+        final StreamingEncoder encoder = new StreamingEncoder(charset);
+        encode(0, length(), encoder, channel);
+        encoder.finish(channel);
+    }
+
+    abstract void encode(int start, int end, StreamingEncoder encoder, WritableByteChannel channel) throws IOException;
+
+    /**
+     * Get the characters of this rope as a single string. The characters are copied once and the result is cached.
+     */
+    @Nonnull
+    @Override
+    public String toString() {
+        String s = flattened;
+        if (s == null) {
+            final char[] chars = new char[length()];
+            copy(0, chars.length, chars, 0);
+            flattened = s = new String(chars);
+        }
+        return s;
+    }
+
+    /**
+     * Append a short string to the last leaf of a rope, if that is a short leaf too. Only the right spine is copied.
+     *
+     * @return {@code null} if the last leaf cannot take the string
+     */
+    private static Rope mergeIntoLast(final Rope node, final String suffix) {
+        if (node instanceof Concat) {
+            final Concat concat = (Concat) node;
+            final Rope right = mergeIntoLast(concat.right, suffix);
+            return right == null ? null : new Concat(concat.left, right);
+        }
+        if (node instanceof Leaf && node.length() + suffix.length() <= SHORT_LEAF) {
+            return new Leaf(node.toString() + suffix);
+        }
+        return null;
+    }
+
+    /**
+     * Concatenate two balanced ropes into a balanced rope, descending only the taller one down to the height of the
+     * other (Blelloch et al., "Just Join for Parallel Ordered Sets"). Runs in O(|depth(left) - depth(right)|).
+     */
+    private static Rope joinBalanced(final Rope left, final Rope right) {
+        if (left.depth() > right.depth() + 1) {
+            return joinRight((Concat) left, right);
+        }
+        if (right.depth() > left.depth() + 1) {
+            return joinLeft(left, (Concat) right);
+        }
+        return new Concat(left, right);
+    }
+
+    private static Rope joinRight(final Concat left, final Rope right) {
+        final Rope inner = left.right.depth() <= right.depth() + 1
+                ? new Concat(left.right, right)
+                : joinRight((Concat) left.right, right);
+        if (inner.depth() <= left.left.depth() + 1) {
+            return new Concat(left.left, inner);
+        }
+        final Concat rotated = (Concat) inner;
+        if (rotated.left.depth() > rotated.right.depth()) {
+            final Concat middle = (Concat) rotated.left;
+            return new Concat(new Concat(left.left, middle.left), new Concat(middle.right, rotated.right));
+        }
+        return new Concat(new Concat(left.left, rotated.left), rotated.right);
+    }
+
+    private static Rope joinLeft(final Rope left, final Concat right) {
+        final Rope inner = right.left.depth() <= left.depth() + 1
+                ? new Concat(left, right.left)
+                : joinLeft(left, (Concat) right.left);
+        if (inner.depth() <= right.right.depth() + 1) {
+            return new Concat(inner, right.right);
+        }
+        final Concat rotated = (Concat) inner;
+        if (rotated.right.depth() > rotated.left.depth()) {
+            final Concat middle = (Concat) rotated.right;
+            return new Concat(new Concat(rotated.left, middle.left), new Concat(middle.right, right.right));
+        }
+        return new Concat(rotated.left, new Concat(rotated.right, right.right));
+    }
+
+    private static Rope build(final List<Rope> nodes, final int from, final int to) {
+        if (to - from == 1) {
+            return nodes.get(from);
+        }
+        final int mid = (from + to) >>> 1;
+        final Rope left = build(nodes, from, mid);
+        final Rope right = build(nodes, mid, to);
+        Math.addExact(left.length(), right.length());
+        return new Concat(left, right);
+    }
+
+    /*
+     * ==========
+     * Node types
+     * ==========
+     */
+
+    private static final class Leaf extends Rope {
+        final CharSequence cs;
+
+        Leaf(final CharSequence cs) {
+            this.cs = cs;
+        }
+
+        @Override
+        public int length() {
+            return cs.length();
+        }
+
+        @Override
+        int depth() {
+            return 0;
+        }
+
+        @Override
+        Rope slice(final int start, final int end) {
+            if (end - start <= SHORT_LEAF) {
+                return new Leaf(cs.subSequence(start, end).toString());
+            }
+            return new Slice(this, start, end - start);
+        }
+
+        @Override
+        void copy(final int start, final int end, final char[] dst, final int dstBegin) {
+            if (cs instanceof String) {
+                ((String) cs).getChars(start, end, dst, dstBegin);
+            } else {
+                for (int i = start; i < end; i++) {
+                    dst[dstBegin + i - start] = cs.charAt(i);
+                }
+            }
+        }
+
+        @Override
+        void write(final int start, final int end, final Writer writer) throws IOException {
+            if (cs instanceof String) {
+                writer.write((String) cs, start, end - start);
+            } else {
+                writer.append(cs, start, end);
+            }
+        }
+
+        @Override
+        void encode(final int start, final int end, final StreamingEncoder encoder, final WritableByteChannel channel)
+                throws IOException {
+            encoder.encode(CharBuffer.wrap(cs, start, end), channel);
+        }
+
+        @Nonnull
+        @Override
+        public String toString() {
+            return cs.toString();
+        }
+    }
+
+    private static final class Concat extends Rope {
+        final Rope left;
+        final Rope right;
+        final int length;
+        final int depth;
+
+        Concat(final Rope left, final Rope right) {
+            this.left = left;
+            this.right = right;
+            this.length = left.length() + right.length();
+            this.depth = Math.max(left.depth(), right.depth()) + 1;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        int depth() {
+            return depth;
+        }
+
+        @Override
+        Rope slice(final int start, final int end) {
+            final int split = left.length();
+            if (end <= split) {
+                return left.subSequence(start, end);
+            }
+            if (start >= split) {
+                return right.subSequence(start - split, end - split);
+            }
+            return left.subSequence(start, split).concat(right.subSequence(0, end - split));
+        }
+
+        @Override
+        void copy(final int start, final int end, final char[] dst, final int dstBegin) {
+            final int split = left.length();
+            if (start < split) {
+                left.copy(start, Math.min(end, split), dst, dstBegin);
+            }
+            if (end > split) {
+                final int from = Math.max(start, split);
+                right.copy(from - split, end - split, dst, dstBegin + from - start);
+            }
+        }
+
+        @Override
+        void write(final int start, final int end, final Writer writer) throws IOException {
+            final int split = left.length();
+            if (start < split) {
+                left.write(start, Math.min(end, split), writer);
+            }
+            if (end > split) {
+                right.write(Math.max(start, split) - split, end - split, writer);
+            }
+        }
+
+        @Override
+        void encode(final int start, final int end, final StreamingEncoder encoder, final WritableByteChannel channel)
+                throws IOException {
+            final int split = left.length();
+            if (start < split) {
+                left.encode(start, Math.min(end, split), encoder, channel);
+            }
+            if (end > split) {
+                right.encode(Math.max(start, split) - split, end - split, encoder, channel);
+            }
+        }
+    }
+
+    private static final class Repeat extends Rope {
+        final Rope child;
+        final int count;
+
+        Repeat(final Rope child, final int count) {
+            this.child = child;
+            this.count = count;
+        }
+
+        @Override
+        public int length() {
+            return child.length() * count;
+        }
+
+        @Override
+        int depth() {
+            return 0;
+        }
+
+        @Override
+        Rope slice(final int start, final int end) {
+            final int n = child.length();
+            if (start / n == (end - 1) / n) {
+                return child.subSequence(start % n, (end - 1) % n + 1);
+            }
+            return new Slice(this, start, end - start);
+        }
+
+        @Override
+        void copy(final int start, final int end, final char[] dst, final int dstBegin) {
+            final int n = child.length();
+            int pos = start;
+            while (pos < end) {
+                final int offset = pos % n;
+                final int chunk = Math.min(n - offset, end - pos);
+                child.copy(offset, offset + chunk, dst, dstBegin + pos - start);
+                pos += chunk;
+            }
+        }
+
+        @Override
+        void write(final int start, final int end, final Writer writer) throws IOException {
+            final int n = child.length();
+            for (int pos = start; pos < end; ) {
+                final int offset = pos % n;
+                final int chunk = Math.min(n - offset, end - pos);
+                child.write(offset, offset + chunk, writer);
+                pos += chunk;
+            }
+        }
+
+        @Override
+        void encode(final int start, final int end, final StreamingEncoder encoder, final WritableByteChannel channel)
+                throws IOException {
+            final int n = child.length();
+            for (int pos = start; pos < end; ) {
+                final int offset = pos % n;
+                final int chunk = Math.min(n - offset, end - pos);
+                child.encode(offset, offset + chunk, encoder, channel);
+                pos += chunk;
+            }
+        }
+    }
+
+    /**
+     * A range of a leaf or of a repeat node; ranges of concatenations are split into their parts instead.
+     */
+    private static final class Slice extends Rope {
+        final Rope base;
+        final int offset;
+        final int length;
+
+        Slice(final Rope base, final int offset, final int length) {
+            this.base = base;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        int depth() {
+            return 0;
+        }
+
+        @Override
+        Rope slice(final int start, final int end) {
+            return base.subSequence(offset + start, offset + end);
+        }
+
+        @Override
+        void copy(final int start, final int end, final char[] dst, final int dstBegin) {
+            base.copy(offset + start, offset + end, dst, dstBegin);
+        }
+
+        @Override
+        void write(final int start, final int end, final Writer writer) throws IOException {
+            base.write(offset + start, offset + end, writer);
+        }
+
+        @Override
+        void encode(final int start, final int end, final StreamingEncoder encoder, final WritableByteChannel channel)
+                throws IOException {
+            base.encode(offset + start, offset + end, encoder, channel);
+        }
+    }
+
+}
@@ -0,0 +1,518 @@
+package kmw.utilities.core.strings;
+
+import javax.annotation.Nonnull;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static kmw.utilities.core.base.Checks.checkArgument;
+import static kmw.utilities.core.base.Checks.checkNotNull;
+import static kmw.utilities.core.strings.StringPool.Messages_;
+
+/**
+ * A precompiled single-literal search over {@code CharSequence}s and {@code byte[]} ranges.
+ * <p>
+ * Needles shorter than {@value #TWO_WAY_THRESHOLD} symbols are searched with Boyer-Moore-Horspool, which skips up to
+ * a needle length per step on average and whose worst case is bounded by the short needle. Longer needles use the
+ * Two-Way algorithm of Crochemore and Perrin (1991) with the last-symbol skip table used by glibc: it runs in linear
+ * time for any input, e.g. repetitive needles that make {@link String#indexOf(String)} quadratic, and is sublinear
+ * on typical text. Skip tables have 256 entries; chars are hashed into them by their low byte, which only shortens
+ * some skips. Matches reported by {@code countIn} and {@code findAll} do not overlap. Instances are immutable and
+ * thread-safe.
+ */
+public final class Searcher {
+
+    static final int TWO_WAY_THRESHOLD = 32;
+
+    private final String needle;        // null if compiled from bytes
+    private final Plan charPlan;        // null if compiled from bytes
+    private final Plan bytePlan;
+    private final char[] chars;
+    private final byte[] bytes;
+
+    private Searcher(final String needle, final byte[] bytes) {
+        this.needle = needle;
+        this.bytes = bytes;
+        this.bytePlan = new Plan(unsigned(bytes));
+        if (needle == null) {
+            this.chars = null;
+            this.charPlan = null;
+        } else {
+            this.chars = needle.toCharArray();
+            final int[] symbols = new int[chars.length];
+            for (int i = 0; i < chars.length; i++) {
+                symbols[i] = chars[i];
+            }
+            this.charPlan = new Plan(symbols);
+        }
+    }
+
+    /**
+     * Compile a needle for searching character sequences, and its UTF-8 encoding for searching byte arrays.
+     */
+    @Nonnull
+    public static Searcher compile(@Nonnull final CharSequence needle) {
+        checkNotNull(needle, 1, "needle");
+        checkArgument(needle.length() > 0, Messages_.PARAM_1_2_MUST_NOT_BE_EMPTY, 1, "needle");
+        final String s = needle.toString();
+        return new Searcher(s, s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Compile a byte needle for searching byte arrays only.
+     */
+    @Nonnull
+    public static Searcher compile(@Nonnull final byte[] needle) {
+        checkNotNull(needle, 1, "needle");
+        checkArgument(needle.length > 0, Messages_.PARAM_1_2_MUST_NOT_BE_EMPTY, 1, "needle");
+        return new Searcher(null, needle.clone());
+    }
+
+    private static int[] unsigned(final byte[] bytes) {
+        final int[] symbols = new int[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            symbols[i] = bytes[i] & 0xFF;
+        }
+        return symbols;
+    }
+
+    // Character sequences
+    //-----------------------------------------------------------------------
+
+    /**
+     * Get the index of the first occurrence in a character sequence.
+     *
+     * @return the index, or -1 if there is none
+     */
+    public int indexIn(@Nonnull final CharSequence text) {
+        return indexIn(text, 0);
+    }
+
+    /**
+     * Get the index of the first occurrence in a character sequence at or after {@code from}.
+     *
+     * @return the index, or -1 if there is none
+     */
+    public int indexIn(@Nonnull final CharSequence text, final int from) {
+        checkNotNull(text, 1, "text");
+        checkChars();
+        return search(text, Math.max(0, from), text.length());
+    }
+
+    /**
+     * Count the non-overlapping occurrences in a character sequence.
+     */
+    public int countIn(@Nonnull final CharSequence text) {
+        checkNotNull(text, 1, "text");
+        checkChars();
+        int count = 0;
+        for (int i = search(text, 0, text.length()); i >= 0; i = search(text, i + chars.length, text.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Find the non-overlapping occurrences in a character sequence.
+     *
+     * @return the ascending start indices
+     */
+    @Nonnull
+    public int[] findAll(@Nonnull final CharSequence text) {
+        checkNotNull(text, 1, "text");
+        checkChars();
+        final Hits hits = new Hits();
+        for (int i = search(text, 0, text.length()); i >= 0; i = search(text, i + chars.length, text.length())) {
+            hits.add(i);
+        }
+        return hits.toArray();
+    }
+
+    private void checkChars() {
+        if (chars == null) {
+            throw new IllegalStateException("Searcher compiled from bytes cannot search characters");
+        }
+    }
+
+    private int search(final CharSequence text, final int from, final int end) {
+        if (end - from < chars.length) {
+            return -1;
+        }
+        if (charPlan.twoWay) {
+            return charPlan.periodic ? twoWayPeriodic(text, from, end) : twoWay(text, from, end);
+        }
+        return horspool(text, from, end);
+    }
+
+    private int horspool(final CharSequence text, final int from, final int end) {
+        final int m = chars.length;
+        final int[] shift = charPlan.shift;
+        final char last = chars[m - 1];
+        for (int pos = from; pos <= end - m; ) {
+            final char c = text.charAt(pos + m - 1);
+            if (c == last) {
+                int i = m - 2;
+                while (i >= 0 && text.charAt(pos + i) == chars[i]) {
+                    i--;
+                }
+                if (i < 0) {
+                    return pos;
+                }
+            }
+            pos += shift[c & 0xFF];
+        }
+        return -1;
+    }
+
+    private int twoWayPeriodic(final CharSequence text, final int from, final int end) {
+        final int m = chars.length;
+        final int[] shifts = charPlan.shift;
+        final int suffix = charPlan.suffix;
+        final int period = charPlan.period;
+        int memory = 0;
+        for (int pos = from; pos <= end - m; ) {
+            final char c = text.charAt(pos + m - 1);
+            int shift = c == chars[m - 1] ? 0 : Math.max(1, shifts[c & 0xFF]);
+            if (shift > 0) {
+                if (memory > 0 && shift < period) {
+                    // the needle is periodic, but the last period has a symbol out of place
+                    shift = m - period;
+                }
+                memory = 0;
+                pos += shift;
+                continue;
+            }
+            int i = Math.max(suffix, memory);
+            while (i < m - 1 && chars[i] == text.charAt(pos + i)) {
+                i++;
+            }
+            if (i >= m - 1) {
+                i = suffix - 1;
+                while (memory < i + 1 && chars[i] == text.charAt(pos + i)) {
+                    i--;
+                }
+                if (i + 1 < memory + 1) {
+                    return pos;
+                }
+                // remember how many repetitions of the period on the right were matched
+                pos += period;
+                memory = m - period;
+            } else {
+                pos += i - suffix + 1;
+                memory = 0;
+            }
+        }
+        return -1;
+    }
+
+    private int twoWay(final CharSequence text, final int from, final int end) {
+        final int m = chars.length;
+        final int[] shifts = charPlan.shift;
+        final int suffix = charPlan.suffix;
+        final int period = charPlan.period;
+        for (int pos = from; pos <= end - m; ) {
+            final char c = text.charAt(pos + m - 1);
+            if (c != chars[m - 1]) {
+                pos += Math.max(1, shifts[c & 0xFF]);
+                continue;
+            }
+            int i = suffix;
+            while (i < m - 1 && chars[i] == text.charAt(pos + i)) {
+                i++;
+            }
+            if (i >= m - 1) {
+                i = suffix - 1;
+                while (i >= 0 && chars[i] == text.charAt(pos + i)) {
+                    i--;
+                }
+                if (i < 0) {
+                    return pos;
+                }
+                pos += period;
+            } else {
+                pos += i - suffix + 1;
+            }
+        }
+        return -1;
+    }
+
+    // Byte arrays
+    //-----------------------------------------------------------------------
+
+    /**
+     * Get the index of the first occurrence in a byte array.
+     *
+     * @return the index, or -1 if there is none
+     */
+    public int indexIn(@Nonnull final byte[] text) {
+        checkNotNull(text, 1, "text");
+        return indexIn(text, 0, text.length);
+    }
+
+    /**
+     * Get the index of the first occurrence in a range of a byte array.
+     *
+     * @return the index in {@code text}, or -1 if there is none
+     */
+    public int indexIn(@Nonnull final byte[] text, final int off, final int len) {
+        checkNotNull(text, 1, "text");
+        Objects.checkFromIndexSize(off, len, text.length);
+        return search(text, off, off + len);
+    }
+
+    /**
+     * Count the non-overlapping occurrences in a range of a byte array.
+     */
+    public int countIn(@Nonnull final byte[] text, final int off, final int len) {
+        checkNotNull(text, 1, "text");
+        Objects.checkFromIndexSize(off, len, text.length);
+        final int end = off + len;
+        int count = 0;
+        for (int i = search(text, off, end); i >= 0; i = search(text, i + bytes.length, end)) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Find the non-overlapping occurrences in a range of a byte array.
+     *
+     * @return the ascending indices in {@code text}
+     */
+    @Nonnull
+    public int[] findAll(@Nonnull final byte[] text, final int off, final int len) {
+        checkNotNull(text, 1, "text");
+        Objects.checkFromIndexSize(off, len, text.length);
+        final int end = off + len;
+        final Hits hits = new Hits();
+        for (int i = search(text, off, end); i >= 0; i = search(text, i + bytes.length, end)) {
+            hits.add(i);
+        }
+        return hits.toArray();
+    }
+
+    private int search(final byte[] text, final int from, final int end) {
+        if (end - from < bytes.length) {
+            return -1;
+        }
+        if (bytePlan.twoWay) {
+            return bytePlan.periodic ? twoWayPeriodic(text, from, end) : twoWay(text, from, end);
+        }
+        return horspool(text, from, end);
+    }
+
+    private int horspool(final byte[] text, final int from, final int end) {
+        final int m = bytes.length;
+        final int[] shift = bytePlan.shift;
+        final byte last = bytes[m - 1];
+        for (int pos = from; pos <= end - m; ) {
+            final byte b = text[pos + m - 1];
+            if (b == last) {
+                int i = m - 2;
+                while (i >= 0 && text[pos + i] == bytes[i]) {
+                    i--;
+                }
+                if (i < 0) {
+                    return pos;
+                }
+            }
+            pos += shift[b & 0xFF];
+        }
+        return -1;
+    }
+
+    private int twoWayPeriodic(final byte[] text, final int from, final int end) {
+        final int m = bytes.length;
+        final int[] shifts = bytePlan.shift;
+        final int suffix = bytePlan.suffix;
+        final int period = bytePlan.period;
+        int memory = 0;
+        for (int pos = from; pos <= end - m; ) {
+            int shift = shifts[text[pos + m - 1] & 0xFF];
+            if (shift > 0) {
+                if (memory > 0 && shift < period) {
+                    shift = m - period;
+                }
+                memory = 0;
+                pos += shift;
+                continue;
+            }
+            int i = Math.max(suffix, memory);
+            while (i < m - 1 && bytes[i] == text[pos + i]) {
+                i++;
+            }
+            if (i >= m - 1) {
+                i = suffix - 1;
+                while (memory < i + 1 && bytes[i] == text[pos + i]) {
+                    i--;
+                }
+                if (i + 1 < memory + 1) {
+                    return pos;
+                }
+                pos += period;
+                memory = m - period;
+            } else {
+                pos += i - suffix + 1;
+                memory = 0;
+            }
+        }
+        return -1;
+    }
+
+    private int twoWay(final byte[] text, final int from, final int end) {
+        final int m = bytes.length;
+        final int[] shifts = bytePlan.shift;
+        final int suffix = bytePlan.suffix;
+        final int period = bytePlan.period;
+        for (int pos = from; pos <= end - m; ) {
+            final int shift = shifts[text[pos + m - 1] & 0xFF];
+            if (shift > 0) {
+                pos += shift;
+                continue;
+            }
+            int i = suffix;
+            while (i < m - 1 && bytes[i] == text[pos + i]) {
+                i++;
+            }
+            if (i >= m - 1) {
+                i = suffix - 1;
+                while (i >= 0 && bytes[i] == text[pos + i]) {
+                    i--;
+                }
+                if (i < 0) {
+                    return pos;
+                }
+                pos += period;
+            } else {
+                pos += i - suffix + 1;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return "Searcher[" + (needle != null ? needle : BinaryCodec.hex().encode(bytes)) + "]";
+    }
+
+    /**
+     * The preprocessed needle for one symbol type.
+     */
+    private static final class Plan {
+        final boolean twoWay;
+        final int[] shift = new int[256];
+        final int suffix;           // start of the right half of the critical factorization
+        final int period;
+        final boolean periodic;     // whether the left half repeats in the right half
+
+        Plan(final int[] needle) {
+            final int m = needle.length;
+            this.twoWay = m >= TWO_WAY_THRESHOLD;
+            if (!twoWay) {
+                // Horspool: distance of the last occurrence before the last position
+                Arrays.fill(shift, m);
+                for (int i = 0; i < m - 1; i++) {
+                    shift[needle[i] & 0xFF] = m - 1 - i;
+                }
+                this.suffix = 0;
+                this.period = 0;
+                this.periodic = false;
+                return;
+            }
+            // Two-Way skip table: distance of the last occurrence from the end, 0 for the last symbol
+            Arrays.fill(shift, m);
+            for (int i = 0; i < m; i++) {
+                shift[needle[i] & 0xFF] = m - 1 - i;
+            }
+            final int[] factorization = criticalFactorization(needle);
+            this.suffix = factorization[0];
+            if (suffix + factorization[1] <= m && startsWithPeriod(needle, suffix, factorization[1])) {
+                this.period = factorization[1];
+                this.periodic = true;
+            } else {
+                this.period = Math.max(suffix, m - suffix) + 1;
+                this.periodic = false;
+            }
+        }
+
+        private static boolean startsWithPeriod(final int[] needle, final int suffix, final int period) {
+            for (int i = 0; i < suffix; i++) {
+                if (needle[i] != needle[i + period]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Compute the critical factorization from the maximal suffixes for both orderings.
+         *
+         * @return the start of the right half and the period of the needle's right half
+         */
+        private static int[] criticalFactorization(final int[] needle) {
+            final int m = needle.length;
+            if (m < 3) {
+                return new int[]{m - 1, 1};
+            }
+            final int[] forward = maximalSuffix(needle, false);
+            final int[] reverse = maximalSuffix(needle, true);
+            return forward[0] > reverse[0]
+                    ? new int[]{forward[0] + 1, forward[1]}
+                    : new int[]{reverse[0] + 1, reverse[1]};
+        }
+
+        /**
+         * @return the index before the maximal suffix and its period
+         */
+        private static int[] maximalSuffix(final int[] needle, final boolean reversed) {
+            int maxSuffix = -1;
+            int j = 0;
+            int k = 1;
+            int p = 1;
+            while (j + k < needle.length) {
+                final int a = needle[j + k];
+                final int b = needle[maxSuffix + k];
+                if (reversed ? b < a : a < b) {
+                    // the suffix is smaller, the period is the entire prefix so far
+                    j += k;
+                    k = 1;
+                    p = j - maxSuffix;
+                } else if (a == b) {
+                    // advance through a repetition of the current period
+                    if (k != p) {
+                        k++;
+                    } else {
+                        j += p;
+                        k = 1;
+                    }
+                } else {
+                    // the suffix is larger, start over from the current position
+                    maxSuffix = j++;
+                    k = 1;
+                    p = 1;
+                }
+            }
+            return new int[]{maxSuffix, p};
+        }
+    }
+
+    /**
+     * A growable list of match positions.
+     */
+    private static final class Hits {
+        private int[] positions = new int[8];
+        private int size;
+
+        void add(final int position) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, 2 * size);
+            }
+            positions[size++] = position;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(positions, size);
+        }
+    }
+
+}
@@ -0,0 +1,188 @@
+package kmw.utilities.core.strings;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+import static kmw.utilities.core.base.Checks.checkArgument;
+import static kmw.utilities.core.base.Checks.checkNotNull;
+import static kmw.utilities.core.strings.StringPool.*;
+
+/**
+ * Incremental bytes-to-chars conversion over a sequence of input buffers.
+ * <p>
+ * Every call consumes the input buffer between its {@code position} and {@code limit}; slices, read-only and direct
+ * buffers are handled without copying them into an intermediate {@code byte[]}. A multi-byte sequence that is split
+ * across two input buffers is carried over internally and completed by the next call to {@code decode}, so callers
+ * never have to {@code compact()} their buffers. Malformed input and unmappable characters are replaced, just like
+ * {@link String#String(byte[], Charset)} does.
+ * <p>
+ * Instances are reusable via {@link #reset()}, but not thread-safe.
+ */
+public final class StreamingDecoder {
+
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    /** Longer than the longest byte sequence of any charset shipped with the JDK. */
+    private static final int CARRY_SIZE = 16;
+
+    private final CharsetDecoder decoder;
+    private final ByteBuffer carry;
+    private final CharBuffer chunk;
+    private boolean finished;
+
+    public StreamingDecoder(@Nonnull final Charset charset) {
+        this(charset, DEFAULT_CHUNK_SIZE);
+    }
+
+    public StreamingDecoder(@Nonnull final Charset charset, final int chunkSize) {
+        checkNotNull(charset, 1, "charset");
+        checkArgument(chunkSize > 0, Messages_.PARAM_1_2_MUST_BE_POSITIVE, 2, "chunkSize");
+        decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        carry = ByteBuffer.allocate(CARRY_SIZE);
+        chunk = CharBuffer.allocate(chunkSize);
+    }
+
+    @Nonnull
+    public Charset charset() {
+        return decoder.charset();
+    }
+
+    /**
+     * Decodes as many bytes as possible from {@code in} into {@code out}.
+     *
+     * @param in the bytes to decode; consumed from its position up to its limit
+     * @param out the target buffer
+     * @return {@link CoderResult#UNDERFLOW} if all of {@code in} has been consumed, or {@link CoderResult#OVERFLOW}
+     * if {@code out} ran out of space; in the latter case call again with the same input and more room
+     */
+    @Nonnull
+    public CoderResult decode(@Nonnull final ByteBuffer in, @Nonnull final CharBuffer out) {
+        checkNotNull(in, 1, "in");
+        checkNotNull(out, 2, "out");
+        if (finished) {
+            throw new IllegalStateException("finish() has already been called; reset() the decoder first");
+        }
+        CoderResult result = decodeCarry(in, out);
+        if (result != null) {
+            return result;
+        }
+        result = decoder.decode(in, out, false);
+        if (result.isUnderflow() && in.hasRemaining()) {
+            // incomplete trailing sequence: keep it until the next buffer arrives
+            carry.put(in);
+        }
+        return result;
+    }
+
+    /**
+     * Completes a sequence left over from the previous input buffer, feeding it one byte at a time.
+     *
+     * @return {@code null} if decoding of {@code in} may proceed, otherwise the result to report
+     */
+    private CoderResult decodeCarry(final ByteBuffer in, final CharBuffer out) {
+        while (carry.position() > 0) {
+            if (!in.hasRemaining()) {
+                return CoderResult.UNDERFLOW;
+            }
+            carry.put(in.get());
+            carry.flip();
+            final CoderResult result = decoder.decode(carry, out, false);
+            carry.compact();
+            if (result.isOverflow()) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Signals the end of input: decodes (or replaces) any carried-over bytes and flushes the decoder.
+     *
+     * @param out the target buffer
+     * @return {@link CoderResult#UNDERFLOW} when done, or {@link CoderResult#OVERFLOW} if {@code out} needs more room
+     */
+    @Nonnull
+    public CoderResult finish(@Nonnull final CharBuffer out) {
+        checkNotNull(out, 1, "out");
+        if (!finished) {
+            carry.flip();
+            final CoderResult result = decoder.decode(carry, out, true);
+            carry.compact();
+            if (result.isOverflow()) {
+                return result;
+            }
+            finished = true;
+        }
+        return decoder.flush(out);
+    }
+
+    /**
+     * Decodes all of {@code in} and appends the resulting characters to {@code out}.
+     */
+    public void decode(@Nonnull final ByteBuffer in, @Nonnull final StringBuilder out) {
+        checkNotNull(out, 2, "out");
+        CoderResult result;
+        do {
+            result = decode(in, chunk);
+            out.append(chunk.array(), 0, chunk.position());
+            chunk.clear();
+        } while (result.isOverflow());
+    }
+
+    /**
+     * Decodes all of {@code in} and writes the resulting characters to {@code out}.
+     */
+    public void decode(@Nonnull final ByteBuffer in, @Nonnull final Writer out) throws IOException {
+        checkNotNull(out, 2, "out");
+        CoderResult result;
+        do {
+            result = decode(in, chunk);
+            out.write(chunk.array(), 0, chunk.position());
+            chunk.clear();
+        } while (result.isOverflow());
+    }
+
+    public void finish(@Nonnull final StringBuilder out) {
+        checkNotNull(out, 1, "out");
+        CoderResult result;
+        do {
+            result = finish(chunk);
+            out.append(chunk.array(), 0, chunk.position());
+            chunk.clear();
+        } while (result.isOverflow());
+    }
+
+    public void finish(@Nonnull final Writer out) throws IOException {
+        checkNotNull(out, 1, "out");
+        CoderResult result;
+        do {
+            result = finish(chunk);
+            out.write(chunk.array(), 0, chunk.position());
+            chunk.clear();
+        } while (result.isOverflow());
+    }
+
+    /**
+     * Discards any carried-over bytes and makes this decoder ready for a new input stream.
+     *
+     * @return this decoder
+     */
+    @Nonnull
+    public StreamingDecoder reset() {
+        decoder.reset();
+        carry.clear();
+        chunk.clear();
+        finished = false;
+        return this;
+    }
+
+}
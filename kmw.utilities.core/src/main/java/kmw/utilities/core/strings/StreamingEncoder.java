@@ -0,0 +1,166 @@
+package kmw.utilities.core.strings;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+import static kmw.utilities.core.base.Checks.checkArgument;
+import static kmw.utilities.core.base.Checks.checkNotNull;
+import static kmw.utilities.core.strings.StringPool.*;
+
+/**
+ * Incremental chars-to-bytes conversion over a sequence of input buffers, the counterpart of
+ * {@link StreamingDecoder}.
+ * <p>
+ * A surrogate pair that is split across two input buffers is carried over internally and completed by the next call
+ * to {@code encode}. Unmappable characters and unpaired surrogates are replaced, just like
+ * {@link String#getBytes(Charset)} does. Output buffers may be heap, sliced or direct buffers.
+ * <p>
+ * Instances are reusable via {@link #reset()}, but not thread-safe.
+ */
+public final class StreamingEncoder {
+
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    /** Room for a complete surrogate pair plus a pending high surrogate. */
+    private static final int CARRY_SIZE = 4;
+
+    private final CharsetEncoder encoder;
+    private final CharBuffer carry;
+    private final ByteBuffer chunk;
+    private boolean finished;
+
+    public StreamingEncoder(@Nonnull final Charset charset) {
+        this(charset, DEFAULT_CHUNK_SIZE);
+    }
+
+    public StreamingEncoder(@Nonnull final Charset charset, final int chunkSize) {
+        checkNotNull(charset, 1, "charset");
+        checkArgument(chunkSize > 0, Messages_.PARAM_1_2_MUST_BE_POSITIVE, 2, "chunkSize");
+        encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        carry = CharBuffer.allocate(CARRY_SIZE);
+        chunk = ByteBuffer.allocate(Math.max(chunkSize, (int) Math.ceil(encoder.maxBytesPerChar()) * CARRY_SIZE));
+    }
+
+    @Nonnull
+    public Charset charset() {
+        return encoder.charset();
+    }
+
+    /**
+     * Encodes as many characters as possible from {@code in} into {@code out}.
+     *
+     * @param in the characters to encode; consumed from its position up to its limit
+     * @param out the target buffer
+     * @return {@link CoderResult#UNDERFLOW} if all of {@code in} has been consumed, or {@link CoderResult#OVERFLOW}
+     * if {@code out} ran out of space; in the latter case call again with the same input and more room
+     */
+    @Nonnull
+    public CoderResult encode(@Nonnull final CharBuffer in, @Nonnull final ByteBuffer out) {
+        checkNotNull(in, 1, "in");
+        checkNotNull(out, 2, "out");
+        if (finished) {
+            throw new IllegalStateException("finish() has already been called; reset() the encoder first");
+        }
+        while (carry.position() > 0) {
+            if (!in.hasRemaining()) {
+                return CoderResult.UNDERFLOW;
+            }
+            carry.put(in.get());
+            carry.flip();
+            final CoderResult result = encoder.encode(carry, out, false);
+            carry.compact();
+            if (result.isOverflow()) {
+                return result;
+            }
+        }
+        final CoderResult result = encoder.encode(in, out, false);
+        if (result.isUnderflow() && in.hasRemaining()) {
+            // pending high surrogate: keep it until the next buffer arrives
+            carry.put(in);
+        }
+        return result;
+    }
+
+    /**
+     * Signals the end of input: encodes (or replaces) any carried-over characters and flushes the encoder.
+     *
+     * @param out the target buffer
+     * @return {@link CoderResult#UNDERFLOW} when done, or {@link CoderResult#OVERFLOW} if {@code out} needs more room
+     */
+    @Nonnull
+    public CoderResult finish(@Nonnull final ByteBuffer out) {
+        checkNotNull(out, 1, "out");
+        if (!finished) {
+            carry.flip();
+            final CoderResult result = encoder.encode(carry, out, true);
+            carry.compact();
+            if (result.isOverflow()) {
+                return result;
+            }
+            finished = true;
+        }
+        return encoder.flush(out);
+    }
+
+    /**
+     * Encodes all of {@code in} and writes the resulting bytes to {@code channel}, using an internal buffer that is
+     * allocated once per encoder.
+     */
+    public void encode(@Nonnull final CharBuffer in, @Nonnull final WritableByteChannel channel) throws IOException {
+        checkNotNull(channel, 2, "channel");
+        CoderResult result;
+        do {
+            result = encode(in, chunk);
+            drain(channel);
+        } while (result.isOverflow());
+    }
+
+    /**
+     * Encodes all of {@code in} and writes the resulting bytes to {@code channel}.
+     */
+    public void encode(@Nonnull final CharSequence in, @Nonnull final WritableByteChannel channel) throws IOException {
+        checkNotNull(in, 1, "in");
+        encode(CharBuffer.wrap(in), channel);
+    }
+
+    public void finish(@Nonnull final WritableByteChannel channel) throws IOException {
+        checkNotNull(channel, 1, "channel");
+        CoderResult result;
+        do {
+            result = finish(chunk);
+            drain(channel);
+        } while (result.isOverflow());
+    }
+
+    private void drain(final WritableByteChannel channel) throws IOException {
+        chunk.flip();
+        while (chunk.hasRemaining()) {
+            channel.write(chunk);
+        }
+        chunk.clear();
+    }
+
+    /**
+     * Discards any carried-over characters and makes this encoder ready for a new output stream.
+     *
+     * @return this encoder
+     */
+    @Nonnull
+    public StreamingEncoder reset() {
+        encoder.reset();
+        carry.clear();
+        chunk.clear();
+        finished = false;
+        return this;
+    }
+
+}
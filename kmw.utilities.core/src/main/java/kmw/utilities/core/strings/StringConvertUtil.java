@@ -3,13 +3,23 @@ package kmw.utilities.core.strings;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TimeZone;
 
-import static com.google.common.base.Preconditions.checkNotNull;
+import static kmw.utilities.core.base.Checks.checkNotNull;
 import static kmw.utilities.core.strings.StringServiceUtil.*;
 
 public class StringConvertUtil {
@@ -17,28 +27,179 @@ public class StringConvertUtil {
     private StringConvertUtil() {
     }
 
+    private static final ThreadLocal<Map<Charset, CharsetDecoder>> DECODERS = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<Map<Charset, CharsetEncoder>> ENCODERS = ThreadLocal.withInitial(HashMap::new);
+
+    /**
+     * Get the calling thread's cached decoder for the given charset, reset and configured to replace malformed and
+     * unmappable input. The decoder is shared by all conversions on the thread, so it must not escape the package.
+     *
+     * @param charset the charset
+     * @return a thread-confined, reusable decoder
+     */
+    @Nonnull
+    static CharsetDecoder decoder(@Nonnull final Charset charset) {
+        checkNotNull(charset, 1, "charset");
+        return DECODERS.get().computeIfAbsent(charset, cs -> cs.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE)).reset();
+    }
+
+    /**
+     * Get the calling thread's cached encoder for the given charset, reset and configured to replace malformed and
+     * unmappable input. The encoder is shared by all conversions on the thread, so it must not escape the package.
+     *
+     * @param charset the charset
+     * @return a thread-confined, reusable encoder
+     */
+    @Nonnull
+    static CharsetEncoder encoder(@Nonnull final Charset charset) {
+        checkNotNull(charset, 1, "charset");
+        return ENCODERS.get().computeIfAbsent(charset, cs -> cs.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE)).reset();
+    }
+
     public static ByteBuffer toByteBuffer(@Nonnull final String string, @Nonnull final Charset charset) {
-        checkNotNull(string);
-        checkNotNull(charset);
+        checkNotNull(string, 1, "string");
+        checkNotNull(charset, 2, "charset");
         return ByteBuffer.wrap(string.getBytes(charset));
     }
 
+    /**
+     * Encode a string into a caller-owned (e.g. pooled) buffer, starting at its position. UTF-8 is encoded by
+     * {@link Utf8Util}, other charsets by the calling thread's cached encoder.
+     *
+     * @param string the string to encode
+     * @param charset the target charset
+     * @param target the buffer to write to; its position is advanced past the encoded bytes
+     * @return {@code target}
+     * @throws BufferOverflowException if {@code target} has not enough room, in which case it is left unchanged
+     */
+    @Nonnull
+    public static ByteBuffer toByteBuffer(@Nonnull final CharSequence string, @Nonnull final Charset charset,
+                                          @Nonnull final ByteBuffer target) {
+        checkNotNull(string, 1, "string");
+        checkNotNull(charset, 2, "charset");
+        checkNotNull(target, 3, "target");
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            Utf8Util.encodeUtf8(string, target);
+            return target;
+        }
+        final CharsetEncoder encoder = encoder(charset);
+        // unless the worst case fits, encode into a scratch buffer first, so that overflow leaves target untouched
+        final boolean fits = target.remaining() >= encoder.maxBytesPerChar() * string.length();
+        final ByteBuffer out = fits ? target : ByteBuffer.allocate(target.remaining());
+        CoderResult result = encoder.encode(CharBuffer.wrap(string), out, true);
+        if (result.isUnderflow()) {
+            result = encoder.flush(out);
+        }
+        if (result.isOverflow()) {
+            throw new BufferOverflowException();
+        }
+        if (!fits) {
+            target.put(out.flip());
+        }
+        return target;
+    }
+
+    /**
+     * Get the characters of a string as they survive a round trip through the given charset, i.e. with characters
+     * the charset cannot represent replaced.
+     *
+     * @param string the string to convert
+     * @param charset the charset
+     * @return a new char buffer, positioned at 0
+     */
     public static CharBuffer toCharBuffer(@Nonnull final String string, @Nonnull final Charset charset) {
-        return toByteBuffer(string, charset).asCharBuffer();
+        return decode(toByteBuffer(string, charset), charset);
     }
 
+    /**
+     * Decode the remaining bytes of a buffer, i.e. those between its {@code position} and {@code limit}. Heap
+     * buffers (including slices with an {@code arrayOffset}) and direct buffers are read in place; the position of
+     * {@code buffer} is left unchanged.
+     *
+     * @param buffer the bytes to decode
+     * @param charset the charset of the bytes
+     * @return the decoded string
+     */
     @Nonnull
     public static String fromByteBuffer(@Nonnull final ByteBuffer buffer, @Nonnull final Charset charset) {
-        checkNotNull(buffer);
-        checkNotNull(charset);
-        byte[] bytes;
+        checkNotNull(buffer, 1, "buffer");
+        checkNotNull(charset, 2, "charset");
         if (buffer.hasArray()) {
-            bytes = buffer.array();
-        } else {
-            bytes = new byte[buffer.remaining()];
-            buffer.get(bytes);
+            return new String(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), charset);
         }
-        return new String(bytes, charset);
+        return decode(buffer, charset).toString();
+    }
+
+    private static CharBuffer decode(final ByteBuffer buffer, final Charset charset) {
+        try {
+            return decoder(charset).decode(buffer.duplicate());
+        } catch (CharacterCodingException ex) {
+            throw new IllegalStateException(ex); // cannot happen, malformed input is replaced
+        }
+    }
+
+    /**
+     * Encode bytes as lower case hex digits.
+     *
+     * @see BinaryCodec#hex()
+     */
+    @Nonnull
+    public static String toHex(@Nonnull final byte[] bytes) {
+        return BinaryCodec.hex().encode(bytes);
+    }
+
+    /**
+     * Decode hex digits of either case.
+     *
+     * @throws IllegalArgumentException if the input is not valid hex
+     */
+    @Nonnull
+    public static byte[] fromHex(@Nonnull final CharSequence hex) {
+        return BinaryCodec.hex().decode(hex);
+    }
+
+    /**
+     * Encode bytes as padded Base64 with the standard alphabet.
+     *
+     * @see BinaryCodec#base64()
+     */
+    @Nonnull
+    public static String toBase64(@Nonnull final byte[] bytes) {
+        return BinaryCodec.base64().encode(bytes);
+    }
+
+    /**
+     * Decode Base64 with the standard alphabet, with or without padding.
+     *
+     * @throws IllegalArgumentException if the input is not valid Base64
+     */
+    @Nonnull
+    public static byte[] fromBase64(@Nonnull final CharSequence base64) {
+        return BinaryCodec.base64().decode(base64);
+    }
+
+    /**
+     * Encode bytes as unpadded Base64 with the URL and file name safe alphabet.
+     *
+     * @see BinaryCodec#base64Url()
+     */
+    @Nonnull
+    public static String toBase64Url(@Nonnull final byte[] bytes) {
+        return BinaryCodec.base64Url().withoutPadding().encode(bytes);
+    }
+
+    /**
+     * Decode Base64 with the URL and file name safe alphabet, with or without padding.
+     *
+     * @throws IllegalArgumentException if the input is not valid Base64
+     */
+    @Nonnull
+    public static byte[] fromBase64Url(@Nonnull final CharSequence base64) {
+        return BinaryCodec.base64Url().decode(base64);
     }
 
     /**
@@ -93,17 +254,50 @@ public class StringConvertUtil {
         return dateTimeString(date, "yyyy-MM-dd");
     }
 
+    /**
+     * Parse a date as written by {@link #isoDateString} into days since 1970-01-01, without allocating.
+     *
+     * @return the epoch day, or {@link IsoDateParser#INVALID} if the input is not a valid date
+     * @see IsoDateParser
+     */
+    public static long parseIsoDate(@Nonnull final CharSequence date) {
+        return IsoDateParser.parseEpochDay(date);
+    }
+
+    /**
+     * Parse a date-time as written by {@link #isoDateTimeString} into milliseconds since the epoch. A fraction of
+     * seconds and an offset are accepted; without an offset the default time zone applies. Only the lookup of the
+     * default time zone for a local time allocates.
+     *
+     * @return the epoch millisecond, or {@link IsoDateParser#INVALID} if the input is not a valid date-time
+     * @see IsoDateParser
+     */
+    public static long parseIsoDateTime(@Nonnull final CharSequence dateTime) {
+        return IsoDateParser.parseEpochMilli(dateTime);
+    }
+
+    /**
+     * Parse a date-time as written by {@link #isoDateTimeString} into milliseconds since the epoch, without
+     * allocating. A fraction of seconds and an offset are accepted; without an offset the given time zone applies.
+     *
+     * @return the epoch millisecond, or {@link IsoDateParser#INVALID} if the input is not a valid date-time
+     * @see IsoDateParser
+     */
+    public static long parseIsoDateTime(@Nonnull final CharSequence dateTime, @Nonnull final TimeZone zone) {
+        return IsoDateParser.parseEpochMilli(dateTime, zone);
+    }
+
     @Nonnull
     public static String dateTimeString(@Nonnull final Date dateTime, @Nonnull final String simpleDateTimeFormat) {
-        checkNotNull(dateTime);
-        checkNotNull(simpleDateTimeFormat);
+        checkNotNull(dateTime, 1, "dateTime");
+        checkNotNull(simpleDateTimeFormat, 2, "simpleDateTimeFormat");
         final SimpleDateFormat sdf = new SimpleDateFormat(simpleDateTimeFormat);
         return sdf.format(dateTime);
     }
 
     @Nonnull
     public static String dateTimeString(final long milliseconds, @Nonnull final String simpleDateTimeFormat) {
-        checkNotNull(simpleDateTimeFormat);
+        checkNotNull(simpleDateTimeFormat, 2, "simpleDateTimeFormat");
         return dateTimeString(new Date(milliseconds), simpleDateTimeFormat);
     }
 
@@ -0,0 +1,243 @@
+package kmw.utilities.core.strings;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static kmw.utilities.core.base.Checks.checkArgument;
+import static kmw.utilities.core.base.Checks.checkNotNull;
+import static kmw.utilities.core.strings.StringPool.Messages_;
+
+/**
+ * A bounded, lock-free pool for deduplicating strings.
+ * <p>
+ * Unlike {@link String#intern()}, the pool never grows beyond its capacity: each string has a small window of slots
+ * in one of several independent stripes, and when its window is full a random slot of the window is overwritten. The
+ * pool therefore behaves like a cache: frequently seen values stay, rare ones are evicted and become garbage again.
+ * <p>
+ * Lookups from {@code char[]} and UTF-8 {@code byte[]} ranges compare against pooled strings in place, so a
+ * duplicate token is never materialized as a {@code String}. Instances are thread-safe.
+ */
+public final class StringInterner {
+
+    private static final int PROBE_WINDOW = 8;
+    private static final int MAX_STRIPES = 64;
+
+    private final AtomicReferenceArray<String>[] stripes;
+    private final int stripeShift;
+    private final int slotMask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private static final ThreadLocal<char[]> SCRATCH = ThreadLocal.withInitial(() -> new char[256]);
+
+    /**
+     * Create a pool holding at most (about) {@code capacity} strings.
+     *
+     * @param capacity the maximum number of pooled strings, rounded up to a power of two
+     */
+    public StringInterner(final int capacity) {
+        checkArgument(capacity > 0, Messages_.PARAM_1_2_MUST_BE_POSITIVE, 1, "capacity");
+        final int slots = Math.max(PROBE_WINDOW, ceilingPowerOfTwo(capacity));
+        final int stripeCount = Math.min(MAX_STRIPES, slots / PROBE_WINDOW);
+        final int slotsPerStripe = slots / stripeCount;
+        stripes = newStripes(stripeCount, slotsPerStripe);
+        stripeShift = 32 - Integer.numberOfTrailingZeros(stripeCount);
+        slotMask = slotsPerStripe - 1;
+    }
+
+    /**
+     * Get the pooled instance equal to {@code s}, adding {@code s} if there is none.
+     *
+     * @return the pooled instance, or {@code null} if {@code s} is {@code null}
+     */
+    @Nullable
+    public String intern(@Nullable final String s) {
+        if (s == null) {
+            return null;
+        }
+        final int h = spread(s.hashCode());
+        final AtomicReferenceArray<String> table = stripe(h);
+        for (int i = 0; i < PROBE_WINDOW; i++) {
+            final String pooled = table.get((h + i) & slotMask);
+            if (pooled == null) {
+                break;
+            }
+            if (pooled.equals(s)) {
+                hits.increment();
+                return pooled;
+            }
+        }
+        return insert(table, h, s);
+    }
+
+    /**
+     * Get the pooled string equal to a range of characters, creating it only if it isn't pooled yet.
+     */
+    @Nonnull
+    public String intern(@Nonnull final char[] chars, final int off, final int len) {
+        checkNotNull(chars, 1, "chars");
+        Objects.checkFromIndexSize(off, len, chars.length);
+        int hash = 0;
+        for (int i = off; i < off + len; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        final int h = spread(hash);
+        final AtomicReferenceArray<String> table = stripe(h);
+        for (int i = 0; i < PROBE_WINDOW; i++) {
+            final String pooled = table.get((h + i) & slotMask);
+            if (pooled == null) {
+                break;
+            }
+            if (contentEquals(pooled, chars, off, len)) {
+                hits.increment();
+                return pooled;
+            }
+        }
+        return insert(table, h, new String(chars, off, len));
+    }
+
+    /**
+     * Get the pooled string equal to a range of UTF-8 encoded bytes, creating it only if it isn't pooled yet. ASCII
+     * input is hashed and compared directly; other input is decoded into a per-thread scratch buffer first.
+     */
+    @Nonnull
+    public String intern(@Nonnull final byte[] utf8, final int off, final int len) {
+        checkNotNull(utf8, 1, "utf8");
+        Objects.checkFromIndexSize(off, len, utf8.length);
+        if (!Utf8Util.isAscii(utf8, off, len)) {
+            char[] scratch = SCRATCH.get();
+            if (scratch.length < len) {
+                scratch = new char[Math.max(len, 2 * scratch.length)];
+                SCRATCH.set(scratch);
+            }
+            return intern(scratch, 0, Utf8Util.decodeUtf8(utf8, off, len, scratch));
+        }
+        int hash = 0;
+        for (int i = off; i < off + len; i++) {
+            hash = 31 * hash + utf8[i];
+        }
+        final int h = spread(hash);
+        final AtomicReferenceArray<String> table = stripe(h);
+        for (int i = 0; i < PROBE_WINDOW; i++) {
+            final String pooled = table.get((h + i) & slotMask);
+            if (pooled == null) {
+                break;
+            }
+            if (contentEquals(pooled, utf8, off, len)) {
+                hits.increment();
+                return pooled;
+            }
+        }
+        final char[] chars = new char[len];
+        for (int i = 0; i < len; i++) {
+            chars[i] = (char) utf8[off + i];
+        }
+        return insert(table, h, new String(chars));
+    }
+
+    private String insert(final AtomicReferenceArray<String> table, final int h, final String s) {
+        misses.increment();
+        for (int i = 0; i < PROBE_WINDOW; i++) {
+            final int slot = (h + i) & slotMask;
+            final String pooled = table.get(slot);
+            if (pooled == null) {
+                if (table.compareAndSet(slot, null, s)) {
+                    return s;
+                }
+            } else if (pooled.equals(s)) {
+                // lost a race against another thread adding the same value
+                return pooled;
+            }
+        }
+        // window is full: overwrite a random slot of it; shifting entries would move those of neighbouring windows
+        // out of reach of their lookups
+        table.set((h + ThreadLocalRandom.current().nextInt(PROBE_WINDOW)) & slotMask, s);
+        evictions.increment();
+        return s;
+    }
+
+    private AtomicReferenceArray<String> stripe(final int h) {
+        return stripes.length == 1 ? stripes[0] : stripes[h >>> stripeShift];
+    }
+
+    private static boolean contentEquals(final String s, final char[] chars, final int off, final int len) {
+        if (s.length() != len) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            if (s.charAt(i) != chars[off + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean contentEquals(final String s, final byte[] ascii, final int off, final int len) {
+        if (s.length() != len) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            if (s.charAt(i) != ascii[off + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static AtomicReferenceArray<String>[] newStripes(final int stripeCount, final int slotsPerStripe) {
+        final AtomicReferenceArray<String>[] stripes = new AtomicReferenceArray[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new AtomicReferenceArray<>(slotsPerStripe);
+        }
+        return stripes;
+    }
+
+    private static int spread(final int hash) {
+        return (hash ^ (hash >>> 16)) * 0x9E3779B9;
+    }
+
+    private static int ceilingPowerOfTwo(final int n) {
+        return n <= 1 ? 1 : Integer.highestOneBit(Math.min(n - 1, 1 << 29) << 1);
+    }
+
+    public int capacity() {
+        return stripes.length * (slotMask + 1);
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Get the fraction of lookups that returned an already pooled instance.
+     *
+     * @return the hit rate, or 1.0 if there were no lookups yet
+     */
+    public double hitRate() {
+        final long h = hits.sum();
+        final long total = h + misses.sum();
+        return total == 0 ? 1.0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return "StringInterner{capacity=" + capacity() + ", hits=" + hitCount() + ", misses=" + missCount()
+                + ", evictions=" + evictionCount() + "}";
+    }
+
+}
@@ -11,6 +11,42 @@ public final class StringPool {
         return String.format(fmt, args);
     }
 
+    private static final class Interner {
+        static final StringInterner INSTANCE = new StringInterner(1 << 16);
+    }
+
+    /**
+     * Get the shared, bounded {@link StringInterner} used by the {@code intern} methods.
+     */
+    @Nonnull
+    public static StringInterner interner() {
+        return Interner.INSTANCE;
+    }
+
+    /**
+     * Deduplicate a string through the shared {@link #interner()}.
+     */
+    @Nullable
+    public static String intern(@Nullable final String s) {
+        return Interner.INSTANCE.intern(s);
+    }
+
+    /**
+     * Get the shared instance of a string given as a range of characters, without creating it if it is pooled.
+     */
+    @Nonnull
+    public static String intern(@Nonnull final char[] chars, final int off, final int len) {
+        return Interner.INSTANCE.intern(chars, off, len);
+    }
+
+    /**
+     * Get the shared instance of a string given as a range of UTF-8 bytes, without creating it if it is pooled.
+     */
+    @Nonnull
+    public static String intern(@Nonnull final byte[] utf8, final int off, final int len) {
+        return Interner.INSTANCE.intern(utf8, off, len);
+    }
+
     public static class Chars_ {
         public static final char COLON = ':';
         public static final char COMMA = ',';
@@ -31,6 +67,9 @@ public final class StringPool {
     public static class Messages_ {
         public static final String PARAM_1_2_MUST_NOT_BE_NULL = "Param-%d: %s must not be null";
         public static final String PARAM_1_2_MUST_BE_POSITIVE = "Param-%d: %s must be positive";
+        public static final String PARAM_1_2_MUST_NOT_BE_EMPTY = "Param-%d: %s must not be empty";
+        public static final String PARAM_1_2_MUST_BE_ASCII = "Param-%d: %s must only contain ASCII characters";
+        public static final String PARAM_1_2_IS_INVALID = "Param-%d: %s is invalid";
     }
 
 }
@@ -5,20 +5,24 @@ import com.google.common.base.Strings;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.text.CharacterIterator;
-import java.text.StringCharacterIterator;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.util.Arrays;
+import java.util.Objects;
 import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
-import static com.google.common.base.Preconditions.checkArgument;
-import static com.google.common.base.Preconditions.checkNotNull;
+import static kmw.utilities.core.base.Checks.checkNonNegative;
+import static kmw.utilities.core.base.Checks.checkNotNull;
 import static kmw.utilities.core.strings.StringPool.*;
 
 public final class StringServiceUtil {
 
+    private static final Pattern NEWLINE = Pattern.compile("\\r?\\n");
+
     /*
      * ==========
      * from JDK11
@@ -26,37 +30,37 @@ public final class StringServiceUtil {
      */
 
     @Nonnull public static Stream<String> lines(@Nullable final String string) {
-        return string == null ? Stream.of() : Arrays.stream(string.split("\\r?\\n")); //JDK11: string.lines();
+        return string == null ? Stream.of() : Arrays.stream(NEWLINE.split(string)); //JDK11: string.lines();
     }
 
     @Nonnull public static String strip(@Nullable final String string) {
-        return stripLeading(stripTrailing(string));
+        return CharClass.whitespace().trimFrom(nullToEmpty(string));
     }
 
     @Nonnull public static String stripLeading(@Nullable final String string) {
         //JDK11: return nullToEmpty(string.stripLeading());
-        if (isBlank(string)) return Strings_.EMPTY;
-        final String nnString = nullToEmpty(string);
-        int pos = 0;
-        while (Character.isWhitespace(nnString.charAt(pos))) {
-            pos++;
-        }
-        return nnString.substring(pos);
+        return CharClass.whitespace().trimLeadingFrom(nullToEmpty(string));
     }
 
     @Nonnull public static String stripTrailing(@Nullable final String string) {
         //JDK11: return nullToEmpty(string.stripTrailing());
-        if (isBlank(string)) return Strings_.EMPTY;
-        final String nnString = nullToEmpty(string);
-        int pos = nnString.length() - 1;
-        while (Character.isWhitespace(nnString.charAt(pos))) {
-            pos--;
-        }
-        return nnString.substring(0, pos+1);
+        return CharClass.whitespace().trimTrailingFrom(nullToEmpty(string));
     }
 
     public static boolean isBlank(@Nullable final String string) {
-        return !nullToEmpty(string).codePoints().anyMatch(ch -> !Character.isWhitespace(ch));
+        return CharClass.whitespace().matchesAllOf(nullToEmpty(string));
+    }
+
+    /**
+     * Test whether all characters are ASCII, e.g. before converting to an {@link AsciiString}. {@code null} is ASCII.
+     */
+    public static boolean isAscii(@Nullable final CharSequence cs) {
+        if (cs instanceof AsciiString) return true;
+        final int len = cs == null ? 0 : cs.length();
+        for (int i = 0; i < len; i++) {
+            if (cs.charAt(i) >= 0x80) return false;
+        }
+        return true;
     }
 
     /*
@@ -78,7 +82,7 @@ public final class StringServiceUtil {
     }
 
     @Nonnull public static String repeat(@Nullable final String string, int count) {
-        checkArgument(count >= 0, format(Messages_.PARAM_1_2_MUST_BE_POSITIVE, 2, "count"));
+        checkNonNegative(count, 2, "count");
         return Strings.repeat(nullToEmpty(string), count);
     }
 
@@ -106,6 +110,27 @@ public final class StringServiceUtil {
         return Splitter.on(pattern).limit(limit).split(nullToEmpty(string));
     }
 
+    /**
+     * Split a String around matches of a regular expression. The expression is compiled via {@link PatternCache};
+     * plain literals are split by {@code indexOf} without using the regex engine at all.
+     */
+    @Nonnull public static Iterable<String> split(@Nullable final String string, @Nonnull String regex) {
+        return splitter(regex).split(nullToEmpty(string));
+    }
+
+    @Nonnull public static Iterable<String> split(@Nullable final String string, @Nonnull String regex, int limit) {
+        return splitter(regex).limit(limit).split(nullToEmpty(string));
+    }
+
+    private static Splitter splitter(final String regex) {
+        checkNotNull(regex, 2, "regex");
+        final String literal = PatternCache.literalOf(regex);
+        if (literal == null) {
+            return Splitter.on(PatternCache.get(regex));
+        }
+        return literal.length() == 1 ? Splitter.on(literal.charAt(0)) : Splitter.on(literal);
+    }
+
     /*
      * ==========
      * from Kotlin StdLib
@@ -127,12 +152,12 @@ public final class StringServiceUtil {
     }
 
     @Nonnull public static String nvl(@Nullable String string, @Nonnull String defaultValue) {
-        checkNotNull(defaultValue, format(Messages_.PARAM_1_2_MUST_NOT_BE_NULL, 2, "defaultValue"));
+        checkNotNull(defaultValue, 2, "defaultValue");
         return string == null ? defaultValue : string;
     }
 
     @Nullable public static String apply(@Nullable String string, @Nonnull Function<String, String> fn) {
-        checkNotNull(fn, format(Messages_.PARAM_1_2_MUST_NOT_BE_NULL, 2, "fn"));
+        checkNotNull(fn, 2, "fn");
         return string == null ? null : fn.apply(string);
     }
 
@@ -149,13 +174,64 @@ public final class StringServiceUtil {
     }
 
     public static int countMatches(@Nullable String string, @Nonnull Pattern pattern) {
-        checkNotNull(pattern, format(Messages_.PARAM_1_2_MUST_NOT_BE_NULL, 2, "pattern"));
+        checkNotNull(pattern, 2, "pattern");
         Matcher matcher = pattern.matcher(nullToEmpty(string));
         return (int)matcher.results().count();
     }
 
+    /**
+     * Count all occurrences of all keywords of a compiled multi-literal automaton. Unlike
+     * {@link #countMatches(String, Pattern)}, overlapping occurrences are counted, too.
+     *
+     * @param string the String to search
+     * @param keywords the compiled keywords
+     * @return the number of occurrences
+     */
+    public static int countMatches(@Nullable String string, @Nonnull AhoCorasick keywords) {
+        checkNotNull(keywords, 2, "keywords");
+        return keywords.countIn(nullToEmpty(string));
+    }
+
+    /**
+     * Count the non-overlapping occurrences of a precompiled literal, in linear time even for long, repetitive ones.
+     *
+     * @param string the String to search
+     * @param needle the compiled literal
+     * @return the number of occurrences
+     */
+    public static int countMatches(@Nullable String string, @Nonnull Searcher needle) {
+        checkNotNull(needle, 2, "needle");
+        return needle.countIn(nullToEmpty(string));
+    }
+
+    /**
+     * Count the non-overlapping matches of a regular expression. The expression is compiled via {@link PatternCache};
+     * plain literals are counted by {@code indexOf} without using the regex engine at all.
+     */
+    public static int countMatches(@Nullable String string, @Nonnull String regex) {
+        checkNotNull(regex, 2, "regex");
+        final String literal = PatternCache.literalOf(regex);
+        if (literal == null) {
+            return countMatches(string, PatternCache.get(regex));
+        }
+        final String nnString = nullToEmpty(string);
+        int count = 0;
+        for (int i = nnString.indexOf(literal); i >= 0; i = nnString.indexOf(literal, i + literal.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Count the "\n" and "\r\n" line separators. Every "\r\n" contains exactly one '\n', so counting '\n' suffices.
+     */
     public static int countNewlines(@Nullable final String string) {
-        return countMatches(string, Pattern.compile("\r?\n"));
+        final String nnString = nullToEmpty(string);
+        int count = 0;
+        for (int i = nnString.indexOf('\n'); i >= 0; i = nnString.indexOf('\n', i + 1)) {
+            count++;
+        }
+        return count;
     }
 
     /**
@@ -163,21 +239,23 @@ public final class StringServiceUtil {
      *
      * @param string the original String
      * @param charsToDelete a set of characters to remove. E.g. "az\n" will remove 'a's, 'z's and new lines.
-     * @return the resulting String
+     *                      Supplementary characters are matched as whole code points.
+     * @return the resulting String, or the original instance if no character was removed
      */
     @Nonnull public static String removeAnyChar(@Nullable final String string, @Nullable final String charsToDelete) {
         if (isNullOrEmpty(charsToDelete)) {
             return string;
         }
-        return nullToEmpty(string).codePoints().filter(ch -> charsToDelete.indexOf(ch) == -1)
-                .collect(StringBuilder::new, (sb, c) -> sb.append((char)c), StringBuilder::append)
-                .toString();
+        final String nnString = nullToEmpty(string);
+        if (!hasSurrogates(charsToDelete)) {
+            return CharClass.anyOf(charsToDelete).removeFrom(nnString);
+        }
+        final String result = removeAnyChar(new StringBuilder(), nnString, charsToDelete).toString();
+        return result.length() == nnString.length() ? nnString : result;
     }
 
     @Nonnull public static String removeWhitespace(@Nullable String string) {
-        return nullToEmpty(string).codePoints().filter(ch -> !Character.isWhitespace(ch))
-                .collect(StringBuilder::new, (sb, c) -> sb.append((char)c), StringBuilder::append)
-                .toString();
+        return CharClass.whitespace().removeFrom(nullToEmpty(string));
     }
 
     /**
@@ -186,24 +264,10 @@ public final class StringServiceUtil {
      * whitespace at the beginning and end is also normalized.
      *
      * @param string String to normalize
-     * @return normalized version of string.
+     * @return normalized version of string, or the original instance if it is already normalized.
      */
     @Nonnull public static String normalizeWhitespace(@Nullable final String string) {
-        final StringBuilder sb = new StringBuilder();
-        final CharacterIterator iter = new StringCharacterIterator(nullToEmpty(string));
-        var inWhitespace = false; // Set if we're in a consecutive whitespace after the first one
-        for (var ch = iter.first(); ch != CharacterIterator.DONE; ch = iter.next()) {
-            if (Character.isWhitespace(ch)) {
-                if (!inWhitespace) {
-                    sb.append(Chars_.SPACE);
-                    inWhitespace = true;
-                }
-            } else {
-                inWhitespace = false;
-                sb.append(ch);
-            }
-        }
-        return sb.toString();
+        return CharClass.whitespace().collapseFrom(nullToEmpty(string), Chars_.SPACE);
     }
 
     @Nonnull public static String getFileExt(@Nullable final String fileName) {
@@ -219,16 +283,399 @@ public final class StringServiceUtil {
     }
 
     @Nonnull public static String toLower(@Nullable String string) {
-        return nullToEmpty(string).toLowerCase();
+        return CaseFoldUtil.toLowerCase(nullToEmpty(string));
     }
 
     @Nonnull public static String toUpper(@Nullable String string) {
-        return nullToEmpty(string).toUpperCase();
+        return CaseFoldUtil.toUpperCase(nullToEmpty(string));
     }
 
     @Nonnull public static String toProper(@Nullable String string) {
-        return null;
+        return CaseFoldUtil.toProperCase(nullToEmpty(string));
+    }
+
+    /*
+     * ===================
+     * Appendable targets
+     * ===================
+     *
+     * Each operation returning a String above has two overloads taking the target as first parameter: one appending
+     * to a StringBuilder, pre-sized once to fit the result, and one appending to any Appendable. Results are written
+     * directly to the target, mostly as ranges of the input, without creating intermediate Strings. The StringBuilder
+     * overloads delegate to the Appendable ones, which cannot throw for a StringBuilder.
+     */
+
+    @Nonnull public static StringBuilder strip(@Nonnull final StringBuilder target, @Nullable final String string) {
+        return appendTo(target, length(string), string, StringServiceUtil::strip);
+    }
+
+    @Nonnull public static <A extends Appendable> A strip(@Nonnull final A target, @Nullable final String string)
+            throws IOException {
+        checkNotNull(target, 1, "target");
+        return CharClass.whitespace().trimFrom(nullToEmpty(string), target);
+    }
+
+    @Nonnull public static StringBuilder stripLeading(@Nonnull final StringBuilder target,
+                                                      @Nullable final String string) {
+        return appendTo(target, length(string), string, StringServiceUtil::stripLeading);
+    }
+
+    @Nonnull public static <A extends Appendable> A stripLeading(@Nonnull final A target, @Nullable final String string)
+            throws IOException {
+        checkNotNull(target, 1, "target");
+        return CharClass.whitespace().trimLeadingFrom(nullToEmpty(string), target);
+    }
+
+    @Nonnull public static StringBuilder stripTrailing(@Nonnull final StringBuilder target,
+                                                       @Nullable final String string) {
+        return appendTo(target, length(string), string, StringServiceUtil::stripTrailing);
+    }
+
+    @Nonnull public static <A extends Appendable> A stripTrailing(@Nonnull final A target,
+                                                                  @Nullable final String string) throws IOException {
+        checkNotNull(target, 1, "target");
+        return CharClass.whitespace().trimTrailingFrom(nullToEmpty(string), target);
+    }
+
+    @Nonnull public static StringBuilder repeat(@Nonnull final StringBuilder target, @Nullable final String string,
+                                                int count) {
+        return appendTo(target, (long) length(string) * Math.max(count, 0), string, count, 0,
+                (t, s, n, unused) -> repeat(t, s, n));
+    }
+
+    @Nonnull public static <A extends Appendable> A repeat(@Nonnull final A target, @Nullable final String string,
+                                                           int count) throws IOException {
+        checkNotNull(target, 1, "target");
+        checkNonNegative(count, 3, "count");
+        final String nnString = nullToEmpty(string);
+        for (int i = 0; i < count; i++) {
+            target.append(nnString);
+        }
+        return target;
+    }
+
+    @Nonnull public static StringBuilder commonPrefix(@Nonnull final StringBuilder target, @Nullable final String a,
+                                                      @Nullable final String b) {
+        return appendTo(target, Math.min(length(a), length(b)), a, b, StringServiceUtil::commonPrefix);
     }
 
+    @Nonnull public static <A extends Appendable> A commonPrefix(@Nonnull final A target, @Nullable final String a,
+                                                                 @Nullable final String b) throws IOException {
+        checkNotNull(target, 1, "target");
+        final String nnA = nullToEmpty(a);
+        final String nnB = nullToEmpty(b);
+        final int max = Math.min(nnA.length(), nnB.length());
+        int p = 0;
+        while (p < max && nnA.charAt(p) == nnB.charAt(p)) {
+            p++;
+        }
+        if (isSurrogatePairAt(nnA, p - 1) || isSurrogatePairAt(nnB, p - 1)) {
+            p--;
+        }
+        target.append(nnA, 0, p);
+        return target;
+    }
+
+    @Nonnull public static StringBuilder commonSuffix(@Nonnull final StringBuilder target, @Nullable final String a,
+                                                      @Nullable final String b) {
+        return appendTo(target, Math.min(length(a), length(b)), a, b, StringServiceUtil::commonSuffix);
+    }
+
+    @Nonnull public static <A extends Appendable> A commonSuffix(@Nonnull final A target, @Nullable final String a,
+                                                                 @Nullable final String b) throws IOException {
+        checkNotNull(target, 1, "target");
+        final String nnA = nullToEmpty(a);
+        final String nnB = nullToEmpty(b);
+        final int max = Math.min(nnA.length(), nnB.length());
+        int s = 0;
+        while (s < max && nnA.charAt(nnA.length() - s - 1) == nnB.charAt(nnB.length() - s - 1)) {
+            s++;
+        }
+        if (isSurrogatePairAt(nnA, nnA.length() - s - 1) || isSurrogatePairAt(nnB, nnB.length() - s - 1)) {
+            s--;
+        }
+        target.append(nnA, nnA.length() - s, nnA.length());
+        return target;
+    }
+
+    @Nonnull public static StringBuilder padEnd(@Nonnull final StringBuilder target, @Nullable final String string,
+                                                int minLength, char padChar) {
+        return appendTo(target, Math.max(length(string), minLength), string, minLength, padChar,
+                (t, s, n, c) -> padEnd(t, s, n, (char) c));
+    }
+
+    @Nonnull public static <A extends Appendable> A padEnd(@Nonnull final A target, @Nullable final String string,
+                                                           int minLength, char padChar) throws IOException {
+        checkNotNull(target, 1, "target");
+        final String nnString = nullToEmpty(string);
+        target.append(nnString);
+        for (int i = nnString.length(); i < minLength; i++) {
+            target.append(padChar);
+        }
+        return target;
+    }
+
+    @Nonnull public static StringBuilder padStart(@Nonnull final StringBuilder target, @Nullable final String string,
+                                                  int minLength, char padChar) {
+        return appendTo(target, Math.max(length(string), minLength), string, minLength, padChar,
+                (t, s, n, c) -> padStart(t, s, n, (char) c));
+    }
+
+    @Nonnull public static <A extends Appendable> A padStart(@Nonnull final A target, @Nullable final String string,
+                                                             int minLength, char padChar) throws IOException {
+        checkNotNull(target, 1, "target");
+        final String nnString = nullToEmpty(string);
+        for (int i = nnString.length(); i < minLength; i++) {
+            target.append(padChar);
+        }
+        target.append(nnString);
+        return target;
+    }
+
+    @Nonnull public static StringBuilder substringReverse(@Nonnull final StringBuilder target, @Nullable String string,
+                                                          int beginIdx, int endIdx) {
+        return appendTo(target, endIdx - beginIdx, string, beginIdx, endIdx,
+                StringServiceUtil::substringReverse);
+    }
+
+    @Nonnull public static <A extends Appendable> A substringReverse(@Nonnull final A target, @Nullable String string,
+                                                                     int beginIdx, int endIdx) throws IOException {
+        checkNotNull(target, 1, "target");
+        final String nnString = nullToEmpty(string);
+        final int len = nnString.length();
+        Objects.checkFromToIndex(len - endIdx, len - beginIdx, len);
+        target.append(nnString, len - endIdx, len - beginIdx);
+        return target;
+    }
+
+    @Nonnull public static StringBuilder removeAnyChar(@Nonnull final StringBuilder target,
+                                                       @Nullable final String string,
+                                                       @Nullable final String charsToDelete) {
+        return appendTo(target, length(string), string, charsToDelete,
+                StringServiceUtil::removeAnyChar);
+    }
+
+    @Nonnull public static <A extends Appendable> A removeAnyChar(@Nonnull final A target,
+                                                                  @Nullable final String string,
+                                                                  @Nullable final String charsToDelete)
+            throws IOException {
+        checkNotNull(target, 1, "target");
+        if (isNullOrEmpty(charsToDelete)) {
+            target.append(nullToEmpty(string));
+            return target;
+        }
+        if (!hasSurrogates(charsToDelete)) {
+            return CharClass.anyOf(charsToDelete).removeFrom(nullToEmpty(string), target);
+        }
+        return removeAnyCodePoint(nullToEmpty(string), charsToDelete, target);
+    }
+
+    /**
+     * Code point based variant of {@link CharClass#removeFrom(CharSequence, Appendable)}, for sets holding
+     * supplementary characters, which a {@code CharClass} would split into their surrogates.
+     */
+    private static <A extends Appendable> A removeAnyCodePoint(final String string, final String codePoints,
+                                                               final A target) throws IOException {
+        int runStart = 0;
+        for (int i = 0; i < string.length(); ) {
+            final int cp = string.codePointAt(i);
+            final int next = i + Character.charCount(cp);
+            if (codePoints.indexOf(cp) >= 0) {
+                if (runStart < i) {
+                    target.append(string, runStart, i);
+                }
+                runStart = next;
+            }
+            i = next;
+        }
+        if (runStart < string.length()) {
+            target.append(string, runStart, string.length());
+        }
+        return target;
+    }
+
+    @Nonnull public static StringBuilder removeWhitespace(@Nonnull final StringBuilder target,
+                                                          @Nullable String string) {
+        return appendTo(target, length(string), string, StringServiceUtil::removeWhitespace);
+    }
+
+    @Nonnull public static <A extends Appendable> A removeWhitespace(@Nonnull final A target, @Nullable String string)
+            throws IOException {
+        checkNotNull(target, 1, "target");
+        return CharClass.whitespace().removeFrom(nullToEmpty(string), target);
+    }
+
+    @Nonnull public static StringBuilder normalizeWhitespace(@Nonnull final StringBuilder target,
+                                                             @Nullable final String string) {
+        return appendTo(target, length(string), string, StringServiceUtil::normalizeWhitespace);
+    }
+
+    @Nonnull public static <A extends Appendable> A normalizeWhitespace(@Nonnull final A target,
+                                                                        @Nullable final String string)
+            throws IOException {
+        checkNotNull(target, 1, "target");
+        return CharClass.whitespace().collapseFrom(nullToEmpty(string), Chars_.SPACE, target);
+    }
+
+    @Nonnull public static StringBuilder getFileExt(@Nonnull final StringBuilder target,
+                                                    @Nullable final String fileName) {
+        return appendTo(target, length(fileName), fileName, StringServiceUtil::getFileExt);
+    }
+
+    @Nonnull public static <A extends Appendable> A getFileExt(@Nonnull final A target, @Nullable final String fileName)
+            throws IOException {
+        checkNotNull(target, 1, "target");
+        final String nnString = nullToEmpty(fileName);
+        final int pos = nnString.lastIndexOf(Chars_.DOT);
+        if (pos >= 0) {
+            target.append(nnString, pos + 1, nnString.length());
+        }
+        return target;
+    }
+
+    @Nonnull public static StringBuilder stripFileExt(@Nonnull final StringBuilder target,
+                                                      @Nullable final String fileName) {
+        return appendTo(target, length(fileName), fileName, StringServiceUtil::stripFileExt);
+    }
+
+    @Nonnull public static <A extends Appendable> A stripFileExt(@Nonnull final A target,
+                                                                 @Nullable final String fileName) throws IOException {
+        checkNotNull(target, 1, "target");
+        final String nnString = nullToEmpty(fileName);
+        final int pos = nnString.lastIndexOf(Chars_.DOT);
+        target.append(nnString, 0, pos < 0 ? nnString.length() : pos);
+        return target;
+    }
+
+    @Nonnull public static StringBuilder toLower(@Nonnull final StringBuilder target, @Nullable String string) {
+        return appendTo(target, length(string), string, StringServiceUtil::toLower);
+    }
+
+    @Nonnull public static <A extends Appendable> A toLower(@Nonnull final A target, @Nullable String string)
+            throws IOException {
+        checkNotNull(target, 1, "target");
+        return CaseFoldUtil.appendLowerCase(target, nullToEmpty(string));
+    }
+
+    @Nonnull public static StringBuilder toUpper(@Nonnull final StringBuilder target, @Nullable String string) {
+        return appendTo(target, length(string), string, StringServiceUtil::toUpper);
+    }
+
+    @Nonnull public static <A extends Appendable> A toUpper(@Nonnull final A target, @Nullable String string)
+            throws IOException {
+        checkNotNull(target, 1, "target");
+        return CaseFoldUtil.appendUpperCase(target, nullToEmpty(string));
+    }
+
+    @Nonnull public static StringBuilder toProper(@Nonnull final StringBuilder target, @Nullable String string) {
+        return appendTo(target, length(string), string, StringServiceUtil::toProper);
+    }
+
+    @Nonnull public static <A extends Appendable> A toProper(@Nonnull final A target, @Nullable String string)
+            throws IOException {
+        checkNotNull(target, 1, "target");
+        return CaseFoldUtil.appendProperCase(target, nullToEmpty(string));
+    }
+
+    /*
+     * ========
+     * Streams
+     * ========
+     *
+     * Whitespace operations over a Reader and a Writer of any size, see WhitespaceFilter. The result equals that of
+     * the String operation applied to all of the input; neither stream is closed.
+     */
+
+    public static long strip(@Nonnull final Reader in, @Nonnull final Writer out) throws IOException {
+        return WhitespaceFilter.stripping().transfer(in, out);
+    }
+
+    public static long removeWhitespace(@Nonnull final Reader in, @Nonnull final Writer out) throws IOException {
+        return WhitespaceFilter.removing().transfer(in, out);
+    }
+
+    public static long normalizeWhitespace(@Nonnull final Reader in, @Nonnull final Writer out) throws IOException {
+        return WhitespaceFilter.normalizing().transfer(in, out);
+    }
+
+    private static int length(@Nullable final String string) {
+        return string == null ? 0 : string.length();
+    }
+
+    /*
+     * The StringBuilder overloads pass their arguments on to one of the helpers below together with a static
+     * Appendable overload, so that no capturing lambda is created per call.
+     */
+
+    @FunctionalInterface
+    private interface StringOperation {
+        void appendTo(Appendable target, String string) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface StringPairOperation {
+        void appendTo(Appendable target, String a, String b) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface StringIntsOperation {
+        void appendTo(Appendable target, String string, int i, int j) throws IOException;
+    }
+
+    private static StringBuilder appendTo(@Nonnull final StringBuilder target, final long extra,
+                                          final String string, final StringOperation operation) {
+        presize(target, extra);
+        try {
+            operation.appendTo(target, string);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        return target;
+    }
+
+    private static StringBuilder appendTo(@Nonnull final StringBuilder target, final long extra,
+                                          final String a, final String b, final StringPairOperation operation) {
+        presize(target, extra);
+        try {
+            operation.appendTo(target, a, b);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        return target;
+    }
+
+    private static StringBuilder appendTo(@Nonnull final StringBuilder target, final long extra,
+                                          final String string, final int i, final int j,
+                                          final StringIntsOperation operation) {
+        presize(target, extra);
+        try {
+            operation.appendTo(target, string, i, j);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        return target;
+    }
+
+    private static void presize(@Nonnull final StringBuilder target, final long extra) {
+        checkNotNull(target, 1, "target");
+        final long required = target.length() + extra;
+        if (extra > 0 && required <= Integer.MAX_VALUE - 8) {
+            target.ensureCapacity((int) required);
+        }
+    }
+
+    private static boolean hasSurrogates(final String string) {
+        for (int i = 0; i < string.length(); i++) {
+            if (Character.isSurrogate(string.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSurrogatePairAt(final CharSequence cs, final int index) {
+        return index >= 0 && index <= cs.length() - 2
+                && Character.isHighSurrogate(cs.charAt(index)) && Character.isLowSurrogate(cs.charAt(index + 1));
+    }
 
 }
@@ -0,0 +1,244 @@
+package kmw.utilities.core.strings;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static kmw.utilities.core.base.Checks.checkNotNull;
+
+/**
+ * Splits character sequences into tokens at single-character delimiters from a compiled {@link CharClass}.
+ * <p>
+ * Tokens are produced lazily, one substring per token that is actually returned: trimming and dropping empty tokens
+ * work on indexes, and {@link #countTokens(CharSequence)} creates no strings at all. By default every delimiter ends a
+ * token, so {@code "a,,b"} has the tokens {@code "a"}, {@code ""} and {@code "b"}, and an empty input has a single
+ * empty token. {@link #collapseDelimiters()} makes adjacent delimiters separate no empty tokens, like
+ * {@link java.util.StringTokenizer} does.
+ * <p>
+ * Instances are immutable and thread-safe; the configuring methods return new instances.
+ */
+public final class Tokenizer {
+
+    /** Sequences at least this long are split into halves for parallel streams. */
+    private static final int SPLIT_THRESHOLD = 1 << 12;
+
+    private final CharClass delimiters;
+    private final boolean collapse;
+    private final boolean trim;
+    private final boolean omitEmpty;
+
+    private Tokenizer(final CharClass delimiters, final boolean collapse, final boolean trim,
+                      final boolean omitEmpty) {
+        this.delimiters = delimiters;
+        this.collapse = collapse;
+        this.trim = trim;
+        this.omitEmpty = omitEmpty;
+    }
+
+    /**
+     * Create a tokenizer splitting at each character of a class.
+     */
+    @Nonnull
+    public static Tokenizer on(@Nonnull final CharClass delimiters) {
+        checkNotNull(delimiters, 1, "delimiters");
+        return new Tokenizer(delimiters, false, false, false);
+    }
+
+    /**
+     * Create a tokenizer splitting at each occurrence of any of the given characters.
+     */
+    @Nonnull
+    public static Tokenizer onAnyOf(@Nonnull final CharSequence delimiters) {
+        return new Tokenizer(CharClass.anyOf(delimiters), false, false, false);
+    }
+
+    /**
+     * Get a tokenizer that treats a run of adjacent delimiters as one, so that only a token that is empty after
+     * trimming can be empty.
+     */
+    @Nonnull
+    public Tokenizer collapseDelimiters() {
+        return new Tokenizer(delimiters, true, trim, omitEmpty);
+    }
+
+    /**
+     * Get a tokenizer that removes leading and trailing characters up to {@code ' '} from tokens, like
+     * {@link String#trim()}.
+     */
+    @Nonnull
+    public Tokenizer trimResults() {
+        return new Tokenizer(delimiters, collapse, true, omitEmpty);
+    }
+
+    /**
+     * Get a tokenizer that drops empty tokens, after trimming if it trims.
+     */
+    @Nonnull
+    public Tokenizer omitEmptyStrings() {
+        return new Tokenizer(delimiters, collapse, trim, true);
+    }
+
+    /**
+     * Get the tokens of a sequence as a lazy {@code Iterable}.
+     */
+    @Nonnull
+    public Iterable<String> split(@Nonnull final CharSequence cs) {
+        checkNotNull(cs, 1, "cs");
+        return () -> Spliterators.iterator(new Tokens(cs, 0, cs.length()));
+    }
+
+    /**
+     * Get the tokens of a sequence as a lazy {@code Spliterator}. It splits long sequences at delimiters, so a
+     * parallel stream of it tokenizes in parallel.
+     */
+    @Nonnull
+    public Spliterator<String> spliterator(@Nonnull final CharSequence cs) {
+        checkNotNull(cs, 1, "cs");
+        return new Tokens(cs, 0, cs.length());
+    }
+
+    /**
+     * Get the tokens of a sequence as a sequential stream.
+     */
+    @Nonnull
+    public Stream<String> stream(@Nonnull final CharSequence cs) {
+        return StreamSupport.stream(spliterator(cs), false);
+    }
+
+    /**
+     * Get the tokens of a sequence as an array.
+     */
+    @Nonnull
+    public String[] splitToArray(@Nonnull final CharSequence cs) {
+        checkNotNull(cs, 1, "cs");
+        final Tokens tokens = new Tokens(cs, 0, cs.length());
+        String[] result = new String[8];
+        int size = 0;
+        while (tokens.advance()) {
+            if (size == result.length) {
+                result = Arrays.copyOf(result, 2 * size);
+            }
+            result[size++] = tokens.token();
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Count the tokens of a sequence without creating them.
+     */
+    public int countTokens(@Nonnull final CharSequence cs) {
+        checkNotNull(cs, 1, "cs");
+        final Tokens tokens = new Tokens(cs, 0, cs.length());
+        int count = 0;
+        while (tokens.advance()) {
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "Tokenizer[collapse=" + collapse + ", trim=" + trim + ", omitEmpty=" + omitEmpty + "]";
+    }
+
+    /**
+     * The tokens of a range of a sequence; the bounds of the current token are kept as indexes.
+     */
+    private final class Tokens implements Spliterator<String> {
+        private final CharSequence cs;
+        private final int end;
+        private int pos;
+        private boolean done;
+        private int tokenStart;
+        private int tokenEnd;
+
+        Tokens(final CharSequence cs, final int start, final int end) {
+            this.cs = cs;
+            this.pos = start;
+            this.end = end;
+        }
+
+        /**
+         * Move to the next token.
+         *
+         * @return {@code false} if there is none
+         */
+        boolean advance() {
+            while (!done) {
+                int start = pos;
+                int stop = start;
+                while (stop < end && !delimiters.matches(cs.charAt(stop))) {
+                    stop++;
+                }
+                if (stop < end) {
+                    pos = stop + 1;
+                } else {
+                    done = true;
+                }
+                if (collapse && start == stop) {
+                    continue;
+                }
+                if (trim) {
+                    while (start < stop && cs.charAt(start) <= ' ') {
+                        start++;
+                    }
+                    while (stop > start && cs.charAt(stop - 1) <= ' ') {
+                        stop--;
+                    }
+                }
+                if (omitEmpty && start == stop) {
+                    continue;
+                }
+                tokenStart = start;
+                tokenEnd = stop;
+                return true;
+            }
+            return false;
+        }
+
+        String token() {
+            return cs.subSequence(tokenStart, tokenEnd).toString();
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super String> action) {
+            checkNotNull(action, 1, "action");
+            if (!advance()) {
+                return false;
+            }
+            action.accept(token());
+            return true;
+        }
+
+        @Override
+        public Spliterator<String> trySplit() {
+            if (done || end - pos < SPLIT_THRESHOLD) {
+                return null;
+            }
+            // the delimiter at the split point separates the last token of the prefix from the first of the rest
+            for (int i = (pos + end) >>> 1; i < end; i++) {
+                if (delimiters.matches(cs.charAt(i))) {
+                    final Tokens prefix = new Tokens(cs, pos, i);
+                    pos = i + 1;
+                    return prefix;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return done ? 0 : end - pos + 1;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+    }
+
+}
@@ -0,0 +1,298 @@
+package kmw.utilities.core.strings;
+
+import javax.annotation.Nonnull;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+import static kmw.utilities.core.base.Checks.checkNotNull;
+
+/**
+ * Allocation-free UTF-8 encoding and decoding into caller-supplied buffers.
+ * <p>
+ * All methods are optimized for mostly-ASCII input: runs of ASCII bytes are checked and copied eight at a time.
+ * Unpaired surrogates are encoded as {@code '?'} and malformed byte sequences are decoded as {@code U+FFFD}, which
+ * matches what {@link String#getBytes(java.nio.charset.Charset)} and {@link String#String(byte[],
+ * java.nio.charset.Charset)} do for {@code UTF_8}.
+ */
+public final class Utf8Util {
+
+    private Utf8Util() {}
+
+    private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long NON_ASCII_MASK = 0x8080808080808080L;
+
+    private static final char REPLACEMENT_CHAR = '\uFFFD';
+    private static final byte REPLACEMENT_BYTE = '?';
+
+    /**
+     * Get the number of bytes of the UTF-8 encoding of a character sequence, without encoding it.
+     *
+     * @param cs the characters
+     * @return the encoded length in bytes
+     */
+    public static int utf8Length(@Nonnull final CharSequence cs) {
+        checkNotNull(cs, 1, "cs");
+        final int len = cs.length();
+        int i = 0;
+        while (i < len && cs.charAt(i) < 0x80) {
+            i++;
+        }
+        long count = len;
+        for (; i < len; i++) {
+            final char c = cs.charAt(i);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                count += 1;
+            } else if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(cs.charAt(i + 1))) {
+                count += 2;     // 2 chars -> 4 bytes
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                // unpaired surrogate is replaced by a single byte
+            } else {
+                count += 2;
+            }
+        }
+        if (count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("UTF-8 length does not fit in int: " + count);
+        }
+        return (int) count;
+    }
+
+    /**
+     * Encode characters as UTF-8 into a byte array.
+     *
+     * @param cs the characters to encode
+     * @param dst the target array
+     * @param dstOff the offset of the first byte to write
+     * @return the number of bytes written
+     * @throws ArrayIndexOutOfBoundsException if {@code dst} is too small; see {@link #utf8Length(CharSequence)}
+     */
+    public static int encodeUtf8(@Nonnull final CharSequence cs, @Nonnull final byte[] dst, final int dstOff) {
+        checkNotNull(cs, 1, "cs");
+        checkNotNull(dst, 2, "dst");
+        final int len = cs.length();
+        int pos = dstOff;
+        int i = 0;
+        // ASCII fast path
+        for (char c; i < len && (c = cs.charAt(i)) < 0x80; i++) {
+            dst[pos++] = (byte) c;
+        }
+        for (; i < len; i++) {
+            final char c = cs.charAt(i);
+            if (c < 0x80) {
+                dst[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                dst[pos++] = (byte) (0xC0 | (c >> 6));
+                dst[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                final char low;
+                if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(low = cs.charAt(i + 1))) {
+                    final int cp = Character.toCodePoint(c, low);
+                    dst[pos++] = (byte) (0xF0 | (cp >> 18));
+                    dst[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                    dst[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                    dst[pos++] = (byte) (0x80 | (cp & 0x3F));
+                    i++;
+                } else {
+                    dst[pos++] = REPLACEMENT_BYTE;
+                }
+            } else {
+                dst[pos++] = (byte) (0xE0 | (c >> 12));
+                dst[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                dst[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return pos - dstOff;
+    }
+
+    /**
+     * Encode characters as UTF-8 into a byte buffer, starting at its position. Heap buffers are written through their
+     * backing array; direct buffers are written in place.
+     *
+     * @param cs the characters to encode
+     * @param out the target buffer; its position is advanced by the number of bytes written
+     * @return the number of bytes written
+     * @throws BufferOverflowException if {@code out} has not enough room, in which case its position is unchanged
+     */
+    public static int encodeUtf8(@Nonnull final CharSequence cs, @Nonnull final ByteBuffer out) {
+        checkNotNull(cs, 1, "cs");
+        checkNotNull(out, 2, "out");
+        final int len = cs.length();
+        if (out.hasArray() && out.remaining() >= 3 * len) {
+            // worst case fits (surrogate pairs need 2 bytes per char only)
+            final int written = encodeUtf8(cs, out.array(), out.arrayOffset() + out.position());
+            out.position(out.position() + written);
+            return written;
+        }
+        final int required = utf8Length(cs);
+        if (out.remaining() < required) {
+            throw new BufferOverflowException();
+        }
+        if (out.hasArray()) {
+            encodeUtf8(cs, out.array(), out.arrayOffset() + out.position());
+            out.position(out.position() + required);
+            return required;
+        }
+        int pos = out.position();
+        for (int i = 0; i < len; i++) {
+            final char c = cs.charAt(i);
+            if (c < 0x80) {
+                out.put(pos++, (byte) c);
+            } else if (c < 0x800) {
+                out.put(pos++, (byte) (0xC0 | (c >> 6)));
+                out.put(pos++, (byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                final char low;
+                if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(low = cs.charAt(i + 1))) {
+                    final int cp = Character.toCodePoint(c, low);
+                    out.put(pos++, (byte) (0xF0 | (cp >> 18)));
+                    out.put(pos++, (byte) (0x80 | ((cp >> 12) & 0x3F)));
+                    out.put(pos++, (byte) (0x80 | ((cp >> 6) & 0x3F)));
+                    out.put(pos++, (byte) (0x80 | (cp & 0x3F)));
+                    i++;
+                } else {
+                    out.put(pos++, REPLACEMENT_BYTE);
+                }
+            } else {
+                out.put(pos++, (byte) (0xE0 | (c >> 12)));
+                out.put(pos++, (byte) (0x80 | ((c >> 6) & 0x3F)));
+                out.put(pos++, (byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        out.position(pos);
+        return required;
+    }
+
+    /**
+     * Decode UTF-8 bytes into a char array.
+     *
+     * @param src the encoded bytes
+     * @param off the offset of the first byte to decode
+     * @param len the number of bytes to decode
+     * @param dst the target array; decoding never yields more chars than bytes, so {@code len} chars always suffice
+     * @return the number of chars written
+     */
+    public static int decodeUtf8(@Nonnull final byte[] src, final int off, final int len, @Nonnull final char[] dst) {
+        return decodeUtf8(src, off, len, dst, 0);
+    }
+
+    /**
+     * Decode UTF-8 bytes into a char array, starting at {@code dstOff}.
+     *
+     * @return the number of chars written
+     * @see #decodeUtf8(byte[], int, int, char[])
+     */
+    public static int decodeUtf8(@Nonnull final byte[] src, final int off, final int len,
+                                 @Nonnull final char[] dst, final int dstOff) {
+        checkNotNull(src, 1, "src");
+        checkNotNull(dst, 4, "dst");
+        Objects.checkFromIndexSize(off, len, src.length);
+        final int end = off + len;
+        int i = off;
+        int pos = dstOff;
+        while (i < end) {
+            // ASCII fast path, eight bytes at a time
+            while (i + 8 <= end && ((long) LONG_VIEW.get(src, i) & NON_ASCII_MASK) == 0) {
+                for (int k = 0; k < 8; k++) {
+                    dst[pos + k] = (char) src[i + k];
+                }
+                i += 8;
+                pos += 8;
+            }
+            if (i >= end) {
+                break;
+            }
+            final int b = src[i];
+            if (b >= 0) {
+                dst[pos++] = (char) b;
+                i++;
+                continue;
+            }
+            final int lead = b & 0xFF;
+            if (lead >= 0xC2 && lead <= 0xDF) {
+                if (i + 1 < end && isContinuation(src[i + 1])) {
+                    dst[pos++] = (char) (((lead & 0x1F) << 6) | (src[i + 1] & 0x3F));
+                    i += 2;
+                } else {
+                    dst[pos++] = REPLACEMENT_CHAR;
+                    i++;
+                }
+            } else if (lead >= 0xE0 && lead <= 0xEF) {
+                if (i + 1 >= end || !isContinuation(src[i + 1]) || (lead == 0xE0 && src[i + 1] < (byte) 0xA0)) {
+                    dst[pos++] = REPLACEMENT_CHAR;
+                    i++;
+                } else if (i + 2 >= end || !isContinuation(src[i + 2])) {
+                    dst[pos++] = REPLACEMENT_CHAR;
+                    i += 2;
+                } else {
+                    final char c = (char) (((lead & 0x0F) << 12) | ((src[i + 1] & 0x3F) << 6) | (src[i + 2] & 0x3F));
+                    // an encoded surrogate is replaced as a whole, just like the JDK does
+                    dst[pos++] = Character.isSurrogate(c) ? REPLACEMENT_CHAR : c;
+                    i += 3;
+                }
+            } else if (lead >= 0xF0 && lead <= 0xF4) {
+                final int lo = lead == 0xF0 ? 0x90 : 0x80;
+                final int hi = lead == 0xF4 ? 0x8F : 0xBF;
+                if (i + 1 >= end || !inRange(src[i + 1], lo, hi)) {
+                    dst[pos++] = REPLACEMENT_CHAR;
+                    i++;
+                } else if (i + 2 >= end || !isContinuation(src[i + 2])) {
+                    dst[pos++] = REPLACEMENT_CHAR;
+                    i += 2;
+                } else if (i + 3 >= end || !isContinuation(src[i + 3])) {
+                    dst[pos++] = REPLACEMENT_CHAR;
+                    i += 3;
+                } else {
+                    final int cp = ((lead & 0x07) << 18) | ((src[i + 1] & 0x3F) << 12)
+                            | ((src[i + 2] & 0x3F) << 6) | (src[i + 3] & 0x3F);
+                    dst[pos++] = Character.highSurrogate(cp);
+                    dst[pos++] = Character.lowSurrogate(cp);
+                    i += 4;
+                }
+            } else {
+                dst[pos++] = REPLACEMENT_CHAR;
+                i++;
+            }
+        }
+        return pos - dstOff;
+    }
+
+    /**
+     * Test whether a range of bytes is pure ASCII, checking eight bytes at a time.
+     *
+     * @return true if no byte in the range has its high bit set
+     */
+    public static boolean isAscii(@Nonnull final byte[] src, final int off, final int len) {
+        checkNotNull(src, 1, "src");
+        Objects.checkFromIndexSize(off, len, src.length);
+        final int end = off + len;
+        int i = off;
+        for (; i + 8 <= end; i += 8) {
+            if (((long) LONG_VIEW.get(src, i) & NON_ASCII_MASK) != 0) {
+                return false;
+            }
+        }
+        for (; i < end; i++) {
+            if (src[i] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isContinuation(final byte b) {
+        return (b & 0xC0) == 0x80;
+    }
+
+    private static boolean inRange(final byte b, final int lo, final int hi) {
+        final int v = b & 0xFF;
+        return v >= lo && v <= hi;
+    }
+
+}
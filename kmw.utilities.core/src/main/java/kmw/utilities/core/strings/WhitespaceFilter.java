@@ -0,0 +1,307 @@
+package kmw.utilities.core.strings;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CoderResult;
+import java.util.Objects;
+
+import static kmw.utilities.core.base.Checks.checkArgument;
+import static kmw.utilities.core.base.Checks.checkNotNull;
+import static kmw.utilities.core.strings.StringPool.*;
+
+/**
+ * Incremental counterparts of {@link StringServiceUtil#normalizeWhitespace(String)},
+ * {@link StringServiceUtil#removeWhitespace(String)} and {@link StringServiceUtil#strip(String)} for text that is too
+ * large to be held as a {@code String}.
+ * <p>
+ * Text is fed chunk by chunk with {@code filter} and completed with {@code finish}; the result is the same as that of
+ * the {@code String} method applied to the concatenation of all chunks. A whitespace run that straddles two chunks is
+ * collapsed into a single space, and whitespace at the end of a chunk is held back while stripping until it turns out
+ * not to be trailing, so memory is bounded by the chunk size plus the longest whitespace run. {@code transfer} runs a
+ * whole {@code Reader} or {@code ReadableByteChannel} through the filter using fixed-size buffers.
+ * <p>
+ * Instances are reusable via {@link #reset()}, but not thread-safe.
+ */
+public final class WhitespaceFilter {
+
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    private static final int NORMALIZE = 0;
+    private static final int REMOVE = 1;
+    private static final int STRIP = 2;
+
+    private final int mode;
+    private final CharClass whitespace = CharClass.whitespace();
+    private final char[] output;
+    private int outLength;
+    private long written;
+
+    private boolean inRun;                                  // NORMALIZE: the last char was whitespace
+    private boolean seenText;                               // STRIP: a non-whitespace char has been passed
+    private final StringBuilder pending = new StringBuilder();  // STRIP: whitespace after the last text
+
+    private WhitespaceFilter(final int mode, final int chunkSize) {
+        checkArgument(chunkSize > 0, Messages_.PARAM_1_2_MUST_BE_POSITIVE, 1, "chunkSize");
+        this.mode = mode;
+        this.output = new char[chunkSize];
+    }
+
+    /**
+     * Create a filter that collapses each whitespace run into a single space.
+     *
+     * @see StringServiceUtil#normalizeWhitespace(String)
+     */
+    @Nonnull
+    public static WhitespaceFilter normalizing() {
+        return new WhitespaceFilter(NORMALIZE, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Create a filter that drops all whitespace.
+     *
+     * @see StringServiceUtil#removeWhitespace(String)
+     */
+    @Nonnull
+    public static WhitespaceFilter removing() {
+        return new WhitespaceFilter(REMOVE, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Create a filter that drops leading and trailing whitespace.
+     *
+     * @see StringServiceUtil#strip(String)
+     */
+    @Nonnull
+    public static WhitespaceFilter stripping() {
+        return new WhitespaceFilter(STRIP, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Get the number of characters written since the last reset.
+     */
+    public long written() {
+        return written;
+    }
+
+    /**
+     * Filter a chunk of text and append the result to {@code target}.
+     *
+     * @return the target
+     */
+    @Nonnull
+    public <A extends Appendable> A filter(@Nonnull final CharSequence chunk, @Nonnull final A target)
+            throws IOException {
+        checkNotNull(chunk, 1, "chunk");
+        checkNotNull(target, 2, "target");
+        for (int i = 0; i < chunk.length(); i++) {
+            accept(chunk.charAt(i), target);
+        }
+        flush(target);
+        return target;
+    }
+
+    /**
+     * Filter a range of a char array and append the result to {@code target}.
+     *
+     * @return the target
+     */
+    @Nonnull
+    public <A extends Appendable> A filter(@Nonnull final char[] chars, final int off, final int len,
+                                           @Nonnull final A target) throws IOException {
+        checkNotNull(chars, 1, "chars");
+        checkNotNull(target, 4, "target");
+        Objects.checkFromIndexSize(off, len, chars.length);
+        for (int i = off, end = off + len; i < end; i++) {
+            accept(chars[i], target);
+        }
+        flush(target);
+        return target;
+    }
+
+    /**
+     * Signal the end of the text: pending trailing whitespace is dropped, and the filter is reset for new text.
+     *
+     * @return the target
+     */
+    @Nonnull
+    public <A extends Appendable> A finish(@Nonnull final A target) throws IOException {
+        checkNotNull(target, 1, "target");
+        flush(target);
+        inRun = false;
+        seenText = false;
+        pending.setLength(0);
+        return target;
+    }
+
+    /**
+     * Discard any state and make this filter ready for new text.
+     *
+     * @return this filter
+     */
+    @Nonnull
+    public WhitespaceFilter reset() {
+        outLength = 0;
+        written = 0;
+        inRun = false;
+        seenText = false;
+        pending.setLength(0);
+        return this;
+    }
+
+    /**
+     * Filter all characters of a reader into a writer. The filter is reset first; neither stream is closed.
+     *
+     * @return the number of characters written
+     */
+    public long transfer(@Nonnull final Reader in, @Nonnull final Writer out) throws IOException {
+        checkNotNull(in, 1, "in");
+        checkNotNull(out, 2, "out");
+        reset();
+        final char[] buffer = new char[output.length];
+        for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+            filter(buffer, 0, n, out);
+        }
+        finish(out);
+        return written;
+    }
+
+    /**
+     * Filter all bytes of a channel, decoded and re-encoded in the given charset, into another channel. The filter is
+     * reset first; neither channel is closed.
+     *
+     * @return the number of characters written
+     * @see StreamingDecoder
+     * @see StreamingEncoder
+     */
+    public long transfer(@Nonnull final ReadableByteChannel in, @Nonnull final WritableByteChannel out,
+                         @Nonnull final Charset charset) throws IOException {
+        checkNotNull(in, 1, "in");
+        checkNotNull(out, 2, "out");
+        checkNotNull(charset, 3, "charset");
+        reset();
+        final StreamingDecoder decoder = new StreamingDecoder(charset, output.length);
+        final ChannelWriter writer = new ChannelWriter(new StreamingEncoder(charset, output.length), out);
+        final ByteBuffer bytes = ByteBuffer.allocate(output.length);
+        final CharBuffer chars = CharBuffer.allocate(output.length);
+        while (in.read(bytes) >= 0) {
+            bytes.flip();
+            CoderResult result;
+            do {
+                result = decoder.decode(bytes, chars);
+                filter(chars.array(), 0, chars.position(), writer);
+                chars.clear();
+            } while (result.isOverflow());
+            bytes.clear();
+        }
+        CoderResult result;
+        do {
+            result = decoder.finish(chars);
+            filter(chars.array(), 0, chars.position(), writer);
+            chars.clear();
+        } while (result.isOverflow());
+        finish(writer);
+        writer.finish();
+        return written;
+    }
+
+    private void accept(final char c, final Appendable target) throws IOException {
+        final boolean isWhitespace = whitespace.matches(c);
+        switch (mode) {
+            case NORMALIZE:
+                if (!isWhitespace) {
+                    inRun = false;
+                    emit(c, target);
+                } else if (!inRun) {
+                    inRun = true;
+                    emit(Chars_.SPACE, target);
+                }
+                break;
+            case REMOVE:
+                if (!isWhitespace) {
+                    emit(c, target);
+                }
+                break;
+            case STRIP:
+                if (isWhitespace) {
+                    if (seenText) {
+                        pending.append(c);
+                    }
+                } else {
+                    for (int i = 0; i < pending.length(); i++) {
+                        emit(pending.charAt(i), target);
+                    }
+                    pending.setLength(0);
+                    seenText = true;
+                    emit(c, target);
+                }
+        }
+    }
+
+    private void emit(final char c, final Appendable target) throws IOException {
+        if (outLength == output.length) {
+            flush(target);
+        }
+        output[outLength++] = c;
+    }
+
+    private void flush(final Appendable target) throws IOException {
+        if (outLength == 0) {
+            return;
+        }
+        if (target instanceof Writer) {
+            ((Writer) target).write(output, 0, outLength);
+        } else if (target instanceof StringBuilder) {
+            ((StringBuilder) target).append(output, 0, outLength);
+        } else {
+            target.append(CharBuffer.wrap(output, 0, outLength));
+        }
+        written += outLength;
+        outLength = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "WhitespaceFilter[" + (mode == NORMALIZE ? "normalizing" : mode == REMOVE ? "removing" : "stripping")
+                + "]";
+    }
+
+    /**
+     * Encodes written characters into a channel.
+     */
+    private static final class ChannelWriter extends Writer {
+        private final StreamingEncoder encoder;
+        private final WritableByteChannel channel;
+
+        ChannelWriter(final StreamingEncoder encoder, final WritableByteChannel channel) {
+            this.encoder = encoder;
+            this.channel = channel;
+        }
+
+        @Override
+        public void write(@Nonnull final char[] cbuf, final int off, final int len) throws IOException {
+            encoder.encode(CharBuffer.wrap(cbuf, off, len), channel);
+        }
+
+        void finish() throws IOException {
+            encoder.finish(channel);
+        }
+
+        @Override
+        public void flush() {
+            // all bytes are written to the channel immediately
+        }
+
+        @Override
+        public void close() {
+            // the channel belongs to the caller
+        }
+    }
+
+}
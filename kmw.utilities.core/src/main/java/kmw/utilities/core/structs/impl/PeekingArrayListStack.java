@@ -9,8 +9,8 @@ import java.util.ArrayList;
 import java.util.EmptyStackException;
 import java.util.Iterator;
 
-import static com.google.common.base.Preconditions.checkArgument;
-import static com.google.common.base.Preconditions.checkNotNull;
+import static kmw.utilities.core.base.Checks.checkArgument;
+import static kmw.utilities.core.base.Checks.checkNotNull;
 import static kmw.utilities.core.strings.StringPool.*;
 
 /**
@@ -51,7 +51,7 @@ public final class PeekingArrayListStack<T> implements PeekingStack<T> {
     }
 
     private void expandCapacityBy(int capacityIncrement) {
-        checkArgument(capacityIncrement > 0);
+        checkArgument(capacityIncrement > 0, Messages_.PARAM_1_2_MUST_BE_POSITIVE, 1, "capacityIncrement");
         capacity += capacityIncrement;
         ensureCapacity(capacity);
     }
@@ -63,7 +63,7 @@ public final class PeekingArrayListStack<T> implements PeekingStack<T> {
      */
     @Override
     public void push(@Nonnull final T item) {
-        checkNotNull(item, format(Messages_.PARAM_1_2_MUST_NOT_BE_NULL, 1, "item"));
+        checkNotNull(item, 1, "item");
         if (itemCount == capacity) {
             expandCapacityBy(capacity);     // double capacity
         }
@@ -2,6 +2,7 @@ open module kmw.utilities.core {
     requires com.google.guice;  // is MultiBinder included??
     requires com.google.common;
     requires jsr305;
+    requires static jdk.management; // allocation assertions of the tests
 
     exports kmw.utilities.core;
     exports kmw.utilities.core.strings;
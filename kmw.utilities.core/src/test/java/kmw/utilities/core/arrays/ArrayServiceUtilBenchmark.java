@@ -0,0 +1,57 @@
+package kmw.utilities.core.arrays;
+
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Compares the sequential reverse, swap and shift of {@link ArrayServiceUtil} with their parallel variants on a large
+ * int array. Not a unit test; run {@code main} with the array length as optional argument, e.g. {@code 50000000},
+ * and a heap large enough for it. The best of several rounds is reported, after warm-up rounds.
+ */
+public final class ArrayServiceUtilBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+
+    private ArrayServiceUtilBenchmark() {
+    }
+
+    public static void main(final String[] args) {
+        final int length = args.length > 0 ? Integer.parseInt(args[0]) : 50_000_000;
+        final int[] array = new Random(1).ints(length).toArray();
+        System.out.printf("%,d ints, %d CPUs, parallel threshold %,d%n", length,
+                Runtime.getRuntime().availableProcessors(), ArrayServiceUtil.getParallelThreshold());
+        System.out.printf("%-20s %12s %12s%n", "operation", "sequential", "parallel");
+        report("reverse", array,
+                a -> ArrayServiceUtil.reverse(a),
+                a -> ArrayServiceUtil.parallelReverse(a));
+        report("swap halves", array,
+                a -> ArrayServiceUtil.swap(a, 0, a.length / 2, a.length / 2),
+                a -> ArrayServiceUtil.parallelSwap(a, 0, a.length / 2, a.length / 2));
+        report("shift by 1000", array,
+                a -> ArrayServiceUtil.shift(a, 1000),
+                a -> ArrayServiceUtil.parallelShift(a, 1000));
+        report("shift by n/3", array,
+                a -> ArrayServiceUtil.shift(a, a.length / 3),
+                a -> ArrayServiceUtil.parallelShift(a, a.length / 3));
+    }
+
+    private static void report(final String name, final int[] array, final Consumer<int[]> sequential,
+                               final Consumer<int[]> parallel) {
+        System.out.printf("%-20s %9.1f ms %9.1f ms%n", name, best(array, sequential), best(array, parallel));
+    }
+
+    private static double best(final int[] array, final Consumer<int[]> operation) {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+            final long start = System.nanoTime();
+            operation.accept(array);
+            final long time = System.nanoTime() - start;
+            if (round >= WARMUP_ROUNDS) {
+                best = Math.min(best, time);
+            }
+        }
+        return best / 1e6;
+    }
+
+}
@@ -0,0 +1,200 @@
+package kmw.utilities.core.arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ArrayServiceUtilTest {
+
+    private int threshold;
+
+    @Before
+    public void lowerThreshold() {
+        threshold = ArrayServiceUtil.getParallelThreshold();
+        ArrayServiceUtil.setParallelThreshold(7);
+    }
+
+    @After
+    public void restoreThreshold() {
+        ArrayServiceUtil.setParallelThreshold(threshold);
+    }
+
+    @Test
+    public void testAgainstSequential() {
+        final Random random = new Random(43);
+        for (int round = 0; round < 3000; round++) {
+            final int length = random.nextInt(round % 10 == 0 ? 100_000 : 200);
+            final int[] values = new int[length];
+            for (int i = 0; i < length; i++) {
+                values[i] = random.nextInt();
+            }
+            final Samples expected = new Samples(values);
+            final Samples actual = new Samples(values);
+            final int a = random.nextInt(length + 20) - 10;
+            final int b = random.nextInt(length + 20) - 10;
+            final int len = random.nextInt(length / 2 + 5);
+            final int offset = random.nextInt(2 * length + 10) - length - 5;
+            switch (round % 3) {
+                case 0:
+                    expected.reverse(a, b);
+                    actual.parallelReverse(a, b);
+                    break;
+                case 1:
+                    expected.swap(a, b, len);
+                    actual.parallelSwap(a, b, len);
+                    break;
+                default:
+                    expected.shift(Math.min(a, b), Math.max(a, b), offset);
+                    actual.parallelShift(Math.min(a, b), Math.max(a, b), offset);
+            }
+            expected.assertEqualTo(actual);
+        }
+    }
+
+    @Test
+    public void testWholeArrays() {
+        final long[] longs = {1, 2, 3, 4, 5};
+        ArrayServiceUtil.parallelShift(longs, 2);
+        assertArrayEquals(new long[]{4, 5, 1, 2, 3}, longs);
+        ArrayServiceUtil.parallelReverse(longs);
+        assertArrayEquals(new long[]{3, 2, 1, 5, 4}, longs);
+        final char[] chars = "abcd".toCharArray();
+        ArrayServiceUtil.parallelSwap(chars, 0, 2, 2);
+        assertArrayEquals("cdab".toCharArray(), chars);
+        ArrayServiceUtil.parallelReverse((double[]) null);
+        ArrayServiceUtil.parallelShift((Object[]) null, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidThreshold() {
+        ArrayServiceUtil.setParallelThreshold(0);
+    }
+
+    /**
+     * The same values in an array of each type, transformed by the sequential or parallel methods.
+     */
+    private static final class Samples {
+        private final int[] ints;
+        private final long[] longs;
+        private final short[] shorts;
+        private final char[] chars;
+        private final byte[] bytes;
+        private final double[] doubles;
+        private final float[] floats;
+        private final boolean[] bits;
+        private final Object[] objects;
+
+        Samples(final int[] values) {
+            ints = new int[values.length];
+            longs = new long[values.length];
+            shorts = new short[values.length];
+            chars = new char[values.length];
+            bytes = new byte[values.length];
+            doubles = new double[values.length];
+            floats = new float[values.length];
+            bits = new boolean[values.length];
+            objects = new Integer[values.length];
+            for (int i = 0; i < values.length; i++) {
+                final int v = values[i];
+                ints[i] = v;
+                longs[i] = (long) v << 20;
+                shorts[i] = (short) v;
+                chars[i] = (char) v;
+                bytes[i] = (byte) v;
+                doubles[i] = v / 8.0;
+                floats[i] = (float) v;
+                bits[i] = v < 0;
+                objects[i] = v;
+            }
+        }
+
+        void reverse(final int from, final int to) {
+            ArrayServiceUtil.reverse(ints, from, to);
+            ArrayServiceUtil.reverse(longs, from, to);
+            ArrayServiceUtil.reverse(shorts, from, to);
+            ArrayServiceUtil.reverse(chars, from, to);
+            ArrayServiceUtil.reverse(bytes, from, to);
+            ArrayServiceUtil.reverse(doubles, from, to);
+            ArrayServiceUtil.reverse(floats, from, to);
+            ArrayServiceUtil.reverse(bits, from, to);
+            ArrayServiceUtil.reverse(objects, from, to);
+        }
+
+        void parallelReverse(final int from, final int to) {
+            ArrayServiceUtil.parallelReverse(ints, from, to);
+            ArrayServiceUtil.parallelReverse(longs, from, to);
+            ArrayServiceUtil.parallelReverse(shorts, from, to);
+            ArrayServiceUtil.parallelReverse(chars, from, to);
+            ArrayServiceUtil.parallelReverse(bytes, from, to);
+            ArrayServiceUtil.parallelReverse(doubles, from, to);
+            ArrayServiceUtil.parallelReverse(floats, from, to);
+            ArrayServiceUtil.parallelReverse(bits, from, to);
+            ArrayServiceUtil.parallelReverse(objects, from, to);
+        }
+
+        void swap(final int offset1, final int offset2, final int len) {
+            ArrayServiceUtil.swap(ints, offset1, offset2, len);
+            ArrayServiceUtil.swap(longs, offset1, offset2, len);
+            ArrayServiceUtil.swap(shorts, offset1, offset2, len);
+            ArrayServiceUtil.swap(chars, offset1, offset2, len);
+            ArrayServiceUtil.swap(bytes, offset1, offset2, len);
+            ArrayServiceUtil.swap(doubles, offset1, offset2, len);
+            ArrayServiceUtil.swap(floats, offset1, offset2, len);
+            ArrayServiceUtil.swap(bits, offset1, offset2, len);
+            ArrayServiceUtil.swap(objects, offset1, offset2, len);
+        }
+
+        void parallelSwap(final int offset1, final int offset2, final int len) {
+            ArrayServiceUtil.parallelSwap(ints, offset1, offset2, len);
+            ArrayServiceUtil.parallelSwap(longs, offset1, offset2, len);
+            ArrayServiceUtil.parallelSwap(shorts, offset1, offset2, len);
+            ArrayServiceUtil.parallelSwap(chars, offset1, offset2, len);
+            ArrayServiceUtil.parallelSwap(bytes, offset1, offset2, len);
+            ArrayServiceUtil.parallelSwap(doubles, offset1, offset2, len);
+            ArrayServiceUtil.parallelSwap(floats, offset1, offset2, len);
+            ArrayServiceUtil.parallelSwap(bits, offset1, offset2, len);
+            ArrayServiceUtil.parallelSwap(objects, offset1, offset2, len);
+        }
+
+        void shift(final int from, final int to, final int offset) {
+            ArrayServiceUtil.shift(ints, from, to, offset);
+            ArrayServiceUtil.shift(longs, from, to, offset);
+            ArrayServiceUtil.shift(shorts, from, to, offset);
+            ArrayServiceUtil.shift(chars, from, to, offset);
+            ArrayServiceUtil.shift(bytes, from, to, offset);
+            ArrayServiceUtil.shift(doubles, from, to, offset);
+            ArrayServiceUtil.shift(floats, from, to, offset);
+            ArrayServiceUtil.shift(bits, from, to, offset);
+            ArrayServiceUtil.shift(objects, from, to, offset);
+        }
+
+        void parallelShift(final int from, final int to, final int offset) {
+            ArrayServiceUtil.parallelShift(ints, from, to, offset);
+            ArrayServiceUtil.parallelShift(longs, from, to, offset);
+            ArrayServiceUtil.parallelShift(shorts, from, to, offset);
+            ArrayServiceUtil.parallelShift(chars, from, to, offset);
+            ArrayServiceUtil.parallelShift(bytes, from, to, offset);
+            ArrayServiceUtil.parallelShift(doubles, from, to, offset);
+            ArrayServiceUtil.parallelShift(floats, from, to, offset);
+            ArrayServiceUtil.parallelShift(bits, from, to, offset);
+            ArrayServiceUtil.parallelShift(objects, from, to, offset);
+        }
+
+        void assertEqualTo(final Samples other) {
+            assertArrayEquals(ints, other.ints);
+            assertArrayEquals(longs, other.longs);
+            assertArrayEquals(shorts, other.shorts);
+            assertArrayEquals(chars, other.chars);
+            assertArrayEquals(bytes, other.bytes);
+            assertArrayEquals(doubles, other.doubles, 0);
+            assertArrayEquals(floats, other.floats, 0);
+            assertArrayEquals(bits, other.bits);
+            assertArrayEquals(objects, other.objects);
+        }
+    }
+
+}
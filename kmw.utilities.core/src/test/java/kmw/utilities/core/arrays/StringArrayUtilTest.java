@@ -0,0 +1,84 @@
+package kmw.utilities.core.arrays;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class StringArrayUtilTest {
+
+    @Test
+    public void testSetOperations() {
+        final Random random = new Random(17);
+        final int[] sizes = {0, 1, 3, 10, 40, 500, 100_000};
+        for (final int n : sizes) {
+            for (final int m : sizes) {
+                for (final boolean sorted : new boolean[]{false, true}) {
+                    final String[] a = randomArray(random, n, n + m, sorted && n > 0);
+                    final String[] b = randomArray(random, m, n + m, sorted && m > 0);
+                    final Set<String> setA = new LinkedHashSet<>(Arrays.asList(a));
+                    final Set<String> setB = new LinkedHashSet<>(Arrays.asList(b));
+
+                    assertArrayEquals(setA.toArray(), StringArrayUtil.distinct(a));
+                    final Set<String> union = new LinkedHashSet<>(setA);
+                    union.addAll(setB);
+                    assertArrayEquals(union.toArray(), StringArrayUtil.union(a, b));
+                    final Set<String> intersection = new LinkedHashSet<>(setA);
+                    intersection.retainAll(setB);
+                    assertArrayEquals(intersection.toArray(), StringArrayUtil.intersection(a, b));
+                    final Set<String> difference = new LinkedHashSet<>(setA);
+                    difference.removeAll(setB);
+                    assertArrayEquals(difference.toArray(), StringArrayUtil.difference(a, b));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMerge() {
+        final Random random = new Random(19);
+        for (final int n : new int[]{1, 5, 50, 5000}) {
+            final String[] a = randomArray(random, n, n, false);
+            final String[] b = randomArray(random, n, n, false);
+            final List<String> expected = new ArrayList<>(Arrays.asList(a));
+            for (final String s : b) {
+                if (!expected.contains(s)) {
+                    expected.add(s);
+                }
+            }
+            assertArrayEquals(expected.toArray(), StringArrayUtil.merge(a, b));
+        }
+        final String[] a = {"x"};
+        assertSame(a, StringArrayUtil.merge(a, null));
+        assertNull(StringArrayUtil.merge(null, null));
+    }
+
+    @Test
+    public void testNulls() {
+        final String[] a = {"a", null, "b", null, "a"};
+        assertArrayEquals(new String[]{"a", null, "b"}, StringArrayUtil.distinct(a));
+        assertArrayEquals(new String[]{null}, StringArrayUtil.intersection(a, new String[]{null, "c"}));
+        assertArrayEquals(new String[]{"a", "b"}, StringArrayUtil.difference(a, new String[]{null}));
+        assertArrayEquals(new String[]{"c"}, StringArrayUtil.union(null, new String[]{"c"}));
+        assertEquals(0, StringArrayUtil.intersection(a, null).length);
+        assertArrayEquals(new String[]{"a", "b"}, StringArrayUtil.removeDuplicates(new String[]{"b", "a", "b"}));
+    }
+
+    private static String[] randomArray(final Random random, final int n, final int range, final boolean sorted) {
+        final String[] array = new String[n];
+        for (int i = 0; i < n; i++) {
+            array[i] = "tag-" + random.nextInt(Math.max(1, range));
+        }
+        if (sorted) {
+            Arrays.sort(array);
+        }
+        return array;
+    }
+
+}
@@ -0,0 +1,46 @@
+package kmw.utilities.core.base;
+
+import org.junit.Assume;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures heap allocation of the current thread, for tests asserting that a code path does not allocate. Tests using
+ * it are skipped on VMs without per-thread allocation counters.
+ */
+public final class Allocations {
+
+    private static final int ROUNDS = 5;
+
+    private Allocations() {
+    }
+
+    /**
+     * Run a task several times and get the fewest bytes a single run allocated, so that one-time costs like class
+     * loading and compilation don't count.
+     */
+    public static long allocatedBytes(final Runnable task) {
+        final com.sun.management.ThreadMXBean bean = threadMXBean();
+        final long tid = Thread.currentThread().getId();
+        long minAllocated = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            final long t0 = bean.getThreadAllocatedBytes(tid);
+            final long t1 = bean.getThreadAllocatedBytes(tid);
+            task.run();
+            final long t2 = bean.getThreadAllocatedBytes(tid);
+            // t1 - t0 is the cost of the measurement itself
+            minAllocated = Math.min(minAllocated, (t2 - t1) - (t1 - t0));
+        }
+        return minAllocated;
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean bean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean.isThreadAllocatedMemorySupported());
+        bean.setThreadAllocatedMemoryEnabled(true);
+        return bean;
+    }
+
+}
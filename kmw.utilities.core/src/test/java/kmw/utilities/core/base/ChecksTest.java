@@ -0,0 +1,48 @@
+package kmw.utilities.core.base;
+
+import kmw.utilities.core.strings.StringServiceUtil;
+import org.junit.Test;
+
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+public class ChecksTest {
+
+    private static final int ITERATIONS = 100_000;
+    private static final Function<String, String> IDENTITY = s -> s;
+
+    private static volatile Object sink;
+    private static volatile int intSink;
+
+    @Test
+    public void testFailureMessages() {
+        try {
+            Checks.checkNotNull(null, 2, "fn");
+            fail();
+        } catch (NullPointerException ex) {
+            assertEquals("Param-2: fn must not be null", ex.getMessage());
+        }
+        try {
+            Checks.checkNonNegative(-1, 2, "count");
+            fail();
+        } catch (IllegalArgumentException ex) {
+            assertEquals("Param-2: count must be positive", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void testSuccessPathDoesNotAllocate() {
+        assertEquals(0L, Allocations.allocatedBytes(ChecksTest::successPath));
+    }
+
+    private static void successPath() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink = Checks.checkNotNull(IDENTITY, 2, "fn");
+            intSink = Checks.checkNonNegative(i, 2, "count");
+            sink = StringServiceUtil.nvl("value", "default");
+            sink = StringServiceUtil.apply("value", IDENTITY);
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+package kmw.utilities.core.strings;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+
+import static kmw.utilities.core.strings.RandomStrings.randomString;
+import static org.junit.Assert.*;
+
+public class AhoCorasickTest {
+
+    private static final String ALPHABET = "ab\u00e4\u20ac";
+
+    @Test
+    public void testClassicExample() {
+        final AhoCorasick ac = AhoCorasick.of("he", "she", "his", "hers");
+        final List<AhoCorasick.Match> matches = ac.findAll("ushers");
+        assertEquals(3, matches.size());
+        assertEquals(new AhoCorasick.Match(1, 1, 4), matches.get(0));
+        assertEquals(new AhoCorasick.Match(0, 2, 4), matches.get(1));
+        assertEquals(new AhoCorasick.Match(3, 2, 6), matches.get(2));
+        assertEquals(new AhoCorasick.Match(1, 1, 4), ac.firstMatch("ushers"));
+        assertNull(ac.firstMatch("xyz"));
+        assertEquals(3, StringServiceUtil.countMatches("ushers", ac));
+    }
+
+    @Test
+    public void testUtf8Offsets() {
+        final AhoCorasick ac = AhoCorasick.of("\u00e4b", "b");
+        final byte[] utf8 = "x\u00e4b".getBytes(StandardCharsets.UTF_8);
+        assertEquals(2, ac.countIn(utf8, 0, utf8.length));
+        assertEquals(new AhoCorasick.Match(0, 1, 4), ac.firstMatch(utf8, 0, utf8.length));
+        assertEquals(0, ac.countIn(utf8, 0, 3));
+        assertEquals(1, ac.countIn(utf8, 3, 1));
+    }
+
+    @Test
+    public void testCountMatchesBruteForce() {
+        final Random random = new Random(1);
+        for (int round = 0; round < 200; round++) {
+            final String[] keywords = new String[1 + random.nextInt(10)];
+            for (int k = 0; k < keywords.length; k++) {
+                keywords[k] = randomString(random, ALPHABET, 1 + random.nextInt(4));
+            }
+            final String text = randomString(random, ALPHABET, random.nextInt(200));
+            final AhoCorasick ac = AhoCorasick.of(keywords);
+            int expected = 0;
+            for (int k = 0; k < keywords.length; k++) {
+                if (indexOf(keywords, keywords[k]) != k) continue;
+                for (int i = text.indexOf(keywords[k]); i >= 0; i = text.indexOf(keywords[k], i + 1)) {
+                    expected++;
+                }
+            }
+            assertEquals(expected, ac.countIn(text));
+            assertEquals(expected, ac.findAll(text).size());
+            final byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+            assertEquals(expected, ac.countIn(utf8, 0, utf8.length));
+        }
+    }
+
+    private static int indexOf(final String[] array, final String s) {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i].equals(s)) return i;
+        }
+        return -1;
+    }
+
+}
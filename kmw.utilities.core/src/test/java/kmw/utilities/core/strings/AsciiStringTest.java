@@ -0,0 +1,74 @@
+package kmw.utilities.core.strings;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class AsciiStringTest {
+
+    @Test
+    public void testBasics() {
+        final AsciiString s = AsciiString.of("  Hello, World  ");
+        assertEquals(16, s.length());
+        assertEquals('H', s.charAt(2));
+        final AsciiString stripped = s.strip();
+        assertEquals("Hello, World", stripped.toString());
+        assertSame(s.array(), stripped.array());
+        assertEquals(AsciiString.of("World"), stripped.subSequence(7, 12));
+        assertEquals(AsciiString.of("World").hashCode(), stripped.subSequence(7, 12).hashCode());
+        assertTrue(stripped.contentEquals("Hello, World"));
+        assertFalse(stripped.equals("Hello, World"));
+        assertEquals("hello, world", stripped.toLowerCase().toString());
+        final AsciiString lower = AsciiString.of("lower");
+        assertSame(lower, lower.toLowerCase());
+        assertTrue(stripped.startsWith(AsciiString.of("Hell")));
+        assertTrue(stripped.endsWith(AsciiString.of("ld")));
+        assertEquals(5, stripped.indexOf(','));
+        assertTrue(AsciiString.of("abc").compareTo(AsciiString.of("abd")) < 0);
+        assertTrue(AsciiString.of("ab").compareTo(AsciiString.of("abc")) < 0);
+        assertEquals(AsciiString.hash(stripped.array(), 2, 12), AsciiString.hash("Hello, World"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonAscii() {
+        AsciiString.of("gr\u00fc\u00df");
+    }
+
+    @Test
+    public void testCodecInterop() {
+        final byte[] bytes = {1, 2, (byte) 0xFE};
+        final AsciiString base64 = BinaryCodec.base64().encodeToAscii(bytes);
+        assertEquals("AQL+", base64.toString());
+        assertArrayEquals(bytes, BinaryCodec.base64().decode(base64));
+        assertArrayEquals(bytes, StringConvertUtil.fromHex(AsciiString.of("0102fe")));
+    }
+
+    @Test
+    public void testArena() {
+        final AsciiArena arena = new AsciiArena(2, 4);
+        final Set<String> expected = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            final String key = "key-" + (i % 700);
+            final int id = arena.add(key);
+            assertEquals(key, arena.get(id).toString());
+            expected.add(key);
+        }
+        assertEquals(expected.size(), arena.size());
+        assertEquals(42, arena.indexOf("key-42"));
+        assertEquals(42, arena.indexOf(AsciiString.of("key-42")));
+        final byte[] utf8 = "xkey-43x".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(43, arena.indexOf(utf8, 1, 6));
+        assertEquals(43, arena.add(utf8, 1, 6));
+        assertEquals(-1, arena.indexOf("missing"));
+        assertEquals(-1, arena.indexOf("k\u00e9y"));
+        arena.trimToSize();
+        assertEquals(700, arena.add("new-key"));
+        assertEquals("new-key", arena.get(700).toString());
+        assertEquals(7, arena.length(700));
+    }
+
+}
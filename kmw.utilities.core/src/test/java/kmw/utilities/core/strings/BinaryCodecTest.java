@@ -0,0 +1,98 @@
+package kmw.utilities.core.strings;
+
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class BinaryCodecTest {
+
+    @Test
+    public void testAgainstJdk() {
+        final Random random = new Random(42);
+        for (int len = 0; len < 50; len++) {
+            final byte[] bytes = new byte[len];
+            random.nextBytes(bytes);
+            final String base64 = Base64.getEncoder().encodeToString(bytes);
+            final String url = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+            assertEquals(base64, BinaryCodec.base64().encode(bytes));
+            assertEquals(url, BinaryCodec.base64Url().withoutPadding().encode(bytes));
+            assertEquals(url, StringConvertUtil.toBase64Url(bytes));
+            assertArrayEquals(bytes, BinaryCodec.base64().decode(base64));
+            assertArrayEquals(bytes, BinaryCodec.base64().withoutPadding().decode(base64));
+            assertArrayEquals(bytes, StringConvertUtil.fromBase64Url(url));
+            final String hex = StringConvertUtil.toHex(bytes);
+            assertEquals(2 * len, hex.length());
+            assertArrayEquals(bytes, StringConvertUtil.fromHex(hex.toUpperCase()));
+        }
+    }
+
+    @Test
+    public void testTargets() throws Exception {
+        final byte[] bytes = "hello".getBytes(StandardCharsets.US_ASCII);
+        assertEquals("68656c6c6f", BinaryCodec.hex().encode(bytes));
+        assertEquals("656C6C", BinaryCodec.upperHex().encode(bytes, 1, 3));
+
+        final char[] chars = new char[10];
+        assertEquals(8, BinaryCodec.base64().encode(bytes, 0, 5, chars, 2));
+        assertEquals("aGVsbG8=", new String(chars, 2, 8));
+
+        final byte[] ascii = new byte[8];
+        BinaryCodec.base64().encode(bytes, 0, 5, ascii, 0);
+        assertEquals("aGVsbG8=", new String(ascii, StandardCharsets.US_ASCII));
+        final byte[] decoded = new byte[5];
+        assertEquals(5, BinaryCodec.base64().decode(ascii, 0, 8, decoded, 0));
+        assertArrayEquals(bytes, decoded);
+
+        final StringWriter writer = new StringWriter();
+        BinaryCodec.hex().encode(ByteBuffer.allocateDirect(2).put((byte) 1).put((byte) -1).flip(), writer);
+        assertEquals("01ff", writer.toString());
+        assertEquals("x:aGVs", BinaryCodec.base64().encode(bytes, 0, 3, new StringBuilder("x:")).toString());
+
+        final ByteBuffer target = ByteBuffer.allocate(8);
+        BinaryCodec.base64().encode(ByteBuffer.wrap(bytes), target);
+        assertEquals(8, target.position());
+        assertEquals(5, BinaryCodec.base64().decode("aGVsbG8", ByteBuffer.allocateDirect(5)).position());
+    }
+
+    @Test
+    public void testInvalidInput() {
+        for (final String invalid : new String[]{"a", "a=", "aGVsbG8==", "aGV$", "aGVsb", "aG Vs", "===="}) {
+            try {
+                BinaryCodec.base64().decode(invalid);
+                fail(invalid);
+            } catch (IllegalArgumentException expected) {
+                // expected
+            }
+        }
+        try {
+            StringConvertUtil.fromHex("0g");
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Invalid hex input at index 1", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testEncodingStream() throws Exception {
+        final byte[] bytes = new byte[10000];
+        new Random(7).nextBytes(bytes);
+        final StringWriter writer = new StringWriter();
+        try (OutputStream out = BinaryCodec.base64().encodingStream(writer)) {
+            out.write(bytes, 0, 1);
+            out.write(bytes[1]);
+            out.flush();
+            out.write(bytes, 2, 5000);
+            out.flush();
+            out.write(bytes, 5002, bytes.length - 5002);
+        }
+        assertEquals(Base64.getEncoder().encodeToString(bytes), writer.toString());
+    }
+
+}
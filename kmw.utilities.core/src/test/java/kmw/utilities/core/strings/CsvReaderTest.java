@@ -0,0 +1,180 @@
+package kmw.utilities.core.strings;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class CsvReaderTest {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        final Random random = new Random(23);
+        for (int round = 0; round < 200; round++) {
+            final List<List<String>> records = new ArrayList<>();
+            final StringBuilder csv = new StringBuilder();
+            final int count = 1 + random.nextInt(20);
+            for (int r = 0; r < count; r++) {
+                final List<String> record = new ArrayList<>();
+                final int fields = 1 + random.nextInt(6);
+                for (int f = 0; f < fields; f++) {
+                    final String field = randomField(random);
+                    record.add(field);
+                    if (f > 0) {
+                        csv.append(';');
+                    }
+                    if (random.nextInt(4) == 0 || fields == 1 && field.isEmpty()) {
+                        // a lone empty field must be quoted to count as a record at the end of the input
+                        csv.append('"').append(field.replace("\"", "\"\"")).append('"');
+                    } else {
+                        Escaper.csv(';').escape(field, csv);
+                    }
+                }
+                records.add(record);
+                csv.append(r < count - 1 || random.nextBoolean() ? random.nextBoolean() ? "\r\n" : "\n" : "");
+            }
+            final String text = csv.toString();
+            assertEquals(text, records, readAll(CsvReader.of(new ChoppyReader(text, random)).delimiter(';')));
+            assertEquals(records, readAll(CsvReader.of(CharBuffer.wrap(text)).delimiter(';')));
+            final byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+            final ByteBuffer direct = ByteBuffer.allocateDirect(utf8.length).put(utf8);
+            direct.flip();
+            assertEquals(records, readAll(CsvReader.of(direct, StandardCharsets.UTF_8).delimiter(';')));
+            assertEquals(0, direct.position());
+        }
+    }
+
+    @Test
+    public void testLongRecord() throws IOException {
+        final String big = StringServiceUtil.repeat("x\"", 20_000);
+        final String text = "a,\"" + big.replace("\"", "\"\"") + "\",b\rc";
+        final CsvReader reader = CsvReader.of(text.getBytes(StandardCharsets.US_ASCII), 0, text.length(),
+                StandardCharsets.US_ASCII);
+        assertTrue(reader.next());
+        assertEquals(3, reader.fieldCount());
+        assertEquals(big, reader.getString(1));
+        assertTrue(reader.fieldEquals(2, "b"));
+        assertTrue(reader.next());
+        assertEquals("c", reader.field(0).toString());
+        assertEquals(2, reader.recordNumber());
+        assertFalse(reader.next());
+    }
+
+    @Test(timeout = 10_000)
+    public void testSurrogatePairAtWindowBoundary() throws IOException {
+        for (int n = CsvReader.DEFAULT_CHUNK_SIZE - 3; n <= CsvReader.DEFAULT_CHUNK_SIZE + 1; n++) {
+            final String field = StringServiceUtil.repeat("x", n) + "\uD83D\uDE00";
+            for (final String text : new String[]{field + ",b\n", "a\n" + field + ",b\n"}) {
+                final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+                final CsvReader reader = CsvReader.of(bytes, 0, bytes.length, StandardCharsets.UTF_8);
+                assertTrue(reader.next());
+                if (text.startsWith("a")) {
+                    assertTrue(reader.next());
+                }
+                assertEquals(field, reader.getString(0));
+                assertEquals("b", reader.getString(1));
+                assertFalse(reader.next());
+            }
+        }
+    }
+
+    @Test
+    public void testAccessors() throws IOException {
+        final CsvReader reader = CsvReader.of(new StringReader(
+                "42,-9223372036854775808,-1234.56,1e3,\"7\",,abc\n,x\n\n"));
+        assertTrue(reader.next());
+        assertEquals(42, reader.getInt(0));
+        assertEquals(Long.MIN_VALUE, reader.getLong(1));
+        assertEquals(-1234.56, reader.getDouble(2), 0.0);
+        assertEquals(1000.0, reader.getDouble(3), 0.0);
+        assertEquals(7, reader.getInt(4));
+        assertTrue(reader.isEmpty(5));
+        assertSame(reader.getInterned(6), reader.getInterned(6));
+        try {
+            reader.getInt(1);
+            fail();
+        } catch (NumberFormatException expected) {
+            assertTrue(expected.getMessage().contains("record 1"));
+        }
+        final CharSequence view = reader.field(0);
+        assertTrue(reader.next());
+        assertSame(view, reader.field(0));
+        assertEquals(0, view.length());
+        assertEquals("x", reader.field(1).toString());
+        assertTrue(reader.next());
+        assertEquals(1, reader.fieldCount());
+        assertFalse(reader.next());
+    }
+
+    @Test
+    public void testLenientQuotes() throws IOException {
+        final CsvReader reader = CsvReader.of(CharBuffer.wrap("a\"b,\"c\"d,\"e"));
+        assertTrue(reader.next());
+        assertEquals("a\"b", reader.getString(0));
+        assertEquals("cd", reader.getString(1));
+        assertEquals("e", reader.getString(2));
+    }
+
+    private static List<List<String>> readAll(final CsvReader reader) throws IOException {
+        final List<List<String>> records = new ArrayList<>();
+        try (CsvReader csv = reader) {
+            while (csv.next()) {
+                final List<String> record = new ArrayList<>();
+                for (int i = 0; i < csv.fieldCount(); i++) {
+                    record.add(csv.field(i).toString());
+                }
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private static String randomField(final Random random) {
+        final String alphabet = "ab;\"\r\n \u00e4\u20ac";
+        final StringBuilder sb = new StringBuilder();
+        final int length = random.nextInt(4) == 0 ? random.nextInt(12_000) : random.nextInt(8);
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns few characters per read to move records across buffer refills.
+     */
+    private static final class ChoppyReader extends Reader {
+        private final String text;
+        private final Random random;
+        private int pos;
+
+        ChoppyReader(final String text, final Random random) {
+            this.text = text;
+            this.random = random;
+        }
+
+        @Override
+        public int read(final char[] cbuf, final int off, final int len) {
+            if (pos == text.length()) {
+                return -1;
+            }
+            final int n = Math.min(Math.min(len, 1 + random.nextInt(7)), text.length() - pos);
+            text.getChars(pos, pos + n, cbuf, off);
+            pos += n;
+            return n;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+}
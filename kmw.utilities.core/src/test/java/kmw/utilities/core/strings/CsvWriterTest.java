@@ -0,0 +1,115 @@
+package kmw.utilities.core.strings;
+
+import kmw.utilities.core.arrays.StringArrayUtil;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class CsvWriterTest {
+
+    @Test
+    public void testNumbers() throws IOException {
+        final Random random = new Random(41);
+        final long[] longs = new long[1000];
+        final double[] doubles = new double[1000];
+        for (int i = 0; i < longs.length; i++) {
+            longs[i] = random.nextLong() >> random.nextInt(64);
+            doubles[i] = Double.longBitsToDouble(random.nextLong());
+        }
+        longs[0] = Long.MIN_VALUE;
+        longs[1] = Long.MAX_VALUE;
+        longs[2] = 0;
+        doubles[0] = Double.NaN;
+        doubles[1] = -0.0;
+        final StringWriter writer = new StringWriter();
+        try (CsvWriter csv = CsvWriter.to(writer).lineSeparator("\n")) {
+            csv.writeRow(longs).writeRow(doubles).writeRow(new int[]{Integer.MIN_VALUE, 7});
+        }
+        final String[] lines = writer.toString().split("\n");
+        assertEquals(join(Arrays.stream(longs).mapToObj(String::valueOf).toArray()), lines[0]);
+        assertEquals(join(Arrays.stream(doubles).mapToObj(String::valueOf).toArray()), lines[1]);
+        assertEquals(Integer.MIN_VALUE + ",7", lines[2]);
+    }
+
+    @Test
+    public void testRoundTripThroughStream() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final String text = StringServiceUtil.repeat("x,\"\ud83d\ude00\"\n", 3000);
+        try (CsvWriter csv = CsvWriter.to(bytes, StandardCharsets.UTF_8).delimiter(';')) {
+            for (int i = 0; i < 100; i++) {
+                csv.field(i).field(text).field(null).field(1.5).field(true).endRow();
+            }
+            assertEquals(100, csv.rowCount());
+        }
+        final CsvReader reader = CsvReader.of(ByteBuffer.wrap(bytes.toByteArray()), StandardCharsets.UTF_8)
+                .delimiter(';');
+        for (int i = 0; i < 100; i++) {
+            assertTrue(reader.next());
+            assertEquals(5, reader.fieldCount());
+            assertEquals(i, reader.getInt(0));
+            assertTrue(reader.fieldEquals(1, text));
+            assertTrue(reader.isEmpty(2));
+            assertEquals(1.5, reader.getDouble(3), 0.0);
+            assertEquals("true", reader.getString(4));
+        }
+        assertFalse(reader.next());
+    }
+
+    @Test
+    public void testPrefixAndSuffix() throws IOException {
+        final Object[] values = {"a", 1, null, 'c'};
+        final StringWriter writer = new StringWriter();
+        try (CsvWriter csv = CsvWriter.to(writer).delimiter('|').prefix("<").suffix(">").unescaped()) {
+            csv.writeRow(Arrays.asList(values));
+        }
+        assertEquals(StringArrayUtil.collectionToCsv(Arrays.asList("a", 1, "", 'c'), "|", "<", ">") + "\r\n",
+                writer.toString());
+    }
+
+    @Test
+    public void testFloats() throws IOException {
+        final List<Object> values = Arrays.asList(0.1f, 3.3f, -0.0f, Float.MAX_VALUE, 0.1, 1.5f);
+        final StringWriter writer = new StringWriter();
+        try (CsvWriter csv = CsvWriter.to(writer)) {
+            csv.writeRow(values).field(0.1f).field(2.7f).endRow();
+        }
+        assertEquals(StringArrayUtil.collectionToCsv(values, ",", "", "") + "\r\n0.1,2.7\r\n", writer.toString());
+    }
+
+    @Test
+    public void testByteBuffer() throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(64);
+        buffer.put((byte) '#');
+        final CsvWriter csv = CsvWriter.to(buffer, StandardCharsets.ISO_8859_1);
+        csv.writeRow("a b", "c,d", -42L).close();
+        assertEquals("#a b,\"c,d\",-42\r\n", new String(buffer.array(), 0, buffer.position(),
+                StandardCharsets.ISO_8859_1));
+        final CsvWriter small = CsvWriter.to(ByteBuffer.allocate(4), StandardCharsets.US_ASCII);
+        try {
+            small.writeRow("too long for the buffer").flush();
+            fail();
+        } catch (BufferOverflowException expected) {
+            // the buffer is full
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testLateConfiguration() throws IOException {
+        CsvWriter.to(new StringWriter()).field(1).delimiter(';');
+    }
+
+    private static String join(final Object[] values) {
+        return StringArrayUtil.arrayToCsv(values);
+    }
+
+}
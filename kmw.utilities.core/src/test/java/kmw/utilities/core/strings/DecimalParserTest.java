@@ -0,0 +1,57 @@
+package kmw.utilities.core.strings;
+
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DecimalParserTest {
+
+    @Test
+    public void testParseLong() {
+        assertEquals(0L, DecimalParser.parseLong("-0"));
+        assertEquals(42L, DecimalParser.parseLong("+42"));
+        assertEquals(Long.MIN_VALUE, DecimalParser.parseLong(Long.toString(Long.MIN_VALUE)));
+        assertEquals(Long.MAX_VALUE, DecimalParser.parseLong(new StringBuilder().append(Long.MAX_VALUE)));
+        assertEquals(Integer.MIN_VALUE, DecimalParser.parseInt(Integer.toString(Integer.MIN_VALUE)));
+        NumberFormatException first = null;
+        for (final String invalid : new String[]{"", "-", "+", "1.0", " 1", "9223372036854775808", "1e3"}) {
+            try {
+                DecimalParser.parseLong(invalid);
+                fail(invalid);
+            } catch (NumberFormatException expected) {
+                // failures are signalled by one shared instance without stack trace
+                assertSame(first != null ? first : (first = expected), expected);
+                assertEquals(0, expected.getStackTrace().length);
+            }
+        }
+        try {
+            DecimalParser.parseInt("2147483648");
+            fail();
+        } catch (NumberFormatException expected) {
+            assertSame(first, expected);
+        }
+    }
+
+    @Test
+    public void testParseDouble() {
+        final Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            final double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12));
+            final String s = String.format(Locale.ROOT, "%.6f", value);
+            assertEquals(s, Double.parseDouble(s), DecimalParser.parseDouble(s), 0.0);
+        }
+        assertEquals(1.5e300, DecimalParser.parseDouble("1.5e300"), 0.0);
+        assertEquals(0.1, DecimalParser.parseDouble(".1"), 0.0);
+        assertEquals(12345678901234567890.0, DecimalParser.parseDouble("12345678901234567890"), 0.0);
+        assertTrue(Double.isNaN(DecimalParser.parseDouble("NaN")));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testParseDoubleInvalid() {
+        DecimalParser.parseDouble("1.2.3");
+    }
+
+}
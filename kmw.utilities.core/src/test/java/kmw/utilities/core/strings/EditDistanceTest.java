@@ -0,0 +1,75 @@
+package kmw.utilities.core.strings;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static kmw.utilities.core.strings.RandomStrings.randomString;
+import static org.junit.Assert.*;
+
+public class EditDistanceTest {
+
+    private static final String ALPHABET = "abcd\u00e4\u00f6";
+
+    @Test
+    public void testKnownDistances() {
+        assertEquals(3, EditDistance.levenshtein("kitten", "sitting"));
+        assertEquals(0, EditDistance.levenshtein("", ""));
+        assertEquals(4, EditDistance.levenshtein("", "abcd"));
+        assertEquals(1, EditDistance.levenshtein("M\u00fcller", "Muller"));
+        assertEquals(3, EditDistance.levenshtein("kitten", "sitting", 3));
+        assertEquals(EditDistance.EXCEEDED, EditDistance.levenshtein("kitten", "sitting", 2));
+    }
+
+    @Test
+    public void testAgainstMatrix() {
+        final Random random = new Random(11);
+        for (int round = 0; round < 3000; round++) {
+            final String a = randomString(random, ALPHABET, random.nextInt(round % 10 == 0 ? 300 : 20));
+            final String b = randomString(random, ALPHABET, random.nextInt(round % 10 == 0 ? 300 : 20));
+            final int expected = matrix(a, b);
+            assertEquals(a + " / " + b, expected, EditDistance.levenshtein(a, b));
+            final int k = random.nextInt(expected + 3);
+            assertEquals(expected <= k ? expected : EditDistance.EXCEEDED, EditDistance.levenshtein(a, b, k));
+        }
+    }
+
+    @Test
+    public void testBatch() {
+        final Random random = new Random(5);
+        final String[] dictionary = new String[5000];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = randomString(random, ALPHABET, 3 + random.nextInt(8));
+        }
+        dictionary[4321] = "Schmidt";
+        final EditDistance.Query query = EditDistance.compile("Schmitt");
+        final int[] distances = query.distances(dictionary, 2);
+        for (int i = 0; i < dictionary.length; i++) {
+            final int expected = matrix("Schmitt", dictionary[i]);
+            assertEquals(expected <= 2 ? expected : EditDistance.EXCEEDED, distances[i]);
+        }
+        assertEquals(4321, EditDistance.closest("Schmitt", dictionary, 1));
+        assertEquals("Schmidt", EditDistance.closestMatch("Schmitt", dictionary, 1));
+        assertArrayEquals(new int[] {4321}, query.indicesWithin(dictionary, 1));
+    }
+
+    private static int matrix(final String a, final String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                final int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+            final int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+}
@@ -0,0 +1,47 @@
+package kmw.utilities.core.strings;
+
+import kmw.utilities.core.arrays.StringArrayUtil;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class EscaperTest {
+
+    @Test
+    public void testJson() {
+        final String plain = "plain \u00e4 text";
+        assertSame(plain, Escaper.json().escape(plain));
+        assertEquals("a\\\"b\\\\c\\n\\u0001", Escaper.json().escape("a\"b\\c\n\u0001"));
+        assertEquals(1, Escaper.json().indexOfFirstEscape("a\"b"));
+    }
+
+    @Test
+    public void testHtml() throws Exception {
+        assertEquals("&lt;a href=&quot;x&quot;&gt;Tom &amp; Jerry&#39;s&lt;/a&gt;",
+                Escaper.html().escape("<a href=\"x\">Tom & Jerry's</a>"));
+        final StringWriter writer = new StringWriter();
+        Escaper.html().escape("1 < 2", writer).append('|');
+        Escaper.html().escape("ok", writer);
+        assertEquals("1 &lt; 2|ok", writer.toString());
+    }
+
+    @Test
+    public void testCsv() {
+        final String plain = "value";
+        assertSame(plain, Escaper.csv().escape(plain));
+        assertEquals("\"a,b\"", Escaper.csv().escape("a,b"));
+        assertEquals("\"say \"\"hi\"\"\"", Escaper.csv().escape("say \"hi\""));
+        assertEquals("\"line\r\nbreak\"", Escaper.csv().escape("line\r\nbreak"));
+        assertEquals("a,b", Escaper.csv(';').escape("a,b"));
+        assertEquals("\"a;b\"", Escaper.csv(';').escape("a;b"));
+        final StringBuilder sb = new StringBuilder("x=");
+        assertSame(sb, Escaper.csv().escape("1,5", sb));
+        assertEquals("x=\"1,5\"", sb.toString());
+        assertEquals("1,\"a,b\",,\"q\"\"\"", StringArrayUtil.arrayToEscapedCsv(new Object[] {1, "a,b", null, "q\""}));
+        assertEquals("a;\"b;c\"", StringArrayUtil.collectionToEscapedCsv(Arrays.asList("a", "b;c"), ';'));
+    }
+
+}
@@ -0,0 +1,89 @@
+package kmw.utilities.core.strings;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.junit.Assert.*;
+
+public class FileLinesTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSmallFiles() throws Exception {
+        assertLines("");
+        assertLines("\n", "");
+        assertLines("a", "a");
+        assertLines("a\r\nb\n\nc", "a", "b", "", "c");
+        assertLines("a\r\n\u00e4\u20ac\r\n\r\n", "a", "\u00e4\u20ac", "");
+        assertLines("\r\r\n\r", "\r", "\r");
+    }
+
+    @Test
+    public void testTrailingEmptyLines() throws Exception {
+        // unlike StringServiceUtil.lines, only the last newline is dropped, as with JDK 11's String.lines()
+        final String content = "a\n\n";
+        assertLines(content, "a", "");
+        assertEquals(List.of("a"), StringServiceUtil.lines(content).collect(Collectors.toList()));
+        assertEquals(List.of(""), StringServiceUtil.lines("").collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testSegmentBoundaries() throws Exception {
+        final Random random = new Random(3);
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            sb.append(StringServiceUtil.repeat("x\u00e4", random.nextInt(50))).append(random.nextBoolean() ? "\n" : "\r\n");
+        }
+        final Path path = write(sb.toString());
+        final FileLines.MappedFile file = FileLines.MappedFile.map(path, 6);
+        assertEquals(500, file.count(0, file.size));
+        final List<String> lines = StreamSupport.stream(FileLines.lineRanges(path, 6), false)
+                .map(line -> line.toString(StandardCharsets.UTF_8))
+                .collect(Collectors.toList());
+        assertEquals(StringServiceUtil.lines(sb.toString()).collect(Collectors.toList()), lines);
+    }
+
+    @Test
+    public void testParallel() throws Exception {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 400_000; i++) {
+            sb.append(i).append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        final Path path = write(sb.toString());
+        assertEquals(400_000, FileLines.countNewlines(path));
+        assertEquals(400_000, FileLines.countNewlinesParallel(path));
+        final List<String> lines;
+        try (Stream<String> stream = FileLines.lines(path, StandardCharsets.US_ASCII)) {
+            lines = stream.parallel().collect(Collectors.toList());
+        }
+        assertEquals(400_000, lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            assertEquals(Integer.toString(i), lines.get(i));
+        }
+    }
+
+    private void assertLines(final String content, final String... expected) throws Exception {
+        final Path path = write(content);
+        assertEquals(StringServiceUtil.countNewlines(content), FileLines.countNewlines(path));
+        assertEquals(List.of(expected), FileLines.lines(path, StandardCharsets.UTF_8).collect(Collectors.toList()));
+    }
+
+    private Path write(final String content) throws Exception {
+        final Path path = folder.newFile().toPath();
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+        return path;
+    }
+
+}
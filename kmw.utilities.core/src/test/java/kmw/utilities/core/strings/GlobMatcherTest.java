@@ -0,0 +1,77 @@
+package kmw.utilities.core.strings;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static kmw.utilities.core.strings.RandomStrings.randomString;
+import static org.junit.Assert.*;
+
+public class GlobMatcherTest {
+
+    @Test
+    public void testMatcher() {
+        assertTrue(GlobMatcher.compile("*.csv").matches("report.csv"));
+        assertFalse(GlobMatcher.compile("*.csv").matches("report.csv.bak"));
+        assertTrue(GlobMatcher.compile("a*b*c").matches("abc"));
+        assertFalse(GlobMatcher.compile("a*a").matches("a"));
+        assertTrue(GlobMatcher.compile("/api/?/items/*").matches("/api/1/items/42"));
+        assertTrue(GlobMatcher.compile("what\\?").matches("what?"));
+        assertFalse(GlobMatcher.compile("what\\?").matches("whatx"));
+        assertTrue(GlobMatcher.compile("").matches(""));
+        assertTrue(GlobMatcher.compile("*").matches(""));
+        // a pathological case for backtracking regex engines
+        assertFalse(GlobMatcher.compile("a*a*a*a*a*a*a*b").matches(StringServiceUtil.repeat("a", 10_000)));
+    }
+
+    @Test
+    public void testAgainstRegex() {
+        final Random random = new Random(9);
+        for (int round = 0; round < 5000; round++) {
+            final String glob = randomString(random, "ab*?", random.nextInt(6));
+            final String input = randomString(random, "ab", random.nextInt(8));
+            assertEquals(glob + " ~ " + input, toRegex(glob).matcher(input).matches(),
+                    GlobMatcher.compile(glob).matches(input));
+        }
+    }
+
+    @Test
+    public void testGlobSet() {
+        final Random random = new Random(13);
+        final List<String> globs = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            globs.add(randomString(random, "ab.*?", random.nextInt(6)));
+        }
+        globs.add("*.csv");
+        globs.add("*.tar.gz");
+        final GlobSet set = GlobSet.of(globs);
+        assertEquals(globs.size(), set.size());
+        for (int round = 0; round < 2000; round++) {
+            final String input = round % 100 == 0 ? "x.tar.gz" : randomString(random, "ab.", random.nextInt(8));
+            final List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < globs.size(); i++) {
+                if (GlobMatcher.compile(globs.get(i)).matches(input)) {
+                    expected.add(i);
+                }
+            }
+            final int[] actual = set.matchingRules(input);
+            assertEquals(input, expected.toString(), Arrays.toString(actual));
+            assertEquals(expected.isEmpty() ? -1 : (int) expected.get(0), set.firstMatch(input));
+        }
+        final int[] csv = set.matchingRules("data.csv");
+        assertEquals(globs.size() - 2, csv[csv.length - 1]);
+    }
+
+    private static Pattern toRegex(final String glob) {
+        final StringBuilder sb = new StringBuilder();
+        for (final char c : glob.toCharArray()) {
+            sb.append(c == '*' ? ".*" : c == '?' ? "." : Pattern.quote(String.valueOf(c)));
+        }
+        return Pattern.compile(sb.toString(), Pattern.DOTALL);
+    }
+
+}
@@ -0,0 +1,121 @@
+package kmw.utilities.core.strings;
+
+import kmw.utilities.core.base.Allocations;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static kmw.utilities.core.strings.IsoDateParser.INVALID;
+import static org.junit.Assert.*;
+
+public class IsoDateParserTest {
+
+    private static final TimeZone BERLIN = TimeZone.getTimeZone("Europe/Berlin");
+
+    private static final byte[] OFFSET_BYTES = "2021-03-28T01:30:15+01:00".getBytes(StandardCharsets.US_ASCII);
+
+    private static volatile long sink;
+
+    @Test
+    public void testDates() {
+        final Random random = new Random(5);
+        for (int i = 0; i < 10_000; i++) {
+            final LocalDate date = LocalDate.ofEpochDay(random.nextInt(3_652_059) - 719_528);
+            final String text = date.toString();
+            assertEquals(text, date.toEpochDay(), IsoDateParser.parseEpochDay(text));
+            final byte[] bytes = ("[" + text + "]").getBytes(StandardCharsets.US_ASCII);
+            assertEquals(date.toEpochDay(), IsoDateParser.parseEpochDay(bytes, 1, 10));
+        }
+        assertEquals(0, StringConvertUtil.parseIsoDate("1970-01-01"));
+        assertEquals(INVALID, IsoDateParser.parseEpochDay("2019-02-29"));
+        assertEquals(INVALID, IsoDateParser.parseEpochDay("2019-13-01"));
+        assertEquals(INVALID, IsoDateParser.parseEpochDay("2019/01/01"));
+        assertEquals(INVALID, IsoDateParser.parseEpochDay("2019-1-01"));
+        assertEquals(INVALID, IsoDateParser.parseEpochDay(""));
+    }
+
+    @Test
+    public void testRoundTripWithDefaultZone() {
+        final Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            final long millis = (random.nextLong() % 4_000_000_000_000L) / 1000 * 1000;
+            final String text = StringConvertUtil.isoDateTimeString(new Date(millis));
+            assertEquals(text, millis, StringConvertUtil.parseIsoDateTime(text));
+            assertEquals(millis / 1000, IsoDateParser.parseEpochSecond(text));
+        }
+    }
+
+    @Test
+    public void testOffsetsAndFractions() {
+        final String[] samples = {
+                "2020-02-29T23:59:59Z", "2020-02-29T23:59:59.5+01:00", "1969-12-31T23:59:59.999999999-0530",
+                "2038-01-19T03:14:07.12+14", "0001-01-01T00:00Z", "9999-12-31T23:59:59.123-18:00"};
+        for (final String text : samples) {
+            final long expected = OffsetDateTime.parse(normalize(text)).toInstant().toEpochMilli();
+            assertEquals(text, expected, IsoDateParser.parseEpochMilli(text, BERLIN));
+            assertEquals(Math.floorDiv(expected, 1000), IsoDateParser.parseEpochSecond(text, BERLIN));
+            final byte[] bytes = (" " + text).getBytes(StandardCharsets.US_ASCII);
+            assertEquals(expected, IsoDateParser.parseEpochMilli(bytes, 1, text.length(), BERLIN));
+        }
+    }
+
+    @Test
+    public void testLocalTimesInZone() {
+        // 02:30 does not exist on the day daylight saving starts, and 02:30 is ambiguous when it ends
+        assertEquals(OffsetDateTime.parse("2021-03-28T03:30+02:00").toInstant().toEpochMilli(),
+                IsoDateParser.parseEpochMilli("2021-03-28T02:30", BERLIN));
+        assertEquals(OffsetDateTime.parse("2021-10-31T02:30+01:00").toInstant().toEpochMilli(),
+                IsoDateParser.parseEpochMilli("2021-10-31T02:30:00", BERLIN));
+        assertEquals(OffsetDateTime.parse("2021-07-01T12:00+02:00").toInstant().toEpochMilli(),
+                IsoDateParser.parseEpochMilli("2021-07-01T12:00:00.000", BERLIN));
+    }
+
+    @Test
+    public void testInvalidDateTimes() {
+        final String[] samples = {
+                "2021-07-01", "2021-07-01T24:00", "2021-07-01T12:60", "2021-07-01T12:00:60", "2021-07-01 12:00",
+                "2021-07-01T12:00:", "2021-07-01T12:00:00.", "2021-07-01T12:00:00.1234567890",
+                "2021-07-01T12:00+1", "2021-07-01T12:00+19", "2021-07-01T12:00+01:", "2021-07-01T12:00Z ",
+                "2021-07-01T12:00X", "2021-02-30T12:00Z"};
+        for (final String text : samples) {
+            assertEquals(text, INVALID, IsoDateParser.parseEpochMilli(text, BERLIN));
+            assertEquals(text, INVALID, IsoDateParser.parseEpochSecond(text, BERLIN));
+        }
+    }
+
+    @Test
+    public void testParsingDoesNotAllocate() {
+        assertEquals(0L, Allocations.allocatedBytes(IsoDateParserTest::parseMany));
+    }
+
+    private static void parseMany() {
+        final String utc = "2021-03-28T01:30:15.250Z";
+        final byte[] offset = OFFSET_BYTES;
+        final String local = "2021-03-28T02:30:15";
+        for (int i = 0; i < 100_000; i++) {
+            sink = IsoDateParser.parseEpochMilli(utc);
+            sink += IsoDateParser.parseEpochSecond(offset, 0, offset.length);
+            sink += IsoDateParser.parseEpochMilli(local, BERLIN);
+            sink += StringConvertUtil.parseIsoDateTime(utc);
+            sink += IsoDateParser.parseEpochDay(offset, 0, 10);
+        }
+    }
+
+    private static String normalize(final String text) {
+        // java.time wants +HH:mm offsets
+        final int sign = Math.max(text.lastIndexOf('+'), text.lastIndexOf('-'));
+        if (sign < 10) {
+            return text;
+        }
+        final String offset = text.substring(sign + 1);
+        final String hhmm = offset.length() == 2 ? offset + ":00"
+                : offset.length() == 4 ? offset.substring(0, 2) + ":" + offset.substring(2) : offset;
+        return text.substring(0, sign + 1) + hhmm;
+    }
+
+}
@@ -0,0 +1,41 @@
+package kmw.utilities.core.strings;
+
+import java.util.Random;
+
+/**
+ * Random input for the randomized tests of this package.
+ */
+final class RandomStrings {
+
+    private RandomStrings() {
+    }
+
+    /**
+     * Get a string of {@code length} chars drawn uniformly from an alphabet.
+     */
+    static String randomString(final Random random, final String alphabet, final int length) {
+        final StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Get a string of {@code length} code points, mostly ASCII, the rest spread over the 2-, 3- and 4-byte ranges of
+     * UTF-8.
+     */
+    static String randomUnicode(final Random random, final int length) {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            switch (random.nextInt(6)) {
+                case 0: sb.append((char) (0x80 + random.nextInt(0x780))); break;
+                case 1: sb.append((char) (0x800 + random.nextInt(0xF000))); break;
+                case 2: sb.appendCodePoint(0x10000 + random.nextInt(0x100000)); break;
+                default: sb.append((char) random.nextInt(0x80)); break;
+            }
+        }
+        return sb.toString();
+    }
+
+}
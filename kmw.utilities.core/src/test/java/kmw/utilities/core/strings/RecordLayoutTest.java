@@ -0,0 +1,88 @@
+package kmw.utilities.core.strings;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class RecordLayoutTest {
+
+    private static byte[] ascii(final String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    public void testFixedWidth() {
+        final RecordLayout layout = RecordLayout.fixedWidth()
+                .field("id", 0, 6)
+                .field("name", 6, 10)
+                .field("amount", 16, 10)
+                .build();
+        assertEquals(2, layout.indexOf("amount"));
+        assertEquals(-1, layout.indexOf("missing"));
+        final RecordLayout.Cursor cursor = layout.cursor();
+
+        cursor.reset(ascii("000042Alice     -001234.50"));
+        assertEquals(42, cursor.getInt(0));
+        assertEquals("Alice", cursor.field(1).toString());
+        assertTrue(cursor.fieldEquals(1, "Alice"));
+        assertEquals(-1234.5, cursor.getDouble(2), 0.0);
+
+        final CharSequence name = cursor.field(1);
+        cursor.reset(ByteBuffer.allocateDirect(20).put(ascii("  7   Bob")).flip());
+        assertEquals(7L, cursor.getLong(0));
+        assertSame(name, cursor.field(1));
+        assertEquals("Bob", name.toString());
+        assertTrue(cursor.isEmpty(2));
+        assertEquals(3, cursor.fieldCount());
+    }
+
+    @Test
+    public void testDelimited() {
+        final RecordLayout layout = RecordLayout.delimited('|', "a", "b");
+        final RecordLayout.Cursor cursor = layout.cursor();
+        final byte[] record = ascii("xx|1|two||9223372036854775807|-9223372036854775808|0.1|1e3|yy");
+        cursor.reset(record, 3, record.length - 6);
+        assertEquals(1, cursor.getInt(0));
+        assertEquals("two", cursor.field(1).toString());
+        assertEquals('w', cursor.field(1).charAt(1));
+        assertTrue(cursor.isEmpty(2));
+        assertEquals(Long.MAX_VALUE, cursor.getLong(3));
+        assertEquals(Long.MIN_VALUE, cursor.getLong(4));
+        assertEquals(0.1, cursor.getDouble(5), 0.0);
+        assertEquals(1000.0, cursor.getDouble(6), 0.0);
+        assertEquals(7, cursor.fieldCount());
+        assertEquals("two", cursor.getString(1, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testDoubles() {
+        final RecordLayout.Cursor cursor = RecordLayout.delimited(',').cursor();
+        for (final String value : new String[]{"0", "-0.0", "123456789.012345", "0.000000000000000000001234",
+                "1234567890123456789", "3.14159", ".5", "5."}) {
+            assertEquals(value, Double.parseDouble(value), cursor.reset(ascii(value)).getDouble(0), 0.0);
+        }
+    }
+
+    @Test
+    public void testInvalidNumbers() {
+        final RecordLayout.Cursor cursor = RecordLayout.delimited(',').cursor();
+        for (final String value : new String[]{"", "-", "1x", "2147483648", "9223372036854775808", "."}) {
+            try {
+                cursor.reset(ascii(value)).getInt(0);
+                fail(value);
+            } catch (NumberFormatException expected) {
+                // expected
+            }
+        }
+        try {
+            cursor.reset(ascii("-")).getDouble(0);
+            fail();
+        } catch (NumberFormatException expected) {
+            // expected
+        }
+    }
+
+}
@@ -0,0 +1,96 @@
+package kmw.utilities.core.strings;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static kmw.utilities.core.strings.RandomStrings.randomString;
+import static org.junit.Assert.*;
+
+public class RopeTest {
+
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz";
+
+    @Test
+    public void testRandomOperations() {
+        final Random random = new Random(7);
+        Rope rope = Rope.empty();
+        StringBuilder expected = new StringBuilder();
+        for (int step = 0; step < 2000; step++) {
+            final int op = random.nextInt(10);
+            if (op < 6) {
+                final String fragment = randomString(random, ALPHABET, random.nextInt(op == 0 ? 200 : 5));
+                rope = rope.concat(fragment);
+                expected.append(fragment);
+            } else if (op < 7 && expected.length() < 10_000) {
+                final int count = 1 + random.nextInt(3);
+                rope = rope.repeat(count);
+                expected = new StringBuilder(StringServiceUtil.repeat(expected.toString(), count));
+            } else if (op < 8 && expected.length() > 0) {
+                final int start = random.nextInt(expected.length());
+                final int end = start + random.nextInt(expected.length() - start + 1);
+                rope = rope.subSequence(start, end);
+                expected = new StringBuilder(expected.substring(start, end));
+            } else if (expected.length() > 0) {
+                final int index = random.nextInt(expected.length());
+                assertEquals(expected.charAt(index), rope.charAt(index));
+            }
+            assertEquals(expected.length(), rope.length());
+            assertTrue("depth " + rope.depth(), rope.depth() <= 64);
+        }
+        assertEquals(expected.toString(), rope.toString());
+    }
+
+    @Test(timeout = 10_000)
+    public void testAppendScaling() {
+        final String fragment = StringServiceUtil.repeat("0123456789", 10);
+        final int n = 200_000;
+        Rope appended = Rope.empty();
+        Rope prepended = Rope.empty();
+        for (int i = 0; i < n; i++) {
+            appended = appended.concat(fragment);
+            prepended = Rope.of(fragment).concat(prepended);
+        }
+        // an AVL tree of n leaves is at most 1.44 log2(n) high
+        final int maxDepth = (int) (1.45 * Math.log(n) / Math.log(2)) + 1;
+        assertTrue("depth " + appended.depth(), appended.depth() <= maxDepth);
+        assertTrue("depth " + prepended.depth(), prepended.depth() <= maxDepth);
+        assertEquals(n * fragment.length(), appended.length());
+        assertEquals('5', appended.charAt(n * fragment.length() / 2 + 5));
+        assertEquals(appended.toString(), prepended.toString());
+        final Rope both = appended.subSequence(1, 1001).concat(prepended);
+        assertTrue("depth " + both.depth(), both.depth() <= maxDepth + 1);
+        assertEquals("1234567890", both.subSequence(0, 10).toString());
+    }
+
+    @Test
+    public void testLazyRepeat() throws Exception {
+        final Rope rope = Rope.repeat("ab", 100_000_000).concat("!");
+        assertEquals(200_000_001, rope.length());
+        assertEquals('b', rope.charAt(199_999_999));
+        assertEquals("ab!", rope.subSequence(199_999_998, 200_000_001).toString());
+        assertEquals("babab", rope.subSequence(1_000_001, 1_000_006).toString());
+        final StringWriter writer = new StringWriter();
+        Rope.repeat("\u00e4\u20ac", 3).writeTo(writer);
+        assertEquals("\u00e4\u20ac\u00e4\u20ac\u00e4\u20ac", writer.toString());
+    }
+
+    @Test
+    public void testJoinAndWriteToChannel() throws Exception {
+        final Rope rope = Rope.join(", ", Arrays.asList("a", "\u00fc", "c"));
+        assertEquals("a, \u00fc, c", rope.toString());
+        assertSame(rope.toString(), rope.toString());
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (WritableByteChannel channel = Channels.newChannel(out)) {
+            rope.writeTo(channel, StandardCharsets.UTF_8);
+        }
+        assertEquals("a, \u00fc, c", new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+}
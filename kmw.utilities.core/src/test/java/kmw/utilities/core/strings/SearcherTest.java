@@ -0,0 +1,94 @@
+package kmw.utilities.core.strings;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static kmw.utilities.core.strings.RandomStrings.randomString;
+import static org.junit.Assert.*;
+
+public class SearcherTest {
+
+    @Test
+    public void testAgainstIndexOf() {
+        final Random random = new Random(11);
+        for (int round = 0; round < 2000; round++) {
+            final String alphabet = round % 3 == 0 ? "ab" : round % 3 == 1 ? "abc" : "a\u0161\u0100b";
+            final int m = 1 + random.nextInt(round % 2 == 0 ? 8 : 80);
+            final String needle = round % 5 == 0 ? periodic(random, alphabet, m) : randomString(random, alphabet, m);
+            final String text = random.nextBoolean()
+                    ? randomString(random, alphabet, random.nextInt(400))
+                    : periodic(random, alphabet, random.nextInt(400)) + needle;
+            final Searcher searcher = Searcher.compile(needle);
+            assertEquals(needle + " in " + text, text.indexOf(needle), searcher.indexIn(text));
+            assertEquals(expectedCount(text, needle), searcher.countIn(text));
+            final int from = random.nextInt(text.length() + 1);
+            assertEquals(text.indexOf(needle, from), searcher.indexIn(text, from));
+
+            final byte[] utf8 = ("#" + text).getBytes(StandardCharsets.UTF_8);
+            final byte[] utf8Needle = needle.getBytes(StandardCharsets.UTF_8);
+            final int expected = bruteForce(utf8, 1, utf8.length, utf8Needle);
+            assertEquals(expected, searcher.indexIn(utf8, 1, utf8.length - 1));
+            assertEquals(expected, Searcher.compile(utf8Needle).indexIn(utf8, 1, utf8.length - 1));
+        }
+    }
+
+    @Test
+    public void testFindAll() {
+        final Searcher searcher = Searcher.compile("aa");
+        assertArrayEquals(new int[]{0, 2}, searcher.findAll("aaaaa"));
+        assertEquals(2, StringServiceUtil.countMatches("aaaaa", searcher));
+        assertEquals(0, StringServiceUtil.countMatches(null, searcher));
+        final byte[] text = "xaaxaa".getBytes(StandardCharsets.US_ASCII);
+        assertArrayEquals(new int[]{4}, searcher.findAll(text, 2, 4));
+        assertEquals(2, searcher.countIn(text, 0, text.length));
+    }
+
+    @Test
+    public void testLongRepetitiveNeedle() {
+        final String needle = StringServiceUtil.repeat("a", 200) + "b";
+        final String text = StringServiceUtil.repeat("a", 1_000_000) + "b";
+        assertEquals(1_000_000 - 200, Searcher.compile(needle).indexIn(text));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testByteNeedleOnChars() {
+        Searcher.compile(new byte[]{1}).indexIn("x");
+    }
+
+    private static int expectedCount(final String text, final String needle) {
+        int count = 0;
+        for (int i = text.indexOf(needle); i >= 0; i = text.indexOf(needle, i + needle.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    private static int bruteForce(final byte[] text, final int from, final int end, final byte[] needle) {
+        outer:
+        for (int pos = from; pos <= end - needle.length; pos++) {
+            for (int i = 0; i < needle.length; i++) {
+                if (text[pos + i] != needle[i]) {
+                    continue outer;
+                }
+            }
+            return pos;
+        }
+        return -1;
+    }
+
+    private static String periodic(final Random random, final String alphabet, final int length) {
+        final String period = randomString(random, alphabet, 1 + random.nextInt(4));
+        final StringBuilder sb = new StringBuilder(length);
+        while (sb.length() < length) {
+            sb.append(period);
+        }
+        sb.setLength(length);
+        if (length > 0 && random.nextBoolean()) {
+            sb.setCharAt(random.nextInt(length), alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,95 @@
+package kmw.utilities.core.strings;
+
+import org.junit.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class StringConvertUtilTest {
+
+    private static final String MIXED = "a\u00e4\u20ac\ud83d\ude00z";
+
+    @Test
+    public void testFromByteBufferHonorsSlice() {
+        final ByteBuffer whole = ByteBuffer.wrap("xxhello worldyy".getBytes(StandardCharsets.US_ASCII));
+        whole.position(2);
+        final ByteBuffer slice = whole.slice();
+        slice.limit(11);
+        assertEquals("hello world", StringConvertUtil.fromByteBuffer(slice, StandardCharsets.US_ASCII));
+        slice.position(6);
+        assertEquals("world", StringConvertUtil.fromByteBuffer(slice, StandardCharsets.US_ASCII));
+        assertEquals(6, slice.position());
+
+        final ByteBuffer direct = ByteBuffer.allocateDirect(32);
+        direct.put(MIXED.getBytes(StandardCharsets.UTF_8)).flip();
+        assertEquals(MIXED, StringConvertUtil.fromByteBuffer(direct, StandardCharsets.UTF_8));
+        assertEquals(0, direct.position());
+    }
+
+    @Test
+    public void testToByteBufferOverflowLeavesTargetUnchanged() {
+        final Charset[] charsets = {StandardCharsets.UTF_8, StandardCharsets.UTF_16, StandardCharsets.ISO_8859_1};
+        for (final Charset charset : charsets) {
+            final byte[] expected = MIXED.getBytes(charset);
+            final ByteBuffer exact = ByteBuffer.allocate(expected.length + 1).position(1);
+            StringConvertUtil.toByteBuffer(MIXED, charset, exact);
+            assertEquals(expected.length + 1, exact.position());
+            final ByteBuffer large = ByteBuffer.allocate(100);
+            StringConvertUtil.toByteBuffer(MIXED, charset, large);
+            assertArrayEquals(expected, Arrays.copyOf(large.array(), large.position()));
+            final ByteBuffer small = ByteBuffer.allocate(expected.length).position(1);
+            try {
+                StringConvertUtil.toByteBuffer(MIXED, charset, small);
+                fail(charset.name());
+            } catch (BufferOverflowException expectedException) {
+                assertEquals(1, small.position());
+                assertArrayEquals(new byte[expected.length], small.array());
+            }
+        }
+    }
+
+    @Test
+    public void testToCharBuffer() {
+        assertEquals(MIXED, StringConvertUtil.toCharBuffer(MIXED, StandardCharsets.UTF_8).toString());
+        assertEquals("a???z", StringConvertUtil.toCharBuffer(MIXED, StandardCharsets.US_ASCII).toString());
+    }
+
+    @Test
+    public void testStreamingDecodeAcrossBufferBoundaries() {
+        final byte[] bytes = (MIXED + MIXED).getBytes(StandardCharsets.UTF_8);
+        final StreamingDecoder decoder = new StreamingDecoder(StandardCharsets.UTF_8, 3);
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < bytes.length; i++) {
+            final ByteBuffer direct = ByteBuffer.allocateDirect(1);
+            direct.put(bytes[i]).flip();
+            decoder.decode(direct, sb);
+            assertFalse(direct.hasRemaining());
+        }
+        decoder.finish(sb);
+        assertEquals(MIXED + MIXED, sb.toString());
+
+        sb.setLength(0);
+        decoder.reset().decode(ByteBuffer.wrap(bytes, 0, 2), sb);
+        decoder.finish(sb);
+        assertEquals("a\ufffd", sb.toString());
+    }
+
+    @Test
+    public void testStreamingEncodeSplitSurrogates() {
+        final StreamingEncoder encoder = new StreamingEncoder(StandardCharsets.UTF_8);
+        final ByteBuffer out = ByteBuffer.allocate(64);
+        for (int i = 0; i < MIXED.length(); i++) {
+            encoder.encode(CharBuffer.wrap(MIXED, i, i + 1), out);
+        }
+        encoder.finish(out);
+        out.flip();
+        assertEquals(MIXED, StringConvertUtil.fromByteBuffer(out, StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,112 @@
+package kmw.utilities.core.strings;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class StringInternerTest {
+
+    @Test
+    public void testLookupsShareInstances() {
+        final StringInterner interner = new StringInterner(64);
+        final String de = interner.intern(new String("DE"));
+        assertSame(de, interner.intern(new String("DE")));
+        assertSame(de, interner.intern("xDEx".toCharArray(), 1, 2));
+        assertSame(de, interner.intern("DE;AT".getBytes(StandardCharsets.US_ASCII), 0, 2));
+        final String umlaut = interner.intern("gr\u00fcn");
+        assertSame(umlaut, interner.intern("gr\u00fcn".getBytes(StandardCharsets.UTF_8), 0, 5));
+        assertEquals("", interner.intern(new char[0], 0, 0));
+        assertNull(interner.intern((String) null));
+        assertEquals(3, interner.missCount());
+        assertEquals(4, interner.hitCount());
+    }
+
+    @Test
+    public void testBounded() {
+        final StringInterner interner = new StringInterner(128);
+        for (int i = 0; i < 10_000; i++) {
+            interner.intern(Integer.toString(i));
+        }
+        assertEquals(128, interner.capacity());
+        assertTrue(interner.evictionCount() > 0);
+        final String hot = interner.intern("hot");
+        assertSame(hot, interner.intern(new String("hot")));
+    }
+
+    @Test
+    public void testEvictionKeepsNeighboursReachable() {
+        // a capacity of 1024 makes 64 stripes of 16 slots; find values of stripe 0 homed at slots 3 to 10, and one
+        // more homed at 3, whose window is then full
+        final String[] byHome = new String[11];
+        String evicting = null;
+        for (int i = 0, found = 0; evicting == null; i++) {
+            final String value = "v" + i;
+            final int h = spread(value.hashCode());
+            final int home = h & 15;
+            if (h >>> 26 != 0 || home < 3 || home > 10) {
+                continue;
+            }
+            if (byHome[home] == null) {
+                byHome[home] = value;
+                found++;
+            } else if (home == 3 && found == 8) {
+                evicting = value;
+            }
+        }
+        final StringInterner interner = new StringInterner(1024);
+        final String[] pooled = new String[byHome.length];
+        for (int home = 3; home <= 10; home++) {
+            pooled[home] = interner.intern(byHome[home]);
+        }
+        interner.intern(evicting);
+        assertEquals(1, interner.evictionCount());
+        // one value of the window was overwritten, the others must still be found
+        int hits = 0;
+        for (int home = 4; home <= 10; home++) {
+            if (interner.intern(new String(byHome[home])) == pooled[home]) {
+                hits++;
+            }
+        }
+        assertTrue(hits >= 6);
+    }
+
+    /**
+     * Mirrors the hash spreading of {@link StringInterner}.
+     */
+    private static int spread(final int hash) {
+        return (hash ^ (hash >>> 16)) * 0x9E3779B9;
+    }
+
+    @Test
+    public void testConcurrent() throws Exception {
+        final StringInterner interner = new StringInterner(1024);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final Set<Future<Boolean>> futures = new HashSet<>();
+        for (int t = 0; t < 4; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    final String value = "v" + (i % 100);
+                    if (!value.equals(interner.intern(value.toCharArray(), 0, value.length()))) {
+                        return false;
+                    }
+                }
+                return true;
+            }));
+        }
+        for (final Future<Boolean> future : futures) {
+            assertTrue(future.get());
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertTrue(interner.hitRate() > 0.99);
+    }
+
+}
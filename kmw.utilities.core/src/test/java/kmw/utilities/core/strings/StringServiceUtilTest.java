@@ -2,12 +2,18 @@ package kmw.utilities.core.strings;
 
 import static junit.framework.TestCase.*;
 
+import com.google.common.collect.Lists;
 import com.google.inject.Guice;
 import kmw.utilities.core.UtilitiesCoreModule;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 public class StringServiceUtilTest {
 
@@ -57,4 +63,130 @@ public class StringServiceUtilTest {
         assertEquals("123abc", StringServiceUtil.removeWhitespace(" 12\t3\na bc\r\n"));
     }
 
+    @Test
+    public void testRemoveAnyChar() {
+        assertEquals("bc", StringServiceUtil.removeAnyChar("abc\u00e4a", "a\u00e4"));
+        final String untouched = "bcd";
+        assertSame(untouched, StringServiceUtil.removeAnyChar(untouched, "a\u00e4"));
+        assertSame(untouched, StringServiceUtil.removeWhitespace(untouched));
+    }
+
+    @Test
+    public void testRemoveAnyCharSupplementary() {
+        // U+1F600 and U+1F601 share their high surrogate
+        final String grinning = "\uD83D\uDE00";
+        final String beaming = "\uD83D\uDE01";
+        assertEquals(beaming + "x", StringServiceUtil.removeAnyChar(grinning + beaming + "x", grinning));
+        assertEquals(beaming, StringServiceUtil.removeAnyChar(grinning + beaming + "x", grinning + "x"));
+        final String untouched = beaming + "x";
+        assertSame(untouched, StringServiceUtil.removeAnyChar(untouched, grinning));
+        assertEquals(beaming + "|", StringServiceUtil.removeAnyChar(new StringBuilder(), untouched, "x" + grinning)
+                .append('|').toString());
+    }
+
+    @Test
+    public void testNormalizeWhitespace() {
+        assertEquals(" a b c ", StringServiceUtil.normalizeWhitespace("\t a\r\nb c  "));
+        final String normalized = " a b c ";
+        assertSame(normalized, StringServiceUtil.normalizeWhitespace(normalized));
+    }
+
+    @Test
+    public void testStrip() {
+        assertEquals("a b", StringServiceUtil.strip(" \ta b\n"));
+        assertEquals("a b\n", StringServiceUtil.stripLeading(" \ta b\n"));
+        assertEquals(" \ta b", StringServiceUtil.stripTrailing(" \ta b\n"));
+        assertEquals("", StringServiceUtil.strip(" \t "));
+        assertEquals("", StringServiceUtil.strip(null));
+    }
+
+    @Test
+    public void testCharClass() {
+        final CharClass vowels = CharClass.anyOf("aeiou\u00e4");
+        assertEquals(3, vowels.countIn("b\u00e4nanas"));
+        assertEquals(1, vowels.indexIn("b\u00e4nanas"));
+        assertEquals(5, vowels.lastIndexIn("b\u00e4nanas"));
+        assertEquals("xyz", vowels.trimFrom("aexyzuu"));
+        assertTrue(vowels.negate().matches('b'));
+        assertFalse(vowels.negate().matches('\u00e4'));
+        assertTrue(vowels.or(CharClass.whitespace()).matches('\u2003'));
+    }
+
+    @Test
+    public void testCaseConversion() {
+        final String lower = "content-type";
+        assertSame(lower, StringServiceUtil.toLower(lower));
+        assertEquals("content-type", StringServiceUtil.toLower("Content-Type"));
+        assertEquals("CONTENT-TYPE", StringServiceUtil.toUpper("Content-Type"));
+        assertEquals("title", StringServiceUtil.toLower("TITLE"));
+        assertEquals("stra\u00dfe", StringServiceUtil.toLower("STRA\u00dfE"));
+        assertEquals("Hello  World\tAgain", StringServiceUtil.toProper("hello  WORLD\tagain"));
+        final String proper = "Hello World";
+        assertSame(proper, StringServiceUtil.toProper(proper));
+        assertEquals("", StringServiceUtil.toProper(null));
+    }
+
+    @Test
+    public void testIgnoreCase() {
+        assertTrue(CaseFoldUtil.equalsIgnoreCase("Content-Type", new StringBuilder("CONTENT-type")));
+        assertFalse(CaseFoldUtil.equalsIgnoreCase("Content-Type", "Content-Typo"));
+        assertTrue(CaseFoldUtil.equalsIgnoreCase("\u00c4rger", "\u00e4RGER"));
+        assertEquals(CaseFoldUtil.hashIgnoreCase("\u00c4rger"), CaseFoldUtil.hashIgnoreCase("\u00e4RGER"));
+        assertEquals("abc".hashCode(), CaseFoldUtil.hashIgnoreCase("ABC"));
+        final Map<CaseInsensitiveKey, Integer> map = new HashMap<>();
+        map.put(CaseInsensitiveKey.of("Accept"), 1);
+        assertEquals(Integer.valueOf(1), map.get(CaseInsensitiveKey.of("ACCEPT")));
+        assertEquals("Accept", map.keySet().iterator().next().toString());
+    }
+
+    @Test
+    public void testAppendTargets() throws Exception {
+        final StringBuilder sb = new StringBuilder("|");
+        StringServiceUtil.strip(sb, " \ta b\n").append('|');
+        StringServiceUtil.padStart(sb, "7", 3, '0').append('|');
+        StringServiceUtil.padEnd(sb, "ab", 4, '.').append('|');
+        StringServiceUtil.repeat(sb, "xy", 3).append('|');
+        StringServiceUtil.normalizeWhitespace(sb, "\t a\r\nb c  ").append('|');
+        StringServiceUtil.removeWhitespace(sb, " a b\tc ").append('|');
+        StringServiceUtil.removeAnyChar(sb, "banana", "an").append('|');
+        StringServiceUtil.commonPrefix(sb, "prefix", "preface").append('|');
+        StringServiceUtil.commonSuffix(sb, "running", "jumping").append('|');
+        StringServiceUtil.substringReverse(sb, "abcdef", 1, 3).append('|');
+        StringServiceUtil.getFileExt(sb, "report.csv").append('|');
+        StringServiceUtil.stripFileExt(sb, "report.csv").append('|');
+        StringServiceUtil.toLower(sb, "Content-Type").append('|');
+        StringServiceUtil.toProper(sb, "hello WORLD").append('|');
+        assertEquals("|a b|007|ab..|xyxyxy| a b c |abc|b|pref|ing|de|csv|report|content-type|Hello World|",
+                sb.toString());
+
+        final StringWriter writer = new StringWriter();
+        StringServiceUtil.stripTrailing(writer, null).append('|');
+        StringServiceUtil.toUpper(writer, "stra\u00dfe").append('|');
+        StringServiceUtil.normalizeWhitespace(writer, "a  b").append('|');
+        assertEquals("|STRASSE|a b|", writer.toString());
+    }
+
+    @Test
+    public void testRegexOverloads() {
+        assertEquals(Arrays.asList("a", "b", "", "c"), Lists.newArrayList(StringServiceUtil.split("a.b..c", "\\.")));
+        assertEquals(Arrays.asList("a", "b", "c"), Lists.newArrayList(StringServiceUtil.split("a1b22c", "\\d+")));
+        assertEquals(Arrays.asList("a", "b::c"), Lists.newArrayList(StringServiceUtil.split("a::b::c", "::", 2)));
+        assertEquals(2, StringServiceUtil.countMatches("aaaa", "aa"));
+        assertEquals(3, StringServiceUtil.countMatches("a1b22c333", "\\d+"));
+        assertEquals(3, StringServiceUtil.countMatches("a1b22c333", "[0-9]+"));
+        final long hits = PatternCache.stats().hitCount();
+        StringServiceUtil.countMatches("a1b22c333", "[0-9]+");
+        assertEquals(hits + 1, PatternCache.stats().hitCount());
+        assertEquals("a.b", PatternCache.literalOf("a\\.b"));
+        assertNull(PatternCache.literalOf("a\\db"));
+        assertNull(PatternCache.literalOf("a*"));
+        assertEquals(3, StringServiceUtil.lines("a\r\nb\nc").count());
+        try {
+            PatternCache.get("[");
+            fail();
+        } catch (PatternSyntaxException expected) {
+            // not wrapped by the cache
+        }
+    }
+
 }
@@ -0,0 +1,108 @@
+package kmw.utilities.core.strings;
+
+import kmw.utilities.core.arrays.StringArrayUtil;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.StringTokenizer;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static kmw.utilities.core.strings.RandomStrings.randomString;
+import static org.junit.Assert.*;
+
+public class TokenizerTest {
+
+    private static final String ALPHABET = "ab ,;\t";
+
+    @Test
+    public void testAgainstStringTokenizer() {
+        final Random random = new Random(29);
+        for (int round = 0; round < 2000; round++) {
+            final String text = randomString(random, ALPHABET, random.nextInt(40));
+            final boolean trim = random.nextBoolean();
+            final boolean ignoreEmpty = random.nextBoolean();
+            assertArrayEquals(text, legacyTokenize(text, ",;", trim, ignoreEmpty),
+                    StringArrayUtil.tokenize(text, ",;", trim, ignoreEmpty));
+        }
+        assertNull(StringArrayUtil.tokenize(null, ","));
+    }
+
+    @Test
+    public void testAgainstSplit() {
+        final Random random = new Random(31);
+        final Tokenizer tokenizer = Tokenizer.onAnyOf(",");
+        for (int round = 0; round < 2000; round++) {
+            final String text = randomString(random, ALPHABET, random.nextInt(40)).replace(';', ',');
+            final String[] expected = text.split(",", -1);
+            assertArrayEquals(text, expected, tokenizer.splitToArray(text));
+            assertEquals(expected.length, tokenizer.countTokens(text));
+            final List<String> trimmed = Arrays.stream(expected).map(String::trim).filter(s -> !s.isEmpty())
+                    .collect(Collectors.toList());
+            assertEquals(trimmed, tokenizer.trimResults().omitEmptyStrings().stream(text)
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void testLazyIteration() {
+        final Iterator<String> tokens = Tokenizer.on(CharClass.whitespace()).collapseDelimiters()
+                .split(" a  b\tc ").iterator();
+        assertEquals("a", tokens.next());
+        assertEquals("b", tokens.next());
+        assertEquals("c", tokens.next());
+        assertFalse(tokens.hasNext());
+        assertEquals(Collections.singletonList(""), toList(Tokenizer.onAnyOf(",").split("")));
+        assertEquals(0, Tokenizer.onAnyOf(",").collapseDelimiters().countTokens(""));
+    }
+
+    @Test
+    public void testParallel() {
+        final Random random = new Random(37);
+        final String text = randomString(random, ALPHABET, 200_000);
+        final Tokenizer tokenizer = Tokenizer.onAnyOf(",;").trimResults();
+        final List<String> sequential = tokenizer.stream(text).collect(Collectors.toList());
+        assertEquals(sequential, StreamSupport.stream(tokenizer.spliterator(text), true)
+                .collect(Collectors.toList()));
+        final Tokenizer collapsing = tokenizer.collapseDelimiters().omitEmptyStrings();
+        assertEquals(collapsing.stream(text).collect(Collectors.toList()),
+                StreamSupport.stream(collapsing.spliterator(text), true).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testCsvToSet() {
+        assertEquals(new TreeSet<>(Arrays.asList("", "a", "b")), StringArrayUtil.csvToSet("b,a,,b"));
+        assertEquals(new TreeSet<>(Arrays.asList("a", "")), StringArrayUtil.csvToSet("a,"));
+        assertTrue(StringArrayUtil.csvToSet("").isEmpty());
+        assertTrue(StringArrayUtil.csvToSet(null).isEmpty());
+    }
+
+    private static String[] legacyTokenize(final String str, final String delimiters, final boolean trimTokens,
+                                           final boolean ignoreEmptyTokens) {
+        final StringTokenizer st = new StringTokenizer(str, delimiters);
+        final List<String> tokens = new ArrayList<>();
+        while (st.hasMoreTokens()) {
+            String token = st.nextToken();
+            if (trimTokens) {
+                token = token.trim();
+            }
+            if (!ignoreEmptyTokens || token.length() > 0) {
+                tokens.add(token);
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    private static List<String> toList(final Iterable<String> tokens) {
+        final List<String> list = new ArrayList<>();
+        tokens.forEach(list::add);
+        return list;
+    }
+
+}
@@ -0,0 +1,47 @@
+package kmw.utilities.core.strings;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static kmw.utilities.core.strings.RandomStrings.randomUnicode;
+import static org.junit.Assert.*;
+
+public class Utf8UtilTest {
+
+    @Test
+    public void testRoundTripMatchesJdk() {
+        final Random random = new Random(42);
+        final byte[] bytes = new byte[1024];
+        final char[] chars = new char[1024];
+        for (int round = 0; round < 2000; round++) {
+            final String string = randomUnicode(random, random.nextInt(40));
+            final byte[] expected = string.getBytes(StandardCharsets.UTF_8);
+            assertEquals(expected.length, Utf8Util.utf8Length(string));
+            final int written = Utf8Util.encodeUtf8(string, bytes, 3);
+            assertArrayEquals(expected, java.util.Arrays.copyOfRange(bytes, 3, 3 + written));
+
+            final ByteBuffer direct = ByteBuffer.allocateDirect(expected.length);
+            assertEquals(expected.length, Utf8Util.encodeUtf8(string, direct));
+            assertFalse(direct.hasRemaining());
+
+            final int decoded = Utf8Util.decodeUtf8(expected, 0, expected.length, chars);
+            assertEquals(new String(expected, StandardCharsets.UTF_8), new String(chars, 0, decoded));
+        }
+    }
+
+    @Test
+    public void testDecodeMalformedMatchesJdk() {
+        final Random random = new Random(7);
+        final char[] chars = new char[64];
+        for (int round = 0; round < 5000; round++) {
+            final byte[] bytes = new byte[random.nextInt(20)];
+            random.nextBytes(bytes);
+            final int decoded = Utf8Util.decodeUtf8(bytes, 0, bytes.length, chars);
+            assertEquals(new String(bytes, StandardCharsets.UTF_8), new String(chars, 0, decoded));
+        }
+    }
+
+}
@@ -0,0 +1,74 @@
+package kmw.utilities.core.strings;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static kmw.utilities.core.strings.RandomStrings.randomString;
+import static org.junit.Assert.*;
+
+public class WhitespaceFilterTest {
+
+    private static final String ALPHABET = "ab \t\n\u2003";
+
+    private static final String SAMPLE = " \t lorem  ipsum\r\n\r\n dolor\u2003sit \u00e4met\n\n ";
+
+    @Test
+    public void testChunkBoundaries() throws Exception {
+        final Random random = new Random(3);
+        for (int round = 0; round < 200; round++) {
+            final String text = randomString(random, ALPHABET, random.nextInt(300));
+            assertEquals(StringServiceUtil.normalizeWhitespace(text),
+                    chunked(WhitespaceFilter.normalizing(), text, random));
+            assertEquals(StringServiceUtil.removeWhitespace(text), chunked(WhitespaceFilter.removing(), text, random));
+            assertEquals(StringServiceUtil.strip(text), chunked(WhitespaceFilter.stripping(), text, random));
+        }
+    }
+
+    @Test
+    public void testReaderWriter() throws Exception {
+        final StringWriter writer = new StringWriter();
+        final long written = StringServiceUtil.normalizeWhitespace(new StringReader(SAMPLE), writer);
+        assertEquals(StringServiceUtil.normalizeWhitespace(SAMPLE), writer.toString());
+        assertEquals(writer.toString().length(), written);
+
+        final StringWriter stripped = new StringWriter();
+        StringServiceUtil.strip(new StringReader(SAMPLE), stripped);
+        assertEquals(StringServiceUtil.strip(SAMPLE), stripped.toString());
+    }
+
+    @Test
+    public void testChannels() throws Exception {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            sb.append(SAMPLE).append("\ud83d\ude00");
+        }
+        final String text = sb.toString();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        WhitespaceFilter.removing().transfer(
+                Channels.newChannel(new java.io.ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))),
+                Channels.newChannel(bytes), StandardCharsets.UTF_8);
+        assertEquals(StringServiceUtil.removeWhitespace(text), new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    private static String chunked(final WhitespaceFilter filter, final String text, final Random random)
+            throws Exception {
+        final StringBuilder sb = new StringBuilder();
+        for (int pos = 0; pos < text.length(); ) {
+            final int end = Math.min(text.length(), pos + 1 + random.nextInt(8));
+            if (random.nextBoolean()) {
+                filter.filter(text.subSequence(pos, end), sb);
+            } else {
+                filter.filter(text.toCharArray(), pos, end - pos, sb);
+            }
+            pos = end;
+        }
+        return filter.finish(sb).toString();
+    }
+
+}